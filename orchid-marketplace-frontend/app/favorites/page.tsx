@@ -32,9 +32,9 @@ export default function FavoritesPage() {
 
   const fetchFavorites = async () => {
     try {
-      const data = await apiClient.getProducts({ limit: 100, offset: 0 })
+      const data = await apiClient.getProducts({ size: 12 })
       // TODO: Filter to only favorited products once favorites API is implemented
-      setFavorites(data.slice(0, 12))
+      setFavorites(data)
     } catch (error) {
       console.error('Error fetching favorites:', error)
       toast.error('Failed to load favorites')
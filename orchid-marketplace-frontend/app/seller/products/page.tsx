@@ -26,6 +26,8 @@ export default function SellerProductsPage() {
   const [filter, setFilter] = useState('all')
   const [searchQuery, setSearchQuery] = useState('')
   const [isLoading, setIsLoading] = useState(true)
+  const [nextCursor, setNextCursor] = useState<string | undefined>()
+  const [isLoadingMore, setIsLoadingMore] = useState(false)
   const [selectedProducts, setSelectedProducts] = useState<Set<string>>(new Set())
   const [showBulkActions, setShowBulkActions] = useState(false)
   const [deleteConfirmId, setDeleteConfirmId] = useState<string | null>(null)
@@ -38,9 +40,10 @@ export default function SellerProductsPage() {
   const fetchProducts = async () => {
     setIsLoading(true)
     try {
-      // Fetch products for the seller's store
-      const data = await apiClient.getProductsByStore(user?.storeId || '')
-      setProducts(data)
+      // Fetch the first page of the seller's store; later pages load on demand
+      const page = await apiClient.getProductsByStore(user?.storeId || '', { size: 100 })
+      setProducts(page.items)
+      setNextCursor(page.nextCursor)
     } catch (error) {
       console.error('Error fetching products:', error)
     } finally {
@@ -48,6 +51,20 @@ export default function SellerProductsPage() {
     }
   }
   
+  const loadMoreProducts = async () => {
+    if (!nextCursor) return
+    setIsLoadingMore(true)
+    try {
+      const page = await apiClient.getProductsByStore(user?.storeId || '', { size: 100, cursor: nextCursor })
+      setProducts(current => [...current, ...page.items])
+      setNextCursor(page.nextCursor)
+    } catch (error) {
+      console.error('Error fetching products:', error)
+    } finally {
+      setIsLoadingMore(false)
+    }
+  }
+  
   const filteredProducts = products.filter(product => {
     const matchesFilter = 
       filter === 'all' ||
@@ -338,6 +355,17 @@ export default function SellerProductsPage() {
               </tbody>
             </table>
           </div>
+          {nextCursor && (
+            <div className="p-6 text-center">
+              <button
+                onClick={loadMoreProducts}
+                disabled={isLoadingMore}
+                className="bg-deep-sage text-white py-2 px-6 rounded-full font-medium hover:bg-sage-green transition-all disabled:opacity-50"
+              >
+                {isLoadingMore ? 'Loading...' : 'Load more products'}
+              </button>
+            </div>
+          )}
         </div>
       ) : (
         <div className="bg-white rounded-xl p-12 text-center">
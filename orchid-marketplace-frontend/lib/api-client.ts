@@ -1,5 +1,9 @@
 import axios, { AxiosInstance } from "axios";
 
+// Largest page the listing endpoints return, and the page size asked for when none is given
+const LISTING_PAGE_SIZE = 100;
+const DEFAULT_LISTING_SIZE = 20;
+
 interface AuthTokens {
   accessToken: string;
   refreshToken?: string;
@@ -106,10 +110,17 @@ export class ApiClient {
     return response.data;
   }
 
+  // Listings return one bounded page, `size` rows (LISTING_PAGE_SIZE at most), and an
+  // X-Next-Cursor header when more follow; pass it back as `cursor` to read the next page
+  private async getListingPage(url: string, params: { size?: number; cursor?: string; [key: string]: any } = {}) {
+    const { size = DEFAULT_LISTING_SIZE, ...query } = params;
+    const response = await this.client.get(url, { params: { ...query, size: Math.min(size, LISTING_PAGE_SIZE) } });
+    return { items: response.data as any[], nextCursor: response.headers["x-next-cursor"] as string | undefined };
+  }
+
   // Product endpoints
-  async getProducts(params?: { limit?: number; offset?: number }) {
-    const response = await this.client.get("/products", { params });
-    return response.data;
+  async getProducts(params?: { size?: number; page?: number; cursor?: string; [key: string]: any }) {
+    return (await this.getListingPage("/products", params)).items;
   }
 
   async getProductById(productId: string) {
@@ -122,14 +133,12 @@ export class ApiClient {
     return response.data;
   }
 
-  async getProductsByStore(storeId: string) {
-    const response = await this.client.get(`/products/by-store/${storeId}`);
-    return response.data;
+  async getProductsByStore(storeId: string, params?: { size?: number; cursor?: string }) {
+    return this.getListingPage(`/products/by-store/${storeId}`, params);
   }
 
-  async getProductsByCategory(categoryId: string, params?: { limit?: number }) {
-    const response = await this.client.get(`/products/by-category/${categoryId}`, { params });
-    return response.data;
+  async getProductsByCategory(categoryId: string, params?: { size?: number; cursor?: string }) {
+    return (await this.getListingPage(`/products/by-category/${categoryId}`, params)).items;
   }
 
   async createProduct(data: any) {
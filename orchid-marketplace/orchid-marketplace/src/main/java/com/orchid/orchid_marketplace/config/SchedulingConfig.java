@@ -0,0 +1,12 @@
+package com.orchid.orchid_marketplace.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} maintenance jobs such as the review aggregate rebuild.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
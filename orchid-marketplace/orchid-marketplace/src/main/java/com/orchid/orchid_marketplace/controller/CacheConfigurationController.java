@@ -7,6 +7,7 @@ import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -25,6 +26,7 @@ import com.orchid.orchid_marketplace.service.CacheConfigurationService;
 @RestController
 @Profile("!cosmos")
 @RequestMapping("/api/cache-configurations")
+@PreAuthorize("hasRole('ADMIN')")
 public class CacheConfigurationController {
 
     @Autowired
@@ -57,6 +59,12 @@ public class CacheConfigurationController {
         return CacheConfigurationMapper.toResponse(updated);
     }
 
+    // Enables or disables a configuration; the runtime caches follow immediately
+    @PutMapping("/{id}/toggle")
+    public CacheConfigurationResponse toggle(@PathVariable UUID id) {
+        return CacheConfigurationMapper.toResponse(cacheService.toggleCacheConfigurationStatus(id));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable UUID id) {
         cacheService.deleteCacheConfiguration(id);
@@ -4,9 +4,9 @@ import org.springframework.context.annotation.Profile;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,12 +17,16 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.orchid.orchid_marketplace.dto.CategoryRequest;
 import com.orchid.orchid_marketplace.dto.CategoryResponse;
 import com.orchid.orchid_marketplace.mapper.CategoryMapper;
 import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.service.CatalogExportService;
 import com.orchid.orchid_marketplace.service.CategoryService;
+import com.orchid.orchid_marketplace.web.ConditionalGet;
 
 import jakarta.validation.Valid;
 
@@ -34,17 +38,24 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CatalogExportService catalogExportService;
+
     @GetMapping
     public List<CategoryResponse> listAll() {
-        return categoryService.getAllCategories()
-            .stream()
-            .map(CategoryMapper::toResponse)
-            .collect(Collectors.toList());
+        return categoryService.listCategories();
+    }
+
+    @GetMapping(value = "/export", produces = CatalogExportService.NDJSON)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = catalogExportService::exportCategories;
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(CatalogExportService.NDJSON)).body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryResponse> getById(@PathVariable UUID id) {
-        return categoryService.getCategoryById(id).map(CategoryMapper::toResponse).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<CategoryResponse> getById(@PathVariable UUID id, WebRequest request) {
+        return ConditionalGet.respond(request, categoryService.getCategoryVersion(id),
+            () -> categoryService.getCategoryResponse(id));
     }
 
     @PostMapping
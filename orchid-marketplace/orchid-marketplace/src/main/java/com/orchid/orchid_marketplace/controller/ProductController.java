@@ -2,11 +2,16 @@ package com.orchid.orchid_marketplace.controller;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,13 +23,24 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.orchid.orchid_marketplace.dto.CursorPage;
+import com.orchid.orchid_marketplace.dto.FacetedPage;
+import com.orchid.orchid_marketplace.dto.ProductBatchRequest;
+import com.orchid.orchid_marketplace.dto.ProductBatchResponse;
 import com.orchid.orchid_marketplace.dto.ProductRequest;
 import com.orchid.orchid_marketplace.dto.ProductResponse;
 import com.orchid.orchid_marketplace.dto.ProductSearchRequest;
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
+import com.orchid.orchid_marketplace.dto.SuggestionResponse;
 import com.orchid.orchid_marketplace.mapper.ProductMapper;
 import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.service.CatalogExportService;
+import com.orchid.orchid_marketplace.service.HotStockService;
 import com.orchid.orchid_marketplace.service.ProductService;
+import com.orchid.orchid_marketplace.web.ConditionalGet;
 
 import jakarta.validation.Valid;
 
@@ -33,22 +49,70 @@ import jakarta.validation.Valid;
 @Profile("!cosmos")
 public class ProductController {
 
+    // Cursor for the next page; pass it back as ?cursor= to continue
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    @Autowired
+    private HotStockService hotStockService;
+
     @GetMapping
-    public List<ProductResponse> listAll() {
-        return productService.getAllProducts().stream().map(ProductMapper::toResponse).toList();
+    public ResponseEntity<List<ProductResponse>> listAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        if (unpaged(cursor, page, size)) {
+            return ResponseEntity.ok(toResponses(productService.getAllProducts()));
+        }
+        return withNextCursor(productService.getProducts(cursor, page, size));
+    }
+
+    // Whole catalog as newline-delimited JSON, streamed while it is read
+    @GetMapping(value = "/export", produces = CatalogExportService.NDJSON)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = catalogExportService::exportProducts;
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(CatalogExportService.NDJSON)).body(body);
     }
 
+    // Conditional: a matching If-None-Match / If-Modified-Since gets a 304 without loading the product
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getById(@PathVariable UUID id) {
-        return productService.getProductById(id).map(ProductMapper::toResponse).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ProductResponse> getById(@PathVariable UUID id, WebRequest request) {
+        ResponseEntity<ProductResponse> response = ConditionalGet.respond(request,
+            productService.getProductVersion(id), () -> productService.getProductResponse(id));
+        if (response.getStatusCode() != HttpStatus.NOT_FOUND) {
+            productService.recordView(id);
+        }
+        return response;
+    }
+
+    // Product, primary image, shipping options and rating in one payload. The body is kept as
+    // serialized JSON and written as raw bytes; conditional like getById.
+    @GetMapping(value = "/{id}/detail", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getDetail(@PathVariable UUID id, WebRequest request) {
+        Optional<ResourceVersion> version = productService.getProductDetailVersion(id);
+        ResponseEntity<byte[]> response = ConditionalGet.respond(request, version,
+            () -> productService.getProductDetailJson(id, version.get()));
+        if (response.getStatusCode() != HttpStatus.NOT_FOUND) {
+            productService.recordView(id);
+        }
+        return response;
+    }
+
+    @GetMapping("/autocomplete")
+    public List<SuggestionResponse> autocomplete(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return productService.suggest(q, limit);
     }
 
     @GetMapping("/search-basic")
     public List<ProductResponse> search(@RequestParam String q) {
-        return productService.searchProducts(q).stream().map(ProductMapper::toResponse).toList();
+        return productService.searchProducts(q);
     }
     
     @GetMapping("/search")
@@ -58,28 +122,62 @@ public class ProductController {
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Product.ProductCondition condition,
+            @RequestParam(required = false, defaultValue = "false") Boolean fuzzy,
             @RequestParam(required = false, defaultValue = "newest") String sortBy,
             @RequestParam(required = false, defaultValue = "0") Integer page,
-            @RequestParam(required = false, defaultValue = "20") Integer size) {
+            @RequestParam(required = false, defaultValue = "20") Integer size,
+            @RequestParam(required = false) String cursor) {
         
         ProductSearchRequest request = new ProductSearchRequest(
-            keyword, categoryId, minPrice, maxPrice, minRating, sortBy, page, size
+            keyword, categoryId, minPrice, maxPrice, minRating, sortBy, page, ProductService.pageSize(size)
         );
+        request.setCondition(condition);
+        request.setFuzzy(fuzzy);
         
-        Page<Product> products = productService.searchProductsAdvanced(request);
-        Page<ProductResponse> response = products.map(ProductMapper::toResponse);
-        
-        return ResponseEntity.ok(response);
+        // Any cursor parameter, even empty, selects keyset paging; page is then ignored
+        if (cursor != null) {
+            CursorPage<ProductResponse> slice = productService.searchProductsAfter(request, cursor);
+            Page<ProductResponse> response = new FacetedPage<>(slice.getContent(), PageRequest.of(0, request.getSize()),
+                slice.getTotalElements(), slice.getFacets());
+            return slice.hasNext()
+                ? ResponseEntity.ok().header(NEXT_CURSOR_HEADER, slice.getNextCursor()).body(response)
+                : ResponseEntity.ok(response);
+        }
+
+        return ResponseEntity.ok(productService.searchProductsAdvanced(request));
     }
 
     @GetMapping("/by-store/{storeId}")
-    public List<ProductResponse> byStore(@PathVariable UUID storeId) {
-        return productService.getProductsByStoreId(storeId).stream().map(ProductMapper::toResponse).toList();
+    public ResponseEntity<List<ProductResponse>> byStore(
+            @PathVariable UUID storeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        if (unpaged(cursor, page, size)) {
+            return ResponseEntity.ok(toResponses(productService.getProductsByStoreId(storeId)));
+        }
+        return withNextCursor(productService.getProductsByStoreId(storeId, cursor, page, size));
     }
 
     @GetMapping("/by-category/{categoryId}")
-    public List<ProductResponse> byCategory(@PathVariable UUID categoryId) {
-        return productService.getProductsByCategoryId(categoryId).stream().map(ProductMapper::toResponse).toList();
+    public ResponseEntity<List<ProductResponse>> byCategory(
+            @PathVariable UUID categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        if (unpaged(cursor, page, size)) {
+            return ResponseEntity.ok(toResponses(productService.getProductsByCategoryId(categoryId)));
+        }
+        return withNextCursor(productService.getProductsByCategoryId(categoryId, cursor, page, size));
+    }
+
+    // Multi-get for carts, favorites and order pages: one query instead of one request per id
+    @PostMapping("/batch")
+    public ProductBatchResponse batch(@Valid @RequestBody ProductBatchRequest req) {
+        Map<UUID, Product> found = productService.getProductsByIds(req.getIds());
+        List<UUID> missing = req.getIds().stream().distinct().filter(id -> !found.containsKey(id)).toList();
+        return new ProductBatchResponse(found.values().stream().map(ProductMapper::toResponse).toList(), missing);
     }
 
     @PostMapping
@@ -104,4 +202,30 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Flash-sale mode for a product; other nodes pick it up on their next reconcile
+    @PutMapping("/{id}/hot-stock")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> setHotStock(@PathVariable UUID id, @RequestParam boolean enabled) {
+        hotStockService.setHot(id, enabled);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Clients that send no paging parameter still get the whole list, as before paging existed;
+    // any of cursor, page or size selects bounded pages
+    private static boolean unpaged(String cursor, Integer page, Integer size) {
+        return cursor == null && page == null && size == null;
+    }
+
+    private static List<ProductResponse> toResponses(List<Product> products) {
+        return products.stream().map(ProductMapper::toResponse).toList();
+    }
+
+    // List endpoints keep a plain array body; the next cursor travels in a header
+    private static ResponseEntity<List<ProductResponse>> withNextCursor(CursorPage<ProductResponse> page) {
+        List<ProductResponse> body = page.getContent();
+        return page.hasNext()
+            ? ResponseEntity.ok().header(NEXT_CURSOR_HEADER, page.getNextCursor()).body(body)
+            : ResponseEntity.ok(body);
+    }
 }
@@ -17,12 +17,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.orchid.orchid_marketplace.dto.ProductImageRequest;
 import com.orchid.orchid_marketplace.dto.ProductImageResponse;
 import com.orchid.orchid_marketplace.mapper.ProductImageMapper;
 import com.orchid.orchid_marketplace.model.ProductImage;
 import com.orchid.orchid_marketplace.service.ProductImageService;
+import com.orchid.orchid_marketplace.web.ConditionalGet;
 
 import jakarta.validation.Valid;
 
@@ -43,8 +45,9 @@ public class ProductImageController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductImageResponse> getById(@PathVariable UUID id) {
-        return productImageService.getProductImageById(id).map(ProductImageMapper::toResponse).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ProductImageResponse> getById(@PathVariable UUID id, WebRequest request) {
+        return ConditionalGet.respond(request, productImageService.getProductImageVersion(id),
+            () -> productImageService.getProductImageById(id).map(ProductImageMapper::toResponse));
     }
 
     @GetMapping("/by-product")
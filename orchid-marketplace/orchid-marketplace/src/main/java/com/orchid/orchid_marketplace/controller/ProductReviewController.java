@@ -76,6 +76,11 @@ public class ProductReviewController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/restore")
+    public ProductReviewResponse restore(@PathVariable UUID id) {
+        return ProductReviewMapper.toResponse(reviewService.restoreProductReview(id));
+    }
+
     @PutMapping("/{id}/seller-response")
     public ProductReviewResponse addSellerResponse(
         @PathVariable UUID id,
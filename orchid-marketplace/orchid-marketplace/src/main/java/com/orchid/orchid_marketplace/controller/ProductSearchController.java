@@ -37,6 +37,7 @@ public class ProductSearchController {
         @RequestParam(required = false) BigDecimal maxPrice,
         @RequestParam(required = false) Double minRating,
         @RequestParam(required = false) Boolean inStock,
+        @RequestParam(defaultValue = "false") boolean fuzzy,
         @RequestParam(defaultValue = "relevance") String sortBy,
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "20") int size
@@ -64,7 +65,7 @@ public class ProductSearchController {
         Pageable pageable = PageRequest.of(page, size, sort);
 
         Page<ProductSearchDTO> results = searchService.searchProducts(
-            q, category, minPrice, maxPrice, minRating, inStock, sortBy, pageable
+            q, category, minPrice, maxPrice, minRating, inStock, sortBy, fuzzy, pageable
         );
 
         return ResponseEntity.ok(results);
@@ -5,6 +5,7 @@ import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,12 +16,16 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.orchid.orchid_marketplace.dto.StoreRequest;
 import com.orchid.orchid_marketplace.dto.StoreResponse;
 import com.orchid.orchid_marketplace.mapper.StoreMapper;
 import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.service.CatalogExportService;
 import com.orchid.orchid_marketplace.service.StoreService;
+import com.orchid.orchid_marketplace.web.ConditionalGet;
 
 @RestController
 @RequestMapping("/api/stores")
@@ -30,17 +35,30 @@ public class StoreController {
     @Autowired
     private StoreService storeService;
 
+    @Autowired
+    private CatalogExportService catalogExportService;
+
     @GetMapping
     public List<StoreResponse> listAll() {
-        return storeService.getAllStores()
-            .stream()
-            .map(StoreMapper::toResponse)
-            .toList();
+        return storeService.listStores();
+    }
+
+    @GetMapping(value = "/export", produces = CatalogExportService.NDJSON)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = catalogExportService::exportStores;
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(CatalogExportService.NDJSON)).body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<StoreResponse> getById(@PathVariable UUID id) {
-        return storeService.getStoreById(id).map(StoreMapper::toResponse).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<StoreResponse> getById(@PathVariable UUID id, WebRequest request) {
+        return ConditionalGet.respond(request, storeService.getStoreVersion(id),
+            () -> storeService.getStoreResponse(id));
+    }
+
+    @GetMapping("/slug/{slug}")
+    public ResponseEntity<StoreResponse> getBySlug(@PathVariable String slug, WebRequest request) {
+        return ConditionalGet.respond(request, storeService.getStoreVersionBySlug(slug),
+            () -> storeService.getStoreResponseBySlug(slug));
     }
 
     @PostMapping
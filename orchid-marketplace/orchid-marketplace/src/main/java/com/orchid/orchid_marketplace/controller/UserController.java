@@ -55,7 +55,7 @@ public class UserController {
 
     @GetMapping("/{id}")
     public ResponseEntity<UserResponse> getById(@PathVariable UUID id) {
-        return userService.getUserById(id).map(UserMapper::toResponse).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        return userService.getUserResponse(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/register")
@@ -1,7 +1,9 @@
 package com.orchid.orchid_marketplace.dto;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 
 public class CacheConfigurationRequest {
     @NotBlank
@@ -9,7 +11,14 @@ public class CacheConfigurationRequest {
     @NotBlank
     private String cacheKeyPattern;
     @NotNull
+    @Min(1)
     private Integer cacheTtlSeconds;
+    @Pattern(regexp = "WRITE_THROUGH|WRITE_BEHIND|CACHE_ASIDE")
+    private String cacheStrategy;
+    private String invalidationPattern;
+    @Min(1)
+    private Integer maxEntries;
+    private Boolean isEnabled;
 
     public String getEntityType() { return entityType; }
     public void setEntityType(String entityType) { this.entityType = entityType; }
@@ -19,4 +28,16 @@ public class CacheConfigurationRequest {
 
     public Integer getCacheTtlSeconds() { return cacheTtlSeconds; }
     public void setCacheTtlSeconds(Integer cacheTtlSeconds) { this.cacheTtlSeconds = cacheTtlSeconds; }
+
+    public String getCacheStrategy() { return cacheStrategy; }
+    public void setCacheStrategy(String cacheStrategy) { this.cacheStrategy = cacheStrategy; }
+
+    public String getInvalidationPattern() { return invalidationPattern; }
+    public void setInvalidationPattern(String invalidationPattern) { this.invalidationPattern = invalidationPattern; }
+
+    public Integer getMaxEntries() { return maxEntries; }
+    public void setMaxEntries(Integer maxEntries) { this.maxEntries = maxEntries; }
+
+    public Boolean getIsEnabled() { return isEnabled; }
+    public void setIsEnabled(Boolean isEnabled) { this.isEnabled = isEnabled; }
 }
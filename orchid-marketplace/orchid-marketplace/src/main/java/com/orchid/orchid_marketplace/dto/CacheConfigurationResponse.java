@@ -1,6 +1,9 @@
 package com.orchid.orchid_marketplace.dto;
 
+import java.util.UUID;
+
 public class CacheConfigurationResponse {
+    private UUID id;
     private String entityType;
     private String cacheKeyPattern;
     private Integer cacheTtlSeconds;
@@ -9,6 +12,9 @@ public class CacheConfigurationResponse {
     private Boolean isEnabled;
     private Integer maxEntries;
 
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
     public String getEntityType() { return entityType; }
     public void setEntityType(String entityType) { this.entityType = entityType; }
 
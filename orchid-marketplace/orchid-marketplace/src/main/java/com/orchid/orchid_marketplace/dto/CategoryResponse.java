@@ -6,6 +6,14 @@ public class CategoryResponse {
     private UUID id;
     private String name;
 
+    public CategoryResponse() {}
+
+    // Constructor projection used by CategoryRepository.findAllResponses
+    public CategoryResponse(UUID id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
 
@@ -0,0 +1,51 @@
+package com.orchid.orchid_marketplace.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One keyset page: the rows plus the cursor for the next page, or null on the last page.
+ * totalElements is only known for index-backed searches and is null otherwise, and
+ * facets are only computed for the first page of a search.
+ */
+public class CursorPage<T> {
+    private final List<T> content;
+    private final String nextCursor;
+    private final Long totalElements;
+    private final SearchFacets facets;
+
+    public CursorPage(List<T> content, String nextCursor, Long totalElements) {
+        this(content, nextCursor, totalElements, null);
+    }
+
+    public CursorPage(List<T> content, String nextCursor, Long totalElements, SearchFacets facets) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+        this.facets = facets;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public SearchFacets getFacets() {
+        return facets;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(content.stream().<R>map(mapper).toList(), nextCursor, totalElements, facets);
+    }
+}
@@ -0,0 +1,30 @@
+package com.orchid.orchid_marketplace.dto;
+
+/**
+ * One facet value and how many products in the current result carry it.
+ * value is what the matching search parameter takes (category id, condition,
+ * "min-max" price range, minimum rating).
+ */
+public class FacetCount {
+
+    private String value;
+    private String label;
+    private long count;
+
+    public FacetCount() {}
+
+    public FacetCount(String value, String label, long count) {
+        this.value = value;
+        this.label = label;
+        this.count = count;
+    }
+
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+
+    public String getLabel() { return label; }
+    public void setLabel(String label) { this.label = label; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
@@ -0,0 +1,31 @@
+package com.orchid.orchid_marketplace.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A search results page that also carries the facet counts for the whole result.
+ * Serializes like any other page with an extra {@code facets} property.
+ */
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final SearchFacets facets;
+
+    public FacetedPage(List<T> content, Pageable pageable, long total, SearchFacets facets) {
+        super(content, pageable, total);
+        this.facets = facets;
+    }
+
+    public SearchFacets getFacets() {
+        return facets;
+    }
+
+    // Keeps the facets when the content is mapped to response DTOs
+    @Override
+    public <U> FacetedPage<U> map(Function<? super T, ? extends U> converter) {
+        return new FacetedPage<>(getContent().stream().<U>map(converter).toList(), getPageable(), getTotalElements(), facets);
+    }
+}
@@ -0,0 +1,18 @@
+package com.orchid.orchid_marketplace.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.orchid.orchid_marketplace.service.ProductService;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class ProductBatchRequest {
+    @NotNull
+    @Size(max = ProductService.MAX_BATCH_SIZE)
+    private List<UUID> ids;
+
+    public List<UUID> getIds() { return ids; }
+    public void setIds(List<UUID> ids) { this.ids = ids; }
+}
@@ -0,0 +1,23 @@
+package com.orchid.orchid_marketplace.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// Found products in request order, plus the requested ids that matched no active product
+public class ProductBatchResponse {
+    private List<ProductResponse> products;
+    private List<UUID> missing;
+
+    public ProductBatchResponse() {}
+
+    public ProductBatchResponse(List<ProductResponse> products, List<UUID> missing) {
+        this.products = products;
+        this.missing = missing;
+    }
+
+    public List<ProductResponse> getProducts() { return products; }
+    public void setProducts(List<ProductResponse> products) { this.products = products; }
+
+    public List<UUID> getMissing() { return missing; }
+    public void setMissing(List<UUID> missing) { this.missing = missing; }
+}
@@ -0,0 +1,30 @@
+package com.orchid.orchid_marketplace.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Everything the product page needs in one payload
+public class ProductDetailResponse {
+    private ProductResponse product;
+    private ProductImageResponse primaryImage;
+    private List<ShippingOptionResponse> shippingOptions;
+    private BigDecimal averageRating;
+    private long reviewCount;
+
+    public ProductDetailResponse() {}
+
+    public ProductResponse getProduct() { return product; }
+    public void setProduct(ProductResponse product) { this.product = product; }
+
+    public ProductImageResponse getPrimaryImage() { return primaryImage; }
+    public void setPrimaryImage(ProductImageResponse primaryImage) { this.primaryImage = primaryImage; }
+
+    public List<ShippingOptionResponse> getShippingOptions() { return shippingOptions; }
+    public void setShippingOptions(List<ShippingOptionResponse> shippingOptions) { this.shippingOptions = shippingOptions; }
+
+    public BigDecimal getAverageRating() { return averageRating; }
+    public void setAverageRating(BigDecimal averageRating) { this.averageRating = averageRating; }
+
+    public long getReviewCount() { return reviewCount; }
+    public void setReviewCount(long reviewCount) { this.reviewCount = reviewCount; }
+}
@@ -1,7 +1,11 @@
 package com.orchid.orchid_marketplace.dto;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class ProductResponse {
     private UUID id;
     private String title;
@@ -10,6 +14,23 @@ public class ProductResponse {
     private Integer stock;
     private UUID categoryId;
     private UUID storeId;
+    @JsonIgnore
+    private LocalDateTime createdAt; // keyset position for list cursors, not part of the payload
+
+    public ProductResponse() {}
+
+    // Constructor projection used by the read queries in ProductRepository
+    public ProductResponse(UUID id, String title, String description, BigDecimal price, Integer stock,
+                           UUID categoryId, UUID storeId, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.price = price != null ? price.doubleValue() : null;
+        this.stock = stock;
+        this.categoryId = categoryId;
+        this.storeId = storeId;
+        this.createdAt = createdAt;
+    }
 
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -31,4 +52,7 @@ public class ProductResponse {
 
     public UUID getStoreId() { return storeId; }
     public void setStoreId(UUID storeId) { this.storeId = storeId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
@@ -3,6 +3,8 @@ package com.orchid.orchid_marketplace.dto;
 import java.math.BigDecimal;
 import java.util.UUID;
 
+import com.orchid.orchid_marketplace.model.ReviewStats;
+
 public class ProductSearchDTO {
 
     private UUID id;
@@ -31,6 +33,16 @@ public class ProductSearchDTO {
         this.storeName = storeName;
     }
 
+    // Constructor projection used by ProductRepository.findSearchDTOsByIdIn; the average is
+    // derived from the review aggregate the same way as Product.calculateAverageRating()
+    public ProductSearchDTO(UUID id, String title, String description, BigDecimal price,
+                            String category, Integer stock, String storeName,
+                            long reviewCount, long ratingSum) {
+        this(id, title, description, price, category,
+            new ReviewStats(reviewCount, ratingSum, 0, 0, 0, 0, 0).getAverage(1).doubleValue(),
+            reviewCount, stock, storeName);
+    }
+
     // Getters and Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
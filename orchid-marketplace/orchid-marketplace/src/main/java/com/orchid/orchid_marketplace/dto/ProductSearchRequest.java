@@ -3,12 +3,16 @@ package com.orchid.orchid_marketplace.dto;
 import java.math.BigDecimal;
 import java.util.UUID;
 
+import com.orchid.orchid_marketplace.model.Product;
+
 public class ProductSearchRequest {
     private String keyword;
     private UUID categoryId;
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private Double minRating;
+    private Product.ProductCondition condition;
+    private Boolean fuzzy; // also match misspelled keywords
     private String sortBy; // "price_asc", "price_desc", "rating", "newest", "popular"
     private Integer page;
     private Integer size;
@@ -70,6 +74,22 @@ public class ProductSearchRequest {
         this.minRating = minRating;
     }
 
+    public Product.ProductCondition getCondition() {
+        return condition;
+    }
+
+    public void setCondition(Product.ProductCondition condition) {
+        this.condition = condition;
+    }
+
+    public Boolean getFuzzy() {
+        return fuzzy;
+    }
+
+    public void setFuzzy(Boolean fuzzy) {
+        this.fuzzy = fuzzy;
+    }
+
     public String getSortBy() {
         return sortBy;
     }
@@ -0,0 +1,63 @@
+package com.orchid.orchid_marketplace.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * What a conditional GET validates against, read without loading the entity: the row's
+ * {@code updatedAt} plus any response fields that are written by bulk updates, which do
+ * not touch {@code updatedAt}.
+ */
+public class ResourceVersion {
+    private final LocalDateTime updatedAt;
+    private final int revision;
+
+    // Constructor projection for rows whose response fields all change through entity saves
+    public ResourceVersion(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+        this.revision = 0;
+    }
+
+    // Constructor projection for stores, whose sales and rating are bulk-updated
+    public ResourceVersion(LocalDateTime updatedAt, Integer totalSales, BigDecimal averageRating) {
+        this.updatedAt = updatedAt;
+        this.revision = Objects.hash(totalSales, averageRating == null ? null : averageRating.stripTrailingZeros());
+    }
+
+    // Constructor projection for product details: the latest write to the product, its images or
+    // its shipping options, plus the bulk-updated review aggregates
+    public ResourceVersion(LocalDateTime updatedAt, LocalDateTime imagesUpdatedAt, LocalDateTime shippingUpdatedAt,
+                           Long reviewCount, Long ratingSum) {
+        this.updatedAt = latest(latest(updatedAt, imagesUpdatedAt), shippingUpdatedAt);
+        this.revision = Objects.hash(reviewCount, ratingSum);
+    }
+
+    // Version of a row that could not be read: no validators, so the body is always sent
+    public static ResourceVersion unvalidated() {
+        return new ResourceVersion(null);
+    }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    // Weak validator: equal for equal versions, not a digest of the serialized body; null without a timestamp
+    public String getETag() {
+        if (updatedAt == null) {
+            return null;
+        }
+        return "W/\"" + Long.toHexString(getLastModified()) + "-" + Integer.toHexString(revision) + "\"";
+    }
+
+    // Epoch millis of updatedAt in the server's zone, as written by Hibernate; -1 without a timestamp
+    public long getLastModified() {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null || b == null) {
+            return a == null ? b : a;
+        }
+        return a.isAfter(b) ? a : b;
+    }
+}
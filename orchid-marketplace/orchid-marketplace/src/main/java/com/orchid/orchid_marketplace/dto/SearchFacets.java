@@ -0,0 +1,37 @@
+package com.orchid.orchid_marketplace.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sidebar facet counts returned with a product search.
+ */
+public class SearchFacets {
+
+    private List<FacetCount> categories = new ArrayList<>();
+    private List<FacetCount> conditions = new ArrayList<>();
+    private List<FacetCount> priceRanges = new ArrayList<>();
+    private List<FacetCount> ratings = new ArrayList<>();
+
+    public SearchFacets() {}
+
+    public SearchFacets(List<FacetCount> categories, List<FacetCount> conditions,
+                        List<FacetCount> priceRanges, List<FacetCount> ratings) {
+        this.categories = categories;
+        this.conditions = conditions;
+        this.priceRanges = priceRanges;
+        this.ratings = ratings;
+    }
+
+    public List<FacetCount> getCategories() { return categories; }
+    public void setCategories(List<FacetCount> categories) { this.categories = categories; }
+
+    public List<FacetCount> getConditions() { return conditions; }
+    public void setConditions(List<FacetCount> conditions) { this.conditions = conditions; }
+
+    public List<FacetCount> getPriceRanges() { return priceRanges; }
+    public void setPriceRanges(List<FacetCount> priceRanges) { this.priceRanges = priceRanges; }
+
+    public List<FacetCount> getRatings() { return ratings; }
+    public void setRatings(List<FacetCount> ratings) { this.ratings = ratings; }
+}
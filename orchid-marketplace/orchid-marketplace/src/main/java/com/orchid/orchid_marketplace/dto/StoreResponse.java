@@ -16,6 +16,25 @@ public class StoreResponse {
     private BigDecimal averageRating;
     private Boolean isPublic;
 
+    public StoreResponse() {}
+
+    // Constructor projection used by StoreRepository.findAllResponses
+    public StoreResponse(UUID id, UUID sellerId, String storeName, String slug, String profileImageUrl,
+                         String bannerImageUrl, String aboutText, String returnPolicyText,
+                         Integer totalSales, BigDecimal averageRating, Boolean isPublic) {
+        this.id = id;
+        this.sellerId = sellerId;
+        this.storeName = storeName;
+        this.slug = slug;
+        this.profileImageUrl = profileImageUrl;
+        this.bannerImageUrl = bannerImageUrl;
+        this.aboutText = aboutText;
+        this.returnPolicyText = returnPolicyText;
+        this.totalSales = totalSales;
+        this.averageRating = averageRating;
+        this.isPublic = isPublic;
+    }
+
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
 
@@ -0,0 +1,27 @@
+package com.orchid.orchid_marketplace.dto;
+
+import java.util.UUID;
+
+public class SuggestionResponse {
+
+    private String type;
+    private String text;
+    private UUID id;
+
+    public SuggestionResponse() {}
+
+    public SuggestionResponse(String type, String text, UUID id) {
+        this.type = type;
+        this.text = text;
+        this.id = id;
+    }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+}
@@ -12,12 +12,18 @@ public final class CacheConfigurationMapper {
         c.setEntityType(req.getEntityType());
         c.setCacheKeyPattern(req.getCacheKeyPattern());
         c.setCacheTtlSeconds(req.getCacheTtlSeconds());
+        c.setCacheStrategy(req.getCacheStrategy());
+        c.setInvalidationPattern(req.getInvalidationPattern());
+        c.setMaxEntries(req.getMaxEntries());
+        // Left null so that an update without the flag keeps the current state
+        c.setIsEnabled(req.getIsEnabled());
         return c;
     }
 
     public static com.orchid.orchid_marketplace.dto.CacheConfigurationResponse toResponse(CacheConfiguration c) {
         if (c == null) return null;
         com.orchid.orchid_marketplace.dto.CacheConfigurationResponse r = new com.orchid.orchid_marketplace.dto.CacheConfigurationResponse();
+        r.setId(c.getId());
         r.setEntityType(c.getEntityType());
         r.setCacheKeyPattern(c.getCacheKeyPattern());
         r.setCacheTtlSeconds(c.getCacheTtlSeconds());
@@ -60,7 +60,7 @@ public final class CartMapper {
         if (item.getShippingOption() != null) {
             response.setShippingOptionId(item.getShippingOption().getId());
             response.setShippingMethod(item.getShippingOption().getCarrier());
-            response.setShippingCost(item.getShippingOption().getShippingCost());
+            response.setShippingCost(item.getShippingCost());
         }
         
         return response;
@@ -39,6 +39,10 @@ public class CartItem extends BaseEntity {
     @JoinColumn(name = "shipping_option_id")
     private ShippingOption shippingOption;
     
+    // Shipping charged when the option was chosen; the option's own cost may change afterwards
+    @Column(name = "shipping_cost", precision = 19, scale = 2)
+    private BigDecimal shippingCost;
+    
     // Getters and Setters
     public Cart getCart() {
         return cart;
@@ -87,4 +91,12 @@ public class CartItem extends BaseEntity {
     public void setShippingOption(ShippingOption shippingOption) {
         this.shippingOption = shippingOption;
     }
+    
+    public BigDecimal getShippingCost() {
+        return shippingCost;
+    }
+    
+    public void setShippingCost(BigDecimal shippingCost) {
+        this.shippingCost = shippingCost;
+    }
 }
@@ -3,8 +3,12 @@ package com.orchid.orchid_marketplace.model;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.orchid.orchid_marketplace.model.base.BaseEntity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -15,6 +19,8 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Category extends BaseEntity {
     
     @Column(nullable = false, unique = true)
@@ -33,6 +39,7 @@ public class Category extends BaseEntity {
     private Category parentCategory;
     
     @OneToMany(mappedBy = "parentCategory", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Category> subCategories = new HashSet<>();
     
     @OneToMany(mappedBy = "category", fetch = FetchType.LAZY)
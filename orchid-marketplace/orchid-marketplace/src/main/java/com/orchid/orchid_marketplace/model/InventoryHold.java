@@ -0,0 +1,82 @@
+package com.orchid.orchid_marketplace.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.orchid.orchid_marketplace.model.base.BaseEntity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * Stock taken by one line of an unpaid order. The units are already off the product's
+ * stock; the hold says whose they are and until when. Payment makes it permanent, and
+ * an expired hold is given back by the reaper in {@code InventoryHoldService}.
+ */
+@Entity
+@Table(name = "inventory_holds")
+public class InventoryHold extends BaseEntity {
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private Order order;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private HoldStatus status = HoldStatus.ACTIVE;
+    
+    public enum HoldStatus {
+        ACTIVE, CONVERTED, RELEASED
+    }
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Set by the statement that released the hold, so that run restores exactly what it claimed
+    @Column(name = "release_batch")
+    private UUID releaseBatch;
+    
+    // ========== Constructors ==========
+    
+    public InventoryHold() {}
+    
+    public InventoryHold(Order order, Product product, Integer quantity, LocalDateTime expiresAt) {
+        this.order = order;
+        this.product = product;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+    
+    // ========== Getters and Setters ==========
+    
+    public Order getOrder() { return order; }
+    public void setOrder(Order order) { this.order = order; }
+    
+    public Product getProduct() { return product; }
+    public void setProduct(Product product) { this.product = product; }
+    
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    
+    public HoldStatus getStatus() { return status; }
+    public void setStatus(HoldStatus status) { this.status = status; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    
+    public UUID getReleaseBatch() { return releaseBatch; }
+    public void setReleaseBatch(UUID releaseBatch) { this.releaseBatch = releaseBatch; }
+}
@@ -11,6 +11,7 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -36,9 +37,20 @@ public class Product extends BaseEntity {
     @Column(name = "stock_quantity")
     private Integer stockQuantity;
     
-    @Column(name = "sold_count")
+    // Counters maintained by WriteBehindCounters; never written by entity saves
+    @Column(name = "sold_count", updatable = false)
     private Integer soldCount = 0;
     
+    @Column(name = "favorite_count", nullable = false, updatable = false)
+    private long favoriteCount;
+    
+    @Column(name = "view_count", nullable = false, updatable = false)
+    private long viewCount;
+    
+    // Flash-sale mode: checkout reserves from HotStockService's per-node leases, set through it only
+    @Column(name = "hot_stock", nullable = false, updatable = false)
+    private boolean hotStock;
+    
     @Enumerated(EnumType.STRING)
     private ProductCondition condition;
     
@@ -104,6 +116,10 @@ public class Product extends BaseEntity {
     @Column(name = "cache_tags")
     private String cacheTags; // "product:store:{storeId},category:{categoryId}"
     
+    // Review aggregate, maintained incrementally by ReviewAggregateService
+    @Embedded
+    private ReviewStats reviewStats = new ReviewStats();
+    
     // Tags for Search
     @ElementCollection
     @CollectionTable(name = "product_tags", joinColumns = @JoinColumn(name = "product_id"))
@@ -142,6 +158,15 @@ public class Product extends BaseEntity {
     public Integer getSoldCount() { return soldCount; }
     public void setSoldCount(Integer soldCount) { this.soldCount = soldCount; }
     
+    public long getFavoriteCount() { return favoriteCount; }
+    public void setFavoriteCount(long favoriteCount) { this.favoriteCount = favoriteCount; }
+    
+    public long getViewCount() { return viewCount; }
+    public void setViewCount(long viewCount) { this.viewCount = viewCount; }
+    
+    public boolean isHotStock() { return hotStock; }
+    public void setHotStock(boolean hotStock) { this.hotStock = hotStock; }
+    
     public ProductCondition getCondition() { return condition; }
     public void setCondition(ProductCondition condition) { this.condition = condition; }
     
@@ -200,6 +225,9 @@ public class Product extends BaseEntity {
     public Set<String> getTags() { return tags; }
     public void setTags(Set<String> tags) { this.tags = tags; }
     
+    public ReviewStats getReviewStats() { return reviewStats != null ? reviewStats : new ReviewStats(); }
+    public void setReviewStats(ReviewStats reviewStats) { this.reviewStats = reviewStats; }
+    
     // ========== Helper Methods ==========
     
     public void addImage(ProductImage image) {
@@ -246,17 +274,9 @@ public class Product extends BaseEntity {
         }
     }
     
+    // Read from the maintained aggregate rather than the lazy review collection
     public BigDecimal calculateAverageRating() {
-        if (reviews == null || reviews.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        
-        double average = reviews.stream()
-            .mapToInt(ProductReview::getRating)
-            .average()
-            .orElse(0.0);
-        
-        return BigDecimal.valueOf(average).setScale(1, RoundingMode.HALF_UP);
+        return getReviewStats().getAverage(1);
     }
     
     public String getFormattedPrice() {
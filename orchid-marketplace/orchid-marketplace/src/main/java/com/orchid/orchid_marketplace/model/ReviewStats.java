@@ -0,0 +1,81 @@
+package com.orchid.orchid_marketplace.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Running review aggregate (count, rating sum and 1-5 star histogram) embedded in
+ * products and stores. The columns are not updatable through entity saves: they are
+ * only changed by the atomic increment queries issued by ReviewAggregateService, so a
+ * stale entity being saved can never overwrite a newer count.
+ */
+@Embeddable
+public class ReviewStats {
+
+    @Column(name = "review_count", nullable = false, updatable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false, updatable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_1_count", nullable = false, updatable = false)
+    private long oneStar;
+
+    @Column(name = "rating_2_count", nullable = false, updatable = false)
+    private long twoStar;
+
+    @Column(name = "rating_3_count", nullable = false, updatable = false)
+    private long threeStar;
+
+    @Column(name = "rating_4_count", nullable = false, updatable = false)
+    private long fourStar;
+
+    @Column(name = "rating_5_count", nullable = false, updatable = false)
+    private long fiveStar;
+
+    public ReviewStats() {}
+
+    public ReviewStats(long reviewCount, long ratingSum, long oneStar, long twoStar,
+                       long threeStar, long fourStar, long fiveStar) {
+        this.reviewCount = reviewCount;
+        this.ratingSum = ratingSum;
+        this.oneStar = oneStar;
+        this.twoStar = twoStar;
+        this.threeStar = threeStar;
+        this.fourStar = fourStar;
+        this.fiveStar = fiveStar;
+    }
+
+    public long getReviewCount() { return reviewCount; }
+    public long getRatingSum() { return ratingSum; }
+    public long getOneStar() { return oneStar; }
+    public long getTwoStar() { return twoStar; }
+    public long getThreeStar() { return threeStar; }
+    public long getFourStar() { return fourStar; }
+    public long getFiveStar() { return fiveStar; }
+
+    public long getStarCount(int rating) {
+        switch (rating) {
+            case 1: return oneStar;
+            case 2: return twoStar;
+            case 3: return threeStar;
+            case 4: return fourStar;
+            case 5: return fiveStar;
+            default: throw new IllegalArgumentException("rating must be between 1 and 5");
+        }
+    }
+
+    public double getAverage() {
+        return reviewCount > 0 ? (double) ratingSum / reviewCount : 0.0;
+    }
+
+    public BigDecimal getAverage(int scale) {
+        if (reviewCount == 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(ratingSum).divide(BigDecimal.valueOf(reviewCount), scale, RoundingMode.HALF_UP);
+    }
+}
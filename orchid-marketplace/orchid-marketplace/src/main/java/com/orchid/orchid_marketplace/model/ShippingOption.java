@@ -2,8 +2,12 @@ package com.orchid.orchid_marketplace.model;
 
 import java.math.BigDecimal;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.orchid.orchid_marketplace.model.base.BaseEntity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -13,6 +17,8 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "shipping_options")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ShippingOption extends BaseEntity {
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,14 +1,18 @@
 package com.orchid.orchid_marketplace.model;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.HashSet;
 import java.util.Set; // Added import
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.orchid.orchid_marketplace.model.base.BaseEntity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
@@ -19,6 +23,8 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "stores")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Store extends BaseEntity {
     
     // CRITICAL RELATIONSHIP: One Store to One User (Seller)
@@ -50,12 +56,17 @@ public class Store extends BaseEntity {
     private String returnPolicyText;
     
     // Stats & Status
-    @Column(name = "total_sales")
+    // Maintained by WriteBehindCounters; never written by entity saves
+    @Column(name = "total_sales", updatable = false)
     private Integer totalSales = 0;
     
-    @Column(name = "average_rating", precision = 3, scale = 2)
+    // Derived from reviewStats by ReviewAggregateService; never written by entity saves
+    @Column(name = "average_rating", precision = 3, scale = 2, updatable = false)
     private BigDecimal averageRating;
     
+    @Embedded
+    private ReviewStats reviewStats = new ReviewStats();
+    
     @Column(name = "is_public")
     private Boolean isPublic = true;
     
@@ -163,6 +174,14 @@ public class Store extends BaseEntity {
         this.averageRating = averageRating;
     }
     
+    public ReviewStats getReviewStats() {
+        return reviewStats != null ? reviewStats : new ReviewStats();
+    }
+    
+    public void setReviewStats(ReviewStats reviewStats) {
+        this.reviewStats = reviewStats;
+    }
+    
     public Boolean getIsPublic() {
         return isPublic;
     }
@@ -223,32 +242,9 @@ public class Store extends BaseEntity {
         orderItem.setStore(this);
     }
     
-    // FIXED: Business logic method to calculate average rating
+    // Average over every active review of the store's products, from the maintained aggregate
     public BigDecimal calculateAverageRating() {
-        if (products == null || products.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        
-        double sum = 0.0;
-        int reviewCount = 0;
-        
-        for (Product product : products) {
-            if (product.getReviews() != null) {
-                for (ProductReview review : product.getReviews()) {
-                    sum += review.getRating();
-                    reviewCount++;
-                }
-            }
-        }
-        
-        if (reviewCount == 0) {
-            return BigDecimal.ZERO;
-        }
-        
-        double average = sum / reviewCount;
-        
-        // Using RoundingMode.HALF_UP instead of BigDecimal.ROUND_HALF_UP
-        return BigDecimal.valueOf(average).setScale(2, RoundingMode.HALF_UP);
+        return getReviewStats().getAverage(2);
     }
     
     // Helper method to increment total sales
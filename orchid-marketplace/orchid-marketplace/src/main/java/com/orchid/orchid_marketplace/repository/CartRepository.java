@@ -4,10 +4,15 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.orchid.orchid_marketplace.model.Cart;
 
+import jakarta.persistence.LockModeType;
+
 /**
  * Repository for Cart entity operations.
  */
@@ -19,6 +24,29 @@ public interface CartRepository extends JpaRepository<Cart, UUID> {
      */
     Optional<Cart> findByUserId(UUID userId);
     
+    /**
+     * Find cart by user ID and lock its row until the transaction ends, so changes to one
+     * cart are applied one after another.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cart c WHERE c.user.id = :userId")
+    Optional<Cart> findAndLockByUserId(@Param("userId") UUID userId);
+    
+    /**
+     * Find cart by user ID with its items, their products and shipping options, in one query.
+     */
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.items i LEFT JOIN FETCH i.product "
+        + "LEFT JOIN FETCH i.shippingOption WHERE c.user.id = :userId")
+    Optional<Cart> findWithItemsByUserId(@Param("userId") UUID userId);
+    
+    /**
+     * Find cart by user ID with every item's product, the product's store and the selected
+     * shipping option, in one query.
+     */
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.items i LEFT JOIN FETCH i.product p "
+        + "LEFT JOIN FETCH p.store LEFT JOIN FETCH i.shippingOption WHERE c.user.id = :userId")
+    Optional<Cart> findForCheckoutByUserId(@Param("userId") UUID userId);
+    
     /**
      * Delete cart by user ID.
      */
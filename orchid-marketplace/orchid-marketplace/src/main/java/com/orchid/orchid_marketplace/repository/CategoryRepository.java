@@ -4,27 +4,48 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.orchid.orchid_marketplace.dto.CategoryResponse;
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
 import com.orchid.orchid_marketplace.model.Category;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
     
     Optional<Category> findByName(String name);
     boolean existsByName(String name);
     
+    // Read-side projection for the category list
+    @Query("SELECT new com.orchid.orchid_marketplace.dto.CategoryResponse(c.id, c.name) FROM Category c")
+    List<CategoryResponse> findAllResponses();
+    
+    // Validator for conditional GETs, read without loading the category
+    @Query("SELECT new com.orchid.orchid_marketplace.dto.ResourceVersion(c.updatedAt) FROM Category c WHERE c.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") UUID id);
+    
+    // Category tree lookups are served from the query cache until a category is written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findByParentCategoryIsNull();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findByParentCategoryId(UUID parentId);
+    
     List<Category> findByDisplayOrderGreaterThanEqual(Integer displayOrder);
     
     @Query("SELECT c FROM Category c WHERE c.isActive = true AND c.parentCategory IS NULL ORDER BY c.displayOrder ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findActiveRootCategories();
     
     @Query("SELECT c FROM Category c WHERE c.isActive = true AND (c.parentCategory IS NULL OR c.parentCategory.id = :parentId) ORDER BY c.displayOrder ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findActiveCategoriesByParent(@Param("parentId") UUID parentId);
     
     @Query("SELECT COUNT(p) FROM Category c JOIN c.products p WHERE c.id = :categoryId AND p.isActive = true")
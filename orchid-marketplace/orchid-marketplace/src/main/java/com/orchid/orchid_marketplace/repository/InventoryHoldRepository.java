@@ -0,0 +1,50 @@
+package com.orchid.orchid_marketplace.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.orchid.orchid_marketplace.model.InventoryHold;
+
+@Repository
+public interface InventoryHoldRepository extends JpaRepository<InventoryHold, UUID> {
+    
+    boolean existsByOrderId(UUID orderId);
+    
+    boolean existsByOrderIdAndStatus(UUID orderId, InventoryHold.HoldStatus status);
+    
+    List<InventoryHold> findByReleaseBatch(UUID releaseBatch);
+    
+    // Unpaid orders with an expired active hold, longest expired first
+    @Query("SELECT o.id FROM InventoryHold h JOIN h.order o WHERE h.status = ACTIVE AND h.expiresAt < :now "
+        + "AND o.status = PENDING GROUP BY o.id ORDER BY MIN(h.expiresAt)")
+    List<UUID> findOrdersWithExpiredHolds(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Claims the orders' expired holds for one reaper run; rows another node claimed first, and
+    // orders paid or cancelled meanwhile, no longer match
+    @Modifying
+    @Query("UPDATE InventoryHold h SET h.status = RELEASED, h.releaseBatch = :batch, h.updatedAt = :now "
+        + "WHERE h.order.id IN :orderIds AND h.status = ACTIVE AND h.expiresAt < :now "
+        + "AND h.order.id IN (SELECT o.id FROM Order o WHERE o.status = PENDING)")
+    int releaseExpired(@Param("orderIds") Collection<UUID> orderIds, @Param("batch") UUID batch, @Param("now") LocalDateTime now);
+    
+    // The cancelled order's holds in one status, so the caller knows whether they were paid for
+    @Modifying
+    @Query("UPDATE InventoryHold h SET h.status = RELEASED, h.releaseBatch = :batch, h.updatedAt = :now "
+        + "WHERE h.order.id = :orderId AND h.status = :status")
+    int releaseByOrder(@Param("orderId") UUID orderId, @Param("status") InventoryHold.HoldStatus status,
+                       @Param("batch") UUID batch, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE InventoryHold h SET h.status = CONVERTED, h.updatedAt = :now "
+        + "WHERE h.order.id = :orderId AND h.status = ACTIVE")
+    int convertByOrder(@Param("orderId") UUID orderId, @Param("now") LocalDateTime now);
+}
@@ -1,9 +1,11 @@
 package com.orchid.orchid_marketplace.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,4 +29,9 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, UUID> {
     
     @Query("SELECT SUM(oi.quantity) FROM OrderItem oi WHERE oi.product.id = :productId AND oi.isActive = true")
     Long sumQuantityByProductId(@Param("productId") UUID productId);
+    
+    @Modifying
+    @Query("UPDATE OrderItem oi SET oi.status = CANCELLED, oi.updatedAt = :now WHERE oi.status = PENDING "
+        + "AND oi.order.id IN (SELECT h.order.id FROM InventoryHold h WHERE h.releaseBatch = :batch)")
+    int cancelPendingByReleaseBatch(@Param("batch") UUID batch, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
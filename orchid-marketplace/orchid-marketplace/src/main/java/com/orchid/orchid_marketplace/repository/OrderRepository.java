@@ -1,10 +1,12 @@
 package com.orchid.orchid_marketplace.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,6 +18,10 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     
     Optional<Order> findByOrderNumber(String orderNumber);
     
+    // The order with its items in one query, for flows that update every item
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id = :orderId")
+    Optional<Order> findWithItemsById(@Param("orderId") UUID orderId);
+    
     List<Order> findByBuyerId(UUID buyerId);
     
     List<Order> findByStatus(Order.OrderStatus status);
@@ -34,4 +40,10 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     Optional<Order> findByStripePaymentIntentId(String stripePaymentIntentId);
     
     Optional<Order> findByStripeChargeId(String stripeChargeId);
+    
+    // Unpaid orders whose inventory holds were released under the batch
+    @Modifying
+    @Query("UPDATE Order o SET o.status = CANCELLED, o.updatedAt = :now WHERE o.status = PENDING "
+        + "AND o.id IN (SELECT h.order.id FROM InventoryHold h WHERE h.releaseBatch = :batch)")
+    int cancelPendingByReleaseBatch(@Param("batch") UUID batch, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
 import com.orchid.orchid_marketplace.model.ProductImage;
 
 @Repository
@@ -17,6 +18,10 @@ public interface ProductImageRepository extends JpaRepository<ProductImage, UUID
     List<ProductImage> findByProductId(UUID productId);
     List<ProductImage> findByProductIdOrderByDisplayOrderAsc(UUID productId);
     
+    // Validator for conditional GETs, read without loading the image
+    @Query("SELECT new com.orchid.orchid_marketplace.dto.ResourceVersion(pi.updatedAt) FROM ProductImage pi WHERE pi.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") UUID id);
+    
     @Query("SELECT pi FROM ProductImage pi WHERE pi.product.id = :productId AND pi.isActive = true ORDER BY pi.displayOrder ASC")
     List<ProductImage> findActiveByProduct(@Param("productId") UUID productId);
     
@@ -1,18 +1,27 @@
 package com.orchid.orchid_marketplace.repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.orchid.orchid_marketplace.dto.ProductResponse;
+import com.orchid.orchid_marketplace.dto.ProductSearchDTO;
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
 import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.ReviewStats;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductStockRepository {
     
     List<Product> findByStoreId(UUID storeId);
     List<Product> findByCategoryId(UUID categoryId);
@@ -21,9 +30,6 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.price BETWEEN :minPrice AND :maxPrice")
     List<Product> findByPriceRange(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice);
     
-    @Query("SELECT p FROM Product p WHERE p.isActive = true AND (LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    List<Product> searchByKeyword(@Param("keyword") String keyword);
-    
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.stockQuantity > 0")
     List<Product> findInStockProducts();
     
@@ -39,11 +45,142 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Query("SELECT p FROM Product p WHERE p.store.id = :storeId AND p.isActive = true ORDER BY p.soldCount DESC")
     List<Product> findTopSellingByStore(@Param("storeId") UUID storeId, org.springframework.data.domain.Pageable pageable);
     
-    @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.category.id = :categoryId ORDER BY p.createdAt DESC")
-    List<Product> findNewestByCategory(@Param("categoryId") UUID categoryId, org.springframework.data.domain.Pageable pageable);
+    @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.category.id IN :categoryIds ORDER BY p.createdAt DESC")
+    List<Product> findNewestByCategoryIdIn(@Param("categoryIds") Collection<UUID> categoryIds, org.springframework.data.domain.Pageable pageable);
     
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.weightLbs <= :maxWeight")
     List<Product> findByMaxWeight(@Param("maxWeight") BigDecimal maxWeight);
     
     long countByStoreIdAndIsActiveTrue(UUID storeId);
-}
\ No newline at end of file
+    
+    // Multi-get with category and store loaded in the same query
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.store WHERE p.id IN :ids")
+    List<Product> findAllWithCategoryAndStoreByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    // Read-side projections: exactly the columns of the response DTOs, in one statement and
+    // without managed entities. p.category.id and p.store.id read the foreign keys, no join.
+    String PRODUCT_RESPONSE = "SELECT new com.orchid.orchid_marketplace.dto.ProductResponse("
+        + "p.id, p.title, p.description, p.price, p.stockQuantity, p.category.id, p.store.id, p.createdAt) FROM Product p ";
+    
+    String PRODUCT_SEARCH_DTO = "SELECT new com.orchid.orchid_marketplace.dto.ProductSearchDTO("
+        + "p.id, p.title, p.description, p.price, COALESCE(c.name, 'Uncategorized'), p.stockQuantity, s.storeName, "
+        + "p.reviewStats.reviewCount, p.reviewStats.ratingSum) FROM Product p LEFT JOIN p.category c LEFT JOIN p.store s ";
+    
+    @Query(PRODUCT_RESPONSE + "WHERE p.isActive = true AND (LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    List<ProductResponse> searchResponsesByKeyword(@Param("keyword") String keyword);
+    
+    @Query(PRODUCT_RESPONSE + "WHERE p.id IN :ids")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    // Validator for conditional GETs, read without loading the product
+    @Query("SELECT new com.orchid.orchid_marketplace.dto.ResourceVersion(p.updatedAt) FROM Product p WHERE p.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") UUID id);
+    
+    // Validator for the detail payload, which also includes the images, shipping options and rating.
+    // Deletes of those are soft, so they move MAX(updatedAt) too.
+    @Query("SELECT new com.orchid.orchid_marketplace.dto.ResourceVersion(p.updatedAt, "
+        + "(SELECT MAX(i.updatedAt) FROM ProductImage i WHERE i.product = p), "
+        + "(SELECT MAX(s.updatedAt) FROM ShippingOption s WHERE s.product = p), "
+        + "p.reviewStats.reviewCount, p.reviewStats.ratingSum) FROM Product p WHERE p.id = :id")
+    Optional<ResourceVersion> findDetailVersionById(@Param("id") UUID id);
+    
+    @Query(PRODUCT_SEARCH_DTO + "WHERE p.id IN :ids")
+    List<ProductSearchDTO> findSearchDTOsByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    // Keyset listing, newest first with id as tie-breaker. The *After variants continue from the
+    // (createdAt, id) of the previous page's last row, so deep pages cost the same as the first.
+    @Query(PRODUCT_RESPONSE + "WHERE p.isActive = true ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductResponse> findNewestFirst(Pageable pageable);
+    
+    @Query(PRODUCT_RESPONSE + "WHERE p.isActive = true AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductResponse> findNewestFirstAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+    
+    @Query(PRODUCT_RESPONSE + "WHERE p.isActive = true AND p.store.id = :storeId ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductResponse> findNewestFirstByStore(@Param("storeId") UUID storeId, Pageable pageable);
+    
+    @Query(PRODUCT_RESPONSE + "WHERE p.isActive = true AND p.store.id = :storeId AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductResponse> findNewestFirstByStoreAfter(@Param("storeId") UUID storeId, @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+    
+    @Query(PRODUCT_RESPONSE + "WHERE p.isActive = true AND p.category.id = :categoryId ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductResponse> findNewestFirstByCategory(@Param("categoryId") UUID categoryId, Pageable pageable);
+    
+    @Query(PRODUCT_RESPONSE + "WHERE p.isActive = true AND p.category.id = :categoryId AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductResponse> findNewestFirstByCategoryAfter(@Param("categoryId") UUID categoryId, @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+    
+    @Query("SELECT p FROM Product p JOIN FETCH p.store WHERE p.id IN :ids")
+    List<Product> findAllWithStoreByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    // Search index rebuild pages, oldest first, keyset on (createdAt, id) like the listings above;
+    // the store and category every indexed product needs come with the page
+    @Query("SELECT p FROM Product p JOIN FETCH p.store LEFT JOIN FETCH p.category WHERE p.isActive = true ORDER BY p.createdAt, p.id")
+    List<Product> findForIndex(Pageable pageable);
+    
+    @Query("SELECT p FROM Product p JOIN FETCH p.store LEFT JOIN FETCH p.category WHERE p.isActive = true AND (p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id)) ORDER BY p.createdAt, p.id")
+    List<Product> findForIndexAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+    
+    // Initializes the tags of products already in the session with one query per batch
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.tags WHERE p.id IN :ids")
+    List<Product> fetchTagsByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    // ========== Stock ==========
+    
+    // Takes the units only while enough are left; 0 when the product is missing or short of stock
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.updatedAt = :now "
+        + "WHERE p.id = :productId AND p.stockQuantity >= :quantity")
+    int reserveStock(@Param("productId") UUID productId, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = COALESCE(p.stockQuantity, 0) + :quantity, p.updatedAt = :now "
+        + "WHERE p.id = :productId")
+    int releaseStock(@Param("productId") UUID productId, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+    
+    // Gives back every unit of the inventory holds released under the batch, one statement for all products
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = COALESCE(p.stockQuantity, 0) + "
+        + "(SELECT SUM(h.quantity) FROM InventoryHold h WHERE h.product.id = p.id AND h.releaseBatch = :batch), "
+        + "p.updatedAt = :now "
+        + "WHERE p.id IN (SELECT h.product.id FROM InventoryHold h WHERE h.releaseBatch = :batch)")
+    int releaseHeldStock(@Param("batch") UUID batch, @Param("now") LocalDateTime now);
+    
+    // Read past the entity caches, which may hold an older count
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :productId")
+    Integer findStockQuantityById(@Param("productId") UUID productId);
+    
+    @Query("SELECT p.id FROM Product p WHERE p.hotStock = true")
+    List<UUID> findHotStockIds();
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.hotStock = :hot, p.updatedAt = :now WHERE p.id = :productId")
+    int updateHotStock(@Param("productId") UUID productId, @Param("hot") boolean hot, @Param("now") LocalDateTime now);
+    
+    // ========== Review aggregates ==========
+    
+    @Query("SELECT p.reviewStats FROM Product p WHERE p.id = :productId")
+    Optional<ReviewStats> findReviewStatsById(@Param("productId") UUID productId);
+    
+    // Adds rating `added` and removes rating `removed` (0 means none) in a single atomic statement
+    @Modifying
+    @Query("UPDATE Product p SET "
+        + "p.reviewStats.reviewCount = p.reviewStats.reviewCount + CASE WHEN :added > 0 THEN 1 ELSE 0 END - CASE WHEN :removed > 0 THEN 1 ELSE 0 END, "
+        + "p.reviewStats.ratingSum = p.reviewStats.ratingSum + :added - :removed, "
+        + "p.reviewStats.oneStar = p.reviewStats.oneStar + CASE WHEN :added = 1 THEN 1 ELSE 0 END - CASE WHEN :removed = 1 THEN 1 ELSE 0 END, "
+        + "p.reviewStats.twoStar = p.reviewStats.twoStar + CASE WHEN :added = 2 THEN 1 ELSE 0 END - CASE WHEN :removed = 2 THEN 1 ELSE 0 END, "
+        + "p.reviewStats.threeStar = p.reviewStats.threeStar + CASE WHEN :added = 3 THEN 1 ELSE 0 END - CASE WHEN :removed = 3 THEN 1 ELSE 0 END, "
+        + "p.reviewStats.fourStar = p.reviewStats.fourStar + CASE WHEN :added = 4 THEN 1 ELSE 0 END - CASE WHEN :removed = 4 THEN 1 ELSE 0 END, "
+        + "p.reviewStats.fiveStar = p.reviewStats.fiveStar + CASE WHEN :added = 5 THEN 1 ELSE 0 END - CASE WHEN :removed = 5 THEN 1 ELSE 0 END "
+        + "WHERE p.id = :productId")
+    int applyReviewChange(@Param("productId") UUID productId, @Param("added") int added, @Param("removed") int removed);
+    
+    // Repair: recomputes every product's aggregate from its active reviews
+    @Modifying
+    @Query("UPDATE Product p SET "
+        + "p.reviewStats.reviewCount = (SELECT COUNT(r) FROM ProductReview r WHERE r.product = p AND r.isActive = true), "
+        + "p.reviewStats.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM ProductReview r WHERE r.product = p AND r.isActive = true), "
+        + "p.reviewStats.oneStar = (SELECT COUNT(r) FROM ProductReview r WHERE r.product = p AND r.isActive = true AND r.rating = 1), "
+        + "p.reviewStats.twoStar = (SELECT COUNT(r) FROM ProductReview r WHERE r.product = p AND r.isActive = true AND r.rating = 2), "
+        + "p.reviewStats.threeStar = (SELECT COUNT(r) FROM ProductReview r WHERE r.product = p AND r.isActive = true AND r.rating = 3), "
+        + "p.reviewStats.fourStar = (SELECT COUNT(r) FROM ProductReview r WHERE r.product = p AND r.isActive = true AND r.rating = 4), "
+        + "p.reviewStats.fiveStar = (SELECT COUNT(r) FROM ProductReview r WHERE r.product = p AND r.isActive = true AND r.rating = 5)")
+    int rebuildReviewStats();
+}
@@ -1,6 +1,7 @@
 package com.orchid.orchid_marketplace.repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -29,6 +30,10 @@ public interface ProductReviewRepository extends JpaRepository<ProductReview, UU
     @Query("SELECT COUNT(pr) FROM ProductReview pr WHERE pr.product.id = :productId AND pr.isActive = true")
     long countActiveReviewsByProduct(@Param("productId") UUID productId);
     
+    // Native so the soft-delete restriction does not hide the row; used to reactivate reviews
+    @Query(value = "SELECT * FROM product_reviews WHERE id = :id", nativeQuery = true)
+    Optional<ProductReview> findByIdIncludingInactive(@Param("id") UUID id);
+    
     @Query("SELECT pr FROM ProductReview pr WHERE pr.product.store.id = :storeId AND pr.isActive = true ORDER BY pr.createdAt DESC")
     List<ProductReview> findReviewsByStore(@Param("storeId") UUID storeId);
     
@@ -0,0 +1,17 @@
+package com.orchid.orchid_marketplace.repository;
+
+import java.time.LocalDateTime;
+import java.util.SortedMap;
+import java.util.UUID;
+
+/**
+ * Stock changes for every line of an order in one JDBC batch: a single round trip, with the
+ * rows still updated one by one in product id order, so checkouts sharing products lock them
+ * in the same order. Each returned count is 0 where that line's product was short or missing.
+ */
+public interface ProductStockRepository {
+
+    int[] reserveStockBatch(SortedMap<UUID, Integer> quantities, LocalDateTime now);
+
+    int[] releaseStockBatch(SortedMap<UUID, Integer> quantities, LocalDateTime now);
+}
@@ -0,0 +1,38 @@
+package com.orchid.orchid_marketplace.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Same conditions as ProductRepository's single-product reserveStock and releaseStock
+class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String RESERVE =
+        "UPDATE products SET stock_quantity = stock_quantity - ?, updated_at = ? WHERE id = ? AND stock_quantity >= ?";
+    private static final String RELEASE =
+        "UPDATE products SET stock_quantity = COALESCE(stock_quantity, 0) + ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ProductStockRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] reserveStockBatch(SortedMap<UUID, Integer> quantities, LocalDateTime now) {
+        List<Object[]> rows = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> rows.add(new Object[] {quantity, now, productId, quantity}));
+        return jdbcTemplate.batchUpdate(RESERVE, rows);
+    }
+
+    @Override
+    public int[] releaseStockBatch(SortedMap<UUID, Integer> quantities, LocalDateTime now) {
+        List<Object[]> rows = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> rows.add(new Object[] {quantity, now, productId}));
+        return jdbcTemplate.batchUpdate(RELEASE, rows);
+    }
+}
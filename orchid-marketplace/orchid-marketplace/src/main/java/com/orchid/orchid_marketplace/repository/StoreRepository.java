@@ -1,14 +1,18 @@
 package com.orchid.orchid_marketplace.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
+import com.orchid.orchid_marketplace.dto.StoreResponse;
 import com.orchid.orchid_marketplace.model.Store;
 
 @Repository
@@ -22,6 +26,31 @@ public interface StoreRepository extends JpaRepository<Store, UUID> {
     @Query("SELECT s FROM Store s WHERE s.seller.id = :sellerId")
     Optional<Store> findBySellerId(@Param("sellerId") UUID sellerId);
     
+    // Read-side projection for the store list; s.seller.id reads the foreign key
+    @Query("SELECT new com.orchid.orchid_marketplace.dto.StoreResponse(s.id, s.seller.id, s.storeName, s.slug, "
+        + "s.profileImageUrl, s.bannerImageUrl, s.aboutText, s.returnPolicyText, s.totalSales, s.averageRating, s.isPublic) "
+        + "FROM Store s")
+    List<StoreResponse> findAllResponses();
+    
+    // Validator for conditional GETs; sales and rating are bulk-updated, so they are part of it
+    @Query("SELECT new com.orchid.orchid_marketplace.dto.ResourceVersion(s.updatedAt, s.totalSales, s.averageRating) "
+        + "FROM Store s WHERE s.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") UUID id);
+    
+    @Query("SELECT new com.orchid.orchid_marketplace.dto.ResourceVersion(s.updatedAt, s.totalSales, s.averageRating) "
+        + "FROM Store s WHERE s.slug = :slug")
+    Optional<ResourceVersion> findVersionBySlug(@Param("slug") String slug);
+    
+    // Keys of the STORE cache entries to drop when the columns above are bulk-updated
+    @Query("SELECT s.slug FROM Store s WHERE s.id IN :ids AND s.slug IS NOT NULL")
+    List<String> findSlugsByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    @Query("SELECT p.store.id FROM Product p WHERE p.id = :productId")
+    Optional<UUID> findIdByProductId(@Param("productId") UUID productId);
+    
+    @Query("SELECT s.id FROM Store s")
+    List<UUID> findAllIds();
+    
     List<Store> findByIsPublicTrue();
     List<Store> findByIsPublicTrueAndIsActiveTrue();
     List<Store> findByIsActiveTrue();
@@ -41,4 +70,43 @@ public interface StoreRepository extends JpaRepository<Store, UUID> {
     // Calculate average rating by averaging review ratings across active products in the store
     @Query("SELECT AVG(r.rating) FROM Store s JOIN s.products p JOIN p.reviews r WHERE s.id = :storeId AND p.isActive = true")
     Double calculateStoreAverageRating(@Param("storeId") UUID storeId);
-}
\ No newline at end of file
+    
+    // ========== Review aggregates ==========
+    
+    // Same increment as ProductRepository.applyReviewChange, applied to the product's store
+    @Modifying
+    @Query("UPDATE Store s SET "
+        + "s.reviewStats.reviewCount = s.reviewStats.reviewCount + CASE WHEN :added > 0 THEN 1 ELSE 0 END - CASE WHEN :removed > 0 THEN 1 ELSE 0 END, "
+        + "s.reviewStats.ratingSum = s.reviewStats.ratingSum + :added - :removed, "
+        + "s.reviewStats.oneStar = s.reviewStats.oneStar + CASE WHEN :added = 1 THEN 1 ELSE 0 END - CASE WHEN :removed = 1 THEN 1 ELSE 0 END, "
+        + "s.reviewStats.twoStar = s.reviewStats.twoStar + CASE WHEN :added = 2 THEN 1 ELSE 0 END - CASE WHEN :removed = 2 THEN 1 ELSE 0 END, "
+        + "s.reviewStats.threeStar = s.reviewStats.threeStar + CASE WHEN :added = 3 THEN 1 ELSE 0 END - CASE WHEN :removed = 3 THEN 1 ELSE 0 END, "
+        + "s.reviewStats.fourStar = s.reviewStats.fourStar + CASE WHEN :added = 4 THEN 1 ELSE 0 END - CASE WHEN :removed = 4 THEN 1 ELSE 0 END, "
+        + "s.reviewStats.fiveStar = s.reviewStats.fiveStar + CASE WHEN :added = 5 THEN 1 ELSE 0 END - CASE WHEN :removed = 5 THEN 1 ELSE 0 END "
+        + "WHERE s.id = (SELECT p.store.id FROM Product p WHERE p.id = :productId)")
+    int applyReviewChange(@Param("productId") UUID productId, @Param("added") int added, @Param("removed") int removed);
+    
+    // Re-derives averageRating from the (already updated) aggregate of the product's store
+    @Modifying
+    @Query("UPDATE Store s SET s.averageRating = CASE WHEN s.reviewStats.reviewCount > 0 "
+        + "THEN ROUND(CAST(s.reviewStats.ratingSum AS BigDecimal) / s.reviewStats.reviewCount, 2) ELSE NULL END "
+        + "WHERE s.id = (SELECT p.store.id FROM Product p WHERE p.id = :productId)")
+    int refreshAverageRating(@Param("productId") UUID productId);
+    
+    // Repair: recomputes every store's aggregate from the active reviews of all its products, deactivated ones included
+    @Modifying
+    @Query("UPDATE Store s SET "
+        + "s.reviewStats.reviewCount = (SELECT COUNT(r) FROM ProductReview r WHERE r.product.store = s AND r.isActive = true), "
+        + "s.reviewStats.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM ProductReview r WHERE r.product.store = s AND r.isActive = true), "
+        + "s.reviewStats.oneStar = (SELECT COUNT(r) FROM ProductReview r WHERE r.product.store = s AND r.isActive = true AND r.rating = 1), "
+        + "s.reviewStats.twoStar = (SELECT COUNT(r) FROM ProductReview r WHERE r.product.store = s AND r.isActive = true AND r.rating = 2), "
+        + "s.reviewStats.threeStar = (SELECT COUNT(r) FROM ProductReview r WHERE r.product.store = s AND r.isActive = true AND r.rating = 3), "
+        + "s.reviewStats.fourStar = (SELECT COUNT(r) FROM ProductReview r WHERE r.product.store = s AND r.isActive = true AND r.rating = 4), "
+        + "s.reviewStats.fiveStar = (SELECT COUNT(r) FROM ProductReview r WHERE r.product.store = s AND r.isActive = true AND r.rating = 5)")
+    int rebuildReviewStats();
+    
+    @Modifying
+    @Query("UPDATE Store s SET s.averageRating = CASE WHEN s.reviewStats.reviewCount > 0 "
+        + "THEN ROUND(CAST(s.reviewStats.ratingSum AS BigDecimal) / s.reviewStats.reviewCount, 2) ELSE NULL END")
+    int refreshAllAverageRatings();
+}
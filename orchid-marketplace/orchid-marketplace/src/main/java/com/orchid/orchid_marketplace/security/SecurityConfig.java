@@ -46,9 +46,11 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.GET, "/api/**").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/stripe/webhook").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/products/batch").permitAll() // read-only multi-get
                 .requestMatchers(HttpMethod.POST, "/api/users/register").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/users/login").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                .requestMatchers("/actuator/cachestats/**", "/actuator/metrics/**").hasRole("ADMIN")
                 .requestMatchers("/actuator/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
                 .anyRequest().authenticated()
@@ -85,6 +87,11 @@ public class SecurityConfig {
             "X-Requested-With"
         ));
         
+        // Response headers readable by browser clients (keyset pagination)
+        configuration.setExposedHeaders(Arrays.asList(
+            "X-Next-Cursor"
+        ));
+        
         // HTTP methods allowed
         configuration.setAllowedMethods(Arrays.asList(
             "GET",
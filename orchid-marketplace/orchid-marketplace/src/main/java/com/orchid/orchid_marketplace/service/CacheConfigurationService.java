@@ -11,6 +11,7 @@ import org.springframework.context.annotation.Profile;
 
 import com.orchid.orchid_marketplace.model.CacheConfiguration;
 import com.orchid.orchid_marketplace.repository.CacheConfigurationRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
 
 @Service
 @Profile("!cosmos")
@@ -18,6 +19,9 @@ public class CacheConfigurationService {
     
     @Autowired
     private CacheConfigurationRepository cacheConfigurationRepository;
+
+    @Autowired
+    private EntityCacheRegistry entityCacheRegistry;
     
     // Get all cache configurations
     public List<CacheConfiguration> getAllCacheConfigurations() {
@@ -39,8 +43,12 @@ public class CacheConfigurationService {
     // Create a new cache configuration
     public CacheConfiguration createCacheConfiguration(CacheConfiguration cacheConfiguration) {
         Objects.requireNonNull(cacheConfiguration, "cacheConfiguration must not be null");
+        if (cacheConfiguration.getIsEnabled() == null) {
+            cacheConfiguration.setIsEnabled(true);
+        }
         @SuppressWarnings("null")
         CacheConfiguration saved = cacheConfigurationRepository.save(cacheConfiguration);
+        entityCacheRegistry.reload();
         return saved;
     }
     
@@ -70,8 +78,17 @@ public class CacheConfigurationService {
                     existingConfig.setIsEnabled(cacheConfigurationDetails.getIsEnabled());
                 }
 
+                if (cacheConfigurationDetails.getMaxEntries() != null) {
+                    existingConfig.setMaxEntries(cacheConfigurationDetails.getMaxEntries());
+                }
+
+                if (cacheConfigurationDetails.getInvalidationPattern() != null) {
+                    existingConfig.setInvalidationPattern(cacheConfigurationDetails.getInvalidationPattern());
+                }
+
                 @SuppressWarnings("null")
                 CacheConfiguration saved = cacheConfigurationRepository.save(existingConfig);
+                entityCacheRegistry.reload();
                 return saved;
             })
             .orElseThrow(() -> new RuntimeException("Cache configuration not found with ID: " + id));
@@ -85,6 +102,7 @@ public class CacheConfigurationService {
                 config -> {
                     config.softDelete();
                     cacheConfigurationRepository.save(config);
+                    entityCacheRegistry.reload();
                 },
                 () -> { throw new RuntimeException("Cache configuration not found with ID: " + id); }
             );
@@ -99,6 +117,7 @@ public class CacheConfigurationService {
                 config.setIsEnabled(!current);
                 @SuppressWarnings("null")
                 CacheConfiguration saved = cacheConfigurationRepository.save(config);
+                entityCacheRegistry.reload();
                 return saved;
             })
             .orElseThrow(() -> new RuntimeException("Cache configuration not found with ID: " + id));
@@ -0,0 +1,264 @@
+package com.orchid.orchid_marketplace.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
+
+/**
+ * Preloads the datasets every node is hit with right after a deploy: the category tree, the
+ * top-selling stores and their best sellers, and the newest arrivals under each root category.
+ * Runs as an {@link ApplicationRunner}, so the readiness state only turns to accepting traffic
+ * once it has finished or its time budget ({@code cache.warmup.budget-ms}) has run out.
+ *
+ * The regions are warmed in parallel; whatever is still loading at the deadline is cancelled
+ * and left to fill on demand. The outcome per region is logged and shown under
+ * {@code cacheWarmup} in {@code /actuator/info}.
+ */
+@Service
+@Profile("!cosmos")
+public class CacheWarmupService implements ApplicationRunner, InfoContributor {
+
+    public static final String CATEGORIES = "categories";
+    public static final String TOP_SELLERS = "top-sellers";
+    public static final String NEWEST_ARRIVALS = "newest-arrivals";
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmupService.class);
+
+    private final CategoryService categoryService;
+    private final StoreService storeService;
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final EntityCacheRegistry entityCacheRegistry;
+    private final boolean enabled;
+    private final Duration budget;
+    private final int topStores;
+    private final int productsPerList;
+
+    private volatile Map<String, RegionResult> lastRun = Map.of();
+
+    @Autowired
+    public CacheWarmupService(CategoryService categoryService,
+                              StoreService storeService,
+                              ProductService productService,
+                              ProductRepository productRepository,
+                              EntityCacheRegistry entityCacheRegistry,
+                              @Value("${cache.warmup.enabled:true}") boolean enabled,
+                              @Value("${cache.warmup.budget-ms:15000}") long budgetMs,
+                              @Value("${cache.warmup.top-stores:10}") int topStores,
+                              @Value("${cache.warmup.products-per-list:20}") int productsPerList) {
+        if (budgetMs <= 0) {
+            throw new IllegalArgumentException("cache.warmup.budget-ms must be positive");
+        }
+        if (topStores < 1 || productsPerList < 1) {
+            throw new IllegalArgumentException("cache.warmup.top-stores and products-per-list must be at least 1");
+        }
+        this.categoryService = categoryService;
+        this.storeService = storeService;
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.entityCacheRegistry = entityCacheRegistry;
+        this.enabled = enabled;
+        this.budget = Duration.ofMillis(budgetMs);
+        this.topStores = topStores;
+        this.productsPerList = productsPerList;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warm();
+        }
+    }
+
+    /**
+     * Warms every region in parallel, waiting at most the configured budget in total.
+     */
+    public Map<String, RegionResult> warm() {
+        Map<String, Callable<Integer>> regions = new LinkedHashMap<>();
+        regions.put(CATEGORIES, this::warmCategories);
+        regions.put(TOP_SELLERS, this::warmTopSellers);
+        regions.put(NEWEST_ARRIVALS, this::warmNewestArrivals);
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(regions.size(), task -> {
+            Thread thread = new Thread(task, "cache-warmup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        try {
+            Map<String, Future<RegionResult>> running = new LinkedHashMap<>();
+            regions.forEach((region, task) -> running.put(region, pool.submit(() -> timed(task))));
+
+            Map<String, RegionResult> results = new LinkedHashMap<>();
+            running.forEach((region, future) -> results.put(region, await(region, future, deadline, start)));
+            lastRun = Map.copyOf(results);
+            log.info("Cache warmup finished in {} ms: {}", elapsedMillis(start), results);
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public Map<String, RegionResult> getLastRun() {
+        return lastRun;
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        builder.withDetail("cacheWarmup", lastRun);
+    }
+
+    // Category tree: roots and their children, through the cached category queries
+    private int warmCategories() {
+        List<Category> roots = categoryService.getRootCategories();
+        int warmed = 0;
+        for (Category root : roots) {
+            categoryService.getCategoryResponse(root.getId());
+            warmed++;
+            for (Category child : categoryService.getActiveCategoriesByParent(root.getId())) {
+                categoryService.getCategoryResponse(child.getId());
+                warmed++;
+            }
+        }
+        return warmed;
+    }
+
+    private int warmTopSellers() {
+        int warmed = 0;
+        for (Store store : storeService.getTopSellingStores(topStores)) {
+            storeService.getStoreResponse(store.getId());
+            warmed++;
+            warmed += warmProducts(productRepository.findTopSellingByStore(store.getId(), PageRequest.of(0, productsPerList)));
+        }
+        return warmed;
+    }
+
+    // Products are filed under child categories too, so each root's list spans its children
+    private int warmNewestArrivals() {
+        int warmed = 0;
+        for (Category root : categoryService.getRootCategories()) {
+            List<UUID> categoryIds = new ArrayList<>();
+            categoryIds.add(root.getId());
+            for (Category child : categoryService.getActiveCategoriesByParent(root.getId())) {
+                categoryIds.add(child.getId());
+            }
+            warmed += warmProducts(productRepository.findNewestByCategoryIdIn(categoryIds, PageRequest.of(0, productsPerList)));
+        }
+        return warmed;
+    }
+
+    // Product details only have somewhere to go when a PRODUCT cache is configured
+    private int warmProducts(List<Product> products) {
+        if (entityCacheRegistry.getCache(EntityCacheRegistry.PRODUCT).isEmpty()) {
+            return 0;
+        }
+        int warmed = 0;
+        for (Product product : products) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            productService.getProductResponse(product.getId());
+            warmed++;
+        }
+        return warmed;
+    }
+
+    private static RegionResult timed(Callable<Integer> task) throws Exception {
+        long start = System.nanoTime();
+        int entries = task.call();
+        return new RegionResult(RegionResult.Status.WARMED, entries, elapsedMillis(start), null);
+    }
+
+    private static RegionResult await(String region, Future<RegionResult> future, long deadline, long start) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Cache warmup of {} did not finish within the budget", region);
+            return new RegionResult(RegionResult.Status.TIMED_OUT, 0, elapsedMillis(start), null);
+        } catch (ExecutionException e) {
+            log.warn("Cache warmup of {} failed", region, e.getCause());
+            return new RegionResult(RegionResult.Status.FAILED, 0, elapsedMillis(start), String.valueOf(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return new RegionResult(RegionResult.Status.TIMED_OUT, 0, elapsedMillis(start), null);
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Outcome of warming one region: how many entries were loaded and how long it took.
+     */
+    public static final class RegionResult {
+
+        public enum Status { WARMED, TIMED_OUT, FAILED }
+
+        private final Status status;
+        private final int entries;
+        private final long millis;
+        private final String error;
+
+        RegionResult(Status status, int entries, long millis, String error) {
+            this.status = status;
+            this.entries = entries;
+            this.millis = millis;
+            this.error = error;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return status + (status == Status.WARMED ? " " + entries + " entries" : "") + " in " + millis + " ms";
+        }
+    }
+}
@@ -1,11 +1,8 @@
 package com.orchid.orchid_marketplace.service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +24,8 @@ import com.orchid.orchid_marketplace.repository.UserRepository;
 /**
  * Service for managing shopping cart operations.
  * Handles cart creation, item management, and total calculations.
+ * Each change loads the cart with its items once, adjusts the totals by the lines it touches
+ * (see {@link CartTotals}) and writes the cart row once.
  */
 @Service
 @Profile("!cosmos")
@@ -47,7 +46,8 @@ public class CartService {
     @Autowired
     private UserRepository userRepository;
     
-    private static final BigDecimal TAX_RATE = new BigDecimal("0.08"); // 8% tax rate
+    @Autowired
+    private HotStockService hotStockService;
     
     /**
      * Get or create cart for a user.
@@ -90,23 +90,26 @@ public class CartService {
         Product product = productRepository.findById(productId)
             .orElseThrow(() -> new RuntimeException("Product not found"));
         
-        if (product.getStockQuantity() < quantity) {
+        if (!inStock(product, quantity)) {
             throw new RuntimeException("Insufficient stock. Available: " + product.getStockQuantity());
         }
         
         // Get or create cart
-        Cart cart = getOrCreateCart(userId);
+        Cart cart = loadCart(userId);
+        CartTotals totals = CartTotals.of(cart);
         
         // Check if product already in cart
-        Optional<CartItem> existingItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId);
+        CartItem cartItem = cart.getItems().stream()
+            .filter(item -> item.getProduct().getId().equals(productId))
+            .findFirst()
+            .orElse(null);
         
-        CartItem cartItem;
-        if (existingItem.isPresent()) {
+        if (cartItem != null) {
             // Update existing item quantity
-            cartItem = existingItem.get();
+            totals.remove(cartItem);
             int newQuantity = cartItem.getQuantity() + quantity;
             
-            if (product.getStockQuantity() < newQuantity) {
+            if (!inStock(product, newQuantity)) {
                 throw new RuntimeException("Insufficient stock for requested quantity");
             }
             
@@ -122,7 +125,7 @@ public class CartService {
         
         // Set price at time of adding
         cartItem.setUnitPrice(product.getPrice());
-        cartItem.setLineTotal(product.getPrice().multiply(new BigDecimal(cartItem.getQuantity())));
+        cartItem.setLineTotal(CartTotals.lineTotal(product.getPrice(), cartItem.getQuantity()));
         
         // Set shipping option if provided
         if (shippingOptionId != null) {
@@ -134,13 +137,12 @@ public class CartService {
                 throw new RuntimeException("Shipping option does not belong to this product");
             }
             
-            cartItem.setShippingOption(shippingOption);
+            CartTotals.chooseShipping(cartItem, shippingOption);
         }
         
-        cartItemRepository.save(cartItem);
-        
-        // Recalculate cart totals
-        return recalculateCart(cart);
+        // A new item is saved along with the cart
+        totals.add(cartItem);
+        return saveTotals(cart, totals);
     }
     
     /**
@@ -151,20 +153,15 @@ public class CartService {
         Objects.requireNonNull(userId, "userId must not be null");
         Objects.requireNonNull(cartItemId, "cartItemId must not be null");
         
-        Cart cart = getOrCreateCart(userId);
-        
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-            .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        
-        // Verify item belongs to user's cart
-        if (!cartItem.getCart().getId().equals(cart.getId())) {
-            throw new RuntimeException("Cart item does not belong to this cart");
-        }
+        Cart cart = loadCart(userId);
+        CartItem cartItem = findItem(cart, cartItemId);
         
+        CartTotals totals = CartTotals.of(cart);
+        totals.remove(cartItem);
         cart.getItems().remove(cartItem);
         cartItemRepository.delete(cartItem);
         
-        return recalculateCart(cart);
+        return saveTotals(cart, totals);
     }
     
     /**
@@ -184,27 +181,22 @@ public class CartService {
             return removeFromCart(userId, cartItemId);
         }
         
-        Cart cart = getOrCreateCart(userId);
-        
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-            .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        
-        // Verify item belongs to user's cart
-        if (!cartItem.getCart().getId().equals(cart.getId())) {
-            throw new RuntimeException("Cart item does not belong to this cart");
-        }
+        Cart cart = loadCart(userId);
+        CartItem cartItem = findItem(cart, cartItemId);
         
         // Verify stock availability
-        if (cartItem.getProduct().getStockQuantity() < newQuantity) {
+        if (!inStock(cartItem.getProduct(), newQuantity)) {
             throw new RuntimeException("Insufficient stock. Available: " + 
                 cartItem.getProduct().getStockQuantity());
         }
         
+        CartTotals totals = CartTotals.of(cart);
+        totals.remove(cartItem);
         cartItem.setQuantity(newQuantity);
-        cartItem.setLineTotal(cartItem.getUnitPrice().multiply(new BigDecimal(newQuantity)));
-        cartItemRepository.save(cartItem);
+        cartItem.setLineTotal(CartTotals.lineTotal(cartItem.getUnitPrice(), newQuantity));
+        totals.add(cartItem);
         
-        return recalculateCart(cart);
+        return saveTotals(cart, totals);
     }
     
     /**
@@ -215,16 +207,11 @@ public class CartService {
         Objects.requireNonNull(userId, "userId must not be null");
         Objects.requireNonNull(cartItemId, "cartItemId must not be null");
         
-        Cart cart = getOrCreateCart(userId);
-        
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-            .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        
-        // Verify item belongs to user's cart
-        if (!cartItem.getCart().getId().equals(cart.getId())) {
-            throw new RuntimeException("Cart item does not belong to this cart");
-        }
+        Cart cart = loadCart(userId);
+        CartItem cartItem = findItem(cart, cartItemId);
         
+        CartTotals totals = CartTotals.of(cart);
+        totals.remove(cartItem);
         if (shippingOptionId != null) {
             ShippingOption shippingOption = shippingOptionRepository.findById(shippingOptionId)
                 .orElseThrow(() -> new RuntimeException("Shipping option not found"));
@@ -234,33 +221,27 @@ public class CartService {
                 throw new RuntimeException("Shipping option does not belong to this product");
             }
             
-            cartItem.setShippingOption(shippingOption);
+            CartTotals.chooseShipping(cartItem, shippingOption);
         } else {
-            cartItem.setShippingOption(null);
+            CartTotals.chooseShipping(cartItem, null);
         }
+        totals.add(cartItem);
         
-        cartItemRepository.save(cartItem);
-        
-        return recalculateCart(cart);
+        return saveTotals(cart, totals);
     }
     
     /**
      * Clear all items from cart.
      */
     @Transactional
-    @SuppressWarnings("null")
     public Cart clearCart(UUID userId) {
         Objects.requireNonNull(userId, "userId must not be null");
         
-        Cart cart = getOrCreateCart(userId);
+        Cart cart = loadCart(userId);
+        // Orphan removal deletes the items in one batch when the transaction flushes
         cart.getItems().clear();
-        @SuppressWarnings("null")
-        List<CartItem> itemsToDelete = cartItemRepository.findAll().stream()
-            .filter(item -> item.getCart().getId().equals(cart.getId()))
-            .toList();
-        cartItemRepository.deleteAll(itemsToDelete);
         
-        return recalculateCart(cart);
+        return saveTotals(cart, CartTotals.empty());
     }
     
     /**
@@ -271,61 +252,83 @@ public class CartService {
         return getOrCreateCart(userId);
     }
     
+    // The user's cart with its items, or a new one that is saved with its first change. The
+    // totals are carried forward from the row, so it stays locked until the change commits.
+    private Cart loadCart(UUID userId) {
+        return cartRepository.findAndLockByUserId(userId)
+            .flatMap(locked -> cartRepository.findWithItemsByUserId(userId))
+            .orElseGet(() -> {
+                User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+                
+                Cart cart = new Cart();
+                cart.setUser(user);
+                return cart;
+            });
+    }
+    
+    // A hot product's row leaves out the units leased to nodes, so checkout's reservation decides
+    private boolean inStock(Product product, int quantity) {
+        return hotStockService.isHot(product.getId()) || product.getStockQuantity() >= quantity;
+    }
+    
+    private CartItem findItem(Cart cart, UUID cartItemId) {
+        // The cart's own items are already loaded, so only another cart's item takes a query
+        CartItem cartItem = cartItemRepository.findById(cartItemId)
+            .orElseThrow(() -> new RuntimeException("Cart item not found"));
+        
+        // Verify item belongs to user's cart; a cart not saved yet has no items
+        if (cart.getId() == null || !cartItem.getCart().getId().equals(cart.getId())) {
+            throw new RuntimeException("Cart item does not belong to this cart");
+        }
+        return cartItem;
+    }
+    
+    // A loaded cart is written once when the transaction commits; a new one is inserted with its items
+    private Cart saveTotals(Cart cart, CartTotals totals) {
+        totals.applyTo(cart);
+        return cart.getId() == null ? cartRepository.save(cart) : cart;
+    }
+    
     /**
-     * Recalculate cart totals (subtotal, tax, shipping, total).
+     * Get cart for checkout, with every item's product, store and shipping option loaded.
+     * The cart stays locked until the order is placed, so its lines and totals cannot change
+     * in between.
      */
     @Transactional
-    protected Cart recalculateCart(Cart cart) {
-        Objects.requireNonNull(cart, "cart must not be null");
-        
-        // Calculate subtotal (sum of all line totals)
-        BigDecimal subtotal = cart.getItems().stream()
-            .map(CartItem::getLineTotal)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Calculate shipping cost (sum of all shipping options)
-        BigDecimal shippingCost = cart.getItems().stream()
-            .map(item -> item.getShippingOption() != null 
-                ? item.getShippingOption().getShippingCost() 
-                : BigDecimal.ZERO)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Calculate tax (tax rate applied to subtotal)
-        BigDecimal tax = subtotal.multiply(TAX_RATE)
-            .setScale(2, RoundingMode.HALF_UP);
-        
-        // Calculate total
-        BigDecimal total = subtotal.add(tax).add(shippingCost);
-        
-        cart.setSubtotal(subtotal);
-        cart.setTax(tax);
-        cart.setShippingCost(shippingCost);
-        cart.setTotal(total);
-        cart.setLastUpdated(LocalDateTime.now());
-        
-        return cartRepository.save(cart);
+    public Cart getCartForCheckout(UUID userId) {
+        Objects.requireNonNull(userId, "userId must not be null");
+        return cartRepository.findAndLockByUserId(userId)
+            .flatMap(locked -> cartRepository.findForCheckoutByUserId(userId))
+            .orElseGet(() -> getOrCreateCart(userId));
     }
     
     /**
      * Validate cart before checkout.
      * Checks stock availability and shipping selections.
      */
-    @SuppressWarnings("null")
     public void validateCart(UUID userId) {
-        Cart cart = getCart(userId);
+        validateCart(getCart(userId));
+    }
+    
+    /**
+     * Validate an already loaded cart, using the products its items hold.
+     */
+    public void validateCart(Cart cart) {
+        Objects.requireNonNull(cart, "cart must not be null");
         
         if (cart.getItems().isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
         
         for (CartItem item : cart.getItems()) {
-            // Check stock availability
-            @SuppressWarnings("null")
-            UUID productId = item.getProduct().getId();
-            Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product no longer available"));
+            Product product = item.getProduct();
+            if (product == null || !Boolean.TRUE.equals(product.getIsActive())) {
+                throw new RuntimeException("Product no longer available");
+            }
             
-            if (product.getStockQuantity() < item.getQuantity()) {
+            // Check stock availability
+            if (!inStock(product, item.getQuantity())) {
                 throw new RuntimeException("Insufficient stock for " + product.getTitle() + 
                     ". Available: " + product.getStockQuantity());
             }
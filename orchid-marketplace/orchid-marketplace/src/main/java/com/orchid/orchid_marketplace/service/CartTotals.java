@@ -0,0 +1,103 @@
+package com.orchid.orchid_marketplace.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.orchid.orchid_marketplace.model.Cart;
+import com.orchid.orchid_marketplace.model.CartItem;
+import com.orchid.orchid_marketplace.model.ShippingOption;
+import com.orchid.orchid_marketplace.util.MoneyUtil;
+
+/**
+ * A cart's totals in cents, carried forward from the ones stored on the cart: each mutation
+ * removes the lines it changes and adds them back, instead of summing every line again, and
+ * tax is worked out once from the final subtotal.
+ */
+final class CartTotals {
+
+    private static final BigDecimal TAX_PERCENT = new BigDecimal("8"); // 8% tax rate
+
+    private long subtotalCents;
+    private long shippingCents;
+
+    private CartTotals(long subtotalCents, long shippingCents) {
+        this.subtotalCents = subtotalCents;
+        this.shippingCents = shippingCents;
+    }
+
+    static CartTotals of(Cart cart) {
+        return new CartTotals(MoneyUtil.dollarsToCents(cart.getSubtotal()),
+            MoneyUtil.dollarsToCents(cart.getShippingCost()));
+    }
+
+    static CartTotals empty() {
+        return new CartTotals(0L, 0L);
+    }
+
+    // Sums every line from scratch, which the running totals must always match
+    static CartTotals recompute(Cart cart) {
+        CartTotals totals = empty();
+        for (CartItem item : cart.getItems()) {
+            totals.add(item);
+        }
+        return totals;
+    }
+
+    /**
+     * Consistency check: throws if the totals stored on the cart differ from the ones its
+     * lines add up to.
+     */
+    static void verify(Cart cart) {
+        CartTotals expected = recompute(cart);
+        long tax = expected.taxCents();
+        if (MoneyUtil.dollarsToCents(cart.getSubtotal()) != expected.subtotalCents
+                || MoneyUtil.dollarsToCents(cart.getShippingCost()) != expected.shippingCents
+                || MoneyUtil.dollarsToCents(cart.getTax()) != tax
+                || MoneyUtil.dollarsToCents(cart.getTotal()) != expected.subtotalCents + tax + expected.shippingCents) {
+            throw new IllegalStateException("Cart totals " + cart.getSubtotal() + "/" + cart.getTax() + "/"
+                + cart.getShippingCost() + "/" + cart.getTotal() + " do not match its lines: "
+                + MoneyUtil.centsToDollars(expected.subtotalCents) + "/" + MoneyUtil.centsToDollars(tax) + "/"
+                + MoneyUtil.centsToDollars(expected.shippingCents) + "/"
+                + MoneyUtil.centsToDollars(expected.subtotalCents + tax + expected.shippingCents));
+        }
+    }
+
+    void add(CartItem item) {
+        subtotalCents += MoneyUtil.dollarsToCents(item.getLineTotal());
+        shippingCents += shippingCents(item);
+    }
+
+    void remove(CartItem item) {
+        subtotalCents -= MoneyUtil.dollarsToCents(item.getLineTotal());
+        shippingCents -= shippingCents(item);
+    }
+
+    void applyTo(Cart cart) {
+        long taxCents = taxCents();
+        cart.setSubtotal(MoneyUtil.centsToDollars(subtotalCents));
+        cart.setTax(MoneyUtil.centsToDollars(taxCents));
+        cart.setShippingCost(MoneyUtil.centsToDollars(shippingCents));
+        cart.setTotal(MoneyUtil.centsToDollars(subtotalCents + taxCents + shippingCents));
+        cart.setLastUpdated(LocalDateTime.now());
+    }
+
+    // Picks the line's shipping and records what it is charged for it
+    static void chooseShipping(CartItem item, ShippingOption option) {
+        item.setShippingOption(option);
+        item.setShippingCost(option != null ? option.getShippingCost() : null);
+    }
+
+    // Unit price times quantity, for a line's stored total
+    static BigDecimal lineTotal(BigDecimal unitPrice, int quantity) {
+        return MoneyUtil.centsToDollars(MoneyUtil.dollarsToCents(unitPrice) * quantity);
+    }
+
+    private long taxCents() {
+        return MoneyUtil.percentOfCents(subtotalCents, TAX_PERCENT);
+    }
+
+    // What the line was charged, like its stored line total, not the option's current cost
+    private static long shippingCents(CartItem item) {
+        return item.getShippingCost() != null ? MoneyUtil.dollarsToCents(item.getShippingCost()) : 0L;
+    }
+}
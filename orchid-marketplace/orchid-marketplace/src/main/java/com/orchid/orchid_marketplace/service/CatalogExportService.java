@@ -0,0 +1,101 @@
+package com.orchid.orchid_marketplace.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.orchid.orchid_marketplace.mapper.CategoryMapper;
+import com.orchid.orchid_marketplace.mapper.ProductMapper;
+import com.orchid.orchid_marketplace.mapper.StoreMapper;
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.Store;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Streams the catalog as newline-delimited JSON, one response object per line.
+ *
+ * Rows are read through a forward-only cursor in a read-only transaction and written as
+ * they arrive; every {@link #BATCH_SIZE} rows the output is flushed and the persistence
+ * context cleared, so memory use does not grow with the size of the catalog.
+ */
+@Service
+@Profile("!cosmos")
+public class CatalogExportService {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    static final int BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter writer;
+
+    public CatalogExportService(PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public long exportProducts(OutputStream out) {
+        return export("from Product p order by p.id", Product.class, ProductMapper::toResponse, out);
+    }
+
+    public long exportStores(OutputStream out) {
+        return export("from Store s order by s.id", Store.class, StoreMapper::toResponse, out);
+    }
+
+    public long exportCategories(OutputStream out) {
+        return export("from Category c order by c.id", Category.class, CategoryMapper::toResponse, out);
+    }
+
+    // Writes every row of the query to out and returns the number of lines written
+    private <E> long export(String hql, Class<E> type, Function<E, ?> mapper, OutputStream out) {
+        Objects.requireNonNull(out, "out must not be null");
+        Long written = transactionTemplate.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            long count = 0;
+            try (ScrollableResults<E> rows = session.createSelectionQuery(hql, type)
+                    .setFetchSize(BATCH_SIZE)
+                    .setReadOnly(true)
+                    .setCacheMode(CacheMode.IGNORE)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+                 JsonGenerator generator = writer.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                while (rows.next()) {
+                    writer.writeValue(generator, mapper.apply(rows.get()));
+                    generator.writeRaw('\n');
+                    if (++count % BATCH_SIZE == 0) {
+                        generator.flush();
+                        session.clear();
+                    }
+                }
+                generator.flush();
+            } catch (IOException e) {
+                // Usually the client went away; the read-only transaction just ends
+                throw new UncheckedIOException("Catalog export aborted after " + count + " rows", e);
+            }
+            return count;
+        });
+        return written != null ? written : 0;
+    }
+}
@@ -9,8 +9,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Profile;
 
+import com.orchid.orchid_marketplace.dto.CategoryResponse;
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
+import com.orchid.orchid_marketplace.mapper.CategoryMapper;
 import com.orchid.orchid_marketplace.model.Category;
 import com.orchid.orchid_marketplace.repository.CategoryRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
 
 @Service
 @Profile("!cosmos")
@@ -19,17 +23,44 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
     
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private EntityCacheRegistry entityCacheRegistry;
+    
     // Get all categories
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
     }
     
+    // Category list as response projections, read without loading entities
+    public List<CategoryResponse> listCategories() {
+        return categoryRepository.findAllResponses();
+    }
+    
     // Get category by ID
     public Optional<Category> getCategoryById(UUID id) {
         Objects.requireNonNull(id, "id must not be null");
         return categoryRepository.findById(id);
     }
     
+    // Category detail for the API, served from the CATEGORY cache when one is configured
+    public Optional<CategoryResponse> getCategoryResponse(UUID id) {
+        Objects.requireNonNull(id, "id must not be null");
+        return entityCacheRegistry.get(EntityCacheRegistry.CATEGORY, id, CategoryResponse.class,
+            () -> categoryRepository.findById(id).map(CategoryMapper::toResponse));
+    }
+    
+    // Validator for conditional GETs of the category; not read while the pool is saturated and the cache can answer
+    public Optional<ResourceVersion> getCategoryVersion(UUID id) {
+        Objects.requireNonNull(id, "id must not be null");
+        if (entityCacheRegistry.canServeWithoutDatabase(EntityCacheRegistry.CATEGORY, id)) {
+            return Optional.of(ResourceVersion.unvalidated());
+        }
+        return categoryRepository.findVersionById(id);
+    }
+    
     // Get category by name
     public Optional<Category> getCategoryByName(String name) {
         return categoryRepository.findByName(name);
@@ -93,6 +124,8 @@ public class CategoryService {
 
                 @SuppressWarnings("null")
                 Category saved = categoryRepository.save(existingCategory);
+                productSearchService.refreshCategory(saved);
+                entityCacheRegistry.evict(EntityCacheRegistry.CATEGORY, id);
                 return saved;
             })
             .orElseThrow(() -> new RuntimeException("Category not found with ID: " + id));
@@ -106,6 +139,8 @@ public class CategoryService {
                 category -> {
                     category.softDelete();
                     categoryRepository.save(category);
+                    productSearchService.refreshCategory(category);
+                    entityCacheRegistry.evict(EntityCacheRegistry.CATEGORY, id);
                 },
                 () -> { throw new RuntimeException("Category not found with ID: " + id); }
             );
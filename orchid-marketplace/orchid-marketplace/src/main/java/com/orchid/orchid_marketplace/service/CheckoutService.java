@@ -1,7 +1,15 @@
 package com.orchid.orchid_marketplace.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,10 +30,11 @@ import com.orchid.orchid_marketplace.repository.OrderItemRepository;
 import com.orchid.orchid_marketplace.repository.OrderRepository;
 import com.orchid.orchid_marketplace.repository.ProductRepository;
 import com.orchid.orchid_marketplace.repository.UserRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
 
 /**
  * Service for handling checkout flow.
- * Converts cart to order, reserves stock, and prepares for payment.
+ * Converts cart to order, reserves stock under time-limited inventory holds, and prepares for payment.
  */
 @Service
 @Profile("!cosmos")
@@ -49,6 +58,18 @@ public class CheckoutService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private EntityCacheRegistry entityCacheRegistry;
+
+    @Autowired
+    private InventoryHoldService inventoryHoldService;
+
+    @Autowired
+    private HotStockService hotStockService;
+
     @Autowired
     @SuppressWarnings("unused")
     private SellerLedgerService sellerLedgerService;
@@ -83,9 +104,9 @@ public class CheckoutService {
             throw new RuntimeException("Billing address does not belong to user");
         }
         
-        // Get and validate cart
-        Cart cart = cartService.getCart(userId);
-        cartService.validateCart(userId); // Validates stock, shipping options, etc.
+        // Get and validate cart; its items come with their products, stores and shipping options
+        Cart cart = cartService.getCartForCheckout(userId);
+        cartService.validateCart(cart); // Validates stock, shipping options, etc.
         
         // Create order
         Order order = new Order();
@@ -101,17 +122,17 @@ public class CheckoutService {
         
         Order savedOrder = orderRepository.save(order);
         
-        // Create order items and reserve stock
+        // Reserve stock for every line before creating the order items
+        SortedMap<UUID, Integer> quantities = new TreeMap<>();
         for (CartItem cartItem : cart.getItems()) {
-            // Validate stock one more time (race condition check)
-            @SuppressWarnings("null")
-            UUID productId = cartItem.getProduct().getId();
-            Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product no longer available"));
-            
-            if (product.getStockQuantity() < cartItem.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for " + product.getTitle());
-            }
+            addQuantity(quantities, cartItem.getProduct().getId(), cartItem.getQuantity());
+        }
+        reserveStock(quantities);
+        
+        // Create order items
+        List<OrderItem> orderItems = new ArrayList<>(cart.getItems().size());
+        for (CartItem cartItem : cart.getItems()) {
+            Product product = cartItem.getProduct();
             
             // Create order item
             OrderItem orderItem = new OrderItem();
@@ -123,17 +144,11 @@ public class CheckoutService {
             orderItem.setItemTotal(cartItem.getLineTotal());
             if (cartItem.getShippingOption() != null) {
                 orderItem.setSelectedShippingOption(cartItem.getShippingOption());
-                orderItem.setActualShippingCost(cartItem.getShippingOption().getShippingCost());
+                orderItem.setActualShippingCost(cartItem.getShippingCost());
             }
             orderItem.setStatus(OrderItem.OrderItemStatus.PENDING);
             orderItem.setCreatedAt(LocalDateTime.now());
-            
-            orderItemRepository.save(orderItem);
-            
-            // Decrement stock
-            product.setStockQuantity(product.getStockQuantity() - cartItem.getQuantity());
-            product.setUpdatedAt(LocalDateTime.now());
-            productRepository.save(product);
+            orderItems.add(orderItem);
             
             // Create pending seller ledger entry (will be settled after payment confirmation)
             // NOTE: Seller ledger integration is optional for MVP
@@ -141,6 +156,10 @@ public class CheckoutService {
             //     sellerLedgerService.createPendingLedgerEntry(...);
             // } catch (Exception e) { ... }
         }
+        // Inserted in JDBC batches rather than one statement per line
+        orderItemRepository.saveAll(orderItems);
+        // The stock stays taken until the order is paid or its holds expire
+        inventoryHoldService.place(savedOrder, orderItems);
         
         // Clear cart after successful order creation
         cartService.clearCart(userId);
@@ -159,7 +178,7 @@ public class CheckoutService {
             String guestEmail,
             GuestCheckoutRequest.AddressData shippingAddressData,
             GuestCheckoutRequest.AddressData billingAddressData,
-            java.util.List<GuestCheckoutRequest.CartItemData> cartItems) {
+            List<GuestCheckoutRequest.CartItemData> cartItems) {
         
         Objects.requireNonNull(guestEmail, "guestEmail must not be null");
         Objects.requireNonNull(shippingAddressData, "shippingAddressData must not be null");
@@ -228,15 +247,23 @@ public class CheckoutService {
         
         Order savedOrder = orderRepository.save(order);
         
-        // Convert cart items to order items
+        // Reserve stock for every line before creating the order items
+        SortedMap<UUID, Integer> quantities = new TreeMap<>();
         for (GuestCheckoutRequest.CartItemData cartItem : cartItems) {
-            UUID productId = UUID.fromString(cartItem.getProductId());
-            Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found: " + cartItem.getProductId()));
-            
-            // Check stock availability
-            if (product.getStockQuantity() < cartItem.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for " + product.getTitle());
+            addQuantity(quantities, UUID.fromString(cartItem.getProductId()), cartItem.getQuantity());
+        }
+        reserveStock(quantities);
+        
+        // Convert cart items to order items, loading every product with its store in one query
+        Map<UUID, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllWithStoreByIdIn(quantities.keySet())) {
+            products.put(product.getId(), product);
+        }
+        List<OrderItem> orderItems = new ArrayList<>(cartItems.size());
+        for (GuestCheckoutRequest.CartItemData cartItem : cartItems) {
+            Product product = products.get(UUID.fromString(cartItem.getProductId()));
+            if (product == null) {
+                throw new RuntimeException("Product not found: " + cartItem.getProductId());
             }
             
             // Create order item
@@ -250,14 +277,10 @@ public class CheckoutService {
                 .multiply(java.math.BigDecimal.valueOf(cartItem.getQuantity())));
             orderItem.setStatus(OrderItem.OrderItemStatus.PENDING);
             orderItem.setCreatedAt(LocalDateTime.now());
-            
-            orderItemRepository.save(orderItem);
-            
-            // Reserve stock
-            product.setStockQuantity(product.getStockQuantity() - cartItem.getQuantity());
-            product.setUpdatedAt(LocalDateTime.now());
-            productRepository.save(product);
+            orderItems.add(orderItem);
         }
+        orderItemRepository.saveAll(orderItems);
+        inventoryHoldService.place(savedOrder, orderItems);
         
         return savedOrder;
     }
@@ -269,23 +292,27 @@ public class CheckoutService {
     public Order confirmOrderPayment(UUID orderId) {
         Objects.requireNonNull(orderId, "orderId must not be null");
         
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
             .orElseThrow(() -> new RuntimeException("Order not found"));
         
         if (order.getStatus() == Order.OrderStatus.CANCELLED) {
             throw new RuntimeException("Cannot confirm payment for cancelled order");
         }
+        // The held stock becomes a permanent decrement, unless the reaper released it first;
+        // the lines are counted as sold only by the call that converts the holds
+        if (!inventoryHoldService.convert(order)) {
+            throw new RuntimeException("Cannot confirm payment for cancelled order");
+        }
         
         order.setStatus(Order.OrderStatus.PROCESSING);
         order.setUpdatedAt(LocalDateTime.now());
         
         Order savedOrder = orderRepository.save(order);
         
-        // Mark all order items as confirmed
+        // Mark all order items as confirmed, written in one batch
         for (OrderItem item : order.getOrderItems()) {
             item.setStatus(OrderItem.OrderItemStatus.PROCESSING);
             item.setUpdatedAt(LocalDateTime.now());
-            orderItemRepository.save(item);
             
             // Settle seller ledger entries for this order item
             // NOTE: Seller ledger integration is optional for MVP
@@ -293,6 +320,7 @@ public class CheckoutService {
             //     sellerLedgerService.settleOrderPayment(...);
             // } catch (Exception e) { ... }
         }
+        orderItemRepository.saveAll(order.getOrderItems());
         
         return savedOrder;
     }
@@ -304,7 +332,7 @@ public class CheckoutService {
     @Transactional    @SuppressWarnings("null")    public Order cancelOrder(UUID orderId, String reason) {
         Objects.requireNonNull(orderId, "orderId must not be null");
         
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
             .orElseThrow(() -> new RuntimeException("Order not found"));
         
         // Can only cancel pending or processing orders
@@ -320,20 +348,13 @@ public class CheckoutService {
         Order savedOrder = orderRepository.save(order);
         
         // Restore stock for all items
+        SortedMap<UUID, Integer> quantities = new TreeMap<>();
         for (OrderItem item : order.getOrderItems()) {
-            @SuppressWarnings("null")
-            UUID productId = item.getProduct().getId();
-            Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-            
-            product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
-            product.setUpdatedAt(LocalDateTime.now());
-            productRepository.save(product);
+            addQuantity(quantities, item.getProduct().getId(), item.getQuantity());
             
             // Mark order item as cancelled
             item.setStatus(OrderItem.OrderItemStatus.CANCELLED);
             item.setUpdatedAt(LocalDateTime.now());
-            orderItemRepository.save(item);
             
             // Reverse seller ledger entries
             // NOTE: Seller ledger integration is optional for MVP
@@ -341,6 +362,11 @@ public class CheckoutService {
             //     sellerLedgerService.reverseLedgerEntry(...);
             // } catch (Exception e) { ... }
         }
+        orderItemRepository.saveAll(order.getOrderItems());
+        // Orders placed before inventory holds existed give back their lines directly
+        if (!inventoryHoldService.releaseOrder(order)) {
+            releaseStock(quantities);
+        }
         
         return savedOrder;
     }
@@ -367,4 +393,70 @@ public class CheckoutService {
         if (order == null) return false;
         return order.getBuyer().getId().equals(userId);
     }
+    
+    private static void addQuantity(SortedMap<UUID, Integer> quantities, UUID productId, Integer quantity) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        if (quantity == null || quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+        quantities.merge(productId, quantity, Integer::sum);
+    }
+    
+    /**
+     * Takes the units of every line with conditional decrements that only succeed while enough
+     * stock is left, so two concurrent checkouts cannot both take the last units. Rows are
+     * updated in product id order, so checkouts sharing products lock them in the same order
+     * and cannot deadlock; a short line fails the checkout and rolls back the others.
+     * Lines for hot products are taken from this node's stock lease instead of their row; the
+     * other rows are updated in one JDBC batch.
+     */
+    private void reserveStock(SortedMap<UUID, Integer> quantities) {
+        SortedMap<UUID, Integer> rows = new TreeMap<>();
+        Set<UUID> leased = new HashSet<>();
+        quantities.forEach((productId, quantity) -> {
+            if (!hotStockService.isHot(productId)) {
+                rows.put(productId, quantity);
+            } else if (hotStockService.reserve(productId, quantity)) {
+                leased.add(productId);
+            } else {
+                throw insufficientStock(productId);
+            }
+        });
+        if (!rows.isEmpty()) {
+            int[] updated = productRepository.reserveStockBatch(rows, LocalDateTime.now());
+            int line = 0;
+            for (UUID productId : rows.keySet()) {
+                if (updated[line++] == 0) {
+                    throw insufficientStock(productId);
+                }
+            }
+        }
+        quantities.forEach((productId, quantity) -> {
+            productSearchService.adjustStock(productId, -quantity);
+            // A leased line leaves the product row, and so its cached copy, as it was
+            if (!leased.contains(productId)) {
+                entityCacheRegistry.evict(EntityCacheRegistry.PRODUCT, productId);
+            }
+        });
+    }
+    
+    // Increments rather than writes back a value read earlier, which would undo concurrent checkouts
+    private void releaseStock(SortedMap<UUID, Integer> quantities) {
+        int[] updated = productRepository.releaseStockBatch(quantities, LocalDateTime.now());
+        for (int count : updated) {
+            if (count == 0) {
+                throw new RuntimeException("Product not found");
+            }
+        }
+        quantities.forEach((productId, quantity) -> {
+            productSearchService.adjustStock(productId, quantity);
+            entityCacheRegistry.evict(EntityCacheRegistry.PRODUCT, productId);
+        });
+    }
+    
+    private RuntimeException insufficientStock(UUID productId) {
+        return new RuntimeException(productRepository.findById(productId)
+            .map(product -> "Insufficient stock for " + product.getTitle())
+            .orElse("Product no longer available"));
+    }
 }
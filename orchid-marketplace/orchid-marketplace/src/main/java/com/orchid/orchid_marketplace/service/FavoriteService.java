@@ -19,6 +19,7 @@ import com.orchid.orchid_marketplace.model.User;
 import com.orchid.orchid_marketplace.repository.FavoriteRepository;
 import com.orchid.orchid_marketplace.repository.ProductRepository;
 import com.orchid.orchid_marketplace.repository.UserRepository;
+import com.orchid.orchid_marketplace.service.cache.WriteBehindCounters;
 
 @Service
 @Profile("!cosmos")
@@ -33,6 +34,9 @@ public class FavoriteService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private WriteBehindCounters writeBehindCounters;
+    
     /**
      * Get all favorited products for a user
      */
@@ -70,6 +74,7 @@ public class FavoriteService {
         // Create and save favorite
         Favorite favorite = new Favorite(user, product);
         favoriteRepository.save(favorite);
+        writeBehindCounters.increment(WriteBehindCounters.Counter.PRODUCT_FAVORITES, productId, 1);
         
         return ProductMapper.toResponse(product);
     }
@@ -89,6 +94,7 @@ public class FavoriteService {
         }
         
         favoriteRepository.deleteById(id);
+        writeBehindCounters.increment(WriteBehindCounters.Counter.PRODUCT_FAVORITES, productId, -1);
     }
     
     /**
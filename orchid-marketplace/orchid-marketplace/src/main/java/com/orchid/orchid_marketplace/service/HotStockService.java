@@ -0,0 +1,225 @@
+package com.orchid.orchid_marketplace.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Opt-in stock handling for flash-sale products. Checkout reserves a hot product's units from
+ * this node's {@link StockLease} instead of decrementing the product row, so thousands of
+ * buyers of one product stop queueing on its row lock; the row is only updated when a lease
+ * takes another chunk or gives units back.
+ *
+ * Chunks are leased in their own transaction, so a checkout that rolls back cannot undo a
+ * lease the node goes on handing out; its own units are put back in the lease instead. Leases
+ * running below a quarter of a chunk are topped up every
+ * {@code inventory.hot-stock.top-up-interval-ms}, outside any checkout. A reservation that still
+ * finds its lease empty leases inline and holds a second pooled connection while it does, so the
+ * pool needs headroom above the checkouts it serves at once. The reconciler gives back leases
+ * idle for {@code inventory.hot-stock.lease-ttl-ms} and those of products no longer hot, and
+ * picks up products switched on or off by other nodes.
+ */
+@Service
+@Profile("!cosmos")
+public class HotStockService {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockService.class);
+
+    private final ProductRepository productRepository;
+    private final EntityCacheRegistry entityCacheRegistry;
+    private final TransactionTemplate leaseTransaction;
+    private final int leaseSize;
+    private final int lowWater;
+    private final Duration leaseTtl;
+    private final int stripes;
+    private final ConcurrentHashMap<UUID, StockLease> leases = new ConcurrentHashMap<>();
+    private final Set<UUID> hotProducts = ConcurrentHashMap.newKeySet();
+
+    public HotStockService(ProductRepository productRepository,
+                           EntityCacheRegistry entityCacheRegistry,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${inventory.hot-stock.lease-size:50}") int leaseSize,
+                           @Value("${inventory.hot-stock.lease-ttl-ms:30000}") long leaseTtlMs) {
+        if (leaseSize < 1) {
+            throw new IllegalArgumentException("inventory.hot-stock.lease-size must be at least 1");
+        }
+        if (leaseTtlMs < 0) {
+            throw new IllegalArgumentException("inventory.hot-stock.lease-ttl-ms must not be negative");
+        }
+        this.productRepository = productRepository;
+        this.entityCacheRegistry = entityCacheRegistry;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leaseSize = leaseSize;
+        this.lowWater = Math.max(1, leaseSize / 4);
+        this.leaseTtl = Duration.ofMillis(leaseTtlMs);
+        // A power of two, at least twice the number of cores
+        this.stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+    }
+
+    public boolean isHot(UUID productId) {
+        return hotProducts.contains(productId);
+    }
+
+    /**
+     * Takes the units from this node's lease of the product; they go back to the lease if the
+     * surrounding transaction rolls back. False when the lease and the product row together
+     * are short of stock.
+     */
+    public boolean reserve(UUID productId, int quantity) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        StockLease lease = leases.computeIfAbsent(productId, this::openLease);
+        if (!lease.reserve(quantity)) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        lease.restore(quantity);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    // The flag commits before the lease gives back, which updates the same row in its own transaction
+    public void setHot(UUID productId, boolean hot) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        Integer updated = leaseTransaction.execute(status ->
+            productRepository.updateHotStock(productId, hot, LocalDateTime.now()));
+        if (updated == null || updated == 0) {
+            throw new RuntimeException("Product not found");
+        }
+        entityCacheRegistry.evict(EntityCacheRegistry.PRODUCT, productId);
+        if (hot) {
+            hotProducts.add(productId);
+        } else {
+            hotProducts.remove(productId);
+            closeLease(productId);
+        }
+    }
+
+    // Units this node holds for the product, not counted in its stock column
+    public int leased(UUID productId) {
+        StockLease lease = leases.get(productId);
+        return lease == null ? 0 : lease.available();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hot-stock.top-up-interval-ms:500}")
+    public void topUp() {
+        leases.forEach((productId, lease) -> {
+            if (!hotProducts.contains(productId)) {
+                return;
+            }
+            try {
+                lease.topUp(lowWater);
+            } catch (RuntimeException e) {
+                log.warn("Could not top up the stock leased for product {}: {}", productId, e.getMessage());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hot-stock.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        Set<UUID> hot = Set.copyOf(productRepository.findHotStockIds());
+        hotProducts.retainAll(hot);
+        hotProducts.addAll(hot);
+        leases.forEach((productId, lease) -> {
+            try {
+                if (!hot.contains(productId)) {
+                    closeLease(productId);
+                } else if (lease.age().compareTo(leaseTtl) >= 0) {
+                    lease.drain();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not give back the stock leased for product {}, retrying next run: {}",
+                    productId, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        leases.keySet().forEach(productId -> {
+            try {
+                closeLease(productId);
+            } catch (RuntimeException e) {
+                log.warn("Could not give back the stock leased for product {} on shutdown: {}",
+                    productId, e.getMessage());
+            }
+        });
+    }
+
+    // Forgets the lease only once its units are back, so a failed give-back is retried
+    private void closeLease(UUID productId) {
+        StockLease lease = leases.get(productId);
+        if (lease != null) {
+            lease.close();
+            leases.remove(productId, lease);
+        }
+    }
+
+    private StockLease openLease(UUID productId) {
+        return new StockLease(new StockLease.Source() {
+            @Override
+            public int take(int minimum, int wanted) {
+                return takeFromProduct(productId, minimum, wanted);
+            }
+
+            @Override
+            public void giveBack(int units) {
+                giveBackToProduct(productId, units);
+            }
+        }, leaseSize, stripes);
+    }
+
+    private int takeFromProduct(UUID productId, int minimum, int wanted) {
+        Integer taken = leaseTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (productRepository.reserveStock(productId, wanted, now) == 1) {
+                return wanted;
+            }
+            // Less than a full chunk left: take what there is if it covers the reservation
+            Integer left = productRepository.findStockQuantityById(productId);
+            if (left == null || left < minimum) {
+                return 0;
+            }
+            int units = Math.min(left, wanted);
+            return productRepository.reserveStock(productId, units, now) == 1 ? units : 0;
+        });
+        if (taken != null && taken > 0) {
+            entityCacheRegistry.evict(EntityCacheRegistry.PRODUCT, productId);
+            return taken;
+        }
+        return 0;
+    }
+
+    private void giveBackToProduct(UUID productId, int units) {
+        leaseTransaction.executeWithoutResult(status ->
+            productRepository.releaseStock(productId, units, LocalDateTime.now()));
+        entityCacheRegistry.evict(EntityCacheRegistry.PRODUCT, productId);
+    }
+}
@@ -0,0 +1,220 @@
+package com.orchid.orchid_marketplace.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.orchid.orchid_marketplace.model.InventoryHold;
+import com.orchid.orchid_marketplace.model.Order;
+import com.orchid.orchid_marketplace.model.OrderItem;
+import com.orchid.orchid_marketplace.repository.InventoryHoldRepository;
+import com.orchid.orchid_marketplace.repository.OrderItemRepository;
+import com.orchid.orchid_marketplace.repository.OrderRepository;
+import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
+import com.orchid.orchid_marketplace.service.cache.WriteBehindCounters;
+
+/**
+ * Tracks the stock taken by unpaid orders. Checkout places one hold per order line, expiring
+ * after {@code inventory.holds.ttl-minutes}; payment converts the holds, and a cancelled order
+ * releases them. A scheduled reaper gives back the stock of holds that expired unpaid and
+ * cancels their orders; orders no longer pending keep their holds.
+ *
+ * An order's lines count as sold when its holds convert, and stop counting when converted
+ * holds are released; both transitions happen once per hold, however often payment or
+ * cancellation is retried.
+ *
+ * Releases are set-based: one statement claims a batch of holds by stamping them with a fresh
+ * release batch id, and the stock, order and order item updates then select by that id. A hold
+ * is only claimed while still {@code ACTIVE}, so when several nodes run the reaper at once each
+ * hold is given back by exactly one of them.
+ */
+@Service
+@Profile("!cosmos")
+public class InventoryHoldService {
+
+    // Caps one reaper run; whatever is left is picked up by the next
+    static final int MAX_BATCHES_PER_RUN = 20;
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryHoldService.class);
+
+    private final InventoryHoldRepository inventoryHoldRepository;
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductSearchService productSearchService;
+    private final EntityCacheRegistry entityCacheRegistry;
+    private final WriteBehindCounters writeBehindCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int batchSize;
+
+    public InventoryHoldService(InventoryHoldRepository inventoryHoldRepository,
+                                ProductRepository productRepository,
+                                OrderRepository orderRepository,
+                                OrderItemRepository orderItemRepository,
+                                ProductSearchService productSearchService,
+                                EntityCacheRegistry entityCacheRegistry,
+                                WriteBehindCounters writeBehindCounters,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${inventory.holds.ttl-minutes:30}") long ttlMinutes,
+                                @Value("${inventory.holds.reaper-batch-size:200}") int batchSize) {
+        if (ttlMinutes <= 0) {
+            throw new IllegalArgumentException("inventory.holds.ttl-minutes must be positive");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("inventory.holds.reaper-batch-size must be at least 1");
+        }
+        this.inventoryHoldRepository = inventoryHoldRepository;
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.productSearchService = productSearchService;
+        this.entityCacheRegistry = entityCacheRegistry;
+        this.writeBehindCounters = writeBehindCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Records the stock checkout has just taken for the order, one hold per line.
+     */
+    @Transactional
+    public List<InventoryHold> place(Order order, Collection<OrderItem> items) {
+        Objects.requireNonNull(order, "order must not be null");
+        Objects.requireNonNull(items, "items must not be null");
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        List<InventoryHold> holds = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            holds.add(new InventoryHold(order, item.getProduct(), item.getQuantity(), expiresAt));
+        }
+        return inventoryHoldRepository.saveAll(holds);
+    }
+
+    /**
+     * Makes the order's active holds permanent once it is paid; the stock stays taken and the
+     * order's lines are counted as sold. Calling it again for a paid order changes nothing.
+     * False when the holds were released first, by the reaper or a cancellation: the stock is
+     * back on sale and the order was cancelled, so the payment needs a refund.
+     */
+    @Transactional
+    public boolean convert(Order order) {
+        Objects.requireNonNull(order, "order must not be null");
+        // Waits for a reaper run that is claiming the same holds, then no longer matches them
+        if (inventoryHoldRepository.convertByOrder(order.getId(), LocalDateTime.now()) > 0) {
+            recordSale(order.getOrderItems(), 1);
+            return true;
+        }
+        return !inventoryHoldRepository.existsByOrderIdAndStatus(order.getId(), InventoryHold.HoldStatus.RELEASED);
+    }
+
+    /**
+     * Gives back the stock of a cancelled order's active or converted holds, and takes the
+     * order's lines off the sold counts when its holds had converted. Holds the reaper
+     * released first are not given back twice. Returns false for orders placed without holds.
+     */
+    @Transactional
+    public boolean releaseOrder(Order order) {
+        Objects.requireNonNull(order, "order must not be null");
+        UUID orderId = order.getId();
+        UUID batch = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        // Active holds first: a payment converting them meanwhile is then either seen as
+        // converted by the second statement, or waits and finds nothing left to convert
+        int unpaid = inventoryHoldRepository.releaseByOrder(orderId, InventoryHold.HoldStatus.ACTIVE, batch, now);
+        int paid = inventoryHoldRepository.releaseByOrder(orderId, InventoryHold.HoldStatus.CONVERTED, batch, now);
+        if (unpaid + paid == 0) {
+            return inventoryHoldRepository.existsByOrderId(orderId);
+        }
+        if (paid > 0) {
+            recordSale(order.getOrderItems(), -1);
+        }
+        giveBack(batch, now);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.holds.reaper-interval-ms:60000}")
+    public void reapExpired() {
+        int released = releaseExpired(LocalDateTime.now());
+        if (released > 0) {
+            log.info("Released {} expired inventory holds", released);
+        }
+    }
+
+    /**
+     * Releases holds that expired before {@code now}, a batch of orders per transaction.
+     * Returns how many holds this call released.
+     */
+    public int releaseExpired(LocalDateTime now) {
+        Objects.requireNonNull(now, "now must not be null");
+        int released = 0;
+        for (int batches = 0; batches < MAX_BATCHES_PER_RUN; batches++) {
+            List<UUID> orderIds = inventoryHoldRepository.findOrdersWithExpiredHolds(now, PageRequest.of(0, batchSize));
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            Integer claimed = transactionTemplate.execute(status -> releaseExpiredBatch(orderIds, now));
+            released += claimed == null ? 0 : claimed;
+            if (orderIds.size() < batchSize) {
+                break;
+            }
+        }
+        return released;
+    }
+
+    private int releaseExpiredBatch(List<UUID> orderIds, LocalDateTime now) {
+        UUID batch = UUID.randomUUID();
+        // Holds another node claimed meanwhile no longer match and stay out of this batch
+        int claimed = inventoryHoldRepository.releaseExpired(orderIds, batch, now);
+        if (claimed > 0) {
+            giveBack(batch, now);
+            orderRepository.cancelPendingByReleaseBatch(batch, now);
+            orderItemRepository.cancelPendingByReleaseBatch(batch, now);
+        }
+        return claimed;
+    }
+
+    private void giveBack(UUID batch, LocalDateTime now) {
+        productRepository.releaseHeldStock(batch, now);
+        Map<UUID, Integer> quantities = new TreeMap<>();
+        for (InventoryHold hold : inventoryHoldRepository.findByReleaseBatch(batch)) {
+            quantities.merge(hold.getProduct().getId(), hold.getQuantity(), Integer::sum);
+        }
+        quantities.forEach((productId, quantity) -> {
+            productSearchService.adjustStock(productId, quantity);
+            entityCacheRegistry.evict(EntityCacheRegistry.PRODUCT, productId);
+        });
+    }
+
+    // Sold counts are written behind, so paying for an order takes no product or store row locks for them
+    private void recordSale(Collection<OrderItem> items, int sign) {
+        for (OrderItem item : items) {
+            if (item.getProduct() != null) {
+                writeBehindCounters.increment(WriteBehindCounters.Counter.PRODUCT_SOLD, item.getProduct().getId(),
+                    sign * item.getQuantity());
+            }
+            if (item.getStore() != null) {
+                writeBehindCounters.increment(WriteBehindCounters.Counter.STORE_SALES, item.getStore().getId(),
+                    sign * item.getQuantity());
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Profile;
 
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
 import com.orchid.orchid_marketplace.model.ProductImage;
 import com.orchid.orchid_marketplace.repository.ProductImageRepository;
 
@@ -30,6 +31,12 @@ public class ProductImageService {
         return productImageRepository.findById(id);
     }
     
+    // Validator for conditional GETs of the image
+    public Optional<ResourceVersion> getProductImageVersion(UUID id) {
+        Objects.requireNonNull(id, "id must not be null");
+        return productImageRepository.findVersionById(id);
+    }
+    
     // Get product images by product ID
     public List<ProductImage> getProductImagesByProductId(UUID productId) {
         Objects.requireNonNull(productId, "productId must not be null");
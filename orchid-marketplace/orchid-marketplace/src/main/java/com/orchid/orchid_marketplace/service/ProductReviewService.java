@@ -21,6 +21,9 @@ public class ProductReviewService {
     @Autowired
     private ProductReviewRepository productReviewRepository;
     
+    @Autowired
+    private ReviewAggregateService reviewAggregateService;
+    
     // Get all product reviews
     public List<ProductReview> getAllProductReviews() {
         return productReviewRepository.findAll();
@@ -57,19 +60,25 @@ public class ProductReviewService {
     }
     
     // Create a new product review
+    @Transactional
     public ProductReview createProductReview(ProductReview productReview) {
         Objects.requireNonNull(productReview, "productReview must not be null");
         @SuppressWarnings("null")
         ProductReview saved = productReviewRepository.save(productReview);
+        if (isCounted(saved)) {
+            reviewAggregateService.reviewAdded(saved.getProduct().getId(), saved.getRating());
+        }
         return saved;
     }
     
     // Update a product review
+    @Transactional
     public ProductReview updateProductReview(UUID id, ProductReview productReviewDetails) {
         Objects.requireNonNull(id, "id must not be null");
         Objects.requireNonNull(productReviewDetails, "productReviewDetails must not be null");
         return productReviewRepository.findById(id)
             .map(existingReview -> {
+                Integer previousRating = existingReview.getRating();
                 if (productReviewDetails.getRating() != null) {
                     existingReview.setRating(productReviewDetails.getRating());
                 }
@@ -88,35 +97,65 @@ public class ProductReviewService {
 
                 @SuppressWarnings("null")
                 ProductReview saved = productReviewRepository.save(existingReview);
+                if (isCounted(saved)) {
+                    // A review given its first rating starts counting now
+                    if (previousRating == null) {
+                        reviewAggregateService.reviewAdded(saved.getProduct().getId(), saved.getRating());
+                    } else {
+                        reviewAggregateService.ratingChanged(saved.getProduct().getId(), previousRating, saved.getRating());
+                    }
+                }
                 return saved;
             })
             .orElseThrow(() -> new RuntimeException("Product review not found with ID: " + id));
     }
     
     // Soft delete a product review
+    @Transactional
     public void deleteProductReview(UUID id) {
         Objects.requireNonNull(id, "id must not be null");
         productReviewRepository.findById(id)
             .ifPresentOrElse(
                 review -> {
+                    boolean wasCounted = isCounted(review);
                     review.softDelete();
                     productReviewRepository.save(review);
+                    if (wasCounted) {
+                        reviewAggregateService.reviewRemoved(review.getProduct().getId(), review.getRating());
+                    }
                 },
                 () -> { throw new RuntimeException("Product review not found with ID: " + id); }
             );
     }
     
-    // Calculate average rating for product
+    // Reactivate a soft-deleted product review
+    @Transactional
+    public ProductReview restoreProductReview(UUID id) {
+        Objects.requireNonNull(id, "id must not be null");
+        ProductReview review = productReviewRepository.findByIdIncludingInactive(id)
+            .orElseThrow(() -> new RuntimeException("Product review not found with ID: " + id));
+        if (Boolean.TRUE.equals(review.getIsActive())) {
+            return review;
+        }
+        review.restore();
+        @SuppressWarnings("null")
+        ProductReview saved = productReviewRepository.save(review);
+        if (isCounted(saved)) {
+            reviewAggregateService.reviewAdded(saved.getProduct().getId(), saved.getRating());
+        }
+        return saved;
+    }
+    
+    // Calculate average rating for product, from the maintained aggregate
     public Double calculateAverageRatingForProduct(UUID productId) {
         Objects.requireNonNull(productId, "productId must not be null");
-        Double averageRating = productReviewRepository.calculateAverageRatingByProduct(productId);
-        return averageRating != null ? averageRating : 0.0;
+        return reviewAggregateService.getProductStats(productId).getAverage();
     }
     
-    // Count active reviews for product
+    // Count active reviews for product, from the maintained aggregate
     public long countReviewsForProduct(UUID productId) {
         Objects.requireNonNull(productId, "productId must not be null");
-        return productReviewRepository.countActiveReviewsByProduct(productId);
+        return reviewAggregateService.getProductStats(productId).getReviewCount();
     }
     
     // Get reviews by store
@@ -136,4 +175,12 @@ public class ProductReviewService {
 
         return productReviewRepository.save(review);
     }
-}
\ No newline at end of file
+
+    // Only active, rated reviews attached to a product contribute to the aggregates
+    private static boolean isCounted(ProductReview review) {
+        return Boolean.TRUE.equals(review.getIsActive())
+            && review.getRating() != null
+            && review.getProduct() != null
+            && review.getProduct().getId() != null;
+    }
+}
@@ -1,28 +1,95 @@
 package com.orchid.orchid_marketplace.service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 
-import org.springframework.data.domain.Page;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Profile;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.orchid.orchid_marketplace.dto.CursorPage;
+import com.orchid.orchid_marketplace.dto.FacetCount;
+import com.orchid.orchid_marketplace.dto.FacetedPage;
+import com.orchid.orchid_marketplace.dto.ProductResponse;
 import com.orchid.orchid_marketplace.dto.ProductSearchDTO;
+import com.orchid.orchid_marketplace.dto.ProductSearchRequest;
+import com.orchid.orchid_marketplace.dto.SearchFacets;
+import com.orchid.orchid_marketplace.dto.SuggestionResponse;
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.ReviewStats;
+import com.orchid.orchid_marketplace.model.Store;
 import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.service.cache.WriteBehindCounters;
+import com.orchid.orchid_marketplace.service.search.AutocompleteIndex;
+import com.orchid.orchid_marketplace.service.search.CatalogFacets;
+import com.orchid.orchid_marketplace.service.search.CatalogQuery;
+import com.orchid.orchid_marketplace.service.search.CatalogSearchIndex;
+import com.orchid.orchid_marketplace.service.search.CatalogSearchResult;
+import com.orchid.orchid_marketplace.service.search.CatalogSort;
+import com.orchid.orchid_marketplace.util.MoneyUtil;
+import com.orchid.orchid_marketplace.util.PageCursor;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Catalog search backed by {@link CatalogSearchIndex}, which this service owns.
+ * Filtering and sorting run entirely against the index, and only the products on the
+ * requested page are loaded from the database. The index is built on startup and kept
+ * current through the create, update and delete hooks in {@link ProductService}.
+ * Every search also returns facet counts over its full result for the storefront sidebar.
+ * The typeahead {@link AutocompleteIndex} is maintained through the same hooks.
+ * Sold counts are written behind, so they reach both indexes when their batch is flushed.
+ * A rebuild fills fresh indexes off to the side and swaps them in, so searches keep seeing
+ * the full catalog meanwhile; changes made during the rebuild are replayed on the new ones.
+ */
 @Service
 @Profile("!cosmos")
 public class ProductSearchService {
 
+    private static final int REBUILD_PAGE_SIZE = 500;
+    public static final int DEFAULT_SUGGESTIONS = 8;
+    public static final int MAX_SUGGESTIONS = 20;
+
     private final ProductRepository productRepository;
+    private final WriteBehindCounters writeBehindCounters;
+    private volatile CatalogSearchIndex catalogSearchIndex;
+    private volatile AutocompleteIndex autocompleteIndex;
+    // Hooks apply changes under the read lock; a rebuild swaps the indexes under the write lock
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // Changes to replay on the indexes being rebuilt, null when no rebuild runs; guarded by swapLock
+    private Queue<Runnable> pendingChanges;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    public ProductSearchService(ProductRepository productRepository) {
+    public ProductSearchService(ProductRepository productRepository, WriteBehindCounters writeBehindCounters) {
         this.productRepository = productRepository;
+        this.writeBehindCounters = writeBehindCounters;
+        this.catalogSearchIndex = new CatalogSearchIndex();
+        this.autocompleteIndex = new AutocompleteIndex();
     }
 
     @Transactional(readOnly = true)
-    public Page<ProductSearchDTO> searchProducts(
+    public FacetedPage<ProductSearchDTO> searchProducts(
         String query,
         String category,
         BigDecimal minPrice,
@@ -32,23 +99,318 @@ public class ProductSearchService {
         String sortBy,
         Pageable pageable
     ) {
-        // Simplified search - return all products with mapping
-        // Note: Custom repository methods (searchProductsFullFilter, etc.) need to be added to ProductRepository
-        return productRepository.findAll(pageable).map(this::mapProductToDTO);
-    }
-
-    private ProductSearchDTO mapProductToDTO(com.orchid.orchid_marketplace.model.Product product) {
-        String categoryName = product.getCategory() != null ? product.getCategory().getName() : "Uncategorized";
-        return new ProductSearchDTO(
-            product.getId(),
-            product.getTitle(),
-            product.getDescription(),
-            product.getPrice(),
-            categoryName,
-            0.0, // Would come from ProductReview aggregation
-            0L,  // Would come from ProductReview count
-            product.getStockQuantity(),
-            product.getStore() != null ? product.getStore().getStoreName() : null
-        );
+        return searchProducts(query, category, minPrice, maxPrice, minRating, inStock, sortBy, false, pageable);
+    }
+
+    /**
+     * Same search with an optional fuzzy mode, in which keyword tokens of four or more
+     * characters also match terms one edit away (two from eight characters on).
+     */
+    @Transactional(readOnly = true)
+    public FacetedPage<ProductSearchDTO> searchProducts(
+        String query,
+        String category,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Double minRating,
+        Boolean inStock,
+        String sortBy,
+        boolean fuzzy,
+        Pageable pageable
+    ) {
+        UUID categoryId = catalogSearchIndex.resolveCategory(category);
+        if (category != null && !category.isBlank() && categoryId == null) {
+            return new FacetedPage<>(List.of(), pageable, 0, toSearchFacets(CatalogFacets.empty()));
+        }
+
+        CatalogQuery catalogQuery = new CatalogQuery();
+        catalogQuery.setKeyword(query);
+        catalogQuery.setFuzzy(fuzzy);
+        catalogQuery.setCategoryId(categoryId);
+        applyPriceAndRating(catalogQuery, minPrice, maxPrice, minRating);
+        catalogQuery.setInStockOnly(Boolean.TRUE.equals(inStock));
+        catalogQuery.setSort(CatalogSort.fromParam(sortBy));
+        return search(catalogQuery, pageable, productRepository::findSearchDTOsByIdIn, ProductSearchDTO::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public FacetedPage<ProductResponse> searchProductsAdvanced(ProductSearchRequest request) {
+        Objects.requireNonNull(request, "request must not be null");
+        return search(toCatalogQuery(request), PageRequest.of(request.getPage(), request.getSize()),
+            productRepository::findResponsesByIdIn, ProductResponse::getId);
+    }
+
+    /**
+     * Keyset variant of {@link #searchProductsAdvanced}: returns the page after the given
+     * cursor (the first page when it is blank) and the cursor for the page after that.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> searchProductsAfter(ProductSearchRequest request, String cursor) {
+        Objects.requireNonNull(request, "request must not be null");
+        CatalogQuery catalogQuery = toCatalogQuery(request);
+        CatalogSort sort = catalogQuery.getSort();
+        if (cursor != null && !cursor.isBlank()) {
+            PageCursor position = PageCursor.decode(cursor, sort.name());
+            catalogQuery.setKeysetPosition(position.getSortKey(), position.getLastId());
+        } else {
+            // Facets describe the whole result, so continuation pages don't recount them
+            catalogQuery.setIncludeFacets(true);
+        }
+        catalogQuery.setLimit(request.getSize());
+
+        CatalogSearchResult result = catalogSearchIndex.search(catalogQuery);
+        List<UUID> ids = result.getProductIds();
+        String nextCursor = !ids.isEmpty() && ids.size() == catalogQuery.getLimit()
+            ? new PageCursor(sort.name(), result.getLastSortKey(), ids.get(ids.size() - 1)).encode()
+            : null;
+        SearchFacets facets = result.getFacets() != null ? toSearchFacets(result.getFacets()) : null;
+        List<ProductResponse> rows = loadInOrder(ids, productRepository::findResponsesByIdIn, ProductResponse::getId);
+        return new CursorPage<>(rows, nextCursor, result.getTotalMatches(), facets);
+    }
+
+    /**
+     * Typeahead suggestions for the search box: products, tags, categories and stores
+     * with a word starting with the given prefix, most popular first.
+     */
+    public List<SuggestionResponse> suggest(String prefix, Integer limit) {
+        int size = limit != null ? limit : DEFAULT_SUGGESTIONS;
+        if (size < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return autocompleteIndex.suggest(prefix, Math.min(size, MAX_SUGGESTIONS)).stream()
+            .map(s -> new SuggestionResponse(s.getType().name(), s.getText(), s.getId()))
+            .toList();
+    }
+
+    // ========== Index maintenance ==========
+
+    /**
+     * Rebuilds the search and autocomplete indexes from the active products in the database.
+     * Searches use the current indexes until the new ones are complete.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuildIndex() {
+        CatalogSearchIndex catalog = new CatalogSearchIndex();
+        AutocompleteIndex autocomplete = new AutocompleteIndex();
+        swapLock.writeLock().lock();
+        try {
+            pendingChanges = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        // Keyset pages: products soft-deleted meanwhile cannot shift later pages past anything
+        List<Product> batch = productRepository.findForIndex(PageRequest.of(0, REBUILD_PAGE_SIZE));
+        while (!batch.isEmpty()) {
+            productRepository.fetchTagsByIdIn(batch.stream().map(Product::getId).toList());
+            for (Product product : batch) {
+                catalog.index(product);
+                autocomplete.index(product);
+            }
+            Product last = batch.get(batch.size() - 1);
+            // Indexed pages are not read again, so the session does not grow with the catalog
+            entityManager.clear();
+            if (batch.size() < REBUILD_PAGE_SIZE) {
+                break;
+            }
+            batch = productRepository.findForIndexAfter(last.getCreatedAt(), last.getId(),
+                PageRequest.of(0, REBUILD_PAGE_SIZE));
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            Queue<Runnable> changes = pendingChanges;
+            pendingChanges = null;
+            catalogSearchIndex = catalog;
+            autocompleteIndex = autocomplete;
+            // Products changed after their page was read are read again, not from the session
+            entityManager.clear();
+            changes.forEach(Runnable::run);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-reads the product and updates its index entries; removes them if it is gone or inactive.
+     */
+    @Transactional(readOnly = true)
+    public void refreshProduct(UUID productId) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        productRepository.findById(productId)
+            .ifPresentOrElse(this::index, () -> removeProduct(productId));
+    }
+
+    // Store renamed, hidden or deactivated; only its suggestion depends on it
+    public void refreshStore(Store store) {
+        Objects.requireNonNull(store, "store must not be null");
+        Runnable change = () -> autocompleteIndex.updateStore(store);
+        apply(change, change);
+    }
+
+    public void refreshCategory(Category category) {
+        Objects.requireNonNull(category, "category must not be null");
+        Runnable change = () -> autocompleteIndex.updateCategory(category);
+        apply(change, change);
+    }
+
+    // Review aggregate changed; rating filters and sorts pick it up without a reindex
+    public void updateReviewStats(UUID productId, ReviewStats stats) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        Objects.requireNonNull(stats, "stats must not be null");
+        afterCommit(() -> apply(
+            () -> catalogSearchIndex.updateReviewStats(productId, stats.getAverage(), stats.getReviewCount()),
+            () -> refreshProduct(productId)));
+    }
+
+    public void removeProduct(UUID productId) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        Runnable change = () -> {
+            catalogSearchIndex.remove(productId);
+            autocompleteIndex.remove(productId);
+        };
+        apply(change, change);
+    }
+
+    // Flushed sold counts move best-seller sorts and suggestion weights; the batch has already committed
+    @PostConstruct
+    void adjustOnSalesFlush() {
+        writeBehindCounters.onFlush(WriteBehindCounters.Counter.PRODUCT_SOLD, deltas -> deltas.forEach(this::adjustSoldCount));
+    }
+
+    private void adjustSoldCount(UUID productId, long delta) {
+        int change = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, delta));
+        apply(() -> {
+            catalogSearchIndex.adjustSoldCount(productId, change);
+            autocompleteIndex.adjustSoldCount(productId, delta);
+        }, () -> refreshProduct(productId));
+    }
+
+    // Stock moved by checkout or restocking; keeps the in-stock filter current
+    public void adjustStock(UUID productId, int delta) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        afterCommit(() -> apply(() -> catalogSearchIndex.adjustStock(productId, delta), () -> refreshProduct(productId)));
+    }
+
+    // ========== Helpers ==========
+
+    private void index(Product product) {
+        UUID productId = product.getId();
+        apply(() -> {
+            catalogSearchIndex.index(product);
+            autocompleteIndex.index(product);
+        }, () -> refreshProduct(productId));
+    }
+
+    // Deltas reach the index once their transaction commits, so a rolled-back one leaves no trace
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    // Applies a change to the live indexes and, while a rebuild runs, queues its replay on the new ones
+    private void apply(Runnable change, Runnable replay) {
+        swapLock.readLock().lock();
+        try {
+            change.run();
+            if (pendingChanges != null) {
+                pendingChanges.add(replay);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private <T> FacetedPage<T> search(CatalogQuery catalogQuery, Pageable pageable,
+                                      Function<List<UUID>, List<T>> loader, Function<T, UUID> idOf) {
+        catalogQuery.setOffset((int) Math.min(pageable.getOffset(), Integer.MAX_VALUE));
+        catalogQuery.setLimit(pageable.getPageSize());
+        catalogQuery.setIncludeFacets(true);
+        CatalogSearchResult result = catalogSearchIndex.search(catalogQuery);
+        return new FacetedPage<>(loadInOrder(result.getProductIds(), loader, idOf), pageable,
+            result.getTotalMatches(), toSearchFacets(result.getFacets()));
+    }
+
+    // Loads the page's rows with one projection query and returns them in hit order
+    private static <T> List<T> loadInOrder(List<UUID> ids, Function<List<UUID>, List<T>> loader, Function<T, UUID> idOf) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, T> byId = new HashMap<>(ids.size() * 2);
+        for (T row : loader.apply(ids)) {
+            byId.put(idOf.apply(row), row);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    private static CatalogQuery toCatalogQuery(ProductSearchRequest request) {
+        CatalogQuery catalogQuery = new CatalogQuery();
+        catalogQuery.setKeyword(request.getKeyword());
+        catalogQuery.setFuzzy(Boolean.TRUE.equals(request.getFuzzy()));
+        catalogQuery.setCategoryId(request.getCategoryId());
+        catalogQuery.setCondition(request.getCondition());
+        applyPriceAndRating(catalogQuery, request.getMinPrice(), request.getMaxPrice(), request.getMinRating());
+        catalogQuery.setSort(CatalogSort.fromParam(request.getSortBy()));
+        return catalogQuery;
+    }
+
+    private static void applyPriceAndRating(CatalogQuery catalogQuery, BigDecimal minPrice,
+                                            BigDecimal maxPrice, Double minRating) {
+        catalogQuery.setMinPriceCents(minPrice != null ? MoneyUtil.dollarsToCents(minPrice) : null);
+        catalogQuery.setMaxPriceCents(maxPrice != null ? MoneyUtil.dollarsToCents(maxPrice) : null);
+        catalogQuery.setMinRating(minRating);
+    }
+
+    private static SearchFacets toSearchFacets(CatalogFacets facets) {
+        List<FacetCount> categories = new ArrayList<>();
+        facets.getCategories().forEach((categoryId, count) ->
+            categories.add(new FacetCount(categoryId.toString(), facets.getCategoryName(categoryId), count)));
+
+        List<FacetCount> conditions = new ArrayList<>();
+        facets.getConditions().forEach((condition, count) ->
+            conditions.add(new FacetCount(condition.name(), conditionLabel(condition), count)));
+
+        List<FacetCount> priceRanges = new ArrayList<>();
+        facets.getPriceBuckets().forEach((bucket, count) -> {
+            String min = dollars(bucket.getMinCents());
+            String value = bucket.isOpenEnded() ? min + "-" : min + "-" + dollars(bucket.getMaxCentsExclusive());
+            String label = bucket.isOpenEnded() ? "$" + min + " & up"
+                : bucket.getMinCents() == 0 ? "Under $" + dollars(bucket.getMaxCentsExclusive())
+                : "$" + min + " to $" + dollars(bucket.getMaxCentsExclusive());
+            priceRanges.add(new FacetCount(value, label, count));
+        });
+
+        List<FacetCount> ratings = new ArrayList<>();
+        facets.getRatingBands().forEach((band, count) ->
+            ratings.add(new FacetCount(String.valueOf(band.getMinRating()), band.getMinRating() + " stars & up", count)));
+
+        return new SearchFacets(categories, conditions, priceRanges, ratings);
+    }
+
+    // LIKE_NEW -> "Like new"
+    private static String conditionLabel(Product.ProductCondition condition) {
+        String words = condition.name().toLowerCase(Locale.ROOT).replace('_', ' ');
+        return Character.toUpperCase(words.charAt(0)) + words.substring(1);
+    }
+
+    // Bucket edges are whole dollars
+    private static String dollars(long cents) {
+        return String.valueOf(cents / 100);
     }
 }
@@ -1,34 +1,81 @@
 package com.orchid.orchid_marketplace.service;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Profile;
 
+import com.orchid.orchid_marketplace.dto.CursorPage;
+import com.orchid.orchid_marketplace.dto.FacetedPage;
+import com.orchid.orchid_marketplace.dto.ProductDetailResponse;
+import com.orchid.orchid_marketplace.dto.ProductResponse;
 import com.orchid.orchid_marketplace.dto.ProductSearchRequest;
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
+import com.orchid.orchid_marketplace.dto.SuggestionResponse;
+import com.orchid.orchid_marketplace.mapper.ProductImageMapper;
+import com.orchid.orchid_marketplace.mapper.ProductMapper;
+import com.orchid.orchid_marketplace.mapper.ShippingOptionMapper;
 import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.ProductImage;
+import com.orchid.orchid_marketplace.model.ReviewStats;
+import com.orchid.orchid_marketplace.repository.ProductImageRepository;
 import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.repository.ShippingOptionRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
+import com.orchid.orchid_marketplace.service.cache.ProductDetailCache;
+import com.orchid.orchid_marketplace.service.cache.WriteBehindCounters;
+import com.orchid.orchid_marketplace.util.PageCursor;
 
 @Service
 @Profile("!cosmos")
 public class ProductService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 500;
+
+    // Cursor order for the list endpoints: newest first, id as tie-breaker
+    private static final String NEWEST_FIRST = "newest";
     
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
     private SellerLedgerService sellerLedgerService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private EntityCacheRegistry entityCacheRegistry;
+
+    @Autowired
+    private WriteBehindCounters writeBehindCounters;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private ShippingOptionRepository shippingOptionRepository;
+
+    @Autowired
+    private ProductDetailCache productDetailCache;
     
     // Get all products
     public List<Product> getAllProducts() {
@@ -41,6 +88,69 @@ public class ProductService {
         return productRepository.findById(id);
     }
     
+    // Product detail for the API, served from the PRODUCT cache when one is configured
+    public Optional<ProductResponse> getProductResponse(UUID id) {
+        Objects.requireNonNull(id, "id must not be null");
+        return entityCacheRegistry.get(EntityCacheRegistry.PRODUCT, id, ProductResponse.class,
+            () -> productRepository.findById(id).map(ProductMapper::toResponse));
+    }
+    
+    // Validator for conditional GETs of the product; not read while the pool is saturated and the cache can answer
+    public Optional<ResourceVersion> getProductVersion(UUID id) {
+        Objects.requireNonNull(id, "id must not be null");
+        if (entityCacheRegistry.canServeWithoutDatabase(EntityCacheRegistry.PRODUCT, id)) {
+            return Optional.of(ResourceVersion.unvalidated());
+        }
+        return productRepository.findVersionById(id);
+    }
+    
+    // Validator for the detail payload; also moves when its images, shipping options or rating change
+    public Optional<ResourceVersion> getProductDetailVersion(UUID id) {
+        Objects.requireNonNull(id, "id must not be null");
+        if (entityCacheRegistry.isConnectionPoolSaturated() && productDetailCache.contains(id)) {
+            return Optional.of(ResourceVersion.unvalidated());
+        }
+        return productRepository.findDetailVersionById(id);
+    }
+    
+    // Detail payload as serialized JSON, reused until the product's detail version changes
+    public Optional<byte[]> getProductDetailJson(UUID id, ResourceVersion version) {
+        Objects.requireNonNull(id, "id must not be null");
+        return productDetailCache.get(id, version, () -> loadProductDetail(id));
+    }
+    
+    // Counts a product page view; written to the database in the next counter flush
+    public void recordView(UUID id) {
+        writeBehindCounters.increment(WriteBehindCounters.Counter.PRODUCT_VIEWS, id, 1);
+    }
+    
+    // Get many products in one query, keyed in request order; ids with no active product are absent
+    public Map<UUID, Product> getProductsByIds(Collection<UUID> ids) {
+        Objects.requireNonNull(ids, "ids must not be null");
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        if (requested.contains(null)) {
+            throw new IllegalArgumentException("ids must not contain null");
+        }
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids can be requested at once");
+        }
+        if (requested.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, Product> byId = new HashMap<>();
+        for (Product product : productRepository.findAllWithCategoryAndStoreByIdIn(requested)) {
+            byId.put(product.getId(), product);
+        }
+        Map<UUID, Product> ordered = new LinkedHashMap<>();
+        for (UUID id : requested) {
+            Product product = byId.get(id);
+            if (product != null) {
+                ordered.put(id, product);
+            }
+        }
+        return ordered;
+    }
+    
     // Get products by category ID
     public List<Product> getProductsByCategoryId(UUID categoryId) {
         Objects.requireNonNull(categoryId, "categoryId must not be null");
@@ -53,9 +163,35 @@ public class ProductService {
         return productRepository.findByStoreIdAndIsActiveTrue(storeId);
     }
     
+    // Paged listings, newest first. A cursor continues after the previous page (keyset);
+    // a page number without a cursor falls back to offset paging for older clients.
+    // Rows are read as response projections, never as managed entities.
+    public CursorPage<ProductResponse> getProducts(String cursor, Integer page, Integer size) {
+        return listNewestFirst(cursor, page, size,
+            productRepository::findNewestFirst,
+            (position, pageable) -> productRepository.findNewestFirstAfter(
+                PageCursor.fromEpochNanos(position.getSortKey()), position.getLastId(), pageable));
+    }
+
+    public CursorPage<ProductResponse> getProductsByStoreId(UUID storeId, String cursor, Integer page, Integer size) {
+        Objects.requireNonNull(storeId, "storeId must not be null");
+        return listNewestFirst(cursor, page, size,
+            pageable -> productRepository.findNewestFirstByStore(storeId, pageable),
+            (position, pageable) -> productRepository.findNewestFirstByStoreAfter(
+                storeId, PageCursor.fromEpochNanos(position.getSortKey()), position.getLastId(), pageable));
+    }
+
+    public CursorPage<ProductResponse> getProductsByCategoryId(UUID categoryId, String cursor, Integer page, Integer size) {
+        Objects.requireNonNull(categoryId, "categoryId must not be null");
+        return listNewestFirst(cursor, page, size,
+            pageable -> productRepository.findNewestFirstByCategory(categoryId, pageable),
+            (position, pageable) -> productRepository.findNewestFirstByCategoryAfter(
+                categoryId, PageCursor.fromEpochNanos(position.getSortKey()), position.getLastId(), pageable));
+    }
+    
     // Search products by keyword
-    public List<Product> searchProducts(String keyword) {
-        return productRepository.searchByKeyword(keyword);
+    public List<ProductResponse> searchProducts(String keyword) {
+        return productRepository.searchResponsesByKeyword(keyword);
     }
     
     // Get products by price range
@@ -84,6 +220,7 @@ public class ProductService {
         @SuppressWarnings("null")
         Product saved = productRepository.save(product);
         sellerLedgerService.accrueListingFeeForProduct(saved);
+        productSearchService.refreshProduct(saved.getId());
         return saved;
     }
     
@@ -123,6 +260,9 @@ public class ProductService {
 
                 @SuppressWarnings("null")
                 Product saved = productRepository.save(existingProduct);
+                productSearchService.refreshProduct(saved.getId());
+                entityCacheRegistry.evict(EntityCacheRegistry.PRODUCT, id);
+                productDetailCache.evict(id);
                 return saved;
             })
             .orElseThrow(() -> new RuntimeException("Product not found with ID: " + id));
@@ -136,6 +276,9 @@ public class ProductService {
                 product -> {
                     product.softDelete();
                     productRepository.save(product);
+                    productSearchService.removeProduct(id);
+                    entityCacheRegistry.evict(EntityCacheRegistry.PRODUCT, id);
+                    productDetailCache.evict(id);
                 },
                 () -> { throw new RuntimeException("Product not found with ID: " + id); }
             );
@@ -156,6 +299,9 @@ public class ProductService {
                 product.setStockQuantity(newStock);
                 @SuppressWarnings("null")
                 Product saved = productRepository.save(product);
+                productSearchService.adjustStock(productId, quantityChange);
+                entityCacheRegistry.evict(EntityCacheRegistry.PRODUCT, productId);
+                productDetailCache.evict(productId);
                 return saved;
             })
             .orElseThrow(() -> new RuntimeException("Product not found with ID: " + productId));
@@ -190,90 +336,73 @@ public class ProductService {
         return productRepository.findLowStockProducts(threshold);
     }
     
-    // Advanced search with filters
-    public Page<Product> searchProductsAdvanced(ProductSearchRequest request) {
-        // Start with all active products
-        List<Product> allProducts = productRepository.findAll().stream()
-            .filter(Product::getIsActive)
-            .collect(Collectors.toList());
-        
-        // Apply keyword filter
-        if (request.getKeyword() != null && !request.getKeyword().trim().isEmpty()) {
-            String keyword = request.getKeyword().toLowerCase();
-            allProducts = allProducts.stream()
-                .filter(p -> 
-                    (p.getTitle() != null && p.getTitle().toLowerCase().contains(keyword)) ||
-                    (p.getDescription() != null && p.getDescription().toLowerCase().contains(keyword))
-                )
-                .collect(Collectors.toList());
-        }
-        
-        // Apply category filter
-        if (request.getCategoryId() != null) {
-            allProducts = allProducts.stream()
-                .filter(p -> p.getCategory() != null && 
-                    request.getCategoryId().equals(p.getCategory().getId()))
-                .collect(Collectors.toList());
-        }
-        
-        // Apply price range filter
-        if (request.getMinPrice() != null) {
-            allProducts = allProducts.stream()
-                .filter(p -> p.getPrice() != null && 
-                    p.getPrice().compareTo(request.getMinPrice()) >= 0)
-                .collect(Collectors.toList());
+    // Advanced search with filters, answered by the catalog search index
+    public FacetedPage<ProductResponse> searchProductsAdvanced(ProductSearchRequest request) {
+        return productSearchService.searchProductsAdvanced(request);
+    }
+
+    // Keyset paging over the same search; a blank cursor returns the first page
+    public CursorPage<ProductResponse> searchProductsAfter(ProductSearchRequest request, String cursor) {
+        return productSearchService.searchProductsAfter(request, cursor);
+    }
+
+    // Typeahead for the search box, answered from memory
+    public List<SuggestionResponse> suggest(String prefix, Integer limit) {
+        return productSearchService.suggest(prefix, limit);
+    }
+
+    // Read from the database rather than the PRODUCT cache, which may still hold the row
+    // from before the version the bytes will be stored under
+    private Optional<ProductDetailResponse> loadProductDetail(UUID id) {
+        List<ProductResponse> product = productRepository.findResponsesByIdIn(List.of(id));
+        if (product.isEmpty()) {
+            return Optional.empty();
         }
-        if (request.getMaxPrice() != null) {
-            allProducts = allProducts.stream()
-                .filter(p -> p.getPrice() != null && 
-                    p.getPrice().compareTo(request.getMaxPrice()) <= 0)
-                .collect(Collectors.toList());
+        List<ProductImage> images = productImageRepository.findActiveByProduct(id);
+        ReviewStats reviews = productRepository.findReviewStatsById(id).orElseGet(ReviewStats::new);
+        ProductDetailResponse detail = new ProductDetailResponse();
+        detail.setProduct(product.get(0));
+        // The primary image, else the first in display order
+        detail.setPrimaryImage(images.stream()
+            .filter(image -> Boolean.TRUE.equals(image.getIsPrimary()))
+            .findFirst()
+            .or(() -> images.stream().findFirst())
+            .map(ProductImageMapper::toResponse)
+            .orElse(null));
+        detail.setShippingOptions(shippingOptionRepository.findByProductIdAndIsActiveTrue(id).stream()
+            .map(ShippingOptionMapper::toResponse)
+            .toList());
+        detail.setReviewCount(reviews.getReviewCount());
+        detail.setAverageRating(reviews.getAverage(2));
+        return Optional.of(detail);
+    }
+    
+    private CursorPage<ProductResponse> listNewestFirst(String cursor, Integer page, Integer size,
+                                                        Function<Pageable, List<ProductResponse>> firstPage,
+                                                        BiFunction<PageCursor, Pageable, List<ProductResponse>> afterCursor) {
+        int limit = pageSize(size);
+        List<ProductResponse> rows;
+        if (cursor != null && !cursor.isBlank()) {
+            rows = afterCursor.apply(PageCursor.decode(cursor, NEWEST_FIRST), PageRequest.of(0, limit));
+        } else {
+            rows = firstPage.apply(PageRequest.of(page != null ? Math.max(0, page) : 0, limit));
         }
-        
-        // Apply rating filter
-        if (request.getMinRating() != null) {
-            allProducts = allProducts.stream()
-                .filter(p -> p.calculateAverageRating().doubleValue() >= request.getMinRating())
-                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (rows.size() == limit) {
+            ProductResponse last = rows.get(rows.size() - 1);
+            nextCursor = new PageCursor(NEWEST_FIRST, PageCursor.toEpochNanos(last.getCreatedAt()), last.getId()).encode();
         }
-        
-        // Apply sorting
-        Comparator<Product> comparator = null;
-        String sortBy = request.getSortBy();
-        
-        if ("price_asc".equals(sortBy)) {
-            comparator = Comparator.comparing(
-                p -> p.getPrice() != null ? p.getPrice() : BigDecimal.ZERO);
-        } else if ("price_desc".equals(sortBy)) {
-            comparator = Comparator.comparing(
-                (Product p) -> p.getPrice() != null ? p.getPrice() : BigDecimal.ZERO).reversed();
-        } else if ("rating".equals(sortBy)) {
-            comparator = Comparator.comparing(Product::calculateAverageRating).reversed();
-        } else if ("popular".equals(sortBy)) {
-            comparator = Comparator.comparingInt(
-                (Product p) -> p.getReviews() != null ? p.getReviews().size() : 0).reversed();
-        } else if ("newest".equals(sortBy)) {
-            comparator = Comparator.comparing(
-                (Product p) -> p.getCreatedAt() != null ? p.getCreatedAt() : java.time.LocalDateTime.MIN).reversed();
+        return new CursorPage<>(rows, nextCursor, null);
+    }
+
+    public static int pageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
         }
-        
-        if (comparator != null) {
-            allProducts = allProducts.stream()
-                .sorted(comparator)
-                .collect(Collectors.toList());
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be at least 1");
         }
-        
-        // Apply pagination
-        int page = request.getPage();
-        int size = request.getSize();
-        int total = allProducts.size();
-        int start = page * size;
-        int end = Math.min(start + size, total);
-        
-        List<Product> pageContent = start < total ? 
-            allProducts.subList(start, end) : List.of();
-        
-        Pageable pageable = PageRequest.of(page, size);
-        return new PageImpl<>(pageContent, pageable, total);
-    }
-}
\ No newline at end of file
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+}
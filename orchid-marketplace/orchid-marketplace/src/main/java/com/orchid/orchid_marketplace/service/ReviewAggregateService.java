@@ -0,0 +1,100 @@
+package com.orchid.orchid_marketplace.service;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.orchid.orchid_marketplace.model.ReviewStats;
+import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.repository.StoreRepository;
+
+/**
+ * Maintains the per-product and per-store review aggregates (count, rating sum and star
+ * histogram). Every change is applied as an in-database increment inside the caller's
+ * transaction, so concurrent reviews never lose updates and readers get the average and
+ * count without touching the review table.
+ */
+@Service
+@Profile("!cosmos")
+public class ReviewAggregateService {
+
+    private final ProductRepository productRepository;
+    private final StoreRepository storeRepository;
+    private final ProductSearchService productSearchService;
+    private final StoreService storeService;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReviewAggregateService(ProductRepository productRepository,
+                                  StoreRepository storeRepository,
+                                  ProductSearchService productSearchService,
+                                  StoreService storeService,
+                                  PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.storeRepository = storeRepository;
+        this.productSearchService = productSearchService;
+        this.storeService = storeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
+    public void reviewAdded(UUID productId, int rating) {
+        apply(productId, validRating(rating), 0);
+    }
+
+    @Transactional
+    public void reviewRemoved(UUID productId, int rating) {
+        apply(productId, 0, validRating(rating));
+    }
+
+    @Transactional
+    public void ratingChanged(UUID productId, int oldRating, int newRating) {
+        if (oldRating != newRating) {
+            apply(productId, validRating(newRating), validRating(oldRating));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ReviewStats getProductStats(UUID productId) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        return productRepository.findReviewStatsById(productId).orElseGet(ReviewStats::new);
+    }
+
+    /**
+     * Recomputes every aggregate from the review table. Runs nightly to repair any drift,
+     * e.g. from reviews written outside this service. The aggregates are committed before the
+     * caches are dropped and the search index is rebuilt from them, so the long index rebuild
+     * holds no locks on the product and store rows.
+     */
+    @Scheduled(cron = "${reviews.aggregates.rebuild-cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.rebuildReviewStats();
+            storeRepository.rebuildReviewStats();
+            storeRepository.refreshAllAverageRatings();
+        });
+        storeService.evictAllCached();
+        productSearchService.rebuildIndex();
+    }
+
+    private void apply(UUID productId, int added, int removed) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        productRepository.applyReviewChange(productId, added, removed);
+        storeRepository.applyReviewChange(productId, added, removed);
+        storeRepository.refreshAverageRating(productId);
+        storeService.evictCachedForProduct(productId);
+        productSearchService.updateReviewStats(productId, getProductStats(productId));
+    }
+
+    private static int validRating(int rating) {
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("rating must be between 1 and 5");
+        }
+        return rating;
+    }
+}
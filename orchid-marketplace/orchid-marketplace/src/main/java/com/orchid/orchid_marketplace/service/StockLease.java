@@ -0,0 +1,209 @@
+package com.orchid.orchid_marketplace.service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One node's share of a hot product's stock: units leased from the database in chunks and
+ * handed out from striped in-memory buckets, so most reservations never touch the product row.
+ *
+ * Units leave the source before they are handed out and only go back when the lease is
+ * drained, so the source plus every node's buckets never holds more than the real stock and
+ * nothing is oversold. A reservation decrements its thread's bucket with a compare-and-set,
+ * falling back to the others; only when no bucket has enough does it take the refill lock,
+ * pool the buckets and lease another chunk. Units held by a node that dies are not recovered.
+ */
+public class StockLease {
+
+    /**
+     * Where leased units come from and go back to.
+     */
+    public interface Source {
+        // Takes between minimum and wanted units, or none when fewer than minimum are left
+        int take(int minimum, int wanted);
+
+        void giveBack(int units);
+    }
+
+    // Buckets sit a cache line apart so threads on neighbouring buckets do not contend
+    private static final int PADDING = 16;
+
+    private final Source source;
+    private final int chunk;
+    private final int stripes;
+    private final AtomicIntegerArray buckets;
+    private final ReentrantLock refill = new ReentrantLock();
+    private volatile long leasedAt = System.nanoTime();
+    // Guarded by refill
+    private boolean closed;
+
+    public StockLease(Source source, int chunk, int stripes) {
+        this.source = Objects.requireNonNull(source, "source must not be null");
+        if (chunk < 1) {
+            throw new IllegalArgumentException("chunk must be at least 1");
+        }
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two");
+        }
+        this.chunk = chunk;
+        this.stripes = stripes;
+        this.buckets = new AtomicIntegerArray(stripes * PADDING);
+    }
+
+    public boolean reserve(int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+        int home = stripe();
+        for (int i = 0; i < stripes; i++) {
+            if (tryTake((home + i) & (stripes - 1), quantity)) {
+                return true;
+            }
+        }
+        refill.lock();
+        try {
+            if (closed) {
+                return source.take(quantity, quantity) == quantity;
+            }
+            // Enough units may be left, just split over several buckets
+            int pooled = collect();
+            if (pooled < quantity) {
+                int taken = source.take(quantity - pooled, Math.max(chunk, quantity - pooled));
+                if (taken == 0) {
+                    spread(pooled);
+                    return false;
+                }
+                pooled += taken;
+                leasedAt = System.nanoTime();
+            }
+            spread(pooled - quantity);
+            return true;
+        } finally {
+            refill.unlock();
+        }
+    }
+
+    // Puts back the units of a reservation whose transaction rolled back
+    public void restore(int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+        refill.lock();
+        try {
+            if (closed) {
+                source.giveBack(quantity);
+            } else {
+                buckets.addAndGet(stripe() * PADDING, quantity);
+            }
+        } finally {
+            refill.unlock();
+        }
+    }
+
+    public int available() {
+        int units = 0;
+        for (int i = 0; i < stripes; i++) {
+            units += buckets.get(i * PADDING);
+        }
+        return units;
+    }
+
+    // Time since units were last leased from the source
+    public Duration age() {
+        return Duration.ofNanos(System.nanoTime() - leasedAt);
+    }
+
+    /**
+     * Leases another chunk ahead of demand when the buckets are running low, so reservations
+     * rarely have to refill themselves. An empty lease is left alone: it was drained or sold
+     * out, and the next reservation refills it. Returns the units taken.
+     */
+    public int topUp(int lowWater) {
+        refill.lock();
+        try {
+            int units = available();
+            if (closed || units == 0 || units >= lowWater) {
+                return 0;
+            }
+            int taken = source.take(1, chunk);
+            if (taken > 0) {
+                spread(taken);
+                leasedAt = System.nanoTime();
+            }
+            return taken;
+        } finally {
+            refill.unlock();
+        }
+    }
+
+    /**
+     * Gives every unit still held back to the source and returns how many. The lease stays
+     * usable and leases again on the next reservation that finds it empty.
+     */
+    public int drain() {
+        refill.lock();
+        try {
+            int units = collect();
+            if (units > 0) {
+                try {
+                    source.giveBack(units);
+                } catch (RuntimeException e) {
+                    spread(units);
+                    throw e;
+                }
+            }
+            return units;
+        } finally {
+            refill.unlock();
+        }
+    }
+
+    /**
+     * Drains the lease for good: later reservations and restores go straight to the source.
+     */
+    public int close() {
+        refill.lock();
+        try {
+            int units = drain();
+            closed = true;
+            return units;
+        } finally {
+            refill.unlock();
+        }
+    }
+
+    private boolean tryTake(int stripe, int quantity) {
+        int index = stripe * PADDING;
+        for (int units = buckets.get(index); units >= quantity; units = buckets.get(index)) {
+            if (buckets.compareAndSet(index, units, units - quantity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int collect() {
+        int units = 0;
+        for (int i = 0; i < stripes; i++) {
+            units += buckets.getAndSet(i * PADDING, 0);
+        }
+        return units;
+    }
+
+    private void spread(int units) {
+        int share = units / stripes;
+        int remainder = units % stripes;
+        for (int i = 0; i < stripes; i++) {
+            int add = share + (i < remainder ? 1 : 0);
+            if (add > 0) {
+                buckets.addAndGet(i * PADDING, add);
+            }
+        }
+    }
+
+    private int stripe() {
+        return (int) (Thread.currentThread().getId() & (stripes - 1));
+    }
+}
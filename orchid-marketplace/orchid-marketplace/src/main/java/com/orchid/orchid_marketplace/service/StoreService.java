@@ -1,5 +1,6 @@
 package com.orchid.orchid_marketplace.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -9,8 +10,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Profile;
 
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
+import com.orchid.orchid_marketplace.dto.StoreResponse;
+import com.orchid.orchid_marketplace.mapper.StoreMapper;
 import com.orchid.orchid_marketplace.model.Store;
 import com.orchid.orchid_marketplace.repository.StoreRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
+import com.orchid.orchid_marketplace.service.cache.WriteBehindCounters;
+
+import jakarta.annotation.PostConstruct;
 
 @Service
 @Profile("!cosmos")
@@ -19,22 +27,73 @@ public class StoreService {
     @Autowired
     private StoreRepository storeRepository;
     
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private EntityCacheRegistry entityCacheRegistry;
+    
+    @Autowired
+    private WriteBehindCounters writeBehindCounters;
+    
+    // Flushed sales change the version of the stores, so their cached responses go with it
+    @PostConstruct
+    void evictOnSalesFlush() {
+        writeBehindCounters.onFlush(WriteBehindCounters.Counter.STORE_SALES, deltas -> evictCached(deltas.keySet()));
+    }
+    
     // Get all stores
     public List<Store> getAllStores() {
         return storeRepository.findAll();
     }
     
+    // Store list as response projections, read without loading entities
+    public List<StoreResponse> listStores() {
+        return storeRepository.findAllResponses();
+    }
+    
     // Get store by ID
     public Optional<Store> getStoreById(UUID id) {
         Objects.requireNonNull(id, "id must not be null");
         return storeRepository.findById(id);
     }
     
+    // Store detail for the API, served from the STORE cache when one is configured
+    public Optional<StoreResponse> getStoreResponse(UUID id) {
+        Objects.requireNonNull(id, "id must not be null");
+        return entityCacheRegistry.get(EntityCacheRegistry.STORE, id, StoreResponse.class,
+            () -> storeRepository.findById(id).map(StoreMapper::toResponse));
+    }
+    
+    // Validator for conditional GETs of the store; not read while the pool is saturated and the cache can answer
+    public Optional<ResourceVersion> getStoreVersion(UUID id) {
+        Objects.requireNonNull(id, "id must not be null");
+        if (entityCacheRegistry.canServeWithoutDatabase(EntityCacheRegistry.STORE, id)) {
+            return Optional.of(ResourceVersion.unvalidated());
+        }
+        return storeRepository.findVersionById(id);
+    }
+    
+    public Optional<ResourceVersion> getStoreVersionBySlug(String slug) {
+        Objects.requireNonNull(slug, "slug must not be null");
+        if (entityCacheRegistry.canServeWithoutDatabase(EntityCacheRegistry.STORE, slugKey(slug))) {
+            return Optional.of(ResourceVersion.unvalidated());
+        }
+        return storeRepository.findVersionBySlug(slug);
+    }
+    
     // Get store by slug
     public Optional<Store> getStoreBySlug(String slug) {
         return storeRepository.findBySlug(slug);
     }
     
+    // Storefront detail by slug, cached in the STORE cache under "slug:<slug>"
+    public Optional<StoreResponse> getStoreResponseBySlug(String slug) {
+        Objects.requireNonNull(slug, "slug must not be null");
+        return entityCacheRegistry.get(EntityCacheRegistry.STORE, slugKey(slug), StoreResponse.class,
+            () -> storeRepository.findBySlug(slug).map(StoreMapper::toResponse));
+    }
+    
     // Get store by store name
     public Optional<Store> getStoreByName(String storeName) {
         return storeRepository.findByStoreName(storeName);
@@ -85,6 +144,7 @@ public class StoreService {
         Objects.requireNonNull(storeDetails, "storeDetails must not be null");
         return storeRepository.findById(id)
             .map(existingStore -> {
+                String previousSlug = existingStore.getSlug();
                 if (storeDetails.getStoreName() != null) {
                     // Check if new name already exists (excluding current store)
                     Optional<Store> existingWithName = storeRepository.findByStoreName(storeDetails.getStoreName());
@@ -124,6 +184,11 @@ public class StoreService {
 
                 @SuppressWarnings("null")
                 Store saved = storeRepository.save(existingStore);
+                productSearchService.refreshStore(saved);
+                evict(saved);
+                if (previousSlug != null && !previousSlug.equals(saved.getSlug())) {
+                    entityCacheRegistry.evict(EntityCacheRegistry.STORE, slugKey(previousSlug));
+                }
                 return saved;
             })
             .orElseThrow(() -> new RuntimeException("Store not found with ID: " + id));
@@ -137,6 +202,8 @@ public class StoreService {
                 store -> {
                     store.softDelete();
                     storeRepository.save(store);
+                    productSearchService.refreshStore(store);
+                    evict(store);
                 },
                 () -> { throw new RuntimeException("Store not found with ID: " + id); }
             );
@@ -150,6 +217,8 @@ public class StoreService {
                 store.setIsActive(!Boolean.TRUE.equals(store.getIsActive()));
                 @SuppressWarnings("null")
                 Store saved = storeRepository.save(store);
+                productSearchService.refreshStore(saved);
+                evict(saved);
                 return saved;
             })
             .orElseThrow(() -> new RuntimeException("Store not found with ID: " + id));
@@ -184,4 +253,40 @@ public class StoreService {
         List<Store> activeStores = storeRepository.findByIsActiveTrue();
         return activeStores.size();
     }
+    
+    /**
+     * Drops the cached responses of stores whose sales or rating columns were updated in
+     * bulk, under their id and slug keys, so that the next body matches the version.
+     */
+    public void evictCached(Collection<UUID> storeIds) {
+        Objects.requireNonNull(storeIds, "storeIds must not be null");
+        if (storeIds.isEmpty()) {
+            return;
+        }
+        storeIds.forEach(id -> entityCacheRegistry.evict(EntityCacheRegistry.STORE, id));
+        storeRepository.findSlugsByIdIn(storeIds)
+            .forEach(slug -> entityCacheRegistry.evict(EntityCacheRegistry.STORE, slugKey(slug)));
+    }
+    
+    // The store of the product, after a change to its review aggregate
+    public void evictCachedForProduct(UUID productId) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        storeRepository.findIdByProductId(productId).ifPresent(storeId -> evictCached(List.of(storeId)));
+    }
+    
+    public void evictAllCached() {
+        evictCached(storeRepository.findAllIds());
+    }
+    
+    // A store is cached under its id and its slug
+    private void evict(Store store) {
+        entityCacheRegistry.evict(EntityCacheRegistry.STORE, store.getId());
+        if (store.getSlug() != null) {
+            entityCacheRegistry.evict(EntityCacheRegistry.STORE, slugKey(store.getSlug()));
+        }
+    }
+    
+    private static String slugKey(String slug) {
+        return "slug:" + slug;
+    }
 }
\ No newline at end of file
@@ -10,9 +10,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Profile;
 
+import com.orchid.orchid_marketplace.dto.UserResponse;
+import com.orchid.orchid_marketplace.mapper.UserMapper;
 import com.orchid.orchid_marketplace.model.Role;
 import com.orchid.orchid_marketplace.model.User;
 import com.orchid.orchid_marketplace.repository.UserRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
 
 @Service
 @Profile("!cosmos")
@@ -23,6 +26,9 @@ public class UserService {
 
     @Autowired
     private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityCacheRegistry entityCacheRegistry;
     
     // Get all users
     public List<User> getAllUsers() {
@@ -35,6 +41,13 @@ public class UserService {
         return userRepository.findById(id);
     }
     
+    // User detail for the API, served from the USER cache when one is configured
+    public Optional<UserResponse> getUserResponse(UUID id) {
+        Objects.requireNonNull(id, "id must not be null");
+        return entityCacheRegistry.get(EntityCacheRegistry.USER, id, UserResponse.class,
+            () -> userRepository.findById(id).map(UserMapper::toResponse));
+    }
+    
     // Get user by email
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmail(email);
@@ -105,6 +118,7 @@ public class UserService {
 
                 @SuppressWarnings("null")
                 User saved = userRepository.save(existingUser);
+                entityCacheRegistry.evict(EntityCacheRegistry.USER, id);
                 return saved;
             })
             .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
@@ -118,6 +132,7 @@ public class UserService {
                 user -> {
                     user.softDelete();
                     userRepository.save(user);
+                    entityCacheRegistry.evict(EntityCacheRegistry.USER, id);
                 },
                 () -> { throw new RuntimeException("User not found with ID: " + id); }
             );
@@ -131,6 +146,7 @@ public class UserService {
                 user.setIsActive(!Boolean.TRUE.equals(user.getIsActive()));
                 @SuppressWarnings("null")
                 User saved = userRepository.save(user);
+                entityCacheRegistry.evict(EntityCacheRegistry.USER, id);
                 return saved;
             })
             .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
@@ -0,0 +1,96 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.orchid.orchid_marketplace.model.CacheConfiguration;
+
+/**
+ * {@code /actuator/cachestats}: the live state of every entity cache next to the TTL and
+ * maxEntries it was configured with, plus the shared single-flight and background refresh
+ * counts and the Hibernate second-level regions. {@code /actuator/cachestats/{entityType}}
+ * returns one cache.
+ * The Micrometer meters carry the same numbers as time series; this is the point-in-time view.
+ */
+@Component
+@Profile("!cosmos")
+@Endpoint(id = "cachestats")
+public class CacheStatsEndpoint {
+
+    private final EntityCacheRegistry entityCacheRegistry;
+    private final ObjectProvider<SecondLevelCacheSupport> secondLevelCacheSupport;
+
+    public CacheStatsEndpoint(EntityCacheRegistry entityCacheRegistry,
+                              ObjectProvider<SecondLevelCacheSupport> secondLevelCacheSupport) {
+        this.entityCacheRegistry = entityCacheRegistry;
+        this.secondLevelCacheSupport = secondLevelCacheSupport;
+    }
+
+    @ReadOperation
+    public Map<String, Object> caches() {
+        Map<String, Object> caches = new TreeMap<>();
+        entityCacheRegistry.getConfigurations().keySet().forEach(type -> caches.put(type, describe(type)));
+
+        SingleFlight<String, Object> flights = entityCacheRegistry.getFlights();
+        Map<String, Object> loads = new LinkedHashMap<>();
+        loads.put("loaded", flights.getLoadCount());
+        loads.put("collapsed", flights.getCollapsedCount());
+        loads.put("timedOut", flights.getTimeoutCount());
+        loads.put("staleServed", flights.getStaleServedCount());
+        loads.put("inFlight", flights.inFlightCount());
+        loads.put("refreshes", entityCacheRegistry.getRefreshCount());
+        loads.put("refreshesSkipped", entityCacheRegistry.getRefreshSkippedCount());
+        loads.put("poolSaturated", entityCacheRegistry.isConnectionPoolSaturated());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("caches", caches);
+        body.put("loads", loads);
+        SecondLevelCacheSupport hibernate = secondLevelCacheSupport.getIfAvailable();
+        if (hibernate != null) {
+            body.put("hibernateRegions", hibernate.regionStats());
+        }
+        return body;
+    }
+
+    @ReadOperation
+    public Map<String, Object> cache(@Selector String entityType) {
+        String type = entityType.trim().toUpperCase(Locale.ROOT);
+        // A null result is answered with 404
+        return entityCacheRegistry.getConfigurations().containsKey(type) ? describe(type) : null;
+    }
+
+    private Map<String, Object> describe(String type) {
+        CacheConfiguration config = entityCacheRegistry.getConfigurations().get(type);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("keyPattern", config.getCacheKeyPattern());
+        stats.put("strategy", config.getCacheStrategy());
+        stats.put("ttlSeconds", config.getCacheTtlSeconds());
+        stats.put("maxEntries", config.getMaxEntries());
+        entityCacheRegistry.getCache(type).ifPresent(cache -> {
+            long hits = cache.getHitCount();
+            long misses = cache.getMissCount();
+            stats.put("size", cache.size());
+            stats.put("capacity", cache.getMaxEntries());
+            stats.put("hits", hits);
+            stats.put("misses", misses);
+            stats.put("hitRatio", hits + misses == 0 ? null : (double) hits / (hits + misses));
+            stats.put("evictions", cache.getEvictionCount());
+            stats.put("staleHits", cache.getStaleHitCount());
+        });
+        entityCacheRegistry.getLoadStats(type).ifPresent(load -> {
+            stats.put("loads", load.getCount());
+            stats.put("meanLoadMillis", load.getMeanMillis());
+            stats.put("maxLoadMillis", load.getMaxMillis());
+        });
+        return stats;
+    }
+}
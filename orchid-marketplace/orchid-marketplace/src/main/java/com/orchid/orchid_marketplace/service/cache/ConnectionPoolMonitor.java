@@ -0,0 +1,44 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Tells cached read paths whether asking the database now would mean queueing for a
+ * connection, so they can answer from a stale entry instead of waiting out the pool's
+ * {@code connection-timeout}.
+ */
+@Component
+@Profile("!cosmos")
+public class ConnectionPoolMonitor {
+
+    private final DataSource dataSource;
+
+    public ConnectionPoolMonitor(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    // Saturated while any thread is waiting for a connection; never for a non-Hikari pool
+    public boolean isSaturated() {
+        HikariPoolMXBean pool = pool();
+        return pool != null && pool.getThreadsAwaitingConnection() > 0;
+    }
+
+    private HikariPoolMXBean pool() {
+        try {
+            // Null until the pool has started
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                ? dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean()
+                : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,566 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchid_marketplace.model.CacheConfiguration;
+import com.orchid.orchid_marketplace.repository.CacheConfigurationRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Runtime caches built from the enabled {@code cache_configurations} rows: one bounded
+ * {@link LocalCache} per entity type, sized by {@code maxEntries} and expiring after
+ * {@code cacheTtlSeconds}. Entity types without an enabled configuration are read straight
+ * through, so disabling a row turns caching off for that type.
+ *
+ * When a {@link RemoteCache} is configured it backs the local caches as a shared second
+ * level: local misses are looked up there before the loader runs, loaded values are stored
+ * there as JSON under the configuration's key pattern, and evictions are broadcast so that
+ * every node drops its local copy. Without one, or while it is down, caching is local only.
+ *
+ * Concurrent misses for the same id share one load through a {@link SingleFlight}, whether
+ * or not the type is cached, and a failed reload serves the expired entry if one is left.
+ *
+ * Stale-while-revalidate: an entry up to {@code cache.stale.max-staleness-ms} past its TTL is
+ * served at once while a background thread reloads it, and the request is marked through
+ * {@link StaleReads}. Older entries are loaded as misses and never served. No refresh is queued
+ * while the connection pool has waiters ({@link ConnectionPoolMonitor}); the stale entry keeps
+ * being served until the pool recovers or the limit is reached.
+ * The outcomes are published as {@code orchid.cache.loads}, tagged with how each read was
+ * served; {@code outcome=collapsed} counts the database reads saved. Each configured cache
+ * also publishes {@code orchid.cache.requests}, {@code .evictions}, {@code .size}, {@code .hit.ratio}
+ * and a {@code orchid.cache.load.latency} histogram, tagged with its entity type and key pattern.
+ *
+ * Configurations are reloaded whenever one is changed through {@code CacheConfigurationService}
+ * and on a fixed interval, which picks up changes made on other instances. A cache whose
+ * settings did not change keeps its entries across a reload.
+ */
+@Service
+@Profile("!cosmos")
+public class EntityCacheRegistry implements MeterBinder {
+
+    public static final String PRODUCT = "PRODUCT";
+    public static final String CATEGORY = "CATEGORY";
+    public static final String STORE = "STORE";
+    public static final String USER = "USER";
+
+    static final int DEFAULT_MAX_ENTRIES = 10_000;
+    static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(2);
+    static final Duration DEFAULT_MAX_STALENESS = Duration.ofMinutes(5);
+
+    private static final Logger log = LoggerFactory.getLogger(EntityCacheRegistry.class);
+
+    private final CacheConfigurationRepository cacheConfigurationRepository;
+    private final ObjectMapper objectMapper;
+    private final RemoteCache remoteCache;
+    private final SingleFlight<String, Object> flights;
+    private final List<BiConsumer<String, String>> remoteEvictionListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, LoadStats> loadStats = new ConcurrentHashMap<>();
+    private final Duration maxStaleness;
+    private final Executor refresher;
+    private final BooleanSupplier poolSaturated;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshesSkipped = new LongAdder();
+
+    // Set once bound, so caches enabled by a later reload get their meters too
+    private volatile MeterRegistry meterRegistry;
+
+    // Replaced wholesale on reload; readers never see a half-built map
+    private volatile Map<String, LocalCache<String, Object>> caches = Map.of();
+    private volatile Map<String, CacheConfiguration> configurations = Map.of();
+
+    @Autowired
+    public EntityCacheRegistry(CacheConfigurationRepository cacheConfigurationRepository,
+                               ObjectMapper objectMapper,
+                               ObjectProvider<RemoteCache> remoteCache,
+                               @Value("${cache.single-flight.max-wait-ms:2000}") long maxWaitMillis,
+                               @Value("${cache.stale.max-staleness-ms:300000}") long maxStalenessMillis,
+                               ObjectProvider<ConnectionPoolMonitor> connectionPool) {
+        this(cacheConfigurationRepository, objectMapper, remoteCache.getIfAvailable(), Duration.ofMillis(maxWaitMillis),
+            Duration.ofMillis(maxStalenessMillis), refreshExecutor(), saturation(connectionPool.getIfAvailable()));
+    }
+
+    EntityCacheRegistry(CacheConfigurationRepository cacheConfigurationRepository,
+                        ObjectMapper objectMapper,
+                        RemoteCache remoteCache) {
+        this(cacheConfigurationRepository, objectMapper, remoteCache, DEFAULT_MAX_WAIT);
+    }
+
+    EntityCacheRegistry(CacheConfigurationRepository cacheConfigurationRepository,
+                        ObjectMapper objectMapper,
+                        RemoteCache remoteCache,
+                        Duration maxWait) {
+        this(cacheConfigurationRepository, objectMapper, remoteCache, maxWait, DEFAULT_MAX_STALENESS,
+            Runnable::run, () -> false);
+    }
+
+    EntityCacheRegistry(CacheConfigurationRepository cacheConfigurationRepository,
+                        ObjectMapper objectMapper,
+                        RemoteCache remoteCache,
+                        Duration maxWait,
+                        Duration maxStaleness,
+                        Executor refresher,
+                        BooleanSupplier poolSaturated) {
+        if (maxStaleness.isNegative()) {
+            throw new IllegalArgumentException("maxStaleness must not be negative");
+        }
+        this.maxStaleness = maxStaleness;
+        this.refresher = Objects.requireNonNull(refresher, "refresher must not be null");
+        this.poolSaturated = Objects.requireNonNull(poolSaturated, "poolSaturated must not be null");
+        this.cacheConfigurationRepository = cacheConfigurationRepository;
+        this.objectMapper = objectMapper;
+        this.remoteCache = remoteCache;
+        this.flights = new SingleFlight<>(maxWait);
+        if (remoteCache != null) {
+            remoteCache.subscribe(this::evictAnnounced);
+        }
+    }
+
+    /**
+     * Returns the cached value for the id, or calls the loader and caches what it finds.
+     * Empty results are not cached. The id may also be an alternate key such as
+     * {@code "slug:" + slug}, as long as writes evict it too.
+     */
+    public <V> Optional<V> get(String entityType, Object id, Class<V> type, Supplier<Optional<V>> loader) {
+        Objects.requireNonNull(id, "id must not be null");
+        Objects.requireNonNull(type, "type must not be null");
+        Objects.requireNonNull(loader, "loader must not be null");
+        LocalCache<String, Object> cache = caches.get(entityType);
+        CacheConfiguration config = configurations.get(entityType);
+        String flight = entityType + ":" + id;
+        if (cache == null || config == null) {
+            return Optional.ofNullable(flights.load(flight, () -> loader.get().orElse(null), () -> null))
+                .map(type::cast);
+        }
+        String key = id.toString();
+        LocalCache.Expired<Object> expired = maxStaleness.isZero() ? null : cache.getExpired(key, maxStaleness);
+        if (expired != null) {
+            refreshInBackground(entityType, config, cache, key, type, loader);
+            StaleReads.record(expired.staleFor());
+            return Optional.of(type.cast(expired.value()));
+        }
+        return Optional.ofNullable(cache.get(key,
+                k -> flights.load(flight, () -> timedLoad(entityType, config, k, type, loader), () -> staleWithinLimit(cache, k))))
+            .map(type::cast);
+    }
+
+    /**
+     * Whether the id can be answered from the cache, fresh or within the staleness limit, while
+     * the connection pool is saturated. Callers use it to skip database reads that would only
+     * validate the cached value, such as the version lookup of a conditional GET.
+     */
+    public boolean canServeWithoutDatabase(String entityType, Object id) {
+        Objects.requireNonNull(id, "id must not be null");
+        if (!poolSaturated.getAsBoolean()) {
+            return false;
+        }
+        LocalCache<String, Object> cache = caches.get(normalize(entityType));
+        return cache != null && cache.containsUsable(id.toString(), maxStaleness);
+    }
+
+    public boolean isConnectionPoolSaturated() {
+        return poolSaturated.getAsBoolean();
+    }
+
+    /**
+     * Drops the cached value for the id now and, inside a transaction, again after commit
+     * so that a read between the write and the commit cannot re-cache the old row.
+     */
+    public void evict(String entityType, Object id) {
+        Objects.requireNonNull(id, "id must not be null");
+        String key = id.toString();
+        evictEverywhere(entityType, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictEverywhere(entityType, key);
+                }
+            });
+        }
+    }
+
+    public void evictAll(String entityType) {
+        LocalCache<String, Object> cache = caches.get(entityType);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public Optional<LocalCache<String, Object>> getCache(String entityType) {
+        Objects.requireNonNull(entityType, "entityType must not be null");
+        return Optional.ofNullable(caches.get(normalize(entityType)));
+    }
+
+    public Map<String, LocalCache<String, Object>> getCaches() {
+        return caches;
+    }
+
+    // The configuration each cache was built from, by entity type
+    public Map<String, CacheConfiguration> getConfigurations() {
+        return configurations;
+    }
+
+    public Optional<LoadStats> getLoadStats(String entityType) {
+        return Optional.ofNullable(loadStats.get(entityType));
+    }
+
+    /**
+     * Registers a callback for evictions broadcast through the {@link RemoteCache}, run before
+     * the local entry is dropped so that a reload cannot pick up what the callback clears.
+     */
+    public void onRemoteEviction(BiConsumer<String, String> listener) {
+        remoteEvictionListeners.add(Objects.requireNonNull(listener, "listener must not be null"));
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    public long getRefreshSkippedCount() {
+        return refreshesSkipped.sum();
+    }
+
+    public SingleFlight<String, Object> getFlights() {
+        return flights;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        loadCounter(registry, "loaded", SingleFlight::getLoadCount);
+        loadCounter(registry, "collapsed", SingleFlight::getCollapsedCount);
+        loadCounter(registry, "timeout", SingleFlight::getTimeoutCount);
+        loadCounter(registry, "stale", SingleFlight::getStaleServedCount);
+        Gauge.builder("orchid.cache.loads.in-flight", flights, SingleFlight::inFlightCount)
+            .description("Entity loads currently running")
+            .register(registry);
+        FunctionCounter.builder("orchid.cache.refreshes", refreshes, LongAdder::sum)
+            .description("Background reloads of entries served stale")
+            .tag("outcome", "started")
+            .register(registry);
+        FunctionCounter.builder("orchid.cache.refreshes", refreshesSkipped, LongAdder::sum)
+            .description("Background reloads of entries served stale")
+            .tag("outcome", "skipped")
+            .register(registry);
+        meterRegistry = registry;
+        bindCacheMeters(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${cache.configurations.refresh-interval-ms:60000}")
+    public void reload() {
+        List<CacheConfiguration> enabled;
+        try {
+            enabled = cacheConfigurationRepository.findByIsEnabledTrue();
+        } catch (RuntimeException e) {
+            // Keep serving with the current caches until the table is readable again
+            log.warn("Could not load cache configurations: {}", e.getMessage());
+            return;
+        }
+        Map<String, CacheConfiguration> byType = new HashMap<>();
+        enabled.stream()
+            .filter(EntityCacheRegistry::usable)
+            // Several rows for one type: the shortest TTL wins
+            .sorted(Comparator.comparing(CacheConfiguration::getCacheTtlSeconds).reversed())
+            .forEach(config -> byType.put(normalize(config.getEntityType()), config));
+
+        Map<String, LocalCache<String, Object>> current = caches;
+        Map<String, LocalCache<String, Object>> next = new HashMap<>();
+        byType.forEach((type, config) -> {
+            Duration ttl = Duration.ofSeconds(config.getCacheTtlSeconds());
+            int maxEntries = config.getMaxEntries() != null ? config.getMaxEntries() : DEFAULT_MAX_ENTRIES;
+            LocalCache<String, Object> existing = current.get(type);
+            if (existing != null && existing.getTtl().equals(ttl) && existing.getMaxEntries() == maxEntries) {
+                next.put(type, existing);
+            } else {
+                next.put(type, new LocalCache<>(maxEntries, ttl));
+            }
+        });
+        configurations = Map.copyOf(byType);
+        caches = Map.copyOf(next);
+        MeterRegistry meters = meterRegistry;
+        if (meters != null) {
+            bindCacheMeters(meters);
+        }
+        if (!next.keySet().equals(current.keySet())) {
+            log.info("Entity caches enabled for {}", next.keySet());
+        }
+    }
+
+    // One background reload per key at a time; the readers keep getting the expired value meanwhile
+    private <V> void refreshInBackground(String entityType, CacheConfiguration config, LocalCache<String, Object> cache,
+                                         String key, Class<V> type, Supplier<Optional<V>> loader) {
+        String flight = entityType + ":" + key;
+        // A saturated pool is what makes reads slow; refreshes would only queue behind them
+        if (poolSaturated.getAsBoolean()) {
+            refreshesSkipped.increment();
+            return;
+        }
+        if (!refreshing.add(flight)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    cache.refresh(key, k -> flights.load(flight, () -> timedLoad(entityType, config, k, type, loader), () -> null));
+                } catch (RuntimeException e) {
+                    log.debug("Background refresh of {} failed: {}", flight, e.getMessage());
+                } finally {
+                    refreshing.remove(flight);
+                }
+            });
+            refreshes.increment();
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(flight);
+            refreshesSkipped.increment();
+        }
+    }
+
+    // Fallback when a load fails or a waiter gives up: the expired value, within the limit only
+    private Object staleWithinLimit(LocalCache<String, Object> cache, String key) {
+        LocalCache.Expired<Object> expired = cache.getExpired(key, maxStaleness);
+        if (expired == null) {
+            return null;
+        }
+        StaleReads.record(expired.staleFor());
+        return expired.value();
+    }
+
+    private <V> V timedLoad(String entityType, CacheConfiguration config, String id, Class<V> type,
+                            Supplier<Optional<V>> loader) {
+        long start = System.nanoTime();
+        try {
+            return loadShared(config, id, type, loader);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            loadStats.computeIfAbsent(entityType, t -> new LoadStats()).record(elapsed);
+            MeterRegistry meters = meterRegistry;
+            if (meters != null) {
+                loadTimer(meters, entityType, config).record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // Local miss: the shared cache first, then the loader, whose result is shared
+    private <V> V loadShared(CacheConfiguration config, String id, Class<V> type, Supplier<Optional<V>> loader) {
+        if (remoteCache == null) {
+            return loader.get().orElse(null);
+        }
+        String key = remoteKey(config, id);
+        Optional<String> shared = remoteCache.get(key);
+        if (shared.isPresent()) {
+            try {
+                return objectMapper.readValue(shared.get(), type);
+            } catch (JsonProcessingException e) {
+                // Written by an older version of the type; replace it
+                remoteCache.delete(key);
+            }
+        }
+        V loaded = loader.get().orElse(null);
+        if (loaded != null) {
+            try {
+                remoteCache.put(key, objectMapper.writeValueAsString(loaded),
+                    Duration.ofSeconds(config.getCacheTtlSeconds()));
+            } catch (JsonProcessingException e) {
+                log.warn("Could not serialize {} {} for the shared cache: {}", config.getEntityType(), id, e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    private void evictEverywhere(String entityType, String id) {
+        evictLocal(entityType, id);
+        if (remoteCache != null) {
+            CacheConfiguration config = configurations.get(entityType);
+            // Types this node does not cache have nothing to drop or announce
+            if (config != null) {
+                remoteCache.delete(remoteKey(config, id));
+                remoteCache.publishInvalidation(entityType, id);
+            }
+        }
+    }
+
+    private void evictAnnounced(String entityType, String id) {
+        for (BiConsumer<String, String> listener : remoteEvictionListeners) {
+            try {
+                listener.accept(entityType, id);
+            } catch (RuntimeException e) {
+                log.warn("Eviction listener failed for {} {}: {}", entityType, id, e.getMessage());
+            }
+        }
+        evictLocal(entityType, id);
+    }
+
+    private void evictLocal(String entityType, String id) {
+        flights.forget(entityType + ":" + id);
+        LocalCache<String, Object> cache = caches.get(entityType);
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    // Registering an existing meter returns it, so this is safe to repeat on every reload
+    private void bindCacheMeters(MeterRegistry registry) {
+        configurations.forEach((type, config) -> {
+            Tags tags = cacheTags(type, config);
+            FunctionCounter.builder("orchid.cache.requests", this, r -> r.cacheCount(type, LocalCache::getHitCount))
+                .description("Entity cache lookups by result")
+                .tags(tags).tag("result", "hit")
+                .register(registry);
+            FunctionCounter.builder("orchid.cache.requests", this, r -> r.cacheCount(type, LocalCache::getMissCount))
+                .description("Entity cache lookups by result")
+                .tags(tags).tag("result", "miss")
+                .register(registry);
+            FunctionCounter.builder("orchid.cache.evictions", this, r -> r.cacheCount(type, LocalCache::getEvictionCount))
+                .description("Entries dropped to stay within maxEntries")
+                .tags(tags)
+                .register(registry);
+            Gauge.builder("orchid.cache.size", this, r -> r.cacheCount(type, LocalCache::size))
+                .description("Entries currently held")
+                .tags(tags)
+                .register(registry);
+            Gauge.builder("orchid.cache.hit.ratio", this, r -> r.hitRatio(type))
+                .description("Share of lookups served from the cache")
+                .tags(tags)
+                .register(registry);
+            loadTimer(registry, type, config);
+        });
+    }
+
+    private static Timer loadTimer(MeterRegistry registry, String entityType, CacheConfiguration config) {
+        return Timer.builder("orchid.cache.load.latency")
+            .description("Time to load a missed entry, shared cache lookup included")
+            .tags(cacheTags(entityType, config))
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    private static Tags cacheTags(String entityType, CacheConfiguration config) {
+        return Tags.of("cache", entityType, "key_pattern", String.valueOf(config.getCacheKeyPattern()));
+    }
+
+    // Counts of the current cache; they restart when a changed configuration replaces it
+    private double cacheCount(String entityType, ToLongFunction<LocalCache<String, Object>> count) {
+        LocalCache<String, Object> cache = caches.get(entityType);
+        return cache == null ? 0 : count.applyAsLong(cache);
+    }
+
+    private double hitRatio(String entityType) {
+        LocalCache<String, Object> cache = caches.get(entityType);
+        if (cache == null) {
+            return Double.NaN;
+        }
+        long hits = cache.getHitCount();
+        long lookups = hits + cache.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+
+    private void loadCounter(MeterRegistry registry, String outcome,
+                             ToDoubleFunction<SingleFlight<String, Object>> count) {
+        FunctionCounter.builder("orchid.cache.loads", flights, count)
+            .description("Entity cache misses by how they were served")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    // The configured pattern with the id filled in, e.g. "product:{id}" gives "product:<uuid>"
+    static String remoteKey(CacheConfiguration config, String id) {
+        String key = config.generateCacheKey(id);
+        return key != null ? key : config.getEntityType().toLowerCase(Locale.ROOT) + ":" + id;
+    }
+
+    private static boolean usable(CacheConfiguration config) {
+        return config.getEntityType() != null && !config.getEntityType().isBlank()
+            && config.getCacheTtlSeconds() != null && config.getCacheTtlSeconds() > 0
+            && (config.getMaxEntries() == null || config.getMaxEntries() > 0);
+    }
+
+    private static Executor refreshExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        // Small and bounded: a full queue drops refreshes, which leaves the stale value in place
+        return new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(256), task -> {
+            Thread thread = new Thread(task, "cache-refresh-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static BooleanSupplier saturation(ConnectionPoolMonitor monitor) {
+        return monitor == null ? () -> false : monitor::isSaturated;
+    }
+
+    private static String normalize(String entityType) {
+        return entityType == null ? null : entityType.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Load times of one entity type since startup, kept apart from the meter registry so
+     * that they can be reported whether or not metrics are exported.
+     */
+    public static final class LoadStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getMeanMillis() {
+            long loads = count.sum();
+            return loads == 0 ? 0 : totalNanos.sum() / 1e6 / loads;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+    }
+}
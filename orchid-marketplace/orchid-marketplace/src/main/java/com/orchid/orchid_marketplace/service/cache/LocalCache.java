@@ -0,0 +1,224 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process cache with a time-to-live per entry and least-recently-used eviction
+ * once {@code maxEntries} is reached. Expired entries are misses, but are kept until they
+ * are reloaded, invalidated or evicted, so {@link #getExpired} can serve them, within a staleness
+ * limit, while a {@link #refresh} runs or when a reload fails.
+ *
+ * A value loaded on a miss is only stored if its key was not invalidated while it loaded, so
+ * a read racing a write cannot put the pre-write value back; loads of other keys are not
+ * affected. Null loads are not cached.
+ */
+public final class LocalCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Loads in flight per key; invalidating a key drops its load, so the value is not stored
+    private final Map<K, Load> loads = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long staleHits;
+
+    public LocalCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    LocalCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        Objects.requireNonNull(ttl, "ttl must not be null");
+        if (ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Objects.requireNonNull(loader, "loader must not be null");
+        Load load;
+        synchronized (this) {
+            V cached = lookup(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            load = startLoad(key);
+        }
+        V loaded = null;
+        try {
+            loaded = loader.apply(key);
+        } finally {
+            synchronized (this) {
+                if (finishLoad(key, load) && loaded != null) {
+                    store(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized V getIfPresent(K key) {
+        return lookup(key);
+    }
+
+    /**
+     * The value for an entry that expired no more than {@code maxStaleness} ago, with how long
+     * ago that was; null for fresh, missing or too old entries. Counted as a stale hit.
+     */
+    public synchronized Expired<V> getExpired(K key, Duration maxStaleness) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long staleFor = clock.getAsLong() - entry.expiresAt;
+        if (staleFor < 0 || staleFor > maxStaleness.toNanos()) {
+            return null;
+        }
+        staleHits++;
+        return new Expired<>(entry.value, Duration.ofNanos(staleFor));
+    }
+
+    // Whether the key has a value, fresh or at most maxStaleness past its expiry
+    public synchronized boolean containsUsable(K key, Duration maxStaleness) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && clock.getAsLong() - entry.expiresAt <= maxStaleness.toNanos();
+    }
+
+    /**
+     * Reloads the key in the background of readers that are served the expired value. Like a
+     * miss in {@link #get}, the result is dropped if the key was invalidated meanwhile; an
+     * empty result removes the entry, since the row is gone.
+     */
+    public V refresh(K key, Function<? super K, ? extends V> loader) {
+        Objects.requireNonNull(loader, "loader must not be null");
+        Load load;
+        synchronized (this) {
+            load = startLoad(key);
+        }
+        V loaded = null;
+        boolean completed = false;
+        try {
+            loaded = loader.apply(key);
+            completed = true;
+        } finally {
+            synchronized (this) {
+                if (finishLoad(key, load) && completed) {
+                    if (loaded != null) {
+                        store(key, loaded);
+                    } else {
+                        entries.remove(key);
+                    }
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void put(K key, V value) {
+        Objects.requireNonNull(value, "value must not be null");
+        store(key, value);
+    }
+
+    public synchronized void invalidate(K key) {
+        loads.remove(key);
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        loads.clear();
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public Duration getTtl() {
+        return Duration.ofNanos(ttlNanos);
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized long getStaleHitCount() {
+        return staleHits;
+    }
+
+    private V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (clock.getAsLong() - entry.expiresAt >= 0) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    // Concurrent loads of a key started since its last invalidation share one token
+    private Load startLoad(K key) {
+        Load load = loads.computeIfAbsent(key, k -> new Load());
+        load.pending++;
+        return load;
+    }
+
+    // Whether the key is still unchanged since the load started, so its result may be stored
+    private boolean finishLoad(K key, Load load) {
+        load.pending--;
+        if (loads.get(key) != load) {
+            return false;
+        }
+        if (load.pending == 0) {
+            loads.remove(key);
+        }
+        return true;
+    }
+
+    private void store(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.getAsLong() + ttlNanos));
+        if (entries.size() > maxEntries) {
+            // Access order, so the first entry is the least recently used
+            entries.remove(entries.keySet().iterator().next());
+            evictions++;
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    private static final class Load {
+        private int pending;
+    }
+
+    public record Expired<V>(V value, Duration staleFor) {}
+}
@@ -0,0 +1,153 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Hibernate second-level cache regions kept in-process in {@link LocalCache}s, so the
+ * {@code @Cache} entities and cacheable queries need no external cache provider.
+ *
+ * Entity, collection and query-result regions are bounded by
+ * {@code hibernate.cache.local.max_entries} and expire after {@code hibernate.cache.local.ttl_seconds}.
+ * Writes through Hibernate keep them correct on this instance; the TTL bounds how long another
+ * instance can serve a row changed elsewhere. The update-timestamps region is never evicted:
+ * losing a timestamp could let a query cache entry outlive a write to its table.
+ */
+public class LocalCacheRegionFactory extends RegionFactoryTemplate {
+
+    public static final String MAX_ENTRIES = "hibernate.cache.local.max_entries";
+    public static final String TTL_SECONDS = "hibernate.cache.local.ttl_seconds";
+
+    private int maxEntries = 10_000;
+    private Duration ttl = Duration.ofMinutes(10);
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        Object max = configValues.get(MAX_ENTRIES);
+        if (max != null) {
+            maxEntries = Integer.parseInt(max.toString().trim());
+        }
+        Object seconds = configValues.get(TTL_SECONDS);
+        if (seconds != null) {
+            ttl = Duration.ofSeconds(Long.parseLong(seconds.toString().trim()));
+        }
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        // Regions are released individually
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new BoundedStorage(new LocalCache<>(maxEntries, ttl));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new BoundedStorage(new LocalCache<>(maxEntries, ttl));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        // One entry per table, so unbounded is fine
+        return new TimestampsStorage();
+    }
+
+    static final class BoundedStorage implements DomainDataStorageAccess {
+
+        private final LocalCache<Object, Object> cache;
+
+        BoundedStorage(LocalCache<Object, Object> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            if (value == null) {
+                cache.invalidate(key);
+            } else {
+                cache.put(key, value);
+            }
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.getIfPresent(key) != null;
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+        }
+
+        int size() {
+            return cache.size();
+        }
+    }
+
+    static final class TimestampsStorage implements StorageAccess {
+
+        private final ConcurrentHashMap<Object, Object> timestamps = new ConcurrentHashMap<>();
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return timestamps.get(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            if (value == null) {
+                timestamps.remove(key);
+            } else {
+                timestamps.put(key, value);
+            }
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return timestamps.containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            timestamps.clear();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            timestamps.remove(key);
+        }
+
+        @Override
+        public void release() {
+            timestamps.clear();
+        }
+    }
+}
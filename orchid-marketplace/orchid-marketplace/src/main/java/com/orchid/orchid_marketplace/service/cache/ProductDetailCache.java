@@ -0,0 +1,169 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Product detail payloads kept as serialized UTF-8 JSON, so a hit is written to the response as
+ * it is, without loading entities or running Jackson.
+ *
+ * Each entry remembers the version it was built for ({@code ProductRepository.findDetailVersionById},
+ * read on every request anyway for the conditional GET) and only answers that version, so a change
+ * made on another instance is never served from here. Product writes also drop the entry at once,
+ * and evictions broadcast for {@code PRODUCT} drop it on every node.
+ *
+ * While the connection pool is saturated the version is not read; an unvalidated version
+ * ({@link ResourceVersion#unvalidated()}) takes whatever entry is held, at most its TTL old.
+ */
+@Component
+@Profile("!cosmos")
+public class ProductDetailCache implements MeterBinder {
+
+    public static final String NAME = "PRODUCT_DETAIL";
+
+    private final ObjectMapper objectMapper;
+    private final LocalCache<UUID, Entry> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public ProductDetailCache(ObjectMapper objectMapper,
+                              EntityCacheRegistry entityCacheRegistry,
+                              @Value("${cache.product-detail.max-entries:5000}") int maxEntries,
+                              @Value("${cache.product-detail.ttl-seconds:600}") long ttlSeconds) {
+        this(objectMapper, maxEntries, Duration.ofSeconds(ttlSeconds));
+        entityCacheRegistry.onRemoteEviction((entityType, id) -> {
+            if (EntityCacheRegistry.PRODUCT.equals(entityType)) {
+                parseId(id).ifPresent(cache::invalidate);
+            }
+        });
+    }
+
+    ProductDetailCache(ObjectMapper objectMapper, int maxEntries, Duration ttl) {
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper must not be null");
+        this.cache = new LocalCache<>(maxEntries, ttl);
+    }
+
+    /**
+     * Returns the JSON built for this version of the product, or serializes what the loader
+     * returns and keeps it. The loader must read from the database rather than another cache,
+     * so that the bytes stored under a version are never older than it.
+     */
+    public Optional<byte[]> get(UUID productId, ResourceVersion version, Supplier<? extends Optional<?>> loader) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        Objects.requireNonNull(version, "version must not be null");
+        String tag = version.getETag();
+        Entry entry = cache.getIfPresent(productId);
+        if (entry != null && (tag == null || entry.version.equals(tag))) {
+            hits.increment();
+            return Optional.of(entry.json);
+        }
+        misses.increment();
+        Optional<?> body = loader.get();
+        if (body.isEmpty()) {
+            return Optional.empty();
+        }
+        byte[] json = serialize(productId, body.get());
+        // Rows without a timestamp have no version to check entries against
+        if (tag != null) {
+            cache.put(productId, new Entry(tag, json));
+        }
+        return Optional.of(json);
+    }
+
+    /**
+     * Drops the entry now and, inside a transaction, again after commit.
+     */
+    public void evict(UUID productId) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        cache.invalidate(productId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(productId);
+                }
+            });
+        }
+    }
+
+    // Fresh entry held for the product; not counted as a lookup
+    public boolean contains(UUID productId) {
+        return cache.containsUsable(productId, Duration.ZERO);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("orchid.cache.requests", hits, LongAdder::sum)
+            .description("Entity cache lookups by result")
+            .tags("cache", NAME, "key_pattern", "product-detail:{id}", "result", "hit")
+            .register(registry);
+        FunctionCounter.builder("orchid.cache.requests", misses, LongAdder::sum)
+            .description("Entity cache lookups by result")
+            .tags("cache", NAME, "key_pattern", "product-detail:{id}", "result", "miss")
+            .register(registry);
+        Gauge.builder("orchid.cache.size", cache, LocalCache::size)
+            .description("Entries currently held")
+            .tags("cache", NAME, "key_pattern", "product-detail:{id}")
+            .register(registry);
+    }
+
+    private byte[] serialize(UUID productId, Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product detail " + productId, e);
+        }
+    }
+
+    private static Optional<UUID> parseId(String id) {
+        try {
+            return Optional.of(UUID.fromString(id));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static final class Entry {
+
+        private final String version;
+        private final byte[] json;
+
+        Entry(String version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link RemoteCache} on Redis: values are strings with a TTL, invalidations go out on a
+ * pub/sub channel. Enabled with {@code spring.data.redis.enabled=true}.
+ *
+ * After a failed call Redis is skipped for {@code cache.redis.retry-after-ms}, so an outage
+ * costs one timeout per interval instead of one per request. The listener container keeps
+ * trying to resubscribe on its own; invalidations published while it was down are lost and
+ * local entries then live until their TTL.
+ */
+@Component
+@Profile("!cosmos")
+@ConditionalOnProperty(prefix = "spring.data.redis", name = "enabled", havingValue = "true")
+public class RedisRemoteCache implements RemoteCache, DisposableBean {
+
+    static final String CHANNEL = "orchid:cache:invalidate";
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRemoteCache.class);
+
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listeners;
+    private final long retryAfterMillis;
+
+    private volatile long unavailableUntil;
+
+    public RedisRemoteCache(RedisConnectionFactory connectionFactory,
+                            @Value("${cache.redis.retry-after-ms:30000}") long retryAfterMillis) {
+        this.redis = new StringRedisTemplate(connectionFactory);
+        this.listeners = new RedisMessageListenerContainer();
+        this.listeners.setConnectionFactory(connectionFactory);
+        this.listeners.afterPropertiesSet();
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        return Optional.ofNullable(call(() -> redis.opsForValue().get(key)));
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        call(() -> {
+            redis.opsForValue().set(key, value, ttl);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(String key) {
+        call(() -> redis.delete(key));
+    }
+
+    @Override
+    public void publishInvalidation(String entityType, String id) {
+        call(() -> redis.convertAndSend(CHANNEL, entityType + ":" + id));
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, String> listener) {
+        listeners.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.indexOf(':');
+            if (separator > 0) {
+                listener.accept(body.substring(0, separator), body.substring(separator + 1));
+            }
+        }, new ChannelTopic(CHANNEL));
+        if (!listeners.isRunning()) {
+            try {
+                listeners.start();
+            } catch (RuntimeException e) {
+                log.warn("Redis cache invalidation channel unavailable: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        listeners.destroy();
+    }
+
+    private <T> T call(Supplier<T> operation) {
+        if (System.currentTimeMillis() < unavailableUntil) {
+            return null;
+        }
+        try {
+            return operation.get();
+        } catch (RuntimeException e) {
+            unavailableUntil = System.currentTimeMillis() + retryAfterMillis;
+            log.warn("Redis cache unavailable, using local caches only for {} ms: {}", retryAfterMillis, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Second-level cache shared by every node, plus the channel used to tell the other nodes
+ * to drop their local copies. Implementations must not throw when the backing store is
+ * unavailable: reads miss and writes are skipped, so callers fall back to local caching.
+ */
+public interface RemoteCache {
+
+    Optional<String> get(String key);
+
+    void put(String key, String value, Duration ttl);
+
+    void delete(String key);
+
+    // Broadcasts an eviction of (entityType, id) to every subscribed node, this one included
+    void publishInvalidation(String entityType, String id);
+
+    void subscribe(BiConsumer<String, String> listener);
+}
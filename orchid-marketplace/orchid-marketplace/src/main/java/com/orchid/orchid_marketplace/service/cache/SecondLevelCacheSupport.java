@@ -0,0 +1,127 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.ToDoubleFunction;
+
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Store;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Applies evictions broadcast by other instances for stores and categories to the Hibernate
+ * second-level cache ({@link LocalCacheRegionFactory}), so a node that drops its entity cache
+ * entry does not reload the old row from its own second-level copy. Also publishes hit, miss
+ * and put counts per region as {@code orchid.hibernate.cache.*}.
+ */
+@Component
+@Profile("!cosmos")
+public class SecondLevelCacheSupport implements MeterBinder {
+
+    private static final Map<String, Class<?>> CACHED_ENTITIES = Map.of(
+        EntityCacheRegistry.STORE, Store.class,
+        EntityCacheRegistry.CATEGORY, Category.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public SecondLevelCacheSupport(EntityManagerFactory entityManagerFactory, EntityCacheRegistry entityCacheRegistry) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        entityCacheRegistry.onRemoteEviction(this::evictAnnounced);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = sessionFactory.getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) {
+                continue;
+            }
+            regionCounter(registry, "orchid.hibernate.cache.requests", region, "hit", stats, CacheRegionStatistics::getHitCount);
+            regionCounter(registry, "orchid.hibernate.cache.requests", region, "miss", stats, CacheRegionStatistics::getMissCount);
+            FunctionCounter.builder("orchid.hibernate.cache.puts", stats, CacheRegionStatistics::getPutCount)
+                .description("Entries written to the second-level cache")
+                .tag("region", region)
+                .register(registry);
+        }
+        FunctionCounter.builder("orchid.hibernate.query.cache.requests", statistics, Statistics::getQueryCacheHitCount)
+            .description("Cacheable query executions by query cache result")
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("orchid.hibernate.query.cache.requests", statistics, Statistics::getQueryCacheMissCount)
+            .description("Cacheable query executions by query cache result")
+            .tag("result", "miss")
+            .register(registry);
+    }
+
+    // Per-region counts for the cachestats endpoint; empty when statistics are off
+    public Map<String, Map<String, Object>> regionStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Map<String, Object>> regions = new LinkedHashMap<>();
+        if (!statistics.isStatisticsEnabled()) {
+            return regions;
+        }
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) {
+                continue;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("size", stats.getElementCountInMemory());
+            entry.put("hits", stats.getHitCount());
+            entry.put("misses", stats.getMissCount());
+            entry.put("puts", stats.getPutCount());
+            regions.put(region, entry);
+        }
+        return regions;
+    }
+
+    void evictAnnounced(String entityType, String id) {
+        Class<?> entity = CACHED_ENTITIES.get(entityType);
+        UUID key = parseId(id);
+        if (entity == null || key == null) {
+            return;
+        }
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(entity, key);
+        if (entity == Category.class) {
+            // Parents' child lists and cached category queries may include the changed row
+            cache.evictCollectionData(Category.class.getName() + ".subCategories");
+            cache.evictDefaultQueryRegion();
+        }
+    }
+
+    private static void regionCounter(MeterRegistry registry, String name, String region, String result,
+                                      CacheRegionStatistics stats,
+                                      ToDoubleFunction<CacheRegionStatistics> count) {
+        FunctionCounter.builder(name, stats, count)
+            .description("Second-level cache lookups by result")
+            .tag("region", region)
+            .tag("result", result)
+            .register(registry);
+    }
+
+    private static UUID parseId(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            // Alternate keys such as "slug:..." have no entity row of their own
+            return null;
+        }
+    }
+}
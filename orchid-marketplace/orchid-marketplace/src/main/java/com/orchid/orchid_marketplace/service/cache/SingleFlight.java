@@ -0,0 +1,127 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller runs the loader,
+ * callers arriving while it runs wait for its result instead of running their own.
+ *
+ * Waiters give up after {@code maxWait}. When the load fails or a waiter gives up, the
+ * stale value is returned if the caller has one; otherwise a failed load rethrows its error
+ * and a waiter that timed out runs the loader itself, so a stuck load delays requests by at
+ * most {@code maxWait} instead of failing them. Null results are passed on like any other.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+
+    public SingleFlight(Duration maxWait) {
+        Objects.requireNonNull(maxWait, "maxWait must not be null");
+        if (maxWait.isZero() || maxWait.isNegative()) {
+            throw new IllegalArgumentException("maxWait must be positive");
+        }
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    public V load(K key, Supplier<? extends V> loader, Supplier<? extends V> stale) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(loader, "loader must not be null");
+        Objects.requireNonNull(stale, "stale must not be null");
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+        if (running == null) {
+            return lead(key, own, loader, stale);
+        }
+        collapsed.increment();
+        try {
+            return running.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            return staleOrThrow(stale, e.getCause());
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            V fallback = stale.get();
+            if (fallback != null) {
+                staleServed.increment();
+                return fallback;
+            }
+            loads.increment();
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + key, e);
+        }
+    }
+
+    /**
+     * Detaches a running load from the key, so callers from now on start a fresh one
+     * instead of joining a load that may have read the row before it changed.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    // Loads actually run, by a first caller or by a waiter that gave up
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    // Callers served by another caller's load instead of their own
+    public long getCollapsedCount() {
+        return collapsed.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    public long getStaleServedCount() {
+        return staleServed.sum();
+    }
+
+    private V lead(K key, CompletableFuture<V> own, Supplier<? extends V> loader, Supplier<? extends V> stale) {
+        loads.increment();
+        try {
+            V loaded = loader.get();
+            own.complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            return staleOrThrow(stale, e);
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private V staleOrThrow(Supplier<? extends V> stale, Throwable failure) {
+        V fallback = stale.get();
+        if (fallback != null) {
+            staleServed.increment();
+            return fallback;
+        }
+        if (failure instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        throw new IllegalStateException(failure);
+    }
+}
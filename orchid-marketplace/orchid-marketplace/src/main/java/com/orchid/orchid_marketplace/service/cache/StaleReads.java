@@ -0,0 +1,38 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Records on the current request that a cached value past its TTL was served, so the web
+ * layer can say so in the response. Outside a request it does nothing.
+ */
+public final class StaleReads {
+
+    private static final String ATTRIBUTE = StaleReads.class.getName() + ".staleFor";
+
+    private StaleReads() {}
+
+    // Several stale reads in one request: the stalest one counts
+    public static void record(Duration staleFor) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        Object previous = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (!(previous instanceof Duration recorded) || staleFor.compareTo(recorded) > 0) {
+            attributes.setAttribute(ATTRIBUTE, staleFor, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public static Optional<Duration> current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((Duration) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+}
@@ -0,0 +1,200 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.orchid.orchid_marketplace.model.Store;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The WRITE_BEHIND strategy for hot counters: increments are accumulated in memory and
+ * written in periodic batches of {@code UPDATE ... SET x = x + ?}, one statement per row
+ * touched since the last flush, instead of one row-locking update per event.
+ *
+ * Deltas are spread over striped maps chosen by thread, so threads bumping the same row
+ * rarely contend; a flush drains every stripe with atomic removes, so no increment is lost
+ * or counted twice. Increments made inside a transaction are only queued once it commits.
+ * A failed flush puts its deltas back for the next one, and the bean flushes on shutdown.
+ * Counts written this way trail the truth by up to one flush interval. Listeners registered
+ * with {@link #onFlush} get each counter's deltas once its batch has committed.
+ */
+@Service
+@Profile("!cosmos")
+public class WriteBehindCounters {
+
+    public enum Counter {
+        PRODUCT_SOLD("UPDATE products SET sold_count = COALESCE(sold_count, 0) + ? WHERE id = ?", null),
+        PRODUCT_FAVORITES("UPDATE products SET favorite_count = favorite_count + ? WHERE id = ?", null),
+        PRODUCT_VIEWS("UPDATE products SET view_count = view_count + ? WHERE id = ?", null),
+        STORE_SALES("UPDATE stores SET total_sales = COALESCE(total_sales, 0) + ? WHERE id = ?", Store.class);
+
+        private final String sql;
+        // Entity held in the second-level cache, whose copies go stale when the SQL runs
+        private final Class<?> cachedEntity;
+
+        Counter(String sql, Class<?> cachedEntity) {
+            this.sql = sql;
+            this.cachedEntity = cachedEntity;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindCounters.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final List<ConcurrentHashMap<Key, Long>> stripes;
+    private final Map<Counter, List<Consumer<Map<UUID, Long>>>> flushListeners = new EnumMap<>(Counter.class);
+
+    public WriteBehindCounters(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, null);
+    }
+
+    @Autowired
+    public WriteBehindCounters(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        // A power of two, at least twice the number of cores
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        this.stripes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stripes.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    public void increment(Counter counter, UUID id, long delta) {
+        Objects.requireNonNull(counter, "counter must not be null");
+        Objects.requireNonNull(id, "id must not be null");
+        if (delta == 0) {
+            return;
+        }
+        Key key = new Key(counter, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(key, delta);
+                }
+            });
+        } else {
+            add(key, delta);
+        }
+    }
+
+    /**
+     * Registers a callback run with the deltas of every committed batch of the counter, e.g.
+     * to drop caches of the rows it changed. A failing callback does not re-queue the deltas.
+     */
+    public synchronized void onFlush(Counter counter, Consumer<Map<UUID, Long>> listener) {
+        Objects.requireNonNull(counter, "counter must not be null");
+        Objects.requireNonNull(listener, "listener must not be null");
+        flushListeners.computeIfAbsent(counter, c -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    // Delta not yet written for the row, e.g. to correct a count read from the database
+    public long pending(Counter counter, UUID id) {
+        Key key = new Key(counter, id);
+        long total = 0;
+        for (ConcurrentHashMap<Key, Long> stripe : stripes) {
+            total += stripe.getOrDefault(key, 0L);
+        }
+        return total;
+    }
+
+    /**
+     * Writes every accumulated delta and returns the number of rows updated. Batches of
+     * different counters commit independently; a batch that fails is re-queued.
+     */
+    @Scheduled(fixedDelayString = "${counters.write-behind.flush-interval-ms:5000}")
+    public synchronized int flush() {
+        Map<Counter, Map<UUID, Long>> drained = new EnumMap<>(Counter.class);
+        for (ConcurrentHashMap<Key, Long> stripe : stripes) {
+            for (Key key : stripe.keySet()) {
+                Long delta = stripe.remove(key);
+                if (delta != null) {
+                    drained.computeIfAbsent(key.counter(), c -> new HashMap<>()).merge(key.id(), delta, Long::sum);
+                }
+            }
+        }
+        int written = 0;
+        for (Map.Entry<Counter, Map<UUID, Long>> entry : drained.entrySet()) {
+            List<Object[]> rows = new ArrayList<>(entry.getValue().size());
+            entry.getValue().forEach((id, delta) -> {
+                if (delta != 0) {
+                    rows.add(new Object[] {delta, id});
+                }
+            });
+            if (rows.isEmpty()) {
+                continue;
+            }
+            try {
+                jdbcTemplate.batchUpdate(entry.getKey().sql, rows);
+            } catch (RuntimeException e) {
+                log.warn("Could not flush {} {} counters, retrying next flush: {}",
+                    rows.size(), entry.getKey(), e.getMessage());
+                for (Object[] row : rows) {
+                    add(new Key(entry.getKey(), (UUID) row[1]), (Long) row[0]);
+                }
+                continue;
+            }
+            written += rows.size();
+            evictCached(entry.getKey(), entry.getValue().keySet());
+            notifyFlushed(entry.getKey(), entry.getValue());
+        }
+        return written;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int written = flush();
+        if (written > 0) {
+            log.info("Flushed {} write-behind counters on shutdown", written);
+        }
+    }
+
+    // Plain JDBC bypasses Hibernate, so its cached copies of the rows are dropped by hand
+    private void evictCached(Counter counter, Iterable<UUID> ids) {
+        if (counter.cachedEntity == null || entityManagerFactory == null) {
+            return;
+        }
+        for (UUID id : ids) {
+            entityManagerFactory.getCache().evict(counter.cachedEntity, id);
+        }
+    }
+
+    private void notifyFlushed(Counter counter, Map<UUID, Long> deltas) {
+        for (Consumer<Map<UUID, Long>> listener : flushListeners.getOrDefault(counter, List.of())) {
+            try {
+                listener.accept(deltas);
+            } catch (RuntimeException e) {
+                log.warn("Flush listener for {} counters failed: {}", counter, e.getMessage());
+            }
+        }
+    }
+
+    private void add(Key key, long delta) {
+        int stripe = (int) (Thread.currentThread().getId() & (stripes.size() - 1));
+        stripes.get(stripe).merge(key, delta, Long::sum);
+    }
+
+    private record Key(Counter counter, UUID id) {}
+}
@@ -0,0 +1,415 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.Store;
+
+/**
+ * In-memory typeahead over product titles, tags, category names and store names.
+ *
+ * Every suggestion is stored in a {@link RadixTrie} under each of its word-start
+ * suffixes, so "phal" completes "White Phalaenopsis". Products are weighted by their
+ * sold count; tags, categories and stores by the sold count of the active products
+ * that carry them, and disappear once no indexed product does. Updates are applied
+ * per product, store or category, never by rebuilding the structure.
+ */
+public class AutocompleteIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private RadixTrie<Entry> trie = new RadixTrie<>();
+    private final Map<UUID, Entry> products = new HashMap<>();
+    private final Map<String, Entry> tags = new HashMap<>();
+    private final Map<UUID, Entry> categories = new HashMap<>();
+    private final Map<UUID, Entry> stores = new HashMap<>();
+    private final Map<UUID, Contribution> contributions = new HashMap<>();
+
+    /**
+     * Adds or replaces the product's suggestions and its share of the tag, category
+     * and store weights. Inactive products are removed.
+     * Must be called while the product's tags, category and store are loadable.
+     */
+    public void index(Product product) {
+        Objects.requireNonNull(product, "product must not be null");
+        Objects.requireNonNull(product.getId(), "product id must not be null");
+        if (!Boolean.TRUE.equals(product.getIsActive())) {
+            remove(product.getId());
+            return;
+        }
+
+        long weight = product.getSoldCount() != null ? Math.max(0, product.getSoldCount()) : 0;
+        Set<String> tagTexts = new LinkedHashSet<>();
+        if (product.getTags() != null) {
+            for (String tag : product.getTags()) {
+                if (tag != null && !normalize(tag).isEmpty()) {
+                    tagTexts.add(tag.trim());
+                }
+            }
+        }
+        Category category = product.getCategory();
+        Store store = product.getStore();
+
+        lock.writeLock().lock();
+        try {
+            withdraw(product.getId());
+
+            Entry entry = new Entry(SuggestionType.PRODUCT, product.getId(), product.getTitle(), weight);
+            products.put(product.getId(), entry);
+            insert(entry);
+
+            Contribution contribution = new Contribution(weight);
+            for (String tag : tagTexts) {
+                String tagKey = normalize(tag);
+                if (contribution.tagKeys.add(tagKey)) {
+                    Entry tagEntry = tags.computeIfAbsent(tagKey, k -> new Entry(SuggestionType.TAG, null, tag, 0));
+                    addShare(tagEntry, weight);
+                }
+            }
+            if (category != null && category.getId() != null) {
+                contribution.categoryId = category.getId();
+                Entry categoryEntry = categories.computeIfAbsent(category.getId(),
+                    id -> new Entry(SuggestionType.CATEGORY, id, null, 0));
+                relabel(categoryEntry, categoryTexts(category), isVisible(category));
+                addShare(categoryEntry, weight);
+            }
+            if (store != null && store.getId() != null) {
+                contribution.storeId = store.getId();
+                Entry storeEntry = stores.computeIfAbsent(store.getId(),
+                    id -> new Entry(SuggestionType.STORE, id, null, 0));
+                relabel(storeEntry, List.of(Objects.toString(store.getStoreName(), "")), isVisible(store));
+                addShare(storeEntry, weight);
+            }
+            contributions.put(product.getId(), contribution);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID productId) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        lock.writeLock().lock();
+        try {
+            withdraw(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Picks up a renamed, hidden or deactivated category. Categories without indexed
+     * products are not suggested, so unknown ids are ignored.
+     */
+    public void updateCategory(Category category) {
+        Objects.requireNonNull(category, "category must not be null");
+        lock.writeLock().lock();
+        try {
+            Entry entry = categories.get(category.getId());
+            if (entry != null) {
+                relabel(entry, categoryTexts(category), isVisible(category));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Picks up a renamed, private or deactivated store.
+     */
+    public void updateStore(Store store) {
+        Objects.requireNonNull(store, "store must not be null");
+        lock.writeLock().lock();
+        try {
+            Entry entry = stores.get(store.getId());
+            if (entry != null) {
+                relabel(entry, List.of(Objects.toString(store.getStoreName(), "")), isVisible(store));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the product's weight, and its share of its tag, category and store weights,
+     * by a sold count change. Unknown products are ignored.
+     */
+    public void adjustSoldCount(UUID productId, long delta) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        lock.writeLock().lock();
+        try {
+            Entry entry = products.get(productId);
+            Contribution contribution = contributions.get(productId);
+            if (entry == null || contribution == null) {
+                return;
+            }
+            long weight = Math.max(0, contribution.weight + delta);
+            long change = weight - contribution.weight;
+            if (change == 0) {
+                return;
+            }
+            contribution.weight = weight;
+            shift(entry, change);
+            for (String tagKey : contribution.tagKeys) {
+                shift(tags.get(tagKey), change);
+            }
+            if (contribution.categoryId != null) {
+                shift(categories.get(contribution.categoryId), change);
+            }
+            if (contribution.storeId != null) {
+                shift(stores.get(contribution.storeId), change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            trie = new RadixTrie<>();
+            products.clear();
+            tags.clear();
+            categories.clear();
+            stores.clear();
+            contributions.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit suggestions whose text has a word starting with the
+     * normalized prefix, heaviest first.
+     */
+    public List<AutocompleteSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Entry> top = trie.top(key, limit);
+            List<AutocompleteSuggestion> suggestions = new ArrayList<>(top.size());
+            for (Entry entry : top) {
+                suggestions.add(new AutocompleteSuggestion(entry.type, entry.text, entry.id, entry.weight));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Takes the product's own suggestion and its weight share out of the shared entries
+    private void withdraw(UUID productId) {
+        Entry entry = products.remove(productId);
+        if (entry != null) {
+            delete(entry);
+        }
+        Contribution contribution = contributions.remove(productId);
+        if (contribution == null) {
+            return;
+        }
+        for (String tagKey : contribution.tagKeys) {
+            Entry tagEntry = tags.get(tagKey);
+            if (tagEntry != null && removeShare(tagEntry, contribution.weight)) {
+                tags.remove(tagKey);
+            }
+        }
+        if (contribution.categoryId != null) {
+            Entry categoryEntry = categories.get(contribution.categoryId);
+            if (categoryEntry != null && removeShare(categoryEntry, contribution.weight)) {
+                categories.remove(contribution.categoryId);
+            }
+        }
+        if (contribution.storeId != null) {
+            Entry storeEntry = stores.get(contribution.storeId);
+            if (storeEntry != null && removeShare(storeEntry, contribution.weight)) {
+                stores.remove(contribution.storeId);
+            }
+        }
+    }
+
+    private void addShare(Entry entry, long weight) {
+        entry.products++;
+        if (entry.products == 1 && entry.visible) {
+            entry.weight = weight;
+            insert(entry);
+        } else if (weight > 0) {
+            entry.weight += weight;
+            if (entry.visible && entry.products > 1) {
+                for (String key : keys(entry)) {
+                    trie.raise(key, entry.weight);
+                }
+            }
+        }
+    }
+
+    // True once no product carries the entry any more; it is then out of the trie
+    private boolean removeShare(Entry entry, long weight) {
+        entry.products--;
+        if (entry.products <= 0) {
+            if (entry.visible) {
+                delete(entry);
+            }
+            return true;
+        }
+        if (weight > 0) {
+            entry.weight -= weight;
+            reweigh(entry);
+        }
+        return false;
+    }
+
+    private void shift(Entry entry, long change) {
+        if (entry == null) {
+            return;
+        }
+        entry.weight += change;
+        if (change > 0) {
+            if (entry.visible) {
+                for (String key : keys(entry)) {
+                    trie.raise(key, entry.weight);
+                }
+            }
+        } else {
+            reweigh(entry);
+        }
+    }
+
+    private void relabel(Entry entry, List<String> texts, boolean visible) {
+        String text = texts.isEmpty() ? "" : texts.get(0);
+        if (Objects.equals(entry.text, text) && entry.aliases.equals(texts) && entry.visible == visible) {
+            return;
+        }
+        boolean inTrie = entry.visible && entry.products > 0;
+        if (inTrie) {
+            delete(entry);
+        }
+        entry.text = text;
+        entry.aliases = List.copyOf(texts);
+        entry.visible = visible;
+        if (entry.visible && entry.products > 0) {
+            insert(entry);
+        }
+    }
+
+    private void insert(Entry entry) {
+        for (String key : keys(entry)) {
+            trie.insert(key, entry);
+        }
+    }
+
+    private void delete(Entry entry) {
+        for (String key : keys(entry)) {
+            trie.remove(key, entry);
+        }
+    }
+
+    private void reweigh(Entry entry) {
+        if (entry.visible) {
+            for (String key : keys(entry)) {
+                trie.reweigh(key);
+            }
+        }
+    }
+
+    // Every word-start suffix of the normalized text and its aliases
+    private static Set<String> keys(Entry entry) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String text : entry.aliases.isEmpty() ? List.of(Objects.toString(entry.text, "")) : entry.aliases) {
+            List<String> words = CatalogTokenizer.tokenize(text);
+            for (int i = 0; i < words.size(); i++) {
+                keys.add(String.join(" ", words.subList(i, words.size())));
+            }
+        }
+        return keys;
+    }
+
+    // Lower-cased words joined by single spaces; a trailing space keeps "orchid " from matching "orchids"
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String joined = String.join(" ", CatalogTokenizer.tokenize(text));
+        boolean endsWithSeparator = !joined.isEmpty() && !Character.isLetterOrDigit(text.charAt(text.length() - 1));
+        return endsWithSeparator ? joined + " " : joined;
+    }
+
+    private static List<String> categoryTexts(Category category) {
+        List<String> texts = new ArrayList<>(2);
+        if (category.getDisplayName() != null && !category.getDisplayName().isBlank()) {
+            texts.add(category.getDisplayName());
+        }
+        if (category.getName() != null && !category.getName().isBlank()
+                && !category.getName().toLowerCase(Locale.ROOT).equals(
+                    texts.isEmpty() ? null : texts.get(0).toLowerCase(Locale.ROOT))) {
+            texts.add(category.getName());
+        }
+        return texts;
+    }
+
+    private static boolean isVisible(Category category) {
+        return Boolean.TRUE.equals(category.getIsActive());
+    }
+
+    private static boolean isVisible(Store store) {
+        return Boolean.TRUE.equals(store.getIsActive()) && !Boolean.FALSE.equals(store.getIsPublic());
+    }
+
+    public enum SuggestionType {
+        PRODUCT, TAG, CATEGORY, STORE
+    }
+
+    private static final class Entry implements RadixTrie.Weighted {
+        private final SuggestionType type;
+        private final UUID id;
+        private String text;
+        private List<String> aliases = List.of();
+        private long weight;
+        private int products;
+        private boolean visible = true;
+
+        private Entry(SuggestionType type, UUID id, String text, long weight) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.weight = weight;
+        }
+
+        @Override
+        public long weight() {
+            return weight;
+        }
+    }
+
+    // What one indexed product added to shared entries, so it can be taken back out exactly
+    private static final class Contribution {
+        private long weight;
+        private final Set<String> tagKeys = new LinkedHashSet<>();
+        private UUID categoryId;
+        private UUID storeId;
+
+        private Contribution(long weight) {
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.util.UUID;
+
+/**
+ * One typeahead completion. id is the product, category or store id and null for tags.
+ */
+public class AutocompleteSuggestion {
+    private final AutocompleteIndex.SuggestionType type;
+    private final String text;
+    private final UUID id;
+    private final long weight;
+
+    public AutocompleteSuggestion(AutocompleteIndex.SuggestionType type, String text, UUID id, long weight) {
+        this.type = type;
+        this.text = text;
+        this.id = id;
+        this.weight = weight;
+    }
+
+    public AutocompleteIndex.SuggestionType getType() { return type; }
+    public String getText() { return text; }
+    public UUID getId() { return id; }
+    public long getWeight() { return weight; }
+}
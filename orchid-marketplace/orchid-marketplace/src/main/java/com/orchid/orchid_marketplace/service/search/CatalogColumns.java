@@ -0,0 +1,154 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.util.MoneyUtil;
+
+/**
+ * Column-oriented copy of the fields search filters and sorts on, one slot per
+ * internal document id. Everything is held in primitive arrays so a search never
+ * touches entities, BigDecimal or review collections.
+ * Not thread-safe; callers guard access with the owning index's lock.
+ */
+final class CatalogColumns {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] priceCents = new long[INITIAL_CAPACITY];
+    private float[] averageRating = new float[INITIAL_CAPACITY];
+    private int[] reviewCount = new int[INITIAL_CAPACITY];
+    private int[] soldCount = new int[INITIAL_CAPACITY];
+    private int[] stock = new int[INITIAL_CAPACITY];
+    private long[] createdAtMillis = new long[INITIAL_CAPACITY];
+    private long[] idMostSig = new long[INITIAL_CAPACITY];
+    private long[] idLeastSig = new long[INITIAL_CAPACITY];
+
+    void set(int doc, Product product) {
+        ensureCapacity(doc + 1);
+        priceCents[doc] = MoneyUtil.dollarsToCents(product.getPrice());
+        soldCount[doc] = product.getSoldCount() != null ? product.getSoldCount() : 0;
+        stock[doc] = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+        createdAtMillis[doc] = toMillis(product.getCreatedAt());
+        averageRating[doc] = (float) product.getReviewStats().getAverage();
+        reviewCount[doc] = (int) Math.min(product.getReviewStats().getReviewCount(), Integer.MAX_VALUE);
+        idMostSig[doc] = product.getId().getMostSignificantBits();
+        idLeastSig[doc] = product.getId().getLeastSignificantBits();
+    }
+
+    void setReviewStats(int doc, float rating, int count) {
+        averageRating[doc] = rating;
+        reviewCount[doc] = count;
+    }
+
+    void adjustStock(int doc, int delta) {
+        stock[doc] = Math.max(0, stock[doc] + delta);
+    }
+
+    void adjustSoldCount(int doc, int delta) {
+        soldCount[doc] = Math.max(0, soldCount[doc] + delta);
+    }
+
+    long priceCents(int doc) { return priceCents[doc]; }
+    float averageRating(int doc) { return averageRating[doc]; }
+    int reviewCount(int doc) { return reviewCount[doc]; }
+    int soldCount(int doc) { return soldCount[doc]; }
+    int stock(int doc) { return stock[doc]; }
+    long createdAtMillis(int doc) { return createdAtMillis[doc]; }
+
+    // Rating as shown to shoppers: one decimal, half up
+    float displayRating(int doc) {
+        return Math.round(averageRating[doc] * 10f) / 10f;
+    }
+
+    boolean matches(int doc, CatalogQuery query) {
+        if (query.getMinPriceCents() != null && priceCents[doc] < query.getMinPriceCents()) {
+            return false;
+        }
+        if (query.getMaxPriceCents() != null && priceCents[doc] > query.getMaxPriceCents()) {
+            return false;
+        }
+        if (query.getMinRating() != null && displayRating(doc) < query.getMinRating()) {
+            return false;
+        }
+        return !query.isInStockOnly() || stock[doc] > 0;
+    }
+
+    /**
+     * Primary sort key for the given order. Keys compare as plain longs; descending
+     * orders are handled by {@link #order(CatalogSort)}.
+     */
+    long sortKey(int doc, CatalogSort sort) {
+        switch (sort) {
+            case PRICE_ASC:
+            case PRICE_DESC:
+                return priceCents[doc];
+            case RATING:
+                // Non-negative floats keep their ordering when compared by raw bits
+                return Float.floatToIntBits(averageRating[doc]);
+            case POPULAR:
+                return ((long) reviewCount[doc] << 32) | (soldCount[doc] & 0xFFFFFFFFL);
+            case NEWEST:
+                return createdAtMillis[doc];
+            case RELEVANCE:
+            default:
+                return 0L;
+        }
+    }
+
+    UUID productId(int doc) {
+        return new UUID(idMostSig[doc], idLeastSig[doc]);
+    }
+
+    /**
+     * Total order over documents: the sort key in the sort's direction, then product id
+     * in the same direction so ties are broken deterministically.
+     */
+    TopKSelector.DocOrder order(CatalogSort sort) {
+        boolean descending = sort.isDescending();
+        return (a, b) -> {
+            int cmp = Long.compare(sortKey(a, sort), sortKey(b, sort));
+            if (cmp == 0) {
+                cmp = Long.compare(idMostSig[a], idMostSig[b]);
+            }
+            if (cmp == 0) {
+                cmp = Long.compare(idLeastSig[a], idLeastSig[b]);
+            }
+            return descending ? -cmp : cmp;
+        };
+    }
+
+    // True if the document sorts strictly after the keyset position (key, then id)
+    boolean isAfter(int doc, CatalogSort sort, long key, UUID lastId) {
+        int cmp = Long.compare(sortKey(doc, sort), key);
+        if (cmp == 0) {
+            cmp = Long.compare(idMostSig[doc], lastId.getMostSignificantBits());
+        }
+        if (cmp == 0) {
+            cmp = Long.compare(idLeastSig[doc], lastId.getLeastSignificantBits());
+        }
+        return sort.isDescending() ? cmp < 0 : cmp > 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= priceCents.length) {
+            return;
+        }
+        int capacity = Math.max(required, priceCents.length * 2);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        averageRating = Arrays.copyOf(averageRating, capacity);
+        reviewCount = Arrays.copyOf(reviewCount, capacity);
+        soldCount = Arrays.copyOf(soldCount, capacity);
+        stock = Arrays.copyOf(stock, capacity);
+        createdAtMillis = Arrays.copyOf(createdAtMillis, capacity);
+        idMostSig = Arrays.copyOf(idMostSig, capacity);
+        idLeastSig = Arrays.copyOf(idLeastSig, capacity);
+    }
+
+    static long toMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,103 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.orchid.orchid_marketplace.model.Product;
+
+/**
+ * Facet counts over the full match set of one search, independent of the page window.
+ * Categories only include those marked facetable through {@code Category.searchFacet}
+ * and are ordered by count, highest first. Rating bands are cumulative ("4 and up"),
+ * like the minRating filter they map to.
+ */
+public class CatalogFacets {
+
+    public enum PriceBucket {
+        UNDER_10(0L, 1_000L),
+        FROM_10_TO_25(1_000L, 2_500L),
+        FROM_25_TO_50(2_500L, 5_000L),
+        FROM_50_TO_100(5_000L, 10_000L),
+        FROM_100(10_000L, Long.MAX_VALUE);
+
+        private final long minCents;
+        private final long maxCentsExclusive;
+
+        PriceBucket(long minCents, long maxCentsExclusive) {
+            this.minCents = minCents;
+            this.maxCentsExclusive = maxCentsExclusive;
+        }
+
+        public long getMinCents() { return minCents; }
+        public long getMaxCentsExclusive() { return maxCentsExclusive; }
+
+        public boolean isOpenEnded() {
+            return maxCentsExclusive == Long.MAX_VALUE;
+        }
+
+        static PriceBucket of(long priceCents) {
+            for (PriceBucket bucket : values()) {
+                if (priceCents < bucket.maxCentsExclusive) {
+                    return bucket;
+                }
+            }
+            return FROM_100;
+        }
+    }
+
+    public enum RatingBand {
+        FOUR_AND_UP(4),
+        THREE_AND_UP(3),
+        TWO_AND_UP(2),
+        ONE_AND_UP(1);
+
+        private final int minRating;
+
+        RatingBand(int minRating) {
+            this.minRating = minRating;
+        }
+
+        public int getMinRating() { return minRating; }
+    }
+
+    private final Map<UUID, Long> categories;
+    private final Map<UUID, String> categoryNames;
+    private final Map<Product.ProductCondition, Long> conditions;
+    private final Map<PriceBucket, Long> priceBuckets;
+    private final Map<RatingBand, Long> ratingBands;
+
+    CatalogFacets(Map<UUID, Long> categories, Map<UUID, String> categoryNames,
+                  Map<Product.ProductCondition, Long> conditions,
+                  Map<PriceBucket, Long> priceBuckets, Map<RatingBand, Long> ratingBands) {
+        this.categories = categories;
+        this.categoryNames = categoryNames;
+        this.conditions = conditions;
+        this.priceBuckets = priceBuckets;
+        this.ratingBands = ratingBands;
+    }
+
+    public static CatalogFacets empty() {
+        Map<Product.ProductCondition, Long> conditions = new EnumMap<>(Product.ProductCondition.class);
+        for (Product.ProductCondition condition : Product.ProductCondition.values()) {
+            conditions.put(condition, 0L);
+        }
+        Map<PriceBucket, Long> priceBuckets = new EnumMap<>(PriceBucket.class);
+        for (PriceBucket bucket : PriceBucket.values()) {
+            priceBuckets.put(bucket, 0L);
+        }
+        Map<RatingBand, Long> ratingBands = new EnumMap<>(RatingBand.class);
+        for (RatingBand band : RatingBand.values()) {
+            ratingBands.put(band, 0L);
+        }
+        return new CatalogFacets(new LinkedHashMap<>(), Map.of(), conditions, priceBuckets, ratingBands);
+    }
+
+    // Facetable categories with at least one match, highest count first
+    public Map<UUID, Long> getCategories() { return categories; }
+    public String getCategoryName(UUID categoryId) { return categoryNames.get(categoryId); }
+    public Map<Product.ProductCondition, Long> getConditions() { return conditions; }
+    public Map<PriceBucket, Long> getPriceBuckets() { return priceBuckets; }
+    public Map<RatingBand, Long> getRatingBands() { return ratingBands; }
+}
@@ -0,0 +1,75 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.util.UUID;
+
+import com.orchid.orchid_marketplace.model.Product;
+
+/**
+ * Filters, sort order and page window for a {@link CatalogSearchIndex} search.
+ * Prices are in cents; null filters are not applied. When a keyset position is set the
+ * offset is ignored and the page starts right after that position. Facet counts are
+ * only computed when includeFacets is set. With fuzzy set, keyword tokens also match
+ * misspelled terms.
+ */
+public class CatalogQuery {
+    private String keyword;
+    private boolean fuzzy;
+    private UUID categoryId;
+    private Product.ProductCondition condition;
+    private Long minPriceCents;
+    private Long maxPriceCents;
+    private Double minRating;
+    private boolean inStockOnly;
+    private CatalogSort sort = CatalogSort.RELEVANCE;
+    private int offset;
+    private int limit = 20;
+    private Long afterSortKey;
+    private UUID afterProductId;
+    private boolean includeFacets;
+
+    public String getKeyword() { return keyword; }
+    public void setKeyword(String keyword) { this.keyword = keyword; }
+
+    public boolean isFuzzy() { return fuzzy; }
+    public void setFuzzy(boolean fuzzy) { this.fuzzy = fuzzy; }
+
+    public UUID getCategoryId() { return categoryId; }
+    public void setCategoryId(UUID categoryId) { this.categoryId = categoryId; }
+
+    public Product.ProductCondition getCondition() { return condition; }
+    public void setCondition(Product.ProductCondition condition) { this.condition = condition; }
+
+    public Long getMinPriceCents() { return minPriceCents; }
+    public void setMinPriceCents(Long minPriceCents) { this.minPriceCents = minPriceCents; }
+
+    public Long getMaxPriceCents() { return maxPriceCents; }
+    public void setMaxPriceCents(Long maxPriceCents) { this.maxPriceCents = maxPriceCents; }
+
+    public Double getMinRating() { return minRating; }
+    public void setMinRating(Double minRating) { this.minRating = minRating; }
+
+    public boolean isInStockOnly() { return inStockOnly; }
+    public void setInStockOnly(boolean inStockOnly) { this.inStockOnly = inStockOnly; }
+
+    public CatalogSort getSort() { return sort; }
+    public void setSort(CatalogSort sort) { this.sort = sort != null ? sort : CatalogSort.RELEVANCE; }
+
+    public int getOffset() { return offset; }
+    public void setOffset(int offset) { this.offset = Math.max(0, offset); }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = Math.max(0, limit); }
+
+    public Long getAfterSortKey() { return afterSortKey; }
+    public UUID getAfterProductId() { return afterProductId; }
+
+    public boolean isIncludeFacets() { return includeFacets; }
+    public void setIncludeFacets(boolean includeFacets) { this.includeFacets = includeFacets; }
+
+    public boolean hasKeysetPosition() { return afterSortKey != null && afterProductId != null; }
+
+    public void setKeysetPosition(Long afterSortKey, UUID afterProductId) {
+        this.afterSortKey = afterSortKey;
+        this.afterProductId = afterProductId;
+    }
+}
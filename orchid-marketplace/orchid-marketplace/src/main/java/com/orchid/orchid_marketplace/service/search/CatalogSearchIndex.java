@@ -0,0 +1,409 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Product;
+
+/**
+ * In-memory inverted index over the active catalog.
+ *
+ * Title, description and tags are tokenized into a sorted term dictionary so a query
+ * token matches every indexed term it is a prefix of. Category and condition filters
+ * have their own posting lists, and a search intersects the lists it needs instead of
+ * scanning every product. Price, rating, popularity and recency live in primitive
+ * columns keyed by the same document ids, so filtering and sorting need no entities.
+ * Facet counts come from per-value membership bitsets intersected with the match set.
+ * In fuzzy mode each keyword token also matches terms a small edit distance away,
+ * found through a trigram index over the term dictionary.
+ */
+public class CatalogSearchIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, PostingList> terms = new TreeMap<>();
+    private final TermTrigramIndex termTrigrams = new TermTrigramIndex();
+    private final Map<UUID, PostingList> categories = new HashMap<>();
+    private final Map<Product.ProductCondition, PostingList> conditions = new EnumMap<>(Product.ProductCondition.class);
+    private final Map<String, UUID> categoryIdsByName = new HashMap<>();
+    private final PostingList activeDocs = new PostingList();
+    private CatalogColumns columns = new CatalogColumns();
+    private FacetSets facets = new FacetSets();
+
+    private final Map<UUID, Integer> docIdsByProduct = new HashMap<>();
+    private final List<IndexedDoc> docs = new ArrayList<>();
+
+    /**
+     * Adds or replaces the product's entry. Inactive products are removed.
+     * Must be called while the product's tags and category are loadable.
+     */
+    public void index(Product product) {
+        Objects.requireNonNull(product, "product must not be null");
+        Objects.requireNonNull(product.getId(), "product id must not be null");
+        if (!Boolean.TRUE.equals(product.getIsActive())) {
+            remove(product.getId());
+            return;
+        }
+
+        Set<String> docTerms = CatalogTokenizer.uniqueTokens(product.getTitle(), product.getDescription());
+        if (product.getTags() != null) {
+            for (String tag : product.getTags()) {
+                docTerms.addAll(CatalogTokenizer.tokenize(tag));
+            }
+        }
+        Category category = product.getCategory();
+        UUID categoryId = category != null ? category.getId() : null;
+        String categoryName = category != null ? category.getName() : null;
+        UUID facetCategoryId = categoryId != null && category.getSearchFacet() != null
+            && !category.getSearchFacet().isBlank() ? categoryId : null;
+        String categoryLabel = category != null && category.getDisplayName() != null
+            ? category.getDisplayName() : categoryName;
+        IndexedDoc entry = new IndexedDoc(product.getId(), docTerms, categoryId, facetCategoryId, product.getCondition());
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = docIdsByProduct.get(product.getId());
+            int doc;
+            if (existing != null) {
+                doc = existing;
+                unlink(doc, docs.get(doc));
+                docs.set(doc, entry);
+            } else {
+                doc = docs.size();
+                docs.add(entry);
+                docIdsByProduct.put(product.getId(), doc);
+            }
+            link(doc, entry);
+            columns.set(doc, product);
+            facets.add(doc, facetCategoryId, categoryLabel, entry.condition,
+                columns.priceCents(doc), columns.displayRating(doc));
+            if (categoryId != null && categoryName != null) {
+                categoryIdsByName.put(categoryName.toLowerCase(Locale.ROOT), categoryId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID productId) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        lock.writeLock().lock();
+        try {
+            Integer doc = docIdsByProduct.remove(productId);
+            if (doc != null) {
+                unlink(doc, docs.get(doc));
+                docs.set(doc, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            termTrigrams.clear();
+            categories.clear();
+            conditions.clear();
+            categoryIdsByName.clear();
+            docIdsByProduct.clear();
+            docs.clear();
+            activeDocs.clear();
+            columns = new CatalogColumns();
+            facets = new FacetSets();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of active products matching every given filter, in index order.
+     * Every keyword token must prefix-match a term from the title, description or tags.
+     * Null or blank filters are ignored.
+     */
+    public List<UUID> match(String keyword, UUID categoryId, Product.ProductCondition condition) {
+        lock.readLock().lock();
+        try {
+            PostingList matched = candidates(keyword, false, categoryId, condition);
+            if (matched == null) {
+                return List.of();
+            }
+            List<UUID> productIds = new ArrayList<>(matched.size());
+            for (int i = 0; i < matched.size(); i++) {
+                productIds.add(docs.get(matched.get(i)).productId);
+            }
+            return productIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a full search against the index: posting lists narrow the candidates, the
+     * numeric filters are evaluated against the primitive columns into a bitset, and
+     * only the requested page window is selected from it. With a keyset position the
+     * window starts after that position, so every page costs the same as the first.
+     * Facets, when requested, are counted over every match rather than just the window.
+     */
+    public CatalogSearchResult search(CatalogQuery query) {
+        Objects.requireNonNull(query, "query must not be null");
+        lock.readLock().lock();
+        try {
+            PostingList candidates = candidates(query.getKeyword(), query.isFuzzy(), query.getCategoryId(), query.getCondition());
+            if (candidates == null) {
+                return new CatalogSearchResult(List.of(), 0, 0L, query.isIncludeFacets() ? CatalogFacets.empty() : null);
+            }
+            CatalogSort sort = query.getSort();
+            boolean keyset = query.hasKeysetPosition();
+            int offset = keyset ? 0 : query.getOffset();
+            BitSet matches = new BitSet(docs.size());
+            // Keyset pages only window part of the matches, so facets need their own set
+            BitSet allMatches = keyset && query.isIncludeFacets() ? new BitSet(docs.size()) : matches;
+            int total = 0;
+            for (int i = 0; i < candidates.size(); i++) {
+                int doc = candidates.get(i);
+                if (!columns.matches(doc, query)) {
+                    continue;
+                }
+                total++;
+                if (!keyset || columns.isAfter(doc, sort, query.getAfterSortKey(), query.getAfterProductId())) {
+                    matches.set(doc);
+                }
+                if (allMatches != matches) {
+                    allMatches.set(doc);
+                }
+            }
+            CatalogFacets facetCounts = query.isIncludeFacets() ? facets.count(allMatches) : null;
+
+            long windowEnd = Math.min((long) offset + query.getLimit(), matches.cardinality());
+            if (offset >= windowEnd) {
+                return new CatalogSearchResult(List.of(), total, 0L, facetCounts);
+            }
+            int[] window = TopKSelector.select(matches, (int) windowEnd, columns.order(sort));
+            List<UUID> productIds = new ArrayList<>(window.length - offset);
+            for (int i = offset; i < window.length; i++) {
+                productIds.add(columns.productId(window[i]));
+            }
+            return new CatalogSearchResult(productIds, total, columns.sortKey(window[window.length - 1], sort), facetCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records the product's review aggregate used by rating filters and sorts.
+     */
+    public void updateReviewStats(UUID productId, double averageRating, long reviewCount) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        lock.writeLock().lock();
+        try {
+            Integer doc = docIdsByProduct.get(productId);
+            if (doc != null) {
+                columns.setReviewStats(doc, (float) averageRating, (int) Math.min(reviewCount, Integer.MAX_VALUE));
+                facets.setRating(doc, columns.displayRating(doc));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a stock change made outside of a full product update, e.g. during checkout.
+     */
+    public void adjustStock(UUID productId, int delta) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        lock.writeLock().lock();
+        try {
+            Integer doc = docIdsByProduct.get(productId);
+            if (doc != null) {
+                columns.adjustStock(doc, delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a sold count change once it has been written behind to the database.
+     */
+    public void adjustSoldCount(UUID productId, int delta) {
+        Objects.requireNonNull(productId, "productId must not be null");
+        lock.writeLock().lock();
+        try {
+            Integer doc = docIdsByProduct.get(productId);
+            if (doc != null) {
+                columns.adjustSoldCount(doc, delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resolves a category filter given either as a category id or as a category name.
+     */
+    public UUID resolveCategory(String category) {
+        if (category == null || category.isBlank()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(category.trim());
+        } catch (IllegalArgumentException notAnId) {
+            lock.readLock().lock();
+            try {
+                return categoryIdsByName.get(category.trim().toLowerCase(Locale.ROOT));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    public boolean contains(UUID productId) {
+        lock.readLock().lock();
+        try {
+            return docIdsByProduct.containsKey(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIdsByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Intersection of the posting lists selected by the filters, or null if one of them matches nothing
+    private PostingList candidates(String keyword, boolean fuzzy, UUID categoryId, Product.ProductCondition condition) {
+        List<PostingList> required = new ArrayList<>();
+        for (String token : CatalogTokenizer.uniqueTokens(keyword)) {
+            PostingList postings = fuzzy ? postingsForSimilar(token) : postingsForPrefix(token);
+            if (postings == null) {
+                return null;
+            }
+            required.add(postings);
+        }
+        if (categoryId != null) {
+            PostingList postings = categories.get(categoryId);
+            if (postings == null) {
+                return null;
+            }
+            required.add(postings);
+        }
+        if (condition != null) {
+            PostingList postings = conditions.get(condition);
+            if (postings == null) {
+                return null;
+            }
+            required.add(postings);
+        }
+        if (required.isEmpty()) {
+            return activeDocs;
+        }
+        return required.size() == 1 ? required.get(0) : PostingList.intersect(required);
+    }
+
+    // Union of the postings of every term starting with the token, or null if there are none
+    private PostingList postingsForPrefix(String token) {
+        NavigableMap<String, PostingList> matches = terms.subMap(token, true, token + Character.MAX_VALUE, true);
+        if (matches.isEmpty()) {
+            return null;
+        }
+        if (matches.size() == 1) {
+            return matches.firstEntry().getValue();
+        }
+        return PostingList.union(new ArrayList<>(matches.values()));
+    }
+
+    // Like postingsForPrefix, plus the postings of every term within the allowed edit distance
+    private PostingList postingsForSimilar(String token) {
+        List<PostingList> lists = new ArrayList<>(terms.subMap(token, true, token + Character.MAX_VALUE, true).values());
+        for (String term : termTrigrams.similar(token)) {
+            if (!term.startsWith(token)) {
+                lists.add(terms.get(term));
+            }
+        }
+        if (lists.isEmpty()) {
+            return null;
+        }
+        return lists.size() == 1 ? lists.get(0) : PostingList.union(lists);
+    }
+
+    private void link(int doc, IndexedDoc entry) {
+        activeDocs.add(doc);
+        for (String term : entry.terms) {
+            terms.computeIfAbsent(term, t -> {
+                termTrigrams.add(t);
+                return new PostingList();
+            }).add(doc);
+        }
+        if (entry.categoryId != null) {
+            categories.computeIfAbsent(entry.categoryId, c -> new PostingList()).add(doc);
+        }
+        if (entry.condition != null) {
+            conditions.computeIfAbsent(entry.condition, c -> new PostingList()).add(doc);
+        }
+    }
+
+    private void unlink(int doc, IndexedDoc entry) {
+        activeDocs.remove(doc);
+        facets.remove(doc, entry.facetCategoryId, entry.condition);
+        for (String term : entry.terms) {
+            if (removeFrom(terms, term, doc)) {
+                termTrigrams.remove(term);
+            }
+        }
+        if (entry.categoryId != null) {
+            removeFrom(categories, entry.categoryId, doc);
+        }
+        if (entry.condition != null) {
+            removeFrom(conditions, entry.condition, doc);
+        }
+    }
+
+    // True if this removed the last document for the key
+    private static <K> boolean removeFrom(Map<K, PostingList> postings, K key, int doc) {
+        PostingList list = postings.get(key);
+        if (list != null) {
+            list.remove(doc);
+            if (list.isEmpty()) {
+                postings.remove(key);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class IndexedDoc {
+        private final UUID productId;
+        private final Set<String> terms;
+        private final UUID categoryId;
+        private final UUID facetCategoryId;
+        private final Product.ProductCondition condition;
+
+        private IndexedDoc(UUID productId, Set<String> terms, UUID categoryId, UUID facetCategoryId,
+                           Product.ProductCondition condition) {
+            this.productId = productId;
+            this.terms = terms;
+            this.categoryId = categoryId;
+            this.facetCategoryId = facetCategoryId;
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of catalog search hits: product ids in sort order plus the total match count.
+ * lastSortKey is the sort key of the last hit, used to build the next keyset cursor.
+ * facets is null unless the query asked for them.
+ */
+public class CatalogSearchResult {
+    private final List<UUID> productIds;
+    private final long totalMatches;
+    private final long lastSortKey;
+    private final CatalogFacets facets;
+
+    public CatalogSearchResult(List<UUID> productIds, long totalMatches) {
+        this(productIds, totalMatches, 0L);
+    }
+
+    public CatalogSearchResult(List<UUID> productIds, long totalMatches, long lastSortKey) {
+        this(productIds, totalMatches, lastSortKey, null);
+    }
+
+    public CatalogSearchResult(List<UUID> productIds, long totalMatches, long lastSortKey, CatalogFacets facets) {
+        this.productIds = productIds;
+        this.totalMatches = totalMatches;
+        this.lastSortKey = lastSortKey;
+        this.facets = facets;
+    }
+
+    public List<UUID> getProductIds() { return productIds; }
+    public long getTotalMatches() { return totalMatches; }
+    public long getLastSortKey() { return lastSortKey; }
+    public CatalogFacets getFacets() { return facets; }
+}
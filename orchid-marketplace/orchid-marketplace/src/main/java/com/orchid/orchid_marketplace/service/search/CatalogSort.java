@@ -0,0 +1,38 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.util.Locale;
+
+/**
+ * Sort orders supported by catalog search, matching the {@code sortBy} values
+ * accepted by the search endpoints.
+ */
+public enum CatalogSort {
+    RELEVANCE(false),
+    PRICE_ASC(false),
+    PRICE_DESC(true),
+    RATING(true),
+    POPULAR(true),
+    NEWEST(true);
+
+    private final boolean descending;
+
+    CatalogSort(boolean descending) {
+        this.descending = descending;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    // Unknown or missing values fall back to relevance
+    public static CatalogSort fromParam(String sortBy) {
+        if (sortBy == null || sortBy.isBlank()) {
+            return RELEVANCE;
+        }
+        try {
+            return valueOf(sortBy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException unknown) {
+            return RELEVANCE;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.orchid.orchid_marketplace.model.Product;
+
+/**
+ * Per-facet-value membership bitsets over internal document ids. Counting a facet for
+ * a search is the cardinality of its set ANDed with the match set, so the cost depends
+ * on the catalog size and the number of facet values, not on how many documents match.
+ * Not thread-safe; callers guard access with the owning index's lock.
+ */
+final class FacetSets {
+
+    private final Map<UUID, Bits> categories = new HashMap<>();
+    private final Map<UUID, String> categoryNames = new HashMap<>();
+    private final Map<Product.ProductCondition, Bits> conditions = new EnumMap<>(Product.ProductCondition.class);
+    private final Bits[] priceBuckets = newSets(CatalogFacets.PriceBucket.values().length);
+    private final Bits[] ratingBands = newSets(CatalogFacets.RatingBand.values().length);
+
+    /**
+     * Adds the document to the sets of its values. facetCategoryId is null when the
+     * product's category is not facetable.
+     */
+    void add(int doc, UUID facetCategoryId, String categoryName, Product.ProductCondition condition,
+             long priceCents, float displayRating) {
+        if (facetCategoryId != null) {
+            categories.computeIfAbsent(facetCategoryId, c -> new Bits()).set(doc);
+            categoryNames.put(facetCategoryId, categoryName);
+        }
+        if (condition != null) {
+            conditions.computeIfAbsent(condition, c -> new Bits()).set(doc);
+        }
+        priceBuckets[CatalogFacets.PriceBucket.of(priceCents).ordinal()].set(doc);
+        setRating(doc, displayRating);
+    }
+
+    void remove(int doc, UUID facetCategoryId, Product.ProductCondition condition) {
+        if (facetCategoryId != null) {
+            Bits members = categories.get(facetCategoryId);
+            if (members != null) {
+                members.clear(doc);
+                if (members.isEmpty()) {
+                    categories.remove(facetCategoryId);
+                    categoryNames.remove(facetCategoryId);
+                }
+            }
+        }
+        if (condition != null) {
+            Bits members = conditions.get(condition);
+            if (members != null) {
+                members.clear(doc);
+            }
+        }
+        for (Bits members : priceBuckets) {
+            members.clear(doc);
+        }
+        for (Bits members : ratingBands) {
+            members.clear(doc);
+        }
+    }
+
+    // Bands are cumulative, so a document is in every band at or below its rating
+    void setRating(int doc, float displayRating) {
+        for (CatalogFacets.RatingBand band : CatalogFacets.RatingBand.values()) {
+            if (displayRating >= band.getMinRating()) {
+                ratingBands[band.ordinal()].set(doc);
+            } else {
+                ratingBands[band.ordinal()].clear(doc);
+            }
+        }
+    }
+
+    CatalogFacets count(BitSet matchSet) {
+        long[] matches = matchSet.toLongArray();
+        List<Map.Entry<UUID, Long>> categoryCounts = new ArrayList<>(categories.size());
+        for (Map.Entry<UUID, Bits> entry : categories.entrySet()) {
+            long count = intersectionSize(matches, entry.getValue());
+            if (count > 0) {
+                categoryCounts.add(Map.entry(entry.getKey(), count));
+            }
+        }
+        categoryCounts.sort(Map.Entry.<UUID, Long>comparingByValue().reversed()
+            .thenComparing(e -> categoryNames.getOrDefault(e.getKey(), "")));
+        Map<UUID, Long> byCategory = new LinkedHashMap<>();
+        Map<UUID, String> names = new HashMap<>();
+        for (Map.Entry<UUID, Long> entry : categoryCounts) {
+            byCategory.put(entry.getKey(), entry.getValue());
+            names.put(entry.getKey(), categoryNames.get(entry.getKey()));
+        }
+
+        Map<Product.ProductCondition, Long> byCondition = new EnumMap<>(Product.ProductCondition.class);
+        for (Product.ProductCondition condition : Product.ProductCondition.values()) {
+            Bits members = conditions.get(condition);
+            byCondition.put(condition, members != null ? intersectionSize(matches, members) : 0L);
+        }
+        Map<CatalogFacets.PriceBucket, Long> byPrice = new EnumMap<>(CatalogFacets.PriceBucket.class);
+        for (CatalogFacets.PriceBucket bucket : CatalogFacets.PriceBucket.values()) {
+            byPrice.put(bucket, intersectionSize(matches, priceBuckets[bucket.ordinal()]));
+        }
+        Map<CatalogFacets.RatingBand, Long> byRating = new EnumMap<>(CatalogFacets.RatingBand.class);
+        for (CatalogFacets.RatingBand band : CatalogFacets.RatingBand.values()) {
+            byRating.put(band, intersectionSize(matches, ratingBands[band.ordinal()]));
+        }
+        return new CatalogFacets(byCategory, names, byCondition, byPrice, byRating);
+    }
+
+    // Popcount of the AND, word by word, without materializing the intersection
+    static long intersectionSize(long[] matches, Bits members) {
+        long[] words = members.words;
+        int length = Math.min(matches.length, words.length);
+        long count = 0;
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(matches[i] & words[i]);
+        }
+        return count;
+    }
+
+    private static Bits[] newSets(int size) {
+        Bits[] sets = new Bits[size];
+        for (int i = 0; i < size; i++) {
+            sets[i] = new Bits();
+        }
+        return sets;
+    }
+
+    // Growable bitset whose words can be read without the copy BitSet.toLongArray makes
+    static final class Bits {
+        private long[] words = new long[1];
+        private int size;
+
+        void set(int bit) {
+            int word = bit >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, Math.max(words.length * 2, word + 1));
+            }
+            long mask = 1L << bit;
+            if ((words[word] & mask) == 0) {
+                words[word] |= mask;
+                size++;
+            }
+        }
+
+        void clear(int bit) {
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            if (word < words.length && (words[word] & mask) != 0) {
+                words[word] &= ~mask;
+                size--;
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
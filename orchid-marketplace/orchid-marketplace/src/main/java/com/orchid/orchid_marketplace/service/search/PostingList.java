@@ -0,0 +1,158 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted, duplicate-free list of internal document ids.
+ * Not thread-safe; callers guard access with the owning index's lock.
+ */
+final class PostingList {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] docs;
+    private int size;
+
+    PostingList() {
+        this.docs = EMPTY;
+    }
+
+    private PostingList(int[] docs, int size) {
+        this.docs = docs;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int get(int index) {
+        return docs[index];
+    }
+
+    boolean contains(int doc) {
+        return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+    }
+
+    void add(int doc) {
+        // Doc ids are handed out in increasing order, so appends are the common case
+        if (size == 0 || docs[size - 1] < doc) {
+            ensureCapacity(size + 1);
+            docs[size++] = doc;
+            return;
+        }
+        int pos = Arrays.binarySearch(docs, 0, size, doc);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+        docs[insertAt] = doc;
+        size++;
+    }
+
+    void remove(int doc) {
+        int pos = Arrays.binarySearch(docs, 0, size, doc);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+        size--;
+    }
+
+    void clear() {
+        docs = EMPTY;
+        size = 0;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(docs, size);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > docs.length) {
+            docs = Arrays.copyOf(docs, Math.max(required, Math.max(4, docs.length * 2)));
+        }
+    }
+
+    /**
+     * Intersects the given lists, smallest first, so the cost is bounded by the
+     * shortest list rather than by the catalog size.
+     */
+    static PostingList intersect(List<PostingList> lists) {
+        if (lists.isEmpty()) {
+            return new PostingList();
+        }
+        PostingList[] ordered = lists.toArray(new PostingList[0]);
+        Arrays.sort(ordered, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] result = Arrays.copyOf(ordered[0].docs, ordered[0].size);
+        int resultSize = ordered[0].size;
+        for (int i = 1; i < ordered.length && resultSize > 0; i++) {
+            resultSize = intersectInto(result, resultSize, ordered[i]);
+        }
+        return new PostingList(result, resultSize);
+    }
+
+    // Keeps the entries of candidates[0..count) that are also present in other; gallops through the longer list
+    private static int intersectInto(int[] candidates, int count, PostingList other) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < count && from < other.size; i++) {
+            int doc = candidates[i];
+            int pos = gallop(other.docs, from, other.size, doc);
+            if (pos < other.size && other.docs[pos] == doc) {
+                candidates[kept++] = doc;
+                from = pos + 1;
+            } else {
+                from = pos;
+            }
+        }
+        return kept;
+    }
+
+    // Returns the first index in [from, to) whose value is >= target
+    private static int gallop(int[] values, int from, int to, int target) {
+        int step = 1;
+        int lo = from;
+        int hi = from;
+        while (hi < to && values[hi] < target) {
+            lo = hi + 1;
+            hi = from + step;
+            step <<= 1;
+        }
+        int pos = Arrays.binarySearch(values, lo, Math.min(hi + 1, to), target);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    static PostingList union(List<PostingList> lists) {
+        if (lists.size() == 1) {
+            PostingList only = lists.get(0);
+            return new PostingList(only.toArray(), only.size);
+        }
+        int total = 0;
+        for (PostingList list : lists) {
+            total += list.size;
+        }
+        int[] merged = new int[total];
+        int offset = 0;
+        for (PostingList list : lists) {
+            System.arraycopy(list.docs, 0, merged, offset, list.size);
+            offset += list.size;
+        }
+        Arrays.sort(merged);
+        int unique = 0;
+        for (int i = 0; i < total; i++) {
+            if (unique == 0 || merged[unique - 1] != merged[i]) {
+                merged[unique++] = merged[i];
+            }
+        }
+        return new PostingList(merged, unique);
+    }
+}
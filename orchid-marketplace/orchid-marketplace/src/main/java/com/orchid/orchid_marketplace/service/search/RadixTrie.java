@@ -0,0 +1,248 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Compressed prefix tree whose edges carry whole key fragments rather than single
+ * characters. Every node also records the highest value weight anywhere below it, so
+ * the best values under a prefix are found best-first without visiting the rest of
+ * the subtree. The same value may be stored under several keys; it is returned once.
+ * Not thread-safe; callers guard access with the owning index's lock.
+ */
+final class RadixTrie<V extends RadixTrie.Weighted> {
+
+    interface Weighted {
+        long weight();
+    }
+
+    private final Node<V> root = new Node<>("");
+
+    void insert(String key, V value) {
+        Node<V> node = root;
+        int pos = 0;
+        List<Node<V>> path = new ArrayList<>();
+        path.add(node);
+        while (pos < key.length()) {
+            Node<V> child = node.children.get(key.charAt(pos));
+            if (child == null) {
+                child = new Node<>(key.substring(pos));
+                node.children.put(key.charAt(pos), child);
+                node = child;
+                path.add(node);
+                pos = key.length();
+                break;
+            }
+            int common = commonPrefix(child.label, key, pos);
+            if (common < child.label.length()) {
+                // Split the edge so the shared part becomes its own node
+                Node<V> split = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                split.maxWeight = child.maxWeight;
+                node.children.put(split.label.charAt(0), split);
+                child = split;
+            }
+            node = child;
+            path.add(node);
+            pos += common;
+        }
+        if (node.values == null) {
+            node.values = new ArrayList<>(1);
+        }
+        node.values.add(value);
+        long weight = value.weight();
+        for (Node<V> onPath : path) {
+            onPath.maxWeight = Math.max(onPath.maxWeight, weight);
+        }
+    }
+
+    void remove(String key, V value) {
+        List<Node<V>> path = path(key);
+        if (path == null) {
+            return;
+        }
+        Node<V> node = path.get(path.size() - 1);
+        if (node.values == null || !node.values.removeIf(v -> v == value)) {
+            return;
+        }
+        if (node.values.isEmpty()) {
+            node.values = null;
+        }
+        // Drop or merge nodes that no longer branch or hold values
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node<V> current = path.get(i);
+            Node<V> parent = path.get(i - 1);
+            if (current.values == null && current.children.isEmpty()) {
+                parent.children.remove(current.label.charAt(0));
+            } else if (current.values == null && current.children.size() == 1) {
+                Node<V> only = current.children.values().iterator().next();
+                only.label = current.label + only.label;
+                parent.children.put(only.label.charAt(0), only);
+                path.set(i, only);
+            }
+        }
+        recompute(path);
+    }
+
+    // Re-derives subtree maxima along the key's path after one of its values changed weight
+    void reweigh(String key) {
+        List<Node<V>> path = path(key);
+        if (path != null) {
+            recompute(path);
+        }
+    }
+
+    // Cheaper reweigh for a value whose weight only went up: maxima can only rise to it
+    void raise(String key, long weight) {
+        Node<V> node = root;
+        int pos = 0;
+        node.maxWeight = Math.max(node.maxWeight, weight);
+        while (pos < key.length()) {
+            Node<V> child = node.children.get(key.charAt(pos));
+            if (child == null || !key.startsWith(child.label, pos)) {
+                return;
+            }
+            node = child;
+            node.maxWeight = Math.max(node.maxWeight, weight);
+            pos += child.label.length();
+        }
+    }
+
+    /**
+     * Returns up to limit distinct values stored under keys starting with prefix,
+     * heaviest first.
+     */
+    List<V> top(String prefix, int limit) {
+        Node<V> start = locate(prefix);
+        if (start == null || limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Candidate<V>> queue = new PriorityQueue<>();
+        queue.add(new Candidate<>(start.maxWeight, start, null));
+        Set<V> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<V> results = new ArrayList<>(limit);
+        while (!queue.isEmpty() && results.size() < limit) {
+            Candidate<V> next = queue.poll();
+            if (next.value != null) {
+                if (seen.add(next.value)) {
+                    results.add(next.value);
+                }
+                continue;
+            }
+            if (next.node.values != null) {
+                for (V value : next.node.values) {
+                    queue.add(new Candidate<>(value.weight(), null, value));
+                }
+            }
+            for (Node<V> child : next.node.children.values()) {
+                queue.add(new Candidate<>(child.maxWeight, child, null));
+            }
+        }
+        return results;
+    }
+
+    // Node at or just below the end of the prefix, or null if no key starts with it
+    private Node<V> locate(String prefix) {
+        Node<V> node = root;
+        int pos = 0;
+        while (pos < prefix.length()) {
+            Node<V> child = node.children.get(prefix.charAt(pos));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefix(child.label, prefix, pos);
+            if (pos + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            pos += common;
+        }
+        return node;
+    }
+
+    // Nodes from the root to the node holding exactly this key, or null if it is not stored
+    private List<Node<V>> path(String key) {
+        List<Node<V>> path = new ArrayList<>();
+        Node<V> node = root;
+        path.add(node);
+        int pos = 0;
+        while (pos < key.length()) {
+            Node<V> child = node.children.get(key.charAt(pos));
+            if (child == null || !key.startsWith(child.label, pos)) {
+                return null;
+            }
+            node = child;
+            path.add(node);
+            pos += child.label.length();
+        }
+        return path;
+    }
+
+    private static <V extends Weighted> void recompute(List<Node<V>> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node<V> node = path.get(i);
+            long max = Long.MIN_VALUE;
+            if (node.values != null) {
+                for (V value : node.values) {
+                    max = Math.max(max, value.weight());
+                }
+            }
+            for (Node<V> child : node.children.values()) {
+                max = Math.max(max, child.maxWeight);
+            }
+            node.maxWeight = max;
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node<V> {
+        private String label;
+        private final TreeMap<Character, Node<V>> children = new TreeMap<>();
+        private List<V> values;
+        private long maxWeight = Long.MIN_VALUE;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    // Queue entry for either a subtree (bounded by its max weight) or a single value
+    private static final class Candidate<V> implements Comparable<Candidate<V>> {
+        private final long priority;
+        private final Node<V> node;
+        private final V value;
+
+        private Candidate(long priority, Node<V> node, V value) {
+            this.priority = priority;
+            this.node = node;
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Candidate<V> other) {
+            int cmp = Long.compare(other.priority, priority);
+            if (cmp == 0) {
+                // Values before subtrees of the same weight, so equal-weight results come out early
+                cmp = Boolean.compare(value == null, other.value == null);
+            }
+            return cmp;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over the term dictionary of a {@link CatalogSearchIndex}, used to find
+ * terms within a small edit distance of a misspelled query token. It indexes distinct
+ * terms rather than documents, so lookups grow with the vocabulary, not the catalog.
+ *
+ * Terms are padded at the start only ("^^orchid" gives "^^o", "^or", ... "hid"), so a
+ * token can also match the beginning of a longer term, like exact search does.
+ * Not thread-safe; callers guard access with the owning index's lock.
+ */
+final class TermTrigramIndex {
+
+    private static final char PAD = '^';
+
+    private final Map<String, Integer> idsByTerm = new HashMap<>();
+    private final List<String> termsById = new ArrayList<>();
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private final Map<String, PostingList> grams = new HashMap<>();
+
+    void add(String term) {
+        if (idsByTerm.containsKey(term)) {
+            return;
+        }
+        int id;
+        if (freeIds.isEmpty()) {
+            id = termsById.size();
+            termsById.add(term);
+        } else {
+            id = freeIds.pop();
+            termsById.set(id, term);
+        }
+        idsByTerm.put(term, id);
+        for (String gram : trigrams(term)) {
+            grams.computeIfAbsent(gram, g -> new PostingList()).add(id);
+        }
+    }
+
+    void remove(String term) {
+        Integer id = idsByTerm.remove(term);
+        if (id == null) {
+            return;
+        }
+        for (String gram : trigrams(term)) {
+            PostingList ids = grams.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+        termsById.set(id, null);
+        freeIds.push(id);
+    }
+
+    void clear() {
+        idsByTerm.clear();
+        termsById.clear();
+        freeIds.clear();
+        grams.clear();
+    }
+
+    /**
+     * Terms that start with a string within {@link #maxEdits(int)} edits of the token
+     * (insertions, deletions, substitutions and adjacent transpositions).
+     */
+    List<String> similar(String token) {
+        int maxEdits = maxEdits(token.length());
+        if (maxEdits == 0) {
+            return List.of();
+        }
+        // Each edit breaks at most four of the token's trigrams (an adjacent transposition
+        // breaks four, any other edit three), so a match keeps at least (grams - 4 * edits)
+        // of them and must share one of the rarest (4 * edits + 1)
+        Set<String> tokenGrams = trigrams(token);
+        List<PostingList> lists = new ArrayList<>(tokenGrams.size());
+        for (String gram : tokenGrams) {
+            PostingList ids = grams.get(gram);
+            lists.add(ids != null ? ids : new PostingList());
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        int required = Math.max(1, tokenGrams.size() - 4 * maxEdits);
+        int probe = lists.size() - required + 1;
+
+        List<String> matches = new ArrayList<>();
+        Set<Integer> checked = new HashSet<>();
+        for (int l = 0; l < probe; l++) {
+            PostingList ids = lists.get(l);
+            for (int i = 0; i < ids.size(); i++) {
+                int id = ids.get(i);
+                if (!checked.add(id)) {
+                    continue;
+                }
+                String term = termsById.get(id);
+                if (term.length() >= token.length() - maxEdits
+                        && prefixDistance(token, term, maxEdits) <= maxEdits) {
+                    matches.add(term);
+                }
+            }
+        }
+        return matches;
+    }
+
+    int size() {
+        return idsByTerm.size();
+    }
+
+    // Short tokens have too many close neighbours to be worth correcting
+    static int maxEdits(int length) {
+        if (length < 4) {
+            return 0;
+        }
+        return length < 8 ? 1 : 2;
+    }
+
+    /**
+     * Smallest optimal-string-alignment distance between the token and any prefix of
+     * the term, or maxEdits + 1 as soon as it is known to exceed maxEdits.
+     */
+    static int prefixDistance(String token, String term, int maxEdits) {
+        int m = token.length();
+        int limit = Math.min(term.length(), m + maxEdits);
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        int best = previous[m];
+        for (int i = 1; i <= limit; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char t = term.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char q = token.charAt(j - 1);
+                int cost = q == t ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && q == term.charAt(i - 2) && token.charAt(j - 2) == t) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            best = Math.min(best, current[m]);
+            if (rowMin > maxEdits) {
+                break;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(best, maxEdits + 1);
+    }
+
+    static Set<String> trigrams(String term) {
+        String padded = "" + PAD + PAD + term;
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.util.BitSet;
+
+/**
+ * Picks the first k documents of a match set under a given order without sorting
+ * the whole set: a bounded max-heap keeps the best k seen so far, so the cost is
+ * O(n log k) in comparisons and O(k) in memory.
+ */
+final class TopKSelector {
+    private TopKSelector() {}
+
+    @FunctionalInterface
+    interface DocOrder {
+        // Negative when a sorts before b
+        int compare(int a, int b);
+    }
+
+    /**
+     * Returns up to k documents from the set, in sort order.
+     */
+    static int[] select(BitSet matches, int k, DocOrder order) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        int[] heap = new int[Math.min(k, matches.cardinality())];
+        int size = 0;
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            if (size < heap.length) {
+                heap[size] = doc;
+                siftUp(heap, size++, order);
+            } else if (order.compare(doc, heap[0]) < 0) {
+                heap[0] = doc;
+                siftDown(heap, size, order);
+            }
+        }
+        // Pop the worst remaining entry into the tail until the heap is drained
+        int[] sorted = new int[size];
+        for (int remaining = size; remaining > 0; remaining--) {
+            sorted[remaining - 1] = heap[0];
+            heap[0] = heap[remaining - 1];
+            siftDown(heap, remaining - 1, order);
+        }
+        return sorted;
+    }
+
+    // The root holds the entry that sorts last, i.e. the first to be evicted
+    private static void siftUp(int[] heap, int index, DocOrder order) {
+        int doc = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (order.compare(doc, heap[parent]) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = doc;
+    }
+
+    private static void siftDown(int[] heap, int size, DocOrder order) {
+        if (size == 0) {
+            return;
+        }
+        int index = 0;
+        int doc = heap[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(heap[child], doc) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = doc;
+    }
+}
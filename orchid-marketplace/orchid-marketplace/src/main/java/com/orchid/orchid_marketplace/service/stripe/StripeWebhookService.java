@@ -4,6 +4,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,6 +15,7 @@ import com.orchid.orchid_marketplace.model.Order;
 import com.orchid.orchid_marketplace.model.StripeWebhookEvent;
 import com.orchid.orchid_marketplace.repository.OrderRepository;
 import com.orchid.orchid_marketplace.repository.StripeWebhookEventRepository;
+import com.orchid.orchid_marketplace.service.InventoryHoldService;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
 import com.stripe.model.EventDataObjectDeserializer;
@@ -24,18 +27,23 @@ import com.stripe.net.Webhook;
 @Profile("!cosmos")
 public class StripeWebhookService {
 
+    private static final Logger log = LoggerFactory.getLogger(StripeWebhookService.class);
+
     private final StripeProperties stripeProperties;
     private final OrderRepository orderRepository;
     private final StripeWebhookEventRepository webhookEventRepository;
+    private final InventoryHoldService inventoryHoldService;
 
     public StripeWebhookService(
         StripeProperties stripeProperties,
         OrderRepository orderRepository,
-        StripeWebhookEventRepository webhookEventRepository
+        StripeWebhookEventRepository webhookEventRepository,
+        InventoryHoldService inventoryHoldService
     ) {
         this.stripeProperties = stripeProperties;
         this.orderRepository = orderRepository;
         this.webhookEventRepository = webhookEventRepository;
+        this.inventoryHoldService = inventoryHoldService;
     }
 
     @Transactional
@@ -122,7 +130,18 @@ public class StripeWebhookService {
         }
 
         if (order.getStatus() == Order.OrderStatus.PENDING) {
-            order.setStatus(Order.OrderStatus.PROCESSING);
+            // The held stock becomes a permanent decrement, unless the reaper released it after
+            // the order was loaded; it cancelled the order then, which must not be overwritten.
+            // Only the call that converts the holds counts the sale, so redelivery cannot repeat it
+            if (inventoryHoldService.convert(order)) {
+                order.setStatus(Order.OrderStatus.PROCESSING);
+            } else {
+                order.setStatus(Order.OrderStatus.CANCELLED);
+            }
+        }
+        if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+            log.warn("Payment {} succeeded for cancelled order {}; its stock was released and it needs a refund",
+                paymentIntent.getId(), orderId);
         }
 
         orderRepository.save(order);
@@ -154,6 +173,7 @@ public class StripeWebhookService {
 
         if (order.getStatus() == Order.OrderStatus.PENDING) {
             order.setStatus(Order.OrderStatus.CANCELLED);
+            inventoryHoldService.releaseOrder(order);
         }
 
         if (paymentIntent.getId() != null) {
@@ -0,0 +1,75 @@
+package com.orchid.orchid_marketplace.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keyset position handed to clients as an opaque token: the sort order it belongs to,
+ * the last row's sort key and the last row's id as tie-breaker.
+ */
+public final class PageCursor {
+
+    private static final String VERSION = "v1";
+
+    private final String order;
+    private final long sortKey;
+    private final UUID lastId;
+
+    public PageCursor(String order, long sortKey, UUID lastId) {
+        this.order = Objects.requireNonNull(order, "order must not be null");
+        this.sortKey = sortKey;
+        this.lastId = Objects.requireNonNull(lastId, "lastId must not be null");
+    }
+
+    public String getOrder() { return order; }
+    public long getSortKey() { return sortKey; }
+    public UUID getLastId() { return lastId; }
+
+    public String encode() {
+        String raw = VERSION + ":" + order + ":" + sortKey + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}. Tokens from a different sort order
+     * are rejected, since their key means something else.
+     */
+    public static PageCursor decode(String token, String expectedOrder) {
+        Objects.requireNonNull(expectedOrder, "expectedOrder must not be null");
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Cursor must not be blank");
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8).split(":", -1);
+        } catch (IllegalArgumentException badBase64) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 4 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!expectedOrder.equals(parts[1])) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+        try {
+            return new PageCursor(parts[1], Long.parseLong(parts[2]), UUID.fromString(parts[3]));
+        } catch (IllegalArgumentException badValue) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Timestamp keys keep full precision so rows created within the same millisecond are not skipped
+    public static long toEpochNanos(LocalDateTime dateTime) {
+        Objects.requireNonNull(dateTime, "dateTime must not be null");
+        return Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L), dateTime.getNano());
+    }
+
+    public static LocalDateTime fromEpochNanos(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+            (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,42 @@
+package com.orchid.orchid_marketplace.web;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
+
+/**
+ * Conditional GET for catalog reads. The version is read first with a one-row projection;
+ * when it matches the request's {@code If-None-Match} (or, without one, {@code If-Modified-Since})
+ * the response is a bodiless 304 and the body is never loaded or serialized.
+ *
+ * {@link WebRequest#checkNotModified} writes the {@code ETag} and {@code Last-Modified} headers
+ * to the response itself; responses also get {@code Cache-Control: public, no-cache}, so browsers
+ * and CDNs keep the body but revalidate before each use.
+ */
+public final class ConditionalGet {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
+    private ConditionalGet() {}
+
+    public static <T> ResponseEntity<T> respond(WebRequest request, Optional<ResourceVersion> version,
+                                                Supplier<Optional<T>> body) {
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = version.get().getETag();
+        // Rows written without a timestamp cannot be validated
+        if (etag != null && request.checkNotModified(etag, version.get().getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return body.get()
+            .map(b -> ResponseEntity.ok().cacheControl(REVALIDATE).body(b))
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
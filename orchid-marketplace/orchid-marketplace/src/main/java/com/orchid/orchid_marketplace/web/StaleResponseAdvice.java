@@ -0,0 +1,49 @@
+package com.orchid.orchid_marketplace.web;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.orchid.orchid_marketplace.service.cache.StaleReads;
+
+/**
+ * Marks responses built from a cached value past its TTL with an RFC 9211 {@code Cache-Status}
+ * header, e.g. {@code Cache-Status: orchid; hit; ttl=-42} for a value 42 seconds stale.
+ * Fresh responses carry no header.
+ */
+@ControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String CACHE_STATUS = "Cache-Status";
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+                            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  @NonNull MethodParameter returnType,
+                                  @NonNull MediaType selectedContentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull ServerHttpRequest request,
+                                  @NonNull ServerHttpResponse response) {
+        Optional<Duration> staleFor = StaleReads.current();
+        staleFor.ifPresent(age -> response.getHeaders().set(CACHE_STATUS, cacheStatus(age)));
+        return body;
+    }
+
+    static String cacheStatus(Duration staleFor) {
+        // A negative ttl is how RFC 9211 says the response is stale, and by how much
+        return "orchid; hit; ttl=-" + Math.max(1, staleFor.toSeconds());
+    }
+}
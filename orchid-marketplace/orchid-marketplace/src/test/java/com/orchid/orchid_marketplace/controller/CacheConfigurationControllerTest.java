@@ -14,6 +14,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.orchid.orchid_marketplace.dto.CacheConfigurationRequest;
@@ -43,6 +44,14 @@ class CacheConfigurationControllerTest {
         testConfig.setCacheKeyPattern("product:*");
     }
 
+    @Test
+    void testEveryEndpointRequiresAdmin() {
+        PreAuthorize rule = CacheConfigurationController.class.getAnnotation(PreAuthorize.class);
+
+        assertNotNull(rule);
+        assertEquals("hasRole('ADMIN')", rule.value());
+    }
+
     // ========== listAll Tests ==========
 
     @Test
@@ -159,6 +168,20 @@ class CacheConfigurationControllerTest {
         verify(cacheService).updateCacheConfiguration(eq(configId), any(CacheConfiguration.class));
     }
 
+    // ========== toggle Tests ==========
+
+    @Test
+    void testToggle_ReturnsUpdatedConfiguration() {
+        testConfig.setIsEnabled(false);
+        when(cacheService.toggleCacheConfigurationStatus(configId)).thenReturn(testConfig);
+
+        CacheConfigurationResponse result = controller.toggle(configId);
+
+        assertEquals(configId, result.getId());
+        assertFalse(result.getIsEnabled());
+        verify(cacheService).toggleCacheConfigurationStatus(configId);
+    }
+
     // ========== delete Tests ==========
 
     @Test
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,15 +15,23 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.orchid.orchid_marketplace.dto.CategoryRequest;
 import com.orchid.orchid_marketplace.dto.CategoryResponse;
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
+import com.orchid.orchid_marketplace.mapper.CategoryMapper;
 import com.orchid.orchid_marketplace.model.Category;
 import com.orchid.orchid_marketplace.service.CategoryService;
 
 class CategoryControllerTest {
 
+    private final ServletWebRequest request = new ServletWebRequest(
+        new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+
     private CategoryController controller;
 
     @Mock
@@ -47,7 +56,7 @@ class CategoryControllerTest {
 
     @Test
     void testListAll_Success() {
-        when(categoryService.getAllCategories()).thenReturn(List.of(testCategory));
+        when(categoryService.listCategories()).thenReturn(List.of(CategoryMapper.toResponse(testCategory)));
 
         List<CategoryResponse> result = controller.listAll();
 
@@ -57,7 +66,7 @@ class CategoryControllerTest {
 
     @Test
     void testListAll_Empty() {
-        when(categoryService.getAllCategories()).thenReturn(List.of());
+        when(categoryService.listCategories()).thenReturn(List.of());
 
         List<CategoryResponse> result = controller.listAll();
 
@@ -71,7 +80,7 @@ class CategoryControllerTest {
         category2.setId(UUID.randomUUID());
         category2.setName("Books");
 
-        when(categoryService.getAllCategories()).thenReturn(List.of(testCategory, category2));
+        when(categoryService.listCategories()).thenReturn(List.of(CategoryMapper.toResponse(testCategory), CategoryMapper.toResponse(category2)));
 
         List<CategoryResponse> result = controller.listAll();
 
@@ -83,9 +92,10 @@ class CategoryControllerTest {
 
     @Test
     void testGetById_Success() {
-        when(categoryService.getCategoryById(categoryId)).thenReturn(Optional.of(testCategory));
+        when(categoryService.getCategoryVersion(categoryId)).thenReturn(Optional.of(new ResourceVersion(LocalDateTime.now())));
+        when(categoryService.getCategoryResponse(categoryId)).thenReturn(Optional.of(CategoryMapper.toResponse(testCategory)));
 
-        ResponseEntity<CategoryResponse> result = controller.getById(categoryId);
+        ResponseEntity<CategoryResponse> result = controller.getById(categoryId, request);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertNotNull(result.getBody());
@@ -93,20 +103,21 @@ class CategoryControllerTest {
 
     @Test
     void testGetById_NotFound() {
-        when(categoryService.getCategoryById(categoryId)).thenReturn(Optional.empty());
+        when(categoryService.getCategoryResponse(categoryId)).thenReturn(Optional.empty());
 
-        ResponseEntity<CategoryResponse> result = controller.getById(categoryId);
+        ResponseEntity<CategoryResponse> result = controller.getById(categoryId, request);
 
         assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
     }
 
     @Test
     void testGetById_VerifyServiceCalled() {
-        when(categoryService.getCategoryById(categoryId)).thenReturn(Optional.of(testCategory));
+        when(categoryService.getCategoryVersion(categoryId)).thenReturn(Optional.of(new ResourceVersion(LocalDateTime.now())));
+        when(categoryService.getCategoryResponse(categoryId)).thenReturn(Optional.of(CategoryMapper.toResponse(testCategory)));
 
-        controller.getById(categoryId);
+        controller.getById(categoryId, request);
 
-        verify(categoryService).getCategoryById(categoryId);
+        verify(categoryService).getCategoryResponse(categoryId);
     }
 
     // ========== create Tests ==========
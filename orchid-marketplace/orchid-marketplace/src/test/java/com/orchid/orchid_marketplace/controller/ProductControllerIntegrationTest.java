@@ -1,10 +1,14 @@
 package com.orchid.orchid_marketplace.controller;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -12,14 +16,25 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchid_marketplace.dto.ProductBatchRequest;
 import com.orchid.orchid_marketplace.dto.ProductRequest;
 import com.orchid.orchid_marketplace.model.Product;
 import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.service.CatalogExportService;
+import com.orchid.orchid_marketplace.service.HotStockService;
 import com.orchid.orchid_marketplace.service.ProductService;
 
 @WebMvcTest(ProductController.class)
@@ -35,6 +50,12 @@ public class ProductControllerIntegrationTest {
     @MockitoBean
     private ProductService productService;
 
+    @MockitoBean
+    private CatalogExportService catalogExportService;
+
+    @MockitoBean
+    private HotStockService hotStockService;
+
     @Test
     void create_withValidPayload_returnsCreatedProduct() throws Exception {
         ProductRequest req = new ProductRequest();
@@ -62,4 +83,56 @@ public class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.title").value("Test Orchid"))
                 .andExpect(jsonPath("$.price").value(19.99));
     }
+
+    @Test
+    void export_streamsNewlineDelimitedJson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"title\":\"A\"}\n{\"title\":\"B\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(catalogExportService).exportProducts(any(OutputStream.class));
+
+        MvcResult started = mockMvc.perform(get("/api/products/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(CatalogExportService.NDJSON))
+            .andExpect(content().string("{\"title\":\"A\"}\n{\"title\":\"B\"}\n"));
+    }
+
+    @Test
+    void batch_returnsProductsInRequestOrderAndListsMisses() throws Exception {
+        Product first = new Product();
+        first.setId(UUID.randomUUID());
+        first.setTitle("Vanda");
+        Product second = new Product();
+        second.setId(UUID.randomUUID());
+        second.setTitle("Cattleya");
+        UUID unknown = UUID.randomUUID();
+        Map<UUID, Product> found = new LinkedHashMap<>();
+        found.put(second.getId(), second);
+        found.put(first.getId(), first);
+        when(productService.getProductsByIds(any())).thenReturn(found);
+
+        ProductBatchRequest req = new ProductBatchRequest();
+        req.setIds(List.of(second.getId(), unknown, first.getId()));
+
+        mockMvc.perform(post("/api/products/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].title").value("Cattleya"))
+                .andExpect(jsonPath("$.products[1].title").value("Vanda"))
+                .andExpect(jsonPath("$.missing[0]").value(unknown.toString()));
+    }
+
+    @Test
+    void batch_withoutIds_isRejected() throws Exception {
+        mockMvc.perform(post("/api/products/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
 }
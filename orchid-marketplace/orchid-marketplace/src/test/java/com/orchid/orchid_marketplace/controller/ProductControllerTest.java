@@ -5,6 +5,8 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,22 +17,35 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import com.orchid.orchid_marketplace.dto.CursorPage;
 import com.orchid.orchid_marketplace.dto.ProductRequest;
 import com.orchid.orchid_marketplace.dto.ProductResponse;
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
+import com.orchid.orchid_marketplace.mapper.ProductMapper;
 import com.orchid.orchid_marketplace.model.Product;
 import com.orchid.orchid_marketplace.model.Category;
 import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.service.HotStockService;
 import com.orchid.orchid_marketplace.service.ProductService;
 
 class ProductControllerTest {
 
+    private final ServletWebRequest request = new ServletWebRequest(
+        new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+
     private ProductController controller;
 
     @Mock
     private ProductService productService;
 
+    @Mock
+    private HotStockService hotStockService;
+
     private UUID productId;
     private UUID storeId;
     private UUID categoryId;
@@ -41,6 +56,7 @@ class ProductControllerTest {
         MockitoAnnotations.openMocks(this);
         controller = new ProductController();
         ReflectionTestUtils.setField(controller, "productService", productService);
+        ReflectionTestUtils.setField(controller, "hotStockService", hotStockService);
 
         productId = UUID.randomUUID();
         storeId = UUID.randomUUID();
@@ -57,7 +73,7 @@ class ProductControllerTest {
     void testListAll_Success() {
         when(productService.getAllProducts()).thenReturn(List.of(testProduct));
 
-        List<ProductResponse> result = controller.listAll();
+        List<ProductResponse> result = controller.listAll(null, null, null).getBody();
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -67,7 +83,7 @@ class ProductControllerTest {
     void testListAll_Empty() {
         when(productService.getAllProducts()).thenReturn(List.of());
 
-        List<ProductResponse> result = controller.listAll();
+        List<ProductResponse> result = controller.listAll(null, null, null).getBody();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -80,7 +96,7 @@ class ProductControllerTest {
 
         when(productService.getAllProducts()).thenReturn(List.of(testProduct, product2));
 
-        List<ProductResponse> result = controller.listAll();
+        List<ProductResponse> result = controller.listAll(null, null, null).getBody();
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -90,18 +106,38 @@ class ProductControllerTest {
     void testListAll_VerifyServiceCalled() {
         when(productService.getAllProducts()).thenReturn(List.of());
 
-        controller.listAll();
+        controller.listAll(null, null, null);
 
         verify(productService).getAllProducts();
     }
 
+    @Test
+    void testListAll_NextCursorHeader() {
+        when(productService.getProducts("abc", null, 1)).thenReturn(new CursorPage<>(List.of(ProductMapper.toResponse(testProduct)), "next-token", null));
+
+        ResponseEntity<List<ProductResponse>> result = controller.listAll("abc", null, 1);
+
+        assertEquals("next-token", result.getHeaders().getFirst(ProductController.NEXT_CURSOR_HEADER));
+        assertEquals(1, result.getBody().size());
+    }
+
+    @Test
+    void testListAll_LastPageHasNoCursorHeader() {
+        when(productService.getProducts(null, 2, 20)).thenReturn(page(testProduct));
+
+        ResponseEntity<List<ProductResponse>> result = controller.listAll(null, 2, 20);
+
+        assertFalse(result.getHeaders().containsKey(ProductController.NEXT_CURSOR_HEADER));
+    }
+
     // ========== getById Tests ==========
 
     @Test
     void testGetById_Success() {
-        when(productService.getProductById(productId)).thenReturn(Optional.of(testProduct));
+        when(productService.getProductVersion(productId)).thenReturn(Optional.of(new ResourceVersion(LocalDateTime.now())));
+        when(productService.getProductResponse(productId)).thenReturn(Optional.of(ProductMapper.toResponse(testProduct)));
 
-        ResponseEntity<ProductResponse> result = controller.getById(productId);
+        ResponseEntity<ProductResponse> result = controller.getById(productId, request);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertNotNull(result.getBody());
@@ -109,27 +145,68 @@ class ProductControllerTest {
 
     @Test
     void testGetById_NotFound() {
-        when(productService.getProductById(productId)).thenReturn(Optional.empty());
+        when(productService.getProductResponse(productId)).thenReturn(Optional.empty());
 
-        ResponseEntity<ProductResponse> result = controller.getById(productId);
+        ResponseEntity<ProductResponse> result = controller.getById(productId, request);
 
         assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
     }
 
     @Test
     void testGetById_VerifyServiceCalled() {
-        when(productService.getProductById(productId)).thenReturn(Optional.of(testProduct));
+        when(productService.getProductVersion(productId)).thenReturn(Optional.of(new ResourceVersion(LocalDateTime.now())));
+        when(productService.getProductResponse(productId)).thenReturn(Optional.of(ProductMapper.toResponse(testProduct)));
+
+        controller.getById(productId, request);
+
+        verify(productService).getProductResponse(productId);
+    }
+
+    @Test
+    void testGetById_NotModifiedSkipsLoadButCountsView() {
+        ResourceVersion version = new ResourceVersion(LocalDateTime.now());
+        MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/api/products/" + productId);
+        revalidation.addHeader("If-None-Match", version.getETag());
+        when(productService.getProductVersion(productId)).thenReturn(Optional.of(version));
+
+        ResponseEntity<ProductResponse> result = controller.getById(productId,
+            new ServletWebRequest(revalidation, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        assertNull(result.getBody());
+        verify(productService, never()).getProductResponse(productId);
+        verify(productService).recordView(productId);
+    }
+
+    @Test
+    void testGetDetail_ServesStoredJson() {
+        ResourceVersion version = new ResourceVersion(LocalDateTime.now());
+        byte[] json = "{\"product\":{}}".getBytes();
+        when(productService.getProductDetailVersion(productId)).thenReturn(Optional.of(version));
+        when(productService.getProductDetailJson(productId, version)).thenReturn(Optional.of(json));
 
-        controller.getById(productId);
+        ResponseEntity<byte[]> result = controller.getDetail(productId, request);
 
-        verify(productService).getProductById(productId);
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertSame(json, result.getBody());
+        verify(productService).recordView(productId);
+    }
+
+    @Test
+    void testGetDetail_NotFound() {
+        when(productService.getProductDetailVersion(productId)).thenReturn(Optional.empty());
+
+        ResponseEntity<byte[]> result = controller.getDetail(productId, request);
+
+        assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
+        verify(productService, never()).recordView(productId);
     }
 
     // ========== search Tests ==========
 
     @Test
     void testSearch_Success() {
-        when(productService.searchProducts("test")).thenReturn(List.of(testProduct));
+        when(productService.searchProducts("test")).thenReturn(List.of(ProductMapper.toResponse(testProduct)));
 
         List<ProductResponse> result = controller.search("test");
 
@@ -158,7 +235,7 @@ class ProductControllerTest {
 
     @Test
     void testSearch_VerifyServiceCalled() {
-        when(productService.searchProducts("keyword")).thenReturn(List.of(testProduct));
+        when(productService.searchProducts("keyword")).thenReturn(List.of(ProductMapper.toResponse(testProduct)));
 
         controller.search("keyword");
 
@@ -171,7 +248,7 @@ class ProductControllerTest {
     void testByStore_Success() {
         when(productService.getProductsByStoreId(storeId)).thenReturn(List.of(testProduct));
 
-        List<ProductResponse> result = controller.byStore(storeId);
+        List<ProductResponse> result = controller.byStore(storeId, null, null, null).getBody();
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -181,7 +258,7 @@ class ProductControllerTest {
     void testByStore_Empty() {
         when(productService.getProductsByStoreId(storeId)).thenReturn(List.of());
 
-        List<ProductResponse> result = controller.byStore(storeId);
+        List<ProductResponse> result = controller.byStore(storeId, null, null, null).getBody();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -191,18 +268,38 @@ class ProductControllerTest {
     void testByStore_VerifyServiceCalled() {
         when(productService.getProductsByStoreId(storeId)).thenReturn(List.of(testProduct));
 
-        controller.byStore(storeId);
+        controller.byStore(storeId, null, null, null);
 
         verify(productService).getProductsByStoreId(storeId);
     }
 
+    @Test
+    void testByStore_SizeSelectsBoundedPages() {
+        when(productService.getProductsByStoreId(storeId, null, null, 20)).thenReturn(page(testProduct));
+
+        ResponseEntity<List<ProductResponse>> result = controller.byStore(storeId, null, null, 20);
+
+        assertEquals(1, result.getBody().size());
+        verify(productService, never()).getProductsByStoreId(storeId);
+    }
+
+    @Test
+    void testListAll_WithoutPagingParametersKeepsTheFullList() {
+        when(productService.getAllProducts()).thenReturn(List.of(testProduct));
+
+        ResponseEntity<List<ProductResponse>> result = controller.listAll(null, null, null);
+
+        assertFalse(result.getHeaders().containsKey(ProductController.NEXT_CURSOR_HEADER));
+        verify(productService, never()).getProducts(any(), any(), any());
+    }
+
     // ========== byCategory Tests ==========
 
     @Test
     void testByCategory_Success() {
         when(productService.getProductsByCategoryId(categoryId)).thenReturn(List.of(testProduct));
 
-        List<ProductResponse> result = controller.byCategory(categoryId);
+        List<ProductResponse> result = controller.byCategory(categoryId, null, null, null).getBody();
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -212,7 +309,7 @@ class ProductControllerTest {
     void testByCategory_Empty() {
         when(productService.getProductsByCategoryId(categoryId)).thenReturn(List.of());
 
-        List<ProductResponse> result = controller.byCategory(categoryId);
+        List<ProductResponse> result = controller.byCategory(categoryId, null, null, null).getBody();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -222,7 +319,7 @@ class ProductControllerTest {
     void testByCategory_VerifyServiceCalled() {
         when(productService.getProductsByCategoryId(categoryId)).thenReturn(List.of(testProduct));
 
-        controller.byCategory(categoryId);
+        controller.byCategory(categoryId, null, null, null);
 
         verify(productService).getProductsByCategoryId(categoryId);
     }
@@ -294,4 +391,18 @@ class ProductControllerTest {
 
         verify(productService).deleteProduct(productId);
     }
+
+    // ========== hot stock Tests ==========
+
+    @Test
+    void testSetHotStock_SwitchesTheProduct() {
+        ResponseEntity<Void> result = controller.setHotStock(productId, true);
+
+        assertEquals(HttpStatus.NO_CONTENT, result.getStatusCode());
+        verify(hotStockService).setHot(productId, true);
+    }
+
+    private static CursorPage<ProductResponse> page(Product... products) {
+        return new CursorPage<>(Arrays.stream(products).map(ProductMapper::toResponse).toList(), null, null);
+    }
 }
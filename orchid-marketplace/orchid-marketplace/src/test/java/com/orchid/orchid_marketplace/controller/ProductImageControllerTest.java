@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,15 +15,22 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.orchid.orchid_marketplace.dto.ProductImageRequest;
 import com.orchid.orchid_marketplace.dto.ProductImageResponse;
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
 import com.orchid.orchid_marketplace.model.ProductImage;
 import com.orchid.orchid_marketplace.service.ProductImageService;
 
 class ProductImageControllerTest {
 
+    private final ServletWebRequest request = new ServletWebRequest(
+        new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+
     private ProductImageController controller;
 
     @Mock
@@ -85,9 +93,10 @@ class ProductImageControllerTest {
 
     @Test
     void testGetById_Success() {
+        when(productImageService.getProductImageVersion(imageId)).thenReturn(Optional.of(new ResourceVersion(LocalDateTime.now())));
         when(productImageService.getProductImageById(imageId)).thenReturn(Optional.of(testImage));
 
-        ResponseEntity<ProductImageResponse> result = controller.getById(imageId);
+        ResponseEntity<ProductImageResponse> result = controller.getById(imageId, request);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertNotNull(result.getBody());
@@ -97,16 +106,17 @@ class ProductImageControllerTest {
     void testGetById_NotFound() {
         when(productImageService.getProductImageById(imageId)).thenReturn(Optional.empty());
 
-        ResponseEntity<ProductImageResponse> result = controller.getById(imageId);
+        ResponseEntity<ProductImageResponse> result = controller.getById(imageId, request);
 
         assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
     }
 
     @Test
     void testGetById_VerifyServiceCalled() {
+        when(productImageService.getProductImageVersion(imageId)).thenReturn(Optional.of(new ResourceVersion(LocalDateTime.now())));
         when(productImageService.getProductImageById(imageId)).thenReturn(Optional.of(testImage));
 
-        controller.getById(imageId);
+        controller.getById(imageId, request);
 
         verify(productImageService).getProductImageById(imageId);
     }
@@ -1,11 +1,13 @@
 package com.orchid.orchid_marketplace.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.junit.jupiter.api.Test;
@@ -13,14 +15,16 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.orchid.orchid_marketplace.dto.FacetCount;
+import com.orchid.orchid_marketplace.dto.FacetedPage;
 import com.orchid.orchid_marketplace.dto.ProductSearchDTO;
+import com.orchid.orchid_marketplace.dto.SearchFacets;
 import com.orchid.orchid_marketplace.service.ProductSearchService;
 
 import java.util.List;
@@ -38,8 +42,8 @@ class ProductSearchControllerTest {
 
     @Test
     void search_defaultsToRelevance_unsortedPageable() throws Exception {
-        when(searchService.searchProducts(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
-            .thenReturn(Page.empty());
+        when(searchService.searchProducts(any(), any(), any(), any(), any(), any(), any(), anyBoolean(), any(Pageable.class)))
+            .thenReturn(emptyPage());
 
         mockMvc.perform(get("/api/products/search")
                 .param("q", "laptop")
@@ -49,7 +53,7 @@ class ProductSearchControllerTest {
             .andExpect(status().isOk());
 
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        verify(searchService, times(1)).searchProducts(eq("laptop"), any(), any(), any(), any(), any(), eq("relevance"), pageableCaptor.capture());
+        verify(searchService, times(1)).searchProducts(eq("laptop"), any(), any(), any(), any(), any(), eq("relevance"), eq(false), pageableCaptor.capture());
         Pageable pageable = pageableCaptor.getValue();
         // relevance => unsorted
         org.junit.jupiter.api.Assertions.assertTrue(pageable.getSort().isUnsorted());
@@ -59,9 +63,8 @@ class ProductSearchControllerTest {
 
     @Test
     void search_priceDesc_sortsDescending() throws Exception {
-        Page<ProductSearchDTO> page = new PageImpl<>(List.of());
-        when(searchService.searchProducts(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
-            .thenReturn(page);
+        when(searchService.searchProducts(any(), any(), any(), any(), any(), any(), any(), anyBoolean(), any(Pageable.class)))
+            .thenReturn(emptyPage());
 
         mockMvc.perform(get("/api/products/search")
                 .param("q", "phone")
@@ -69,8 +72,30 @@ class ProductSearchControllerTest {
             .andExpect(status().isOk());
 
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        verify(searchService).searchProducts(eq("phone"), any(), any(), any(), any(), any(), eq("price_desc"), pageableCaptor.capture());
+        verify(searchService).searchProducts(eq("phone"), any(), any(), any(), any(), any(), eq("price_desc"), eq(false), pageableCaptor.capture());
         Pageable pageable = pageableCaptor.getValue();
         org.junit.jupiter.api.Assertions.assertTrue(pageable.getSort().getOrderFor("price").isDescending());
     }
+
+    @Test
+    void search_returnsFacetCountsWithResults() throws Exception {
+        SearchFacets facets = new SearchFacets(
+            List.of(new FacetCount("c0ffee00-0000-0000-0000-000000000000", "Orchids", 3)),
+            List.of(new FacetCount("NEW", "New", 3)),
+            List.of(new FacetCount("10-25", "$10 to $25", 2)),
+            List.of(new FacetCount("4", "4 stars & up", 1)));
+        when(searchService.searchProducts(any(), any(), any(), any(), any(), any(), any(), anyBoolean(), any(Pageable.class)))
+            .thenReturn(new FacetedPage<>(List.of(), PageRequest.of(0, 20), 0, facets));
+
+        mockMvc.perform(get("/api/products/search").param("q", "orchid"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.facets.categories[0].label").value("Orchids"))
+            .andExpect(jsonPath("$.facets.conditions[0].count").value(3))
+            .andExpect(jsonPath("$.facets.priceRanges[0].value").value("10-25"))
+            .andExpect(jsonPath("$.facets.ratings[0].value").value("4"));
+    }
+
+    private static FacetedPage<ProductSearchDTO> emptyPage() {
+        return new FacetedPage<>(List.of(), PageRequest.of(0, 20), 0, new SearchFacets());
+    }
 }
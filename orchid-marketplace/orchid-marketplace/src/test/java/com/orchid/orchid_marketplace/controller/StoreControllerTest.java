@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,15 +15,23 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
 import com.orchid.orchid_marketplace.dto.StoreRequest;
 import com.orchid.orchid_marketplace.dto.StoreResponse;
+import com.orchid.orchid_marketplace.mapper.StoreMapper;
 import com.orchid.orchid_marketplace.model.Store;
 import com.orchid.orchid_marketplace.service.StoreService;
 
 class StoreControllerTest {
 
+    private final ServletWebRequest request = new ServletWebRequest(
+        new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+
     private StoreController controller;
 
     @Mock
@@ -47,7 +56,7 @@ class StoreControllerTest {
 
     @Test
     void testListAll_Success() {
-        when(storeService.getAllStores()).thenReturn(List.of(testStore));
+        when(storeService.listStores()).thenReturn(List.of(StoreMapper.toResponse(testStore)));
 
         List<StoreResponse> result = controller.listAll();
 
@@ -57,7 +66,7 @@ class StoreControllerTest {
 
     @Test
     void testListAll_Empty() {
-        when(storeService.getAllStores()).thenReturn(List.of());
+        when(storeService.listStores()).thenReturn(List.of());
 
         List<StoreResponse> result = controller.listAll();
 
@@ -71,7 +80,7 @@ class StoreControllerTest {
         store2.setId(UUID.randomUUID());
         store2.setStoreName("Store 2");
 
-        when(storeService.getAllStores()).thenReturn(List.of(testStore, store2));
+        when(storeService.listStores()).thenReturn(List.of(StoreMapper.toResponse(testStore), StoreMapper.toResponse(store2)));
 
         List<StoreResponse> result = controller.listAll();
 
@@ -83,9 +92,10 @@ class StoreControllerTest {
 
     @Test
     void testGetById_Success() {
-        when(storeService.getStoreById(storeId)).thenReturn(Optional.of(testStore));
+        when(storeService.getStoreVersion(storeId)).thenReturn(Optional.of(new ResourceVersion(LocalDateTime.now())));
+        when(storeService.getStoreResponse(storeId)).thenReturn(Optional.of(StoreMapper.toResponse(testStore)));
 
-        ResponseEntity<StoreResponse> result = controller.getById(storeId);
+        ResponseEntity<StoreResponse> result = controller.getById(storeId, request);
 
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertNotNull(result.getBody());
@@ -93,20 +103,43 @@ class StoreControllerTest {
 
     @Test
     void testGetById_NotFound() {
-        when(storeService.getStoreById(storeId)).thenReturn(Optional.empty());
+        when(storeService.getStoreResponse(storeId)).thenReturn(Optional.empty());
 
-        ResponseEntity<StoreResponse> result = controller.getById(storeId);
+        ResponseEntity<StoreResponse> result = controller.getById(storeId, request);
 
         assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
     }
 
     @Test
     void testGetById_VerifyServiceCalled() {
-        when(storeService.getStoreById(storeId)).thenReturn(Optional.of(testStore));
+        when(storeService.getStoreVersion(storeId)).thenReturn(Optional.of(new ResourceVersion(LocalDateTime.now())));
+        when(storeService.getStoreResponse(storeId)).thenReturn(Optional.of(StoreMapper.toResponse(testStore)));
+
+        controller.getById(storeId, request);
+
+        verify(storeService).getStoreResponse(storeId);
+    }
 
-        controller.getById(storeId);
+    // ========== getBySlug Tests ==========
 
-        verify(storeService).getStoreById(storeId);
+    @Test
+    void testGetBySlug_Success() {
+        when(storeService.getStoreVersionBySlug("test-store")).thenReturn(Optional.of(new ResourceVersion(LocalDateTime.now())));
+        when(storeService.getStoreResponseBySlug("test-store")).thenReturn(Optional.of(StoreMapper.toResponse(testStore)));
+
+        ResponseEntity<StoreResponse> result = controller.getBySlug("test-store", request);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertNotNull(result.getBody());
+    }
+
+    @Test
+    void testGetBySlug_NotFound() {
+        when(storeService.getStoreResponseBySlug("missing")).thenReturn(Optional.empty());
+
+        ResponseEntity<StoreResponse> result = controller.getBySlug("missing", request);
+
+        assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
     }
 
     // ========== create Tests ==========
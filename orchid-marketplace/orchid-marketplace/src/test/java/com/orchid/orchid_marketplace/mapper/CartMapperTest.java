@@ -38,6 +38,7 @@ class CartMapperTest {
         item.setUnitPrice(new BigDecimal("9.99"));
         item.setLineTotal(new BigDecimal("19.98"));
         item.setShippingOption(shipping);
+        item.setShippingCost(shipping.getShippingCost());
 
         Cart cart = new Cart();
         cart.setItems(List.of(item));
@@ -0,0 +1,62 @@
+package com.orchid.orchid_marketplace.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.ProductImage;
+import com.orchid.orchid_marketplace.model.Role;
+import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.model.User;
+
+@DataJpaTest
+class ProductDetailVersionTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        User seller = entityManager.persist(new User("seller@example.com", "Seller", Role.SELLER));
+        Store store = entityManager.persist(new Store(seller, "Orchid House", "orchid-house"));
+        Product product = entityManager.persist(
+            new Product("Phalaenopsis", "White", new BigDecimal("24.00"), 5, store, Product.ProductCondition.NEW));
+        entityManager.flush();
+        productId = product.getId();
+    }
+
+    @Test
+    void testVersionMovesWithImagesAndReviews() throws Exception {
+        String initial = etag();
+
+        Thread.sleep(5);
+        entityManager.persistAndFlush(new ProductImage(entityManager.find(Product.class, productId), "a.jpg", null, null));
+        String withImage = etag();
+        productRepository.applyReviewChange(productId, 5, 0);
+        entityManager.clear();
+        String reviewed = etag();
+
+        assertNotEquals(initial, withImage);
+        assertNotEquals(withImage, reviewed);
+        // Last-Modified is the newest of the product and its children
+        assertTrue(productRepository.findDetailVersionById(productId).orElseThrow().getUpdatedAt()
+            .isAfter(productRepository.findVersionById(productId).orElseThrow().getUpdatedAt()));
+    }
+
+    private String etag() {
+        return productRepository.findDetailVersionById(productId).orElseThrow().getETag();
+    }
+}
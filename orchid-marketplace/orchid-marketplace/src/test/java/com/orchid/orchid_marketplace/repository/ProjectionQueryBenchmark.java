@@ -0,0 +1,174 @@
+package com.orchid.orchid_marketplace.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.data.jpa.repository.Query;
+
+import com.orchid.orchid_marketplace.dto.ProductResponse;
+import com.orchid.orchid_marketplace.dto.ProductSearchDTO;
+import com.orchid.orchid_marketplace.mapper.ProductMapper;
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.Role;
+import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.model.User;
+
+import jakarta.persistence.Entity;
+
+/**
+ * Compares the former entity path (load managed products, then map them) with the
+ * projection queries in {@link ProductRepository}, for a newest-first list page and for
+ * hydrating a page of search hits, on an in-memory H2 catalog. Run with
+ * {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.include=ProjectionQuery};
+ * JMH's {@code -prof gc} adds the bytes allocated per operation (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionQueryBenchmark {
+
+    private static final String ENTITY_LIST =
+        "SELECT p FROM Product p WHERE p.isActive = true ORDER BY p.createdAt DESC, p.id DESC";
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private SessionFactory sessionFactory;
+    private String projectionList;
+    private String projectionSearch;
+    private List<UUID> hitIds;
+
+    @Setup
+    public void setUp() throws Exception {
+        Configuration configuration = new Configuration()
+            .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:projection;DB_CLOSE_DELAY=-1")
+            .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+            .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50");
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        for (BeanDefinition entity : scanner.findCandidateComponents("com.orchid.orchid_marketplace.model")) {
+            configuration.addAnnotatedClass(Class.forName(entity.getBeanClassName()));
+        }
+        sessionFactory = configuration.buildSessionFactory();
+
+        projectionList = ProductRepository.class.getMethod("findNewestFirst", org.springframework.data.domain.Pageable.class)
+            .getAnnotation(Query.class).value();
+        projectionSearch = ProductRepository.class.getMethod("findSearchDTOsByIdIn", Collection.class)
+            .getAnnotation(Query.class).value();
+
+        Random random = new Random(5);
+        List<UUID> productIds = new ArrayList<>();
+        sessionFactory.inTransaction(session -> {
+            List<Category> categories = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Category category = new Category("category-" + i, "Category " + i, null);
+                session.persist(category);
+                categories.add(category);
+            }
+            List<Store> stores = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                User seller = new User("seller" + i + "@example.com", "Seller " + i, Role.SELLER);
+                session.persist(seller);
+                Store store = new Store(seller, "Store " + i, "store-" + i);
+                session.persist(store);
+                stores.add(store);
+            }
+            for (int i = 0; i < 5_000; i++) {
+                Product product = new Product("Orchid " + i, "Generated product " + i,
+                    BigDecimal.valueOf(100 + random.nextInt(20_000), 2), random.nextInt(20),
+                    stores.get(random.nextInt(stores.size())), Product.ProductCondition.NEW);
+                product.setCategory(categories.get(random.nextInt(categories.size())));
+                product.getTags().add("tag" + random.nextInt(30));
+                session.persist(product);
+                productIds.add(product.getId());
+                if (i % 500 == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+        hitIds = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            hitIds.add(productIds.get(random.nextInt(productIds.size())));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<ProductResponse> listEntityPath() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery(ENTITY_LIST, Product.class)
+                .setMaxResults(pageSize)
+                .getResultList().stream()
+                .map(ProductMapper::toResponse)
+                .toList();
+        }
+    }
+
+    @Benchmark
+    public List<ProductResponse> listProjection() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery(projectionList, ProductResponse.class)
+                .setMaxResults(pageSize)
+                .getResultList();
+        }
+    }
+
+    @Benchmark
+    public List<ProductSearchDTO> searchHitsEntityPath() {
+        // Former ProductSearchService path: findAllById, then names from the lazy category and store
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery("SELECT p FROM Product p WHERE p.id IN :ids", Product.class)
+                .setParameter("ids", hitIds)
+                .getResultList().stream()
+                .map(p -> new ProductSearchDTO(p.getId(), p.getTitle(), p.getDescription(), p.getPrice(),
+                    p.getCategory() != null ? p.getCategory().getName() : "Uncategorized",
+                    p.calculateAverageRating().doubleValue(), p.getReviewStats().getReviewCount(),
+                    p.getStockQuantity(), p.getStore() != null ? p.getStore().getStoreName() : null))
+                .toList();
+        }
+    }
+
+    @Benchmark
+    public List<ProductSearchDTO> searchHitsProjection() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery(projectionSearch, ProductSearchDTO.class)
+                .setParameter("ids", hitIds)
+                .getResultList();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.orchid.orchid_marketplace.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.data.jpa.repository.Query;
+
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.Role;
+import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.model.User;
+
+import jakarta.persistence.Entity;
+
+/**
+ * Many buyers checking out one hot product on an in-memory H2 catalog: the former
+ * read-check-write of the product entity against {@link ProductRepository#reserveStock}'s
+ * conditional decrement. After each iteration the units handed out are compared with how much
+ * the stock went down; anything above that was sold twice and is printed as oversold (always 0
+ * for the conditional update). Run with
+ * {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.include=StockReservation}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class StockReservationBenchmark {
+
+    private static final int STOCK = 1_000_000;
+
+    private SessionFactory sessionFactory;
+    private String reserveStock;
+    private UUID productId;
+    private final AtomicLong unitsSold = new AtomicLong();
+
+    @Setup
+    public void setUp() throws Exception {
+        Configuration configuration = new Configuration()
+            .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:stock;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+            .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+            .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .setProperty(AvailableSettings.POOL_SIZE, "32");
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        for (BeanDefinition entity : scanner.findCandidateComponents("com.orchid.orchid_marketplace.model")) {
+            configuration.addAnnotatedClass(Class.forName(entity.getBeanClassName()));
+        }
+        sessionFactory = configuration.buildSessionFactory();
+
+        reserveStock = ProductRepository.class.getMethod("reserveStock", UUID.class, int.class, LocalDateTime.class)
+            .getAnnotation(Query.class).value();
+
+        productId = sessionFactory.fromTransaction(session -> {
+            User seller = new User("seller@example.com", "Seller", Role.SELLER);
+            session.persist(seller);
+            Store store = new Store(seller, "Orchid House", "orchid-house");
+            session.persist(store);
+            Product product = new Product("Phalaenopsis", "White", new BigDecimal("24.00"), STOCK, store,
+                Product.ProductCondition.NEW);
+            session.persist(product);
+            return product.getId();
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void restock() {
+        sessionFactory.inTransaction(session -> session.find(Product.class, productId).setStockQuantity(STOCK));
+        unitsSold.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportOversell() {
+        int left = sessionFactory.fromTransaction(session -> session.find(Product.class, productId).getStockQuantity());
+        System.out.println("oversold units: " + (unitsSold.get() - (STOCK - left)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public boolean readModifyWrite() {
+        // Former CheckoutService path: load, compare, set the new value and save
+        boolean reserved = sessionFactory.fromTransaction(session -> {
+            Product product = session.find(Product.class, productId);
+            if (product.getStockQuantity() < 1) {
+                return false;
+            }
+            product.setStockQuantity(product.getStockQuantity() - 1);
+            product.setUpdatedAt(LocalDateTime.now());
+            return true;
+        });
+        if (reserved) {
+            unitsSold.incrementAndGet();
+        }
+        return reserved;
+    }
+
+    @Benchmark
+    public boolean conditionalUpdate() {
+        boolean reserved = sessionFactory.fromTransaction(session -> session.createMutationQuery(reserveStock)
+            .setParameter("productId", productId)
+            .setParameter("quantity", 1)
+            .setParameter("now", LocalDateTime.now())
+            .executeUpdate() == 1);
+        if (reserved) {
+            unitsSold.incrementAndGet();
+        }
+        return reserved;
+    }
+}
@@ -0,0 +1,133 @@
+package com.orchid.orchid_marketplace.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.Role;
+import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.model.User;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationContentionTest {
+
+    private static final int STOCK = 50;
+    private static final int BUYERS = 16;
+    private static final int CHECKOUTS_PER_BUYER = 10;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private UUID hot;
+    private UUID other;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        User seller = userRepository.save(new User("seller@example.com", "Seller", Role.SELLER));
+        Store store = storeRepository.save(new Store(seller, "Orchid House", "orchid-house"));
+        hot = productRepository.save(new Product("Phalaenopsis", "White", new BigDecimal("24.00"), STOCK, store,
+            Product.ProductCondition.NEW)).getId();
+        other = productRepository.save(new Product("Cattleya", "Purple", new BigDecimal("31.00"), STOCK * 10, store,
+            Product.ProductCondition.NEW)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+        storeRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testConcurrentCheckoutsNeverOversell() throws Exception {
+        // Two-line checkouts on the same products, locked in id order like CheckoutService does
+        List<UUID> lines = hot.compareTo(other) < 0 ? List.of(hot, other) : List.of(other, hot);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(BUYERS);
+        try {
+            List<Future<?>> buyers = new ArrayList<>();
+            for (int i = 0; i < BUYERS; i++) {
+                buyers.add(pool.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < CHECKOUTS_PER_BUYER; j++) {
+                        boolean reserved = Boolean.TRUE.equals(tx.execute(status -> {
+                            for (UUID productId : lines) {
+                                if (productRepository.reserveStock(productId, 1, LocalDateTime.now()) == 0) {
+                                    status.setRollbackOnly();
+                                    return false;
+                                }
+                            }
+                            return true;
+                        }));
+                        (reserved ? completed : rejected).incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> buyer : buyers) {
+                buyer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(STOCK, completed.get());
+        assertEquals(BUYERS * CHECKOUTS_PER_BUYER - STOCK, rejected.get());
+        assertEquals(0, stock(hot));
+        // Rolled-back checkouts gave back the other line's unit
+        assertEquals(STOCK * 10 - STOCK, stock(other));
+    }
+
+    @Test
+    void testReleaseAddsToTheCurrentStock() {
+        LocalDateTime before = productRepository.findById(hot).orElseThrow().getUpdatedAt();
+
+        tx.executeWithoutResult(status -> productRepository.reserveStock(hot, 5, LocalDateTime.now()));
+        tx.executeWithoutResult(status -> productRepository.releaseStock(hot, 2, LocalDateTime.now()));
+
+        assertEquals(STOCK - 3, stock(hot));
+        assertEquals(0, (int) tx.execute(status -> productRepository.reserveStock(hot, STOCK, LocalDateTime.now())));
+        // The ETag moves with every stock change
+        assertTrue(productRepository.findById(hot).orElseThrow().getUpdatedAt().isAfter(before));
+    }
+
+    private int stock(UUID productId) {
+        return productRepository.findById(productId).orElseThrow().getStockQuantity();
+    }
+}
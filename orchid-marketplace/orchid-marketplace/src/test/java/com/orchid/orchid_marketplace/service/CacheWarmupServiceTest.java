@@ -0,0 +1,163 @@
+package com.orchid.orchid_marketplace.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.info.Info;
+
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.service.CacheWarmupService.RegionResult;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
+import com.orchid.orchid_marketplace.service.cache.LocalCache;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupServiceTest {
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private StoreService storeService;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private EntityCacheRegistry entityCacheRegistry;
+
+    private final Category root = category();
+    private final Category child = category();
+    private final Store store = new Store();
+
+    @BeforeEach
+    void setUp() {
+        store.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void testWarmsEveryRegionAndReportsIt() {
+        stubCatalog();
+        stubProductCache(true);
+        CacheWarmupService warmup = warmup(5000);
+
+        Map<String, RegionResult> results = warmup.warm();
+
+        assertEquals(RegionResult.Status.WARMED, results.get(CacheWarmupService.CATEGORIES).getStatus());
+        assertEquals(2, results.get(CacheWarmupService.CATEGORIES).getEntries());
+        assertEquals(3, results.get(CacheWarmupService.TOP_SELLERS).getEntries());
+        assertEquals(1, results.get(CacheWarmupService.NEWEST_ARRIVALS).getEntries());
+        verify(categoryService).getCategoryResponse(child.getId());
+        verify(storeService).getStoreResponse(store.getId());
+        verify(productService, times(3)).getProductResponse(any());
+
+        Info.Builder info = new Info.Builder();
+        warmup.contribute(info);
+        assertEquals(results, info.build().get("cacheWarmup"));
+    }
+
+    @Test
+    void testSlowRegionIsCutOffAtTheBudget() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(categoryService.getRootCategories()).thenReturn(List.of(root));
+        when(storeService.getTopSellingStores(anyInt())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(productRepository.findNewestByCategoryIdIn(any(), any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        long start = System.nanoTime();
+        Map<String, RegionResult> results = warmup(200).warm();
+        release.countDown();
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+        assertEquals(RegionResult.Status.WARMED, results.get(CacheWarmupService.CATEGORIES).getStatus());
+        assertEquals(RegionResult.Status.TIMED_OUT, results.get(CacheWarmupService.TOP_SELLERS).getStatus());
+        assertEquals(RegionResult.Status.FAILED, results.get(CacheWarmupService.NEWEST_ARRIVALS).getStatus());
+    }
+
+    @Test
+    void testProductsAreSkippedWithoutAProductCache() {
+        stubCatalog();
+        stubProductCache(false);
+
+        Map<String, RegionResult> results = warmup(5000).warm();
+
+        assertEquals(1, results.get(CacheWarmupService.TOP_SELLERS).getEntries());
+        verify(productService, never()).getProductResponse(any());
+    }
+
+    @Test
+    void testCountsOnlyTheProductsLoadedBeforeAnInterrupt() {
+        stubCatalog();
+        stubProductCache(true);
+        // The budget runs out while the first best seller loads
+        when(productService.getProductResponse(any())).thenAnswer(invocation -> {
+            Thread.currentThread().interrupt();
+            return null;
+        });
+
+        Map<String, RegionResult> results = warmup(5000).warm();
+
+        assertEquals(2, results.get(CacheWarmupService.TOP_SELLERS).getEntries());
+    }
+
+    @Test
+    void testDisabledWarmupDoesNothing() {
+        new CacheWarmupService(categoryService, storeService, productService, productRepository,
+            entityCacheRegistry, false, 5000, 10, 20).run(null);
+
+        verifyNoInteractions(categoryService, storeService, productRepository);
+    }
+
+    private void stubCatalog() {
+        when(categoryService.getRootCategories()).thenReturn(List.of(root));
+        when(categoryService.getActiveCategoriesByParent(root.getId())).thenReturn(List.of(child));
+        when(storeService.getTopSellingStores(10)).thenReturn(List.of(store));
+        when(productRepository.findTopSellingByStore(eq(store.getId()), any())).thenReturn(List.of(product(), product()));
+        when(productRepository.findNewestByCategoryIdIn(eq(List.of(root.getId(), child.getId())), any()))
+            .thenReturn(List.of(product()));
+    }
+
+    private void stubProductCache(boolean configured) {
+        when(entityCacheRegistry.getCache(EntityCacheRegistry.PRODUCT))
+            .thenReturn(configured ? Optional.of(new LocalCache<>(100, Duration.ofMinutes(5))) : Optional.empty());
+    }
+
+    private CacheWarmupService warmup(long budgetMs) {
+        return new CacheWarmupService(categoryService, storeService, productService, productRepository,
+            entityCacheRegistry, true, budgetMs, 10, 20);
+    }
+
+    private static Category category() {
+        Category category = new Category();
+        category.setId(UUID.randomUUID());
+        return category;
+    }
+
+    private static Product product() {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        return product;
+    }
+}
@@ -38,6 +38,9 @@ class CartServiceTest {
     @Mock
     private UserRepository userRepository;
     
+    @Mock
+    private HotStockService hotStockService;
+    
     @InjectMocks
     private CartService cartService;
     
@@ -85,6 +88,7 @@ class CartServiceTest {
         cartItem.setUnitPrice(new BigDecimal("99.99"));
         cartItem.setLineTotal(new BigDecimal("199.98"));
         cartItem.setShippingOption(shippingOption);
+        cartItem.setShippingCost(new BigDecimal("5.00"));
         
         cart = new Cart();
         cart.setId(cartId);
@@ -140,44 +144,75 @@ class CartServiceTest {
     @Test
     void testAddToCart_NewItem() {
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
-        when(cartItemRepository.findByCartIdAndProductId(cartId, productId)).thenReturn(Optional.empty());
-        when(cartItemRepository.save(any(CartItem.class))).thenReturn(cartItem);
-        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        when(cartRepository.findAndLockByUserId(userId)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(userId)).thenReturn(Optional.of(cart));
+        
+        // The cart already holds another product
+        Product other = new Product();
+        other.setId(UUID.randomUUID());
+        cartItem.setProduct(other);
         
         Cart result = cartService.addToCart(userId, productId, 2, null);
         
-        assertNotNull(result);
-        verify(productRepository, times(1)).findById(productId);
-        verify(cartItemRepository, times(1)).save(any(CartItem.class));
+        assertEquals(2, result.getItems().size());
+        assertEquals(new BigDecimal("399.96"), result.getSubtotal());
+        assertEquals(new BigDecimal("32.00"), result.getTax());
+        assertEquals(new BigDecimal("436.96"), result.getTotal());
+        CartTotals.verify(result);
+        // The new line is saved along with the cart, which is written once on commit
+        verifyNoInteractions(cartItemRepository);
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+    
+    @Test
+    void testAddToCart_FirstItemSavesTheNewCartOnce() {
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(cartRepository.findAndLockByUserId(userId)).thenReturn(Optional.empty());
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Cart result = cartService.addToCart(userId, productId, 2, null);
+        
+        assertEquals(1, result.getItems().size());
+        assertEquals(new BigDecimal("199.98"), result.getSubtotal());
+        assertEquals(new BigDecimal("215.98"), result.getTotal());
+        CartTotals.verify(result);
+        verify(cartRepository, times(1)).save(any(Cart.class));
     }
     
     @Test
     void testAddToCart_UpdateExistingItem() {
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
-        when(cartItemRepository.findByCartIdAndProductId(cartId, productId)).thenReturn(Optional.of(cartItem));
-        when(cartItemRepository.save(any(CartItem.class))).thenReturn(cartItem);
-        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        when(cartRepository.findAndLockByUserId(userId)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(userId)).thenReturn(Optional.of(cart));
         
         Cart result = cartService.addToCart(userId, productId, 1, null);
         
-        assertNotNull(result);
-        verify(cartItemRepository, times(1)).save(any(CartItem.class));
+        assertEquals(1, result.getItems().size());
+        assertEquals(3, cartItem.getQuantity());
+        assertEquals(new BigDecimal("299.97"), result.getSubtotal());
+        CartTotals.verify(result);
+        verifyNoInteractions(cartItemRepository);
     }
     
     @Test
     void testAddToCart_WithShippingOption() {
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
-        when(cartItemRepository.findByCartIdAndProductId(cartId, productId)).thenReturn(Optional.empty());
+        when(cartRepository.findAndLockByUserId(userId)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(userId)).thenReturn(Optional.of(cart));
         when(shippingOptionRepository.findById(shippingOptionId)).thenReturn(Optional.of(shippingOption));
-        when(cartItemRepository.save(any(CartItem.class))).thenReturn(cartItem);
-        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        
+        cart.getItems().clear();
+        cart.setSubtotal(BigDecimal.ZERO);
+        cart.setTax(BigDecimal.ZERO);
+        cart.setShippingCost(BigDecimal.ZERO);
+        cart.setTotal(BigDecimal.ZERO);
         
         Cart result = cartService.addToCart(userId, productId, 2, shippingOptionId);
         
-        assertNotNull(result);
+        assertEquals(new BigDecimal("5.00"), result.getShippingCost());
+        assertEquals(new BigDecimal("220.98"), result.getTotal());
+        CartTotals.verify(result);
         verify(shippingOptionRepository, times(1)).findById(shippingOptionId);
     }
     
@@ -224,8 +259,8 @@ class CartServiceTest {
     @Test
     void testAddToCart_ShippingOptionNotFound() {
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
-        when(cartItemRepository.findByCartIdAndProductId(cartId, productId)).thenReturn(Optional.empty());
+        when(cartRepository.findAndLockByUserId(userId)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(userId)).thenReturn(Optional.of(cart));
         when(shippingOptionRepository.findById(shippingOptionId)).thenReturn(Optional.empty());
         
         assertThrows(RuntimeException.class, () -> cartService.addToCart(userId, productId, 2, shippingOptionId));
@@ -238,8 +273,8 @@ class CartServiceTest {
         shippingOption.setProduct(otherProduct);
         
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
-        when(cartItemRepository.findByCartIdAndProductId(cartId, productId)).thenReturn(Optional.empty());
+        when(cartRepository.findAndLockByUserId(userId)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(userId)).thenReturn(Optional.of(cart));
         when(shippingOptionRepository.findById(shippingOptionId)).thenReturn(Optional.of(shippingOption));
         
         assertThrows(RuntimeException.class, () -> cartService.addToCart(userId, productId, 2, shippingOptionId));
@@ -247,17 +282,34 @@ class CartServiceTest {
     
     @Test
     void testRemoveFromCart() {
-        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
+        when(cartRepository.findAndLockByUserId(userId)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(userId)).thenReturn(Optional.of(cart));
         when(cartItemRepository.findById(cartItemId)).thenReturn(Optional.of(cartItem));
         doNothing().when(cartItemRepository).delete(cartItem);
-        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
         
         Cart result = cartService.removeFromCart(userId, cartItemId);
         
-        assertNotNull(result);
+        assertTrue(result.getItems().isEmpty());
+        assertEquals(new BigDecimal("0.00"), result.getTotal());
+        CartTotals.verify(result);
         verify(cartItemRepository, times(1)).delete(cartItem);
     }
     
+    @Test
+    void testRemoveFromCart_SubtractsTheShippingChargedNotTheCurrentCost() {
+        when(cartRepository.findAndLockByUserId(userId)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(userId)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.findById(cartItemId)).thenReturn(Optional.of(cartItem));
+        // The seller raised the option's cost after the line was added
+        shippingOption.setShippingCost(new BigDecimal("9.00"));
+        
+        Cart result = cartService.removeFromCart(userId, cartItemId);
+        
+        assertEquals(new BigDecimal("0.00"), result.getShippingCost());
+        assertEquals(new BigDecimal("0.00"), result.getTotal());
+        CartTotals.verify(result);
+    }
+    
     @Test
     void testRemoveFromCart_NullUserIdThrowsException() {
         assertThrows(NullPointerException.class, () -> cartService.removeFromCart(null, cartItemId));
@@ -267,4 +319,45 @@ class CartServiceTest {
     void testRemoveFromCart_NullCartItemIdThrowsException() {
         assertThrows(NullPointerException.class, () -> cartService.removeFromCart(userId, null));
     }
+    
+    @Test
+    void testValidateCart_UsesTheLoadedProducts() {
+        product.setStockQuantity(1);
+        
+        RuntimeException e = assertThrows(RuntimeException.class, () -> cartService.validateCart(cart));
+        
+        assertEquals("Insufficient stock for Test Product. Available: 1", e.getMessage());
+        verifyNoInteractions(productRepository);
+    }
+    
+    @Test
+    void testValidateCart_HotProductIsNotCheckedAgainstItsRow() {
+        // The rest of its stock is leased to nodes, so the row alone says too little
+        product.setStockQuantity(0);
+        when(hotStockService.isHot(productId)).thenReturn(true);
+        
+        assertDoesNotThrow(() -> cartService.validateCart(cart));
+    }
+    
+    @Test
+    void testValidateCart_InactiveProductIsNoLongerAvailable() {
+        product.setIsActive(false);
+        
+        RuntimeException e = assertThrows(RuntimeException.class, () -> cartService.validateCart(cart));
+        
+        assertEquals("Product no longer available", e.getMessage());
+    }
+    
+    @Test
+    void testClearCart_LeavesItemDeletionToOrphanRemoval() {
+        when(cartRepository.findAndLockByUserId(userId)).thenReturn(Optional.of(cart));
+        when(cartRepository.findWithItemsByUserId(userId)).thenReturn(Optional.of(cart));
+        
+        Cart result = cartService.clearCart(userId);
+        
+        assertTrue(result.getItems().isEmpty());
+        assertEquals(new BigDecimal("0.00"), result.getSubtotal());
+        CartTotals.verify(result);
+        verifyNoInteractions(cartItemRepository);
+    }
 }
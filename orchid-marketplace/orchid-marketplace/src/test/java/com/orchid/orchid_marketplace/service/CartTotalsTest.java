@@ -0,0 +1,210 @@
+package com.orchid.orchid_marketplace.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.orchid.orchid_marketplace.model.Cart;
+import com.orchid.orchid_marketplace.model.CartItem;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.Role;
+import com.orchid.orchid_marketplace.model.ShippingOption;
+import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.model.User;
+import com.orchid.orchid_marketplace.repository.CartItemRepository;
+import com.orchid.orchid_marketplace.repository.CartRepository;
+import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.repository.ShippingOptionRepository;
+import com.orchid.orchid_marketplace.repository.StoreRepository;
+import com.orchid.orchid_marketplace.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Drives a cart through random changes and recomputes its totals from scratch after each one:
+ * the running totals must never drift, and every change writes the cart row at most once.
+ * Changes racing on one cart must all land in its totals.
+ */
+@DataJpaTest
+@Import(CartService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartTotalsTest {
+
+    private static final String[] PRICES = {"19.99", "0.35", "7.49", "120.00", "3.33"};
+    private static final String[] SHIPPING = {"4.99", "0.00", "12.50"};
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShippingOptionRepository shippingOptionRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private HotStockService hotStockService;
+
+    private TransactionTemplate tx;
+    private EntityStatistics cartWrites;
+    private Store store;
+    private UUID buyerId;
+    private final List<Product> products = new ArrayList<>();
+    private final List<List<ShippingOption>> shippingOptions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        cartWrites = entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+            .getEntityStatistics(Cart.class.getName());
+        User seller = userRepository.save(new User("seller@example.com", "Seller", Role.SELLER));
+        store = storeRepository.save(new Store(seller, "Orchid House", "orchid-house"));
+        buyerId = userRepository.save(new User("buyer@example.com", "Buyer", Role.CUSTOMER)).getId();
+        for (String price : PRICES) {
+            Product product = productRepository.save(new Product("Orchid " + price, "Bloom", new BigDecimal(price), 1000,
+                store, Product.ProductCondition.NEW));
+            List<ShippingOption> options = new ArrayList<>();
+            for (String cost : SHIPPING) {
+                options.add(shippingOptionRepository.save(new ShippingOption(product, "Option " + cost, new BigDecimal(cost))));
+            }
+            products.add(product);
+            shippingOptions.add(options);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartItemRepository.deleteAllInBatch();
+        cartRepository.deleteAllInBatch();
+        shippingOptionRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        storeRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testRunningTotalsMatchARecomputeAfterEveryChange() {
+        Random random = new Random(42);
+        for (int step = 0; step < 120; step++) {
+            List<CartItem> items = items();
+            int action = items.isEmpty() ? 0 : random.nextInt(10);
+            long writesBefore = cartWrites.getInsertCount() + cartWrites.getUpdateCount();
+
+            if (action < 4) {
+                int product = random.nextInt(products.size());
+                ShippingOption option = random.nextBoolean() ? pick(shippingOptions.get(product), random) : null;
+                cartService.addToCart(buyerId, products.get(product).getId(), 1 + random.nextInt(3),
+                    option == null ? null : option.getId());
+            } else if (action < 6) {
+                cartService.updateCartItemQuantity(buyerId, pick(items, random).getId(), random.nextInt(5));
+            } else if (action < 8) {
+                CartItem item = pick(items, random);
+                ShippingOption option = random.nextInt(4) == 0 ? null
+                    : pick(shippingOptions.get(products.indexOf(productOf(item))), random);
+                cartService.updateShippingOption(buyerId, item.getId(), option == null ? null : option.getId());
+            } else if (action < 9) {
+                cartService.removeFromCart(buyerId, pick(items, random).getId());
+            } else {
+                cartService.clearCart(buyerId);
+            }
+
+            long writes = cartWrites.getInsertCount() + cartWrites.getUpdateCount() - writesBefore;
+            assertEquals(1, writes, "step " + step + " wrote the cart " + writes + " times");
+            tx.executeWithoutResult(status -> CartTotals.verify(cartRepository.findWithItemsByUserId(buyerId).orElseThrow()));
+        }
+    }
+
+    @Test
+    void testConcurrentChangesToOneCartAreNotLost() throws Exception {
+        // The cart row exists before the buyers race
+        cartService.addToCart(buyerId, products.get(0).getId(), 1, null);
+        List<UUID> others = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            others.add(productRepository.save(new Product("Orchid " + i, "Bloom", new BigDecimal("10.00"), 1000,
+                store, Product.ProductCondition.NEW)).getId());
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(others.size());
+        try {
+            List<Future<?>> buyers = new ArrayList<>();
+            for (UUID productId : others) {
+                buyers.add(pool.submit(() -> {
+                    start.await();
+                    return cartService.addToCart(buyerId, productId, 1, null);
+                }));
+            }
+            start.countDown();
+            for (Future<?> buyer : buyers) {
+                buyer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        tx.executeWithoutResult(status -> {
+            Cart cart = cartRepository.findWithItemsByUserId(buyerId).orElseThrow();
+            assertEquals(others.size() + 1, cart.getItems().size());
+            assertEquals(new BigDecimal("99.99"), cart.getSubtotal());
+            CartTotals.verify(cart);
+        });
+    }
+
+    private List<CartItem> items() {
+        return tx.execute(status -> cartRepository.findWithItemsByUserId(buyerId)
+            .map(cart -> List.copyOf(cart.getItems()))
+            .orElse(List.of()));
+    }
+
+    private Product productOf(CartItem item) {
+        return products.stream()
+            .filter(product -> product.getId().equals(item.getProduct().getId()))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static <T> T pick(List<T> list, Random random) {
+        return list.get(random.nextInt(list.size()));
+    }
+}
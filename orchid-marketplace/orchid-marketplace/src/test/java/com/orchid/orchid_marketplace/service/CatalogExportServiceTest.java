@@ -0,0 +1,127 @@
+package com.orchid.orchid_marketplace.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Product;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogExportServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private SelectionQuery<Product> query;
+
+    @Mock
+    private ScrollableResults<Product> rows;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CatalogExportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CatalogExportService(transactionManager, objectMapper);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.createSelectionQuery(anyString(), eq(Product.class))).thenReturn(query);
+        when(query.setFetchSize(anyInt())).thenReturn(query);
+        when(query.setReadOnly(anyBoolean())).thenReturn(query);
+        when(query.setCacheMode(any())).thenReturn(query);
+        when(query.scroll(ScrollMode.FORWARD_ONLY)).thenReturn(rows);
+    }
+
+    @Test
+    void testExportWritesOneJsonObjectPerLineInReadOnlyTransaction() throws IOException {
+        Category category = new Category("orchids", "Orchids", null);
+        category.setId(UUID.randomUUID());
+        Product first = product("Vanda", category);
+        Product second = product("Cattleya", null);
+        when(rows.next()).thenReturn(true, true, false);
+        when(rows.get()).thenReturn(first, second);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, service.exportProducts(out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        JsonNode line = objectMapper.readTree(lines[0]);
+        assertEquals("Vanda", line.get("title").asText());
+        assertEquals(category.getId().toString(), line.get("categoryId").asText());
+        assertEquals("Cattleya", objectMapper.readTree(lines[1]).get("title").asText());
+
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager).commit(any());
+        verify(rows).close();
+    }
+
+    @Test
+    void testExportClearsPersistenceContextEveryBatch() {
+        int total = CatalogExportService.BATCH_SIZE * 2 + 7;
+        int[] remaining = {total};
+        when(rows.next()).thenAnswer(invocation -> remaining[0]-- > 0);
+        when(rows.get()).thenReturn(product("Oncidium", null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(total, service.exportProducts(out));
+
+        verify(session, times(2)).clear();
+        verify(query).setFetchSize(CatalogExportService.BATCH_SIZE);
+        assertEquals(total, out.toString(StandardCharsets.UTF_8).chars().filter(c -> c == '\n').count());
+    }
+
+    @Test
+    void testClientDisconnectAbortsExportAndClosesCursor() throws IOException {
+        when(rows.next()).thenReturn(true);
+        when(rows.get()).thenReturn(product("Miltonia", null));
+        OutputStream broken = mock(OutputStream.class);
+        doThrow(new IOException("Broken pipe")).when(broken).write(any(byte[].class), anyInt(), anyInt());
+
+        assertThrows(RuntimeException.class, () -> service.exportProducts(broken));
+        verify(rows).close();
+        verify(transactionManager, never()).commit(any());
+    }
+
+    private static Product product(String title, Category category) {
+        Product product = new Product(title, null, new BigDecimal("9.50"), 2, null, Product.ProductCondition.NEW);
+        product.setId(UUID.randomUUID());
+        product.setCategory(category);
+        return product;
+    }
+}
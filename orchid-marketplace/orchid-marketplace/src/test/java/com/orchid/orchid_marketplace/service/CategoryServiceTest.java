@@ -17,13 +17,20 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.orchid.orchid_marketplace.model.Category;
 import com.orchid.orchid_marketplace.repository.CategoryRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class CategoryServiceTest {
     
     @Mock
     private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductSearchService productSearchService;
     
+    @Mock
+    private EntityCacheRegistry entityCacheRegistry;
+
     @InjectMocks
     private CategoryService categoryService;
     
@@ -6,18 +6,23 @@ import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.orchid.orchid_marketplace.model.*;
 import com.orchid.orchid_marketplace.repository.*;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class CheckoutServiceTest {
@@ -43,6 +48,18 @@ class CheckoutServiceTest {
     @Mock
     private SellerLedgerService sellerLedgerService;
     
+    @Mock
+    private ProductSearchService productSearchService;
+    
+    @Mock
+    private EntityCacheRegistry entityCacheRegistry;
+
+    @Mock
+    private InventoryHoldService inventoryHoldService;
+
+    @Mock
+    private HotStockService hotStockService;
+
     @InjectMocks
     private CheckoutService checkoutService;
     
@@ -125,14 +142,14 @@ class CheckoutServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(addressRepository.findById(shippingAddressId)).thenReturn(Optional.of(shippingAddress));
         when(addressRepository.findById(billingAddressId)).thenReturn(Optional.of(billingAddress));
-        when(cartService.getCart(userId)).thenReturn(cart);
-        doNothing().when(cartService).validateCart(userId);
+        when(cartService.getCartForCheckout(userId)).thenReturn(cart);
+        doNothing().when(cartService).validateCart(cart);
         
         Order mockOrder = new Order("ORD-123", user);
         mockOrder.setId(UUID.randomUUID());
         when(orderRepository.save(any(Order.class))).thenReturn(mockOrder);
-        when(productRepository.findById(any(UUID.class))).thenReturn(Optional.of(product));
-        when(orderItemRepository.save(any(OrderItem.class))).thenReturn(new OrderItem());
+        when(productRepository.reserveStockBatch(eq(new TreeMap<>(Map.of(product.getId(), 2))), any()))
+            .thenReturn(new int[] {1});
         
         // Act
         Order result = checkoutService.createOrderFromCart(userId, shippingAddressId, billingAddressId);
@@ -142,8 +159,8 @@ class CheckoutServiceTest {
         verify(userRepository).findById(userId);
         verify(addressRepository).findById(shippingAddressId);
         verify(addressRepository).findById(billingAddressId);
-        verify(cartService).getCart(userId);
-        verify(cartService).validateCart(userId);
+        verify(cartService).getCartForCheckout(userId);
+        verify(cartService).validateCart(cart);
         verify(orderRepository).save(any(Order.class));
     }
     
@@ -208,16 +225,20 @@ class CheckoutServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(addressRepository.findById(shippingAddressId)).thenReturn(Optional.of(shippingAddress));
         when(addressRepository.findById(billingAddressId)).thenReturn(Optional.of(billingAddress));
-        when(cartService.getCart(userId)).thenReturn(cart);
-        doNothing().when(cartService).validateCart(userId);
+        when(cartService.getCartForCheckout(userId)).thenReturn(cart);
+        doNothing().when(cartService).validateCart(cart);
         
         Order mockOrder = new Order("ORD-123", user);
         mockOrder.setId(UUID.randomUUID());
         when(orderRepository.save(any(Order.class))).thenReturn(mockOrder);
+        when(productRepository.reserveStockBatch(any(), any())).thenReturn(new int[] {0});
         when(productRepository.findById(any(UUID.class))).thenReturn(Optional.of(product));
         
-        assertThrows(RuntimeException.class, 
+        RuntimeException e = assertThrows(RuntimeException.class, 
             () -> checkoutService.createOrderFromCart(userId, shippingAddressId, billingAddressId));
+        assertEquals("Insufficient stock for Test Product", e.getMessage());
+        verify(productRepository).reserveStockBatch(eq(new TreeMap<>(Map.of(product.getId(), 2))), any());
+        verifyNoInteractions(orderItemRepository, productSearchService);
     }
     
     @Test
@@ -225,16 +246,18 @@ class CheckoutServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(addressRepository.findById(shippingAddressId)).thenReturn(Optional.of(shippingAddress));
         when(addressRepository.findById(billingAddressId)).thenReturn(Optional.of(billingAddress));
-        when(cartService.getCart(userId)).thenReturn(cart);
-        doNothing().when(cartService).validateCart(userId);
+        when(cartService.getCartForCheckout(userId)).thenReturn(cart);
+        doNothing().when(cartService).validateCart(cart);
         
         Order mockOrder = new Order("ORD-123", user);
         mockOrder.setId(UUID.randomUUID());
         when(orderRepository.save(any(Order.class))).thenReturn(mockOrder);
+        when(productRepository.reserveStockBatch(any(), any())).thenReturn(new int[] {0});
         when(productRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
         
-        assertThrows(RuntimeException.class, 
+        RuntimeException e = assertThrows(RuntimeException.class, 
             () -> checkoutService.createOrderFromCart(userId, shippingAddressId, billingAddressId));
+        assertEquals("Product no longer available", e.getMessage());
     }
     
     @Test
@@ -260,8 +283,8 @@ class CheckoutServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(addressRepository.findById(shippingAddressId)).thenReturn(Optional.of(shippingAddress));
         when(addressRepository.findById(billingAddressId)).thenReturn(Optional.of(billingAddress));
-        when(cartService.getCart(userId)).thenReturn(cart);
-        doNothing().when(cartService).validateCart(userId);
+        when(cartService.getCartForCheckout(userId)).thenReturn(cart);
+        doNothing().when(cartService).validateCart(cart);
         
         Order mockOrder = new Order("ORD-123", user);
         mockOrder.setId(UUID.randomUUID());
@@ -275,11 +298,137 @@ class CheckoutServiceTest {
             return mockOrder;
         });
         
-        when(productRepository.findById(any(UUID.class))).thenReturn(Optional.of(product));
-        when(orderItemRepository.save(any(OrderItem.class))).thenReturn(new OrderItem());
+        when(productRepository.reserveStockBatch(eq(new TreeMap<>(Map.of(product.getId(), 2))), any()))
+            .thenReturn(new int[] {1});
         
         checkoutService.createOrderFromCart(userId, shippingAddressId, billingAddressId);
         
         verify(orderRepository).save(any(Order.class));
     }
+    
+    @Test
+    void testPaymentAndCancellationGoThroughTheOrdersHolds() {
+        Order order = new Order("ORD-456", user);
+        order.setId(UUID.randomUUID());
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setStore(store);
+        item.setQuantity(3);
+        order.getOrderItems().add(item);
+        when(orderRepository.findWithItemsById(order.getId())).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+        when(productRepository.releaseStockBatch(eq(new TreeMap<>(Map.of(product.getId(), 3))), any()))
+            .thenReturn(new int[] {1});
+        when(inventoryHoldService.convert(order)).thenReturn(true);
+        
+        checkoutService.confirmOrderPayment(order.getId());
+        
+        // Converting the holds is what counts the sale, once
+        verify(inventoryHoldService).convert(order);
+        assertEquals(Order.OrderStatus.PROCESSING, order.getStatus());
+        
+        checkoutService.cancelOrder(order.getId(), "changed my mind");
+        
+        // Placed without holds, so the lines are given back one by one
+        verify(inventoryHoldService).releaseOrder(order);
+        verify(productSearchService).adjustStock(product.getId(), 3);
+    }
+    
+    @Test
+    void testPaymentIsRefusedOnceTheReaperReleasedTheHolds() {
+        Order order = new Order("ORD-457", user);
+        order.setId(UUID.randomUUID());
+        when(orderRepository.findWithItemsById(order.getId())).thenReturn(Optional.of(order));
+        when(inventoryHoldService.convert(order)).thenReturn(false);
+        
+        assertThrows(RuntimeException.class, () -> checkoutService.confirmOrderPayment(order.getId()));
+        
+        assertEquals(Order.OrderStatus.PENDING, order.getStatus());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
+    @Test
+    void testCancellingAHeldOrderReleasesItsHolds() {
+        Order order = new Order("ORD-789", user);
+        order.setId(UUID.randomUUID());
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(2);
+        order.getOrderItems().add(item);
+        when(orderRepository.findWithItemsById(order.getId())).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+        when(inventoryHoldService.releaseOrder(order)).thenReturn(true);
+        
+        checkoutService.cancelOrder(order.getId(), "changed my mind");
+        
+        assertEquals(OrderItem.OrderItemStatus.CANCELLED, item.getStatus());
+        verify(productRepository, never()).releaseStockBatch(any(), any());
+    }
+    
+    @Test
+    void testLinesAreReservedOncePerProductInIdOrder() {
+        Product other = new Product();
+        other.setId(new UUID(0, 1));
+        product.setId(new UUID(0, 2));
+        CartItem again = new CartItem();
+        again.setProduct(product);
+        again.setQuantity(3);
+        CartItem otherItem = new CartItem();
+        otherItem.setProduct(other);
+        otherItem.setQuantity(1);
+        cart.setItems(List.of(cartItem, otherItem, again));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(addressRepository.findById(shippingAddressId)).thenReturn(Optional.of(shippingAddress));
+        when(addressRepository.findById(billingAddressId)).thenReturn(Optional.of(billingAddress));
+        when(cartService.getCartForCheckout(userId)).thenReturn(cart);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productRepository.reserveStockBatch(any(), any())).thenReturn(new int[] {1, 1});
+        
+        checkoutService.createOrderFromCart(userId, shippingAddressId, billingAddressId);
+        
+        // One batch, merged per product, with its rows in id order
+        ArgumentCaptor<SortedMap<UUID, Integer>> rows = ArgumentCaptor.captor();
+        verify(productRepository).reserveStockBatch(rows.capture(), any());
+        assertEquals(List.of(other.getId(), product.getId()), List.copyOf(rows.getValue().keySet()));
+        assertEquals(List.of(1, 5), List.copyOf(rows.getValue().values()));
+        verify(productRepository, never()).findById(any());
+        ArgumentCaptor<List<OrderItem>> saved = ArgumentCaptor.captor();
+        verify(orderItemRepository).saveAll(saved.capture());
+        assertEquals(3, saved.getValue().size());
+        verify(orderItemRepository, never()).save(any(OrderItem.class));
+    }
+    
+    @Test
+    void testHotProductIsReservedFromTheStockLease() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(addressRepository.findById(shippingAddressId)).thenReturn(Optional.of(shippingAddress));
+        when(addressRepository.findById(billingAddressId)).thenReturn(Optional.of(billingAddress));
+        when(cartService.getCartForCheckout(userId)).thenReturn(cart);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(hotStockService.isHot(product.getId())).thenReturn(true);
+        when(hotStockService.reserve(product.getId(), 2)).thenReturn(true);
+        
+        checkoutService.createOrderFromCart(userId, shippingAddressId, billingAddressId);
+        
+        verify(productRepository, never()).reserveStockBatch(any(), any());
+        verify(productSearchService).adjustStock(product.getId(), -2);
+        verify(entityCacheRegistry, never()).evict(EntityCacheRegistry.PRODUCT, product.getId());
+    }
+    
+    @Test
+    void testHotProductShortOfStockFailsTheCheckout() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(addressRepository.findById(shippingAddressId)).thenReturn(Optional.of(shippingAddress));
+        when(addressRepository.findById(billingAddressId)).thenReturn(Optional.of(billingAddress));
+        when(cartService.getCartForCheckout(userId)).thenReturn(cart);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(hotStockService.isHot(product.getId())).thenReturn(true);
+        when(hotStockService.reserve(product.getId(), 2)).thenReturn(false);
+        
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> checkoutService.createOrderFromCart(userId, shippingAddressId, billingAddressId));
+        
+        assertEquals("Insufficient stock for Test Product", e.getMessage());
+    }
 }
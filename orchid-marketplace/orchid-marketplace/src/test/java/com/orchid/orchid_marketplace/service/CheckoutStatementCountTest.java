@@ -0,0 +1,265 @@
+package com.orchid.orchid_marketplace.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.orchid.orchid_marketplace.model.Address;
+import com.orchid.orchid_marketplace.model.Cart;
+import com.orchid.orchid_marketplace.model.CartItem;
+import com.orchid.orchid_marketplace.model.Order;
+import com.orchid.orchid_marketplace.model.OrderItem;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.Role;
+import com.orchid.orchid_marketplace.model.ShippingOption;
+import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.model.User;
+import com.orchid.orchid_marketplace.repository.AddressRepository;
+import com.orchid.orchid_marketplace.repository.CartItemRepository;
+import com.orchid.orchid_marketplace.repository.CartRepository;
+import com.orchid.orchid_marketplace.repository.InventoryHoldRepository;
+import com.orchid.orchid_marketplace.repository.OrderItemRepository;
+import com.orchid.orchid_marketplace.repository.OrderRepository;
+import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.repository.ShippingOptionRepository;
+import com.orchid.orchid_marketplace.repository.StoreRepository;
+import com.orchid.orchid_marketplace.repository.UserRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
+import com.orchid.orchid_marketplace.service.cache.WriteBehindCounters;
+
+/**
+ * Counts the SQL statements each checkout flow prepares, so a query or write per line creeping
+ * back in fails here: a six-line order must cost the same as a two-line one, within a budget.
+ * Statements are counted on the connections themselves, so JDBC batches count once.
+ */
+@DataJpaTest
+@Import({CheckoutService.class, CartService.class, InventoryHoldService.class, HotStockService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CheckoutStatementCountTest {
+
+    private static final int MAX_CHECKOUT_STATEMENTS = 13;
+    private static final int MAX_CONFIRM_STATEMENTS = 4;
+    private static final int MAX_CANCEL_STATEMENTS = 7;
+
+    private static final AtomicLong PREPARED = new AtomicLong();
+    private static final Set<String> PREPARING = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    @TestConfiguration
+    static class StatementCounting {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counting(dataSource) : bean;
+                }
+            };
+        }
+
+        private static DataSource counting(DataSource dataSource) {
+            return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[] {DataSource.class}, (proxy, method, args) -> {
+                    Object result = invoke(dataSource, method, args);
+                    return result instanceof Connection connection ? counting(connection) : result;
+                });
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    if (PREPARING.contains(method.getName())) {
+                        PREPARED.incrementAndGet();
+                    }
+                    return invoke(connection, method, args);
+                });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShippingOptionRepository shippingOptionRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private InventoryHoldRepository inventoryHoldRepository;
+
+    @MockitoBean
+    private ProductSearchService productSearchService;
+
+    @MockitoBean
+    private EntityCacheRegistry entityCacheRegistry;
+
+    @MockitoBean
+    private WriteBehindCounters writeBehindCounters;
+
+    @MockitoBean
+    private SellerLedgerService sellerLedgerService;
+
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        User seller = userRepository.save(new User("seller@example.com", "Seller", Role.SELLER));
+        store = storeRepository.save(new Store(seller, "Orchid House", "orchid-house"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryHoldRepository.deleteAllInBatch();
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        cartItemRepository.deleteAllInBatch();
+        cartRepository.deleteAllInBatch();
+        shippingOptionRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        storeRepository.deleteAllInBatch();
+        addressRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testCheckoutStatementsDoNotGrowWithTheCart() {
+        Buyer smallCart = buyerWithCart("small@example.com", 2);
+        Buyer largeCart = buyerWithCart("large@example.com", 6);
+
+        long small = statements(() -> checkout(smallCart));
+        long large = statements(() -> checkout(largeCart));
+
+        assertEquals(small, large, "statements for 2 lines: " + small + ", for 6 lines: " + large);
+        assertTrue(large <= MAX_CHECKOUT_STATEMENTS, "checkout prepared " + large + " statements");
+    }
+
+    @Test
+    void testConfirmAndCancelStatementsDoNotGrowWithTheOrder() {
+        UUID small = checkout(buyerWithCart("small@example.com", 2)).getId();
+        UUID large = checkout(buyerWithCart("large@example.com", 6)).getId();
+
+        long confirmSmall = statements(() -> checkoutService.confirmOrderPayment(small));
+        long confirmLarge = statements(() -> checkoutService.confirmOrderPayment(large));
+        long cancelSmall = statements(() -> checkoutService.cancelOrder(small, "changed mind"));
+        long cancelLarge = statements(() -> checkoutService.cancelOrder(large, "changed mind"));
+
+        assertEquals(confirmSmall, confirmLarge, "confirm: " + confirmSmall + " vs " + confirmLarge);
+        assertEquals(cancelSmall, cancelLarge, "cancel: " + cancelSmall + " vs " + cancelLarge);
+        assertTrue(confirmLarge <= MAX_CONFIRM_STATEMENTS, "confirm prepared " + confirmLarge + " statements");
+        assertTrue(cancelLarge <= MAX_CANCEL_STATEMENTS, "cancel prepared " + cancelLarge + " statements");
+        assertEquals(OrderItem.OrderItemStatus.CANCELLED, orderItemRepository.findByOrderId(large).get(0).getStatus());
+    }
+
+    @Test
+    void testCheckoutStillTakesTheStockOfEveryLine() {
+        Order order = checkout(buyerWithCart("buyer@example.com", 3));
+
+        List<OrderItem> items = orderItemRepository.findByOrderId(order.getId());
+        assertEquals(3, items.size());
+        for (OrderItem item : items) {
+            assertEquals(10 - item.getQuantity(), productRepository.findStockQuantityById(item.getProduct().getId()));
+        }
+        assertTrue(inventoryHoldRepository.existsByOrderId(order.getId()));
+    }
+
+    private record Buyer(UUID userId, UUID addressId) {
+    }
+
+    // A buyer with a cart of the given number of lines, each a different product
+    private Buyer buyerWithCart(String email, int lines) {
+        User buyer = userRepository.save(new User(email, "Buyer", Role.CUSTOMER));
+        Address address = addressRepository.save(new Address(buyer, "1 Orchid Way", "Portland", "OR", "US", "97201",
+            Address.AddressType.SHIPPING));
+        Cart cart = new Cart();
+        cart.setUser(buyer);
+        cart.setSubtotal(BigDecimal.ZERO);
+        cart.setTax(BigDecimal.ZERO);
+        cart.setShippingCost(BigDecimal.ZERO);
+        cart.setTotal(BigDecimal.ZERO);
+        cart.setLastUpdated(LocalDateTime.now());
+        cart = cartRepository.save(cart);
+        List<CartItem> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            Product product = productRepository.save(new Product("Orchid " + i, "Bloom", new BigDecimal("20.00"), 10,
+                store, Product.ProductCondition.NEW));
+            ShippingOption shipping = shippingOptionRepository.save(
+                new ShippingOption(product, "Standard", new BigDecimal("5.00")));
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(i % 2 + 1);
+            item.setUnitPrice(new BigDecimal("20.00"));
+            item.setLineTotal(new BigDecimal("20.00").multiply(BigDecimal.valueOf(i % 2 + 1)));
+            item.setShippingOption(shipping);
+            items.add(item);
+        }
+        cartItemRepository.saveAll(items);
+        return new Buyer(buyer.getId(), address.getId());
+    }
+
+    private Order checkout(Buyer buyer) {
+        return checkoutService.createOrderFromCart(buyer.userId(), buyer.addressId(), buyer.addressId());
+    }
+
+    private <T> long statements(Supplier<T> flow) {
+        long before = PREPARED.get();
+        flow.get();
+        return PREPARED.get() - before;
+    }
+}
@@ -0,0 +1,205 @@
+package com.orchid.orchid_marketplace.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.orchid.orchid_marketplace.model.Cart;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.Role;
+import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.model.User;
+import com.orchid.orchid_marketplace.repository.CartItemRepository;
+import com.orchid.orchid_marketplace.repository.CartRepository;
+import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.repository.StoreRepository;
+import com.orchid.orchid_marketplace.repository.UserRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
+
+@DataJpaTest
+@Import({HotStockService.class, CartService.class})
+@TestPropertySource(properties = "inventory.hot-stock.lease-size=10")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HotStockServiceTest {
+
+    private static final int STOCK = 50;
+
+    @Autowired
+    private HotStockService hotStockService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private EntityCacheRegistry entityCacheRegistry;
+
+    private TransactionTemplate tx;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        User seller = userRepository.save(new User("seller@example.com", "Seller", Role.SELLER));
+        Store store = storeRepository.save(new Store(seller, "Orchid House", "orchid-house"));
+        productId = productRepository.save(new Product("Phalaenopsis", "White", new BigDecimal("24.00"), STOCK, store,
+            Product.ProductCondition.NEW)).getId();
+        hotStockService.setHot(productId, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hotStockService.closeAll();
+        cartItemRepository.deleteAllInBatch();
+        cartRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        storeRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testReservationsComeFromLeasedChunks() {
+        assertTrue(hotStockService.isHot(productId));
+        assertTrue(reserve(3));
+        assertTrue(reserve(3));
+
+        assertEquals(STOCK - 10, stock());
+        assertEquals(4, hotStockService.leased(productId));
+
+        // Switching the product off gives back what the node still holds
+        hotStockService.setHot(productId, false);
+        assertFalse(hotStockService.isHot(productId));
+        assertEquals(STOCK - 6, stock());
+    }
+
+    @Test
+    void testCartAcceptsAHotProductWhoseRowTheLeasesDrained() {
+        UUID buyerId = userRepository.save(new User("buyer@example.com", "Buyer", Role.CUSTOMER)).getId();
+        while (stock() > 0) {
+            assertTrue(reserve(1));
+        }
+        assertTrue(hotStockService.leased(productId) > 0);
+
+        Cart cart = cartService.addToCart(buyerId, productId, 2, null);
+        UUID itemId = cart.getItems().get(0).getId();
+        cart = cartService.updateCartItemQuantity(buyerId, itemId, 3);
+
+        assertEquals(3, cart.getItems().get(0).getQuantity());
+        assertEquals(0, stock());
+    }
+
+    @Test
+    void testLowLeaseIsToppedUpOutsideCheckout() {
+        assertTrue(reserve(9));
+
+        hotStockService.topUp();
+
+        assertEquals(11, hotStockService.leased(productId));
+        assertEquals(STOCK - 20, stock());
+    }
+
+    @Test
+    void testRolledBackCheckoutPutsItsUnitsBackInTheLease() {
+        assertTrue(reserve(2));
+        tx.executeWithoutResult(status -> {
+            assertTrue(hotStockService.reserve(productId, 5));
+            status.setRollbackOnly();
+        });
+
+        // The chunk stays leased; only the rolled-back units return to the lease
+        assertEquals(STOCK - 10, stock());
+        assertEquals(8, hotStockService.leased(productId));
+    }
+
+    @Test
+    void testConcurrentBuyersNeverOversell() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> buyers = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                buyers.add(pool.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 10; j++) {
+                        if (reserve(1)) {
+                            sold.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> buyer : buyers) {
+                buyer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(STOCK, sold.get());
+        hotStockService.closeAll();
+        assertEquals(0, stock());
+    }
+
+    @Test
+    void testReconcileFollowsTheDatabaseFlag() {
+        assertTrue(reserve(1));
+        tx.executeWithoutResult(status -> productRepository.updateHotStock(productId, false, LocalDateTime.now()));
+
+        hotStockService.reconcile();
+
+        assertFalse(hotStockService.isHot(productId));
+        assertEquals(0, hotStockService.leased(productId));
+        assertEquals(STOCK - 1, stock());
+    }
+
+    // Checkout reserves inside its own transaction
+    private boolean reserve(int quantity) {
+        return Boolean.TRUE.equals(tx.execute(status -> hotStockService.reserve(productId, quantity)));
+    }
+
+    private int stock() {
+        return productRepository.findStockQuantityById(productId);
+    }
+}
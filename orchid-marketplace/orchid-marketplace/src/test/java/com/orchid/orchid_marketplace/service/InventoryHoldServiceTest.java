@@ -0,0 +1,253 @@
+package com.orchid.orchid_marketplace.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.orchid.orchid_marketplace.model.Order;
+import com.orchid.orchid_marketplace.model.OrderItem;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.Role;
+import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.model.User;
+import com.orchid.orchid_marketplace.repository.InventoryHoldRepository;
+import com.orchid.orchid_marketplace.repository.OrderItemRepository;
+import com.orchid.orchid_marketplace.repository.OrderRepository;
+import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.repository.StoreRepository;
+import com.orchid.orchid_marketplace.repository.UserRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
+import com.orchid.orchid_marketplace.service.cache.WriteBehindCounters;
+
+@DataJpaTest
+@Import({InventoryHoldService.class, CheckoutService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryHoldServiceTest {
+
+    @Autowired
+    private InventoryHoldService inventoryHoldService;
+
+    @Autowired
+    private InventoryHoldRepository inventoryHoldRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private ProductSearchService productSearchService;
+
+    @MockitoBean
+    private EntityCacheRegistry entityCacheRegistry;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @MockitoBean
+    private CartService cartService;
+
+    @MockitoBean
+    private HotStockService hotStockService;
+
+    @MockitoBean
+    private WriteBehindCounters writeBehindCounters;
+
+    @MockitoBean
+    private SellerLedgerService sellerLedgerService;
+
+    private TransactionTemplate tx;
+    private Store store;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        User seller = userRepository.save(new User("seller@example.com", "Seller", Role.SELLER));
+        store = storeRepository.save(new Store(seller, "Orchid House", "orchid-house"));
+        productId = productRepository.save(new Product("Phalaenopsis", "White", new BigDecimal("24.00"), 10, store,
+            Product.ProductCondition.NEW)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryHoldRepository.deleteAllInBatch();
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        storeRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testExpiredHoldsAreReleasedByOneNodeOnly() throws Exception {
+        UUID orderId = checkout(3);
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+
+        // Two nodes reaping at the same moment
+        CountDownLatch start = new CountDownLatch(1);
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> reap(start, later));
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> reap(start, later));
+        start.countDown();
+
+        assertEquals(1, first.get(30, TimeUnit.SECONDS) + second.get(30, TimeUnit.SECONDS));
+        assertEquals(10, stock());
+        assertEquals(Order.OrderStatus.CANCELLED, orderRepository.findById(orderId).orElseThrow().getStatus());
+        assertEquals(OrderItem.OrderItemStatus.CANCELLED, orderItemRepository.findByOrderId(orderId).get(0).getStatus());
+        verify(productSearchService).adjustStock(productId, 3);
+
+        // Cancelling afterwards gives nothing back a second time
+        assertTrue(inventoryHoldService.releaseOrder(order(orderId)));
+        assertEquals(10, stock());
+    }
+
+    @Test
+    void testPaidAndUnexpiredHoldsAreKept() {
+        UUID paid = checkout(2);
+        UUID unpaid = checkout(1);
+        assertTrue(inventoryHoldService.convert(order(paid)));
+
+        assertEquals(0, inventoryHoldService.releaseExpired(LocalDateTime.now()));
+        assertEquals(1, inventoryHoldService.releaseExpired(LocalDateTime.now().plusHours(1)));
+
+        assertEquals(8, stock());
+        assertEquals(Order.OrderStatus.PENDING, orderRepository.findById(paid).orElseThrow().getStatus());
+        assertEquals(Order.OrderStatus.CANCELLED, orderRepository.findById(unpaid).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testConfirmedOrderKeepsItsStockPastTheHoldTtl() {
+        UUID orderId = checkout(3);
+        checkoutService.confirmOrderPayment(orderId);
+
+        assertEquals(0, inventoryHoldService.releaseExpired(LocalDateTime.now().plusHours(1)));
+
+        assertEquals(7, stock());
+        assertEquals(Order.OrderStatus.PROCESSING, orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testOrdersNoLongerPendingAreNotReaped() {
+        UUID orderId = checkout(3);
+        // Paid through a path that left its holds active
+        tx.executeWithoutResult(status -> orderRepository.findById(orderId).orElseThrow()
+            .setStatus(Order.OrderStatus.PROCESSING));
+
+        assertEquals(0, inventoryHoldService.releaseExpired(LocalDateTime.now().plusHours(1)));
+
+        assertEquals(7, stock());
+    }
+
+    @Test
+    void testPaymentAfterTheReaperReleasedTheHoldsIsRefused() {
+        UUID orderId = checkout(3);
+        assertEquals(1, inventoryHoldService.releaseExpired(LocalDateTime.now().plusHours(1)));
+
+        assertFalse(inventoryHoldService.convert(order(orderId)));
+        assertThrows(RuntimeException.class, () -> checkoutService.confirmOrderPayment(orderId));
+        assertEquals(10, stock());
+        assertEquals(Order.OrderStatus.CANCELLED, orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testCancellingGivesBackConvertedHolds() {
+        UUID orderId = checkout(4);
+        inventoryHoldService.convert(order(orderId));
+
+        assertTrue(inventoryHoldService.releaseOrder(order(orderId)));
+
+        assertEquals(10, stock());
+        // Placed before holds existed
+        Order legacy = orderRepository.save(new Order("ORD-" + UUID.randomUUID(), null));
+        assertFalse(inventoryHoldService.releaseOrder(legacy));
+    }
+
+    @Test
+    void testSaleIsCountedOnceHoweverOftenPaymentIsConfirmed() {
+        UUID orderId = checkout(3);
+
+        checkoutService.confirmOrderPayment(orderId);
+        checkoutService.confirmOrderPayment(orderId);
+        assertTrue(inventoryHoldService.convert(order(orderId)));
+
+        verify(writeBehindCounters).increment(WriteBehindCounters.Counter.PRODUCT_SOLD, productId, 3);
+        verify(writeBehindCounters).increment(WriteBehindCounters.Counter.STORE_SALES, store.getId(), 3);
+        verifyNoMoreInteractions(writeBehindCounters);
+    }
+
+    @Test
+    void testOnlyCountedSalesAreReversed() {
+        UUID paid = checkout(3);
+        UUID unpaid = checkout(2);
+        checkoutService.confirmOrderPayment(paid);
+
+        checkoutService.cancelOrder(unpaid, "changed mind");
+        checkoutService.cancelOrder(paid, "changed mind");
+
+        verify(writeBehindCounters).increment(WriteBehindCounters.Counter.PRODUCT_SOLD, productId, 3);
+        verify(writeBehindCounters).increment(WriteBehindCounters.Counter.PRODUCT_SOLD, productId, -3);
+        verify(writeBehindCounters, never()).increment(WriteBehindCounters.Counter.PRODUCT_SOLD, productId, -2);
+        assertEquals(10, stock());
+    }
+
+    // What CheckoutService does: take the stock, write the order and hold the line
+    private UUID checkout(int quantity) {
+        return tx.execute(status -> {
+            assertEquals(1, productRepository.reserveStock(productId, quantity, LocalDateTime.now()));
+            Order order = orderRepository.save(new Order("ORD-" + UUID.randomUUID(), null));
+            Product product = productRepository.getReferenceById(productId);
+            OrderItem item = orderItemRepository.save(new OrderItem(order, product, store, quantity, new BigDecimal("24.00")));
+            inventoryHoldService.place(order, List.of(item));
+            return order.getId();
+        });
+    }
+
+    private Order order(UUID orderId) {
+        return orderRepository.findWithItemsById(orderId).orElseThrow();
+    }
+
+    private int reap(CountDownLatch start, LocalDateTime now) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return inventoryHoldService.releaseExpired(now);
+    }
+
+    private int stock() {
+        return productRepository.findById(productId).orElseThrow().getStockQuantity();
+    }
+}
@@ -0,0 +1,124 @@
+package com.orchid.orchid_marketplace.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.ProductReview;
+import com.orchid.orchid_marketplace.model.ReviewStats;
+import com.orchid.orchid_marketplace.repository.ProductReviewRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProductReviewServiceTest {
+    
+    @Mock
+    private ProductReviewRepository productReviewRepository;
+    
+    @Mock
+    private ReviewAggregateService reviewAggregateService;
+    
+    @InjectMocks
+    private ProductReviewService productReviewService;
+    
+    private UUID reviewId;
+    private UUID productId;
+    private ProductReview review;
+    
+    @BeforeEach
+    void setUp() {
+        reviewId = UUID.randomUUID();
+        productId = UUID.randomUUID();
+        
+        Product product = new Product();
+        product.setId(productId);
+        review = new ProductReview(product, null, 4, "Lovely bloom");
+        review.setId(reviewId);
+    }
+    
+    @Test
+    void testCreateReviewAddsToAggregate() {
+        when(productReviewRepository.save(review)).thenReturn(review);
+        
+        productReviewService.createProductReview(review);
+        
+        verify(reviewAggregateService).reviewAdded(productId, 4);
+    }
+    
+    @Test
+    void testUpdateReviewMovesRatingBetweenBuckets() {
+        when(productReviewRepository.findById(reviewId)).thenReturn(Optional.of(review));
+        when(productReviewRepository.save(review)).thenReturn(review);
+        ProductReview details = new ProductReview();
+        details.setRating(2);
+        
+        productReviewService.updateProductReview(reviewId, details);
+        
+        verify(reviewAggregateService).ratingChanged(productId, 4, 2);
+    }
+    
+    @Test
+    void testFirstRatingOnAnUnratedReviewAddsItToAggregate() {
+        review.setRating(null);
+        when(productReviewRepository.findById(reviewId)).thenReturn(Optional.of(review));
+        when(productReviewRepository.save(review)).thenReturn(review);
+        ProductReview details = new ProductReview();
+        details.setRating(5);
+        
+        productReviewService.updateProductReview(reviewId, details);
+        
+        verify(reviewAggregateService).reviewAdded(productId, 5);
+        verify(reviewAggregateService, never()).ratingChanged(any(), anyInt(), anyInt());
+    }
+    
+    @Test
+    void testDeleteReviewRemovesFromAggregate() {
+        when(productReviewRepository.findById(reviewId)).thenReturn(Optional.of(review));
+        
+        productReviewService.deleteProductReview(reviewId);
+        
+        assertFalse(review.getIsActive());
+        verify(reviewAggregateService).reviewRemoved(productId, 4);
+    }
+    
+    @Test
+    void testRestoreReviewAddsBackToAggregate() {
+        review.softDelete();
+        when(productReviewRepository.findByIdIncludingInactive(reviewId)).thenReturn(Optional.of(review));
+        when(productReviewRepository.save(review)).thenReturn(review);
+        
+        productReviewService.restoreProductReview(reviewId);
+        
+        assertTrue(review.getIsActive());
+        verify(reviewAggregateService).reviewAdded(productId, 4);
+    }
+    
+    @Test
+    void testRestoreActiveReviewIsNoOp() {
+        when(productReviewRepository.findByIdIncludingInactive(reviewId)).thenReturn(Optional.of(review));
+        
+        productReviewService.restoreProductReview(reviewId);
+        
+        verify(productReviewRepository, never()).save(any());
+        verifyNoInteractions(reviewAggregateService);
+    }
+    
+    @Test
+    void testAverageAndCountReadFromAggregate() {
+        when(reviewAggregateService.getProductStats(productId)).thenReturn(new ReviewStats(4, 15, 0, 0, 1, 1, 2));
+        
+        assertEquals(3.75, productReviewService.calculateAverageRatingForProduct(productId));
+        assertEquals(4, productReviewService.countReviewsForProduct(productId));
+        verifyNoInteractions(productReviewRepository);
+    }
+}
@@ -0,0 +1,218 @@
+package com.orchid.orchid_marketplace.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.orchid.orchid_marketplace.dto.ProductSearchDTO;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.ReviewStats;
+import com.orchid.orchid_marketplace.model.Role;
+import com.orchid.orchid_marketplace.model.Store;
+import com.orchid.orchid_marketplace.model.User;
+import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.repository.StoreRepository;
+import com.orchid.orchid_marketplace.repository.UserRepository;
+import com.orchid.orchid_marketplace.service.cache.WriteBehindCounters;
+
+@DataJpaTest
+@Import({ProductSearchService.class, WriteBehindCounters.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductSearchServiceTest {
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @MockitoSpyBean
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WriteBehindCounters writeBehindCounters;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Product phal;
+    private Product dendro;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        User seller = userRepository.save(new User("seller@example.com", "Seller", Role.SELLER));
+        Store store = storeRepository.save(new Store(seller, "Orchid House", "orchid-house"));
+        phal = productRepository.save(new Product("Phalaenopsis White", "Moth orchid", new BigDecimal("24.00"), 5, store,
+            Product.ProductCondition.NEW));
+        dendro = productRepository.save(new Product("Dendrobium Nobile", "Cane orchid", new BigDecimal("18.00"), 5, store,
+            Product.ProductCondition.NEW));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+        storeRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testRebuildIsFilledOffToTheSideAndSwappedIn() {
+        productSearchService.rebuildIndex();
+        tx.executeWithoutResult(status -> productRepository.findById(phal.getId()).orElseThrow().softDelete());
+        List<List<UUID>> seenDuringRebuild = new ArrayList<>();
+        Answer<?> real = mockingDetails(productRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            seenDuringRebuild.add(inStockIds("orchid"));
+            return real.answer(invocation);
+        }).when(productRepository).findForIndex(any(Pageable.class));
+
+        productSearchService.rebuildIndex();
+
+        // Searches kept using the complete old index until the new one was swapped in
+        assertEquals(List.of(List.of(dendro.getId(), phal.getId())), seenDuringRebuild);
+        assertEquals(List.of(dendro.getId()), inStockIds("orchid"));
+        assertEquals(0, productSearchService.suggest("phal", null).size());
+    }
+
+    @Test
+    void testRebuildWalksEveryPageWithTheirTags() {
+        Store store = storeRepository.findAll().get(0);
+        List<Product> more = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            Product product = new Product("Cymbidium " + i, "Boat orchid", new BigDecimal("12.00"), 1, store,
+                Product.ProductCondition.NEW);
+            product.setTags(Set.of("cool-growing"));
+            more.add(product);
+        }
+        productRepository.saveAll(more);
+
+        productSearchService.rebuildIndex();
+
+        assertEquals(602, productSearchService.searchProducts("orchid", null, null, null, null, false, "price_asc",
+            PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(600, productSearchService.searchProducts("cool", null, null, null, null, false, "price_asc",
+            PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void testChangesMadeDuringARebuildAreReplayedOnTheNewIndex() {
+        productSearchService.rebuildIndex();
+        AtomicBoolean sold = new AtomicBoolean();
+        // The spy wraps the repository proxy, so the real call goes through its delegating answer
+        Answer<?> real = mockingDetails(productRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            Object page = real.answer(invocation);
+            // Phalaenopsis sells out after its page was read
+            if (sold.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> {
+                    tx.executeWithoutResult(status ->
+                        productRepository.reserveStock(phal.getId(), 5, LocalDateTime.now()));
+                    productSearchService.adjustStock(phal.getId(), -5);
+                }).join();
+            }
+            return page;
+        }).when(productRepository).findForIndex(any(Pageable.class));
+
+        productSearchService.rebuildIndex();
+
+        assertEquals(List.of(dendro.getId()), inStockIds("orchid"));
+    }
+
+    @Test
+    void testStockChangesReachTheIndexOnlyOnCommit() {
+        productSearchService.rebuildIndex();
+
+        tx.executeWithoutResult(status -> {
+            productSearchService.adjustStock(phal.getId(), -5);
+            // Not before the commit
+            assertEquals(List.of(dendro.getId(), phal.getId()), inStockIds("orchid"));
+            status.setRollbackOnly();
+        });
+        assertEquals(List.of(dendro.getId(), phal.getId()), inStockIds("orchid"));
+
+        tx.executeWithoutResult(status -> productSearchService.adjustStock(phal.getId(), -5));
+        assertEquals(List.of(dendro.getId()), inStockIds("orchid"));
+    }
+
+    @Test
+    void testReviewStatsReachTheIndexOnlyOnCommit() {
+        productSearchService.rebuildIndex();
+        ReviewStats fiveStars = new ReviewStats(1, 5, 0, 0, 0, 0, 1);
+
+        tx.executeWithoutResult(status -> {
+            productSearchService.updateReviewStats(phal.getId(), fiveStars);
+            status.setRollbackOnly();
+        });
+        assertEquals(List.of(), ratedIds(4.0));
+
+        tx.executeWithoutResult(status -> productSearchService.updateReviewStats(phal.getId(), fiveStars));
+        assertEquals(List.of(phal.getId()), ratedIds(4.0));
+    }
+
+    @Test
+    void testFlushedSalesReachTheIndexes() {
+        productSearchService.rebuildIndex();
+        tx.executeWithoutResult(status ->
+            writeBehindCounters.increment(WriteBehindCounters.Counter.PRODUCT_SOLD, phal.getId(), 2));
+        writeBehindCounters.flush();
+        assertEquals(List.of(phal.getId(), dendro.getId()), popularIds());
+
+        tx.executeWithoutResult(status ->
+            writeBehindCounters.increment(WriteBehindCounters.Counter.PRODUCT_SOLD, dendro.getId(), 4));
+        // Written behind: nothing moves until the batch is flushed
+        assertEquals(List.of(phal.getId(), dendro.getId()), popularIds());
+
+        writeBehindCounters.flush();
+
+        assertEquals(List.of(dendro.getId(), phal.getId()), popularIds());
+        assertEquals(4, productRepository.findById(dendro.getId()).orElseThrow().getSoldCount());
+    }
+
+    private List<UUID> popularIds() {
+        return productSearchService.searchProducts("orchid", null, null, null, null, false, "popular",
+                PageRequest.of(0, 10))
+            .getContent().stream().map(ProductSearchDTO::getId).toList();
+    }
+
+    private List<UUID> ratedIds(double minRating) {
+        return productSearchService.searchProducts("orchid", null, null, null, minRating, false, "price_asc",
+                PageRequest.of(0, 10))
+            .getContent().stream().map(ProductSearchDTO::getId).toList();
+    }
+
+    private List<UUID> inStockIds(String query) {
+        return productSearchService.searchProducts(query, null, null, null, null, true, "price_asc",
+                PageRequest.of(0, 10))
+            .getContent().stream().map(ProductSearchDTO::getId).toList();
+    }
+}
@@ -5,19 +5,39 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
+import com.orchid.orchid_marketplace.dto.CursorPage;
+import com.orchid.orchid_marketplace.dto.ProductDetailResponse;
+import com.orchid.orchid_marketplace.dto.ProductResponse;
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
 import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.ProductImage;
+import com.orchid.orchid_marketplace.model.ReviewStats;
+import com.orchid.orchid_marketplace.model.ShippingOption;
+import com.orchid.orchid_marketplace.repository.ProductImageRepository;
 import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.repository.ShippingOptionRepository;
+import com.orchid.orchid_marketplace.util.PageCursor;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
+import com.orchid.orchid_marketplace.service.cache.ProductDetailCache;
+import com.orchid.orchid_marketplace.service.cache.WriteBehindCounters;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
@@ -28,6 +48,24 @@ class ProductServiceTest {
     @Mock
     private SellerLedgerService sellerLedgerService;
     
+    @Mock
+    private ProductSearchService productSearchService;
+    
+    @Mock
+    private EntityCacheRegistry entityCacheRegistry;
+
+    @Mock
+    private WriteBehindCounters writeBehindCounters;
+
+    @Mock
+    private ProductImageRepository productImageRepository;
+
+    @Mock
+    private ShippingOptionRepository shippingOptionRepository;
+
+    @Mock
+    private ProductDetailCache productDetailCache;
+
     @InjectMocks
     private ProductService productService;
     
@@ -108,17 +146,64 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findByCategoryId(categoryId);
     }
     
+    @Test
+    void testGetProductsFirstPageReturnsCursorWhenFull() {
+        product.setCreatedAt(LocalDateTime.of(2025, 5, 1, 10, 30, 0, 123456000));
+        when(productRepository.findNewestFirst(PageRequest.of(0, 1))).thenReturn(List.of(row(product)));
+        
+        CursorPage<ProductResponse> page = productService.getProducts(null, null, 1);
+        
+        assertEquals(1, page.getContent().size());
+        PageCursor cursor = PageCursor.decode(page.getNextCursor(), "newest");
+        assertEquals(productId, cursor.getLastId());
+        assertEquals(product.getCreatedAt(), PageCursor.fromEpochNanos(cursor.getSortKey()));
+    }
+    
+    @Test
+    void testGetProductsByStoreIdContinuesAfterCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 5, 1, 10, 30);
+        UUID lastId = UUID.randomUUID();
+        String cursor = new PageCursor("newest", PageCursor.toEpochNanos(createdAt), lastId).encode();
+        when(productRepository.findNewestFirstByStoreAfter(storeId, createdAt, lastId, PageRequest.of(0, 20)))
+            .thenReturn(List.of(row(product)));
+        
+        CursorPage<ProductResponse> page = productService.getProductsByStoreId(storeId, cursor, null, null);
+        
+        assertEquals(List.of(productId), page.getContent().stream().map(ProductResponse::getId).toList());
+        assertFalse(page.hasNext());
+        verify(productRepository, never()).findNewestFirstByStore(any(), any());
+    }
+    
+    @Test
+    void testGetProductsByCategoryIdOffsetCompatibilityMode() {
+        when(productRepository.findNewestFirstByCategory(categoryId, PageRequest.of(3, 100))).thenReturn(List.of());
+        
+        CursorPage<ProductResponse> page = productService.getProductsByCategoryId(categoryId, null, 3, 500);
+        
+        assertTrue(page.getContent().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void testCursorFromAnotherSortOrderIsRejected() {
+        String cursor = new PageCursor("PRICE_ASC", 1999L, productId).encode();
+        
+        assertThrows(IllegalArgumentException.class, () -> productService.getProducts(cursor, null, null));
+        assertThrows(IllegalArgumentException.class, () -> productService.getProducts("not-a-cursor", null, null));
+        assertThrows(IllegalArgumentException.class, () -> productService.getProducts(null, null, 0));
+    }
+    
     @Test
     void testSearchProducts() {
         String keyword = "test";
-        List<Product> products = List.of(product);
-        when(productRepository.searchByKeyword(keyword)).thenReturn(products);
+        List<ProductResponse> products = List.of(row(product));
+        when(productRepository.searchResponsesByKeyword(keyword)).thenReturn(products);
         
-        List<Product> result = productService.searchProducts(keyword);
+        List<ProductResponse> result = productService.searchProducts(keyword);
         
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(productRepository, times(1)).searchByKeyword(keyword);
+        verify(productRepository, times(1)).searchResponsesByKeyword(keyword);
     }
     
     @Test
@@ -157,8 +242,87 @@ class ProductServiceTest {
         assertEquals(productId, result.getId());
         verify(productRepository, times(1)).save(any(Product.class));
         verify(sellerLedgerService, times(1)).accrueListingFeeForProduct(product);
+        verify(productSearchService, times(1)).refreshProduct(productId);
+    }
+    
+    @Test
+    void testDeleteProductRemovesFromSearchIndex() {
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        
+        productService.deleteProduct(productId);
+        
+        assertFalse(product.getIsActive());
+        verify(productSearchService, times(1)).removeProduct(productId);
+        verify(productDetailCache).evict(productId);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testProductDetailIsBuiltFromTheDatabase() {
+        ProductImage first = new ProductImage(product, "first.jpg", null, null);
+        ProductImage primary = new ProductImage(product, "primary.jpg", null, null);
+        primary.setIsPrimary(true);
+        ResourceVersion version = new ResourceVersion(LocalDateTime.now());
+        when(productRepository.findResponsesByIdIn(List.of(productId)))
+            .thenReturn(List.of(new ProductResponse(productId, "Test Product", null, null, 10, null, null, null)));
+        when(productImageRepository.findActiveByProduct(productId)).thenReturn(List.of(first, primary));
+        when(shippingOptionRepository.findByProductIdAndIsActiveTrue(productId))
+            .thenReturn(List.of(new ShippingOption(product, "Standard", new BigDecimal("5.00"))));
+        when(productRepository.findReviewStatsById(productId))
+            .thenReturn(Optional.of(new ReviewStats(3, 13, 0, 0, 0, 2, 1)));
+
+        productService.getProductDetailJson(productId, version);
+
+        ArgumentCaptor<Supplier<Optional<?>>> loader = ArgumentCaptor.forClass(Supplier.class);
+        verify(productDetailCache).get(eq(productId), eq(version), loader.capture());
+        ProductDetailResponse detail = (ProductDetailResponse) loader.getValue().get().orElseThrow();
+        assertEquals("Test Product", detail.getProduct().getTitle());
+        assertEquals("primary.jpg", detail.getPrimaryImage().getImageUrl());
+        assertEquals(1, detail.getShippingOptions().size());
+        assertEquals(3, detail.getReviewCount());
+        assertEquals(new BigDecimal("4.33"), detail.getAverageRating());
+        // Never from the PRODUCT cache, which can lag behind the version
+        verifyNoInteractions(entityCacheRegistry);
     }
     
+    @Test
+    void testVersionsAreNotReadWhileThePoolIsSaturatedAndCached() {
+        when(entityCacheRegistry.canServeWithoutDatabase(EntityCacheRegistry.PRODUCT, productId)).thenReturn(true);
+        when(entityCacheRegistry.isConnectionPoolSaturated()).thenReturn(true);
+        when(productDetailCache.contains(productId)).thenReturn(true);
+
+        assertNull(productService.getProductVersion(productId).orElseThrow().getETag());
+        assertNull(productService.getProductDetailVersion(productId).orElseThrow().getETag());
+        verifyNoInteractions(productRepository);
+    }
+    
+    @Test
+    void testGetProductsByIdsKeepsRequestOrderInOneQuery() {
+        Product other = new Product();
+        other.setId(UUID.randomUUID());
+        UUID unknown = UUID.randomUUID();
+        when(productRepository.findAllWithCategoryAndStoreByIdIn(any())).thenReturn(List.of(product, other));
+
+        Map<UUID, Product> result = productService.getProductsByIds(List.of(other.getId(), unknown, productId, other.getId()));
+
+        assertEquals(List.of(other.getId(), productId), List.copyOf(result.keySet()));
+        assertFalse(result.containsKey(unknown));
+        verify(productRepository, times(1)).findAllWithCategoryAndStoreByIdIn(Set.of(other.getId(), unknown, productId));
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void testGetProductsByIdsRejectsOversizedBatches() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i <= ProductService.MAX_BATCH_SIZE; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        assertThrows(IllegalArgumentException.class, () -> productService.getProductsByIds(ids));
+        assertTrue(productService.getProductsByIds(List.of()).isEmpty());
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     void testCreateProductNullThrowsException() {
         assertThrows(NullPointerException.class, () -> productService.createProduct(null));
@@ -168,4 +332,10 @@ class ProductServiceTest {
     void testGetProductByIdNullThrowsException() {
         assertThrows(NullPointerException.class, () -> productService.getProductById(null));
     }
+
+    // What the projection queries return for the product
+    private static ProductResponse row(Product product) {
+        return new ProductResponse(product.getId(), product.getTitle(), product.getDescription(), product.getPrice(),
+            product.getStockQuantity(), null, null, product.getCreatedAt());
+    }
 }
@@ -0,0 +1,127 @@
+package com.orchid.orchid_marketplace.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.ReviewStats;
+import com.orchid.orchid_marketplace.repository.ProductRepository;
+import com.orchid.orchid_marketplace.repository.StoreRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewAggregateServiceTest {
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @Mock
+    private StoreRepository storeRepository;
+    
+    @Mock
+    private ProductSearchService productSearchService;
+    
+    @Mock
+    private StoreService storeService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @InjectMocks
+    private ReviewAggregateService reviewAggregateService;
+    
+    private UUID productId;
+    
+    @BeforeEach
+    void setUp() {
+        productId = UUID.randomUUID();
+    }
+    
+    @Test
+    void testReviewAddedIncrementsProductAndStoreAndRefreshesIndex() {
+        ReviewStats stats = new ReviewStats(1, 5, 0, 0, 0, 0, 1);
+        when(productRepository.findReviewStatsById(productId)).thenReturn(Optional.of(stats));
+        
+        reviewAggregateService.reviewAdded(productId, 5);
+        
+        verify(productRepository).applyReviewChange(productId, 5, 0);
+        verify(storeRepository).applyReviewChange(productId, 5, 0);
+        verify(storeRepository).refreshAverageRating(productId);
+        // The store's cached response carries the rating its version is built from
+        verify(storeService).evictCachedForProduct(productId);
+        verify(productSearchService).updateReviewStats(productId, stats);
+    }
+    
+    @Test
+    void testReviewRemovedDecrements() {
+        when(productRepository.findReviewStatsById(productId)).thenReturn(Optional.empty());
+        
+        reviewAggregateService.reviewRemoved(productId, 3);
+        
+        verify(productRepository).applyReviewChange(productId, 0, 3);
+        verify(storeRepository).applyReviewChange(productId, 0, 3);
+    }
+    
+    @Test
+    void testRatingChangedAppliesBothSidesInOneUpdate() {
+        when(productRepository.findReviewStatsById(productId)).thenReturn(Optional.empty());
+        
+        reviewAggregateService.ratingChanged(productId, 2, 4);
+        
+        verify(productRepository).applyReviewChange(productId, 4, 2);
+        verify(storeRepository).applyReviewChange(productId, 4, 2);
+    }
+    
+    @Test
+    void testUnchangedRatingSkipsUpdate() {
+        reviewAggregateService.ratingChanged(productId, 4, 4);
+        
+        verifyNoInteractions(productRepository, storeRepository, productSearchService);
+    }
+    
+    @Test
+    void testOutOfRangeRatingRejected() {
+        assertThrows(IllegalArgumentException.class, () -> reviewAggregateService.reviewAdded(productId, 6));
+        assertThrows(IllegalArgumentException.class, () -> reviewAggregateService.reviewRemoved(productId, 0));
+        verifyNoInteractions(productRepository, storeRepository);
+    }
+    
+    @Test
+    void testRebuildRecomputesEverythingAndReindexesAfterCommit() {
+        reviewAggregateService.rebuildAll();
+        
+        InOrder inOrder = inOrder(productRepository, storeRepository, transactionManager, storeService,
+            productSearchService);
+        inOrder.verify(productRepository).rebuildReviewStats();
+        inOrder.verify(storeRepository).rebuildReviewStats();
+        inOrder.verify(storeRepository).refreshAllAverageRatings();
+        // The index is rebuilt from the committed aggregates, outside their transaction
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(storeService).evictAllCached();
+        inOrder.verify(productSearchService).rebuildIndex();
+    }
+    
+    @Test
+    void testAveragesComeFromAggregate() {
+        Product product = new Product();
+        product.setReviewStats(new ReviewStats(3, 13, 0, 0, 0, 2, 1));
+        
+        assertEquals(new BigDecimal("4.3"), product.calculateAverageRating());
+        assertEquals(2, product.getReviewStats().getStarCount(4));
+        assertEquals(BigDecimal.ZERO, new Product().calculateAverageRating());
+    }
+}
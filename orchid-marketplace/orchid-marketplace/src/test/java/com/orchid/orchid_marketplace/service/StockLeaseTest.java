@@ -0,0 +1,152 @@
+package com.orchid.orchid_marketplace.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class StockLeaseTest {
+
+    // Stock column stand-in that counts how often it is touched
+    private static class Stock implements StockLease.Source {
+        private final AtomicInteger units;
+        private final AtomicInteger leases = new AtomicInteger();
+
+        Stock(int units) {
+            this.units = new AtomicInteger(units);
+        }
+
+        @Override
+        public synchronized int take(int minimum, int wanted) {
+            int taken = Math.min(units.get(), wanted);
+            if (taken < minimum) {
+                return 0;
+            }
+            units.addAndGet(-taken);
+            leases.incrementAndGet();
+            return taken;
+        }
+
+        @Override
+        public void giveBack(int units) {
+            this.units.addAndGet(units);
+        }
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOversellAndRarelyLease() throws Exception {
+        Stock stock = new Stock(500);
+        StockLease lease = new StockLease(stock, 20, 8);
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> buyers = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                buyers.add(pool.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 100; j++) {
+                        if (lease.reserve(1)) {
+                            sold.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> buyer : buyers) {
+                buyer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(500, sold.get());
+        assertEquals(0, stock.units.get() + lease.available());
+        // One lease per chunk; every other reservation stayed in memory
+        assertTrue(stock.leases.get() <= 500 / 20 + 1, "leased " + stock.leases.get() + " times");
+    }
+
+    @Test
+    void testUnitsSplitOverBucketsArePooled() {
+        Stock stock = new Stock(4);
+        StockLease lease = new StockLease(stock, 4, 4);
+
+        assertTrue(lease.reserve(1));
+        // The other three sit in three buckets
+        assertTrue(lease.reserve(3));
+
+        assertEquals(1, stock.leases.get());
+        assertEquals(0, lease.available());
+        assertFalse(lease.reserve(1));
+    }
+
+    @Test
+    void testShortSourceTakesOnlyWhatCoversTheReservation() {
+        Stock stock = new Stock(5);
+        StockLease lease = new StockLease(stock, 10, 2);
+
+        assertFalse(lease.reserve(7));
+        assertEquals(5, stock.units.get());
+        assertTrue(lease.reserve(5));
+        assertEquals(0, stock.units.get());
+    }
+
+    @Test
+    void testRestoredAndLeftoverUnitsGoBackOnDrain() {
+        Stock stock = new Stock(30);
+        StockLease lease = new StockLease(stock, 10, 2);
+        assertTrue(lease.reserve(2));
+        lease.restore(2);
+
+        assertEquals(10, lease.drain());
+        assertEquals(30, stock.units.get());
+        assertEquals(0, lease.available());
+    }
+
+    @Test
+    void testClosedLeaseGoesStraightToTheSource() {
+        Stock stock = new Stock(30);
+        StockLease lease = new StockLease(stock, 10, 2);
+        assertTrue(lease.reserve(1));
+
+        assertEquals(9, lease.close());
+        assertTrue(lease.reserve(3));
+        assertEquals(26, stock.units.get());
+        lease.restore(3);
+
+        assertEquals(29, stock.units.get());
+        assertEquals(0, lease.available());
+    }
+
+    @Test
+    void testLowLeaseIsToppedUpAheadOfDemand() {
+        Stock stock = new Stock(30);
+        StockLease lease = new StockLease(stock, 10, 2);
+        assertTrue(lease.reserve(8));
+
+        assertEquals(10, lease.topUp(3));
+        assertEquals(12, lease.available());
+        // Above the mark, and a drained lease stays empty
+        assertEquals(0, lease.topUp(3));
+        lease.drain();
+        assertEquals(0, lease.topUp(3));
+        assertEquals(22, stock.units.get());
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        Stock stock = new Stock(1);
+        assertThrows(IllegalArgumentException.class, () -> new StockLease(stock, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> new StockLease(stock, 1, 3));
+        assertThrows(IllegalArgumentException.class, () -> new StockLease(stock, 1, 2).reserve(0));
+    }
+}
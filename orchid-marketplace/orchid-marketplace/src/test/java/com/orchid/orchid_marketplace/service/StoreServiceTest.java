@@ -20,13 +20,20 @@ import com.orchid.orchid_marketplace.model.Store;
 import com.orchid.orchid_marketplace.model.User;
 import com.orchid.orchid_marketplace.model.Role;
 import com.orchid.orchid_marketplace.repository.StoreRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class StoreServiceTest {
     
     @Mock
     private StoreRepository storeRepository;
+
+    @Mock
+    private ProductSearchService productSearchService;
     
+    @Mock
+    private EntityCacheRegistry entityCacheRegistry;
+
     @InjectMocks
     private StoreService storeService;
     
@@ -196,4 +203,45 @@ class StoreServiceTest {
         
         assertThrows(RuntimeException.class, () -> storeService.createStore(store));
     }
+    
+    @Test
+    void testRenameAndToggleRefreshStoreSuggestion() {
+        when(storeRepository.findById(storeId)).thenReturn(Optional.of(store));
+        when(storeRepository.findByStoreName("Orchid Corner")).thenReturn(Optional.empty());
+        when(storeRepository.save(store)).thenReturn(store);
+        Store details = new Store();
+        details.setStoreName("Orchid Corner");
+        
+        storeService.updateStore(storeId, details);
+        storeService.toggleStoreStatus(storeId);
+        
+        assertEquals("Orchid Corner", store.getStoreName());
+        verify(productSearchService, times(2)).refreshStore(store);
+    }
+    
+    @Test
+    void testSlugChangeEvictsOldAndNewSlugEntries() {
+        when(storeRepository.findById(storeId)).thenReturn(Optional.of(store));
+        when(storeRepository.save(store)).thenReturn(store);
+        Store details = new Store();
+        details.setSlug("orchid-corner");
+        
+        storeService.updateStore(storeId, details);
+        
+        verify(entityCacheRegistry).evict(EntityCacheRegistry.STORE, storeId);
+        verify(entityCacheRegistry).evict(EntityCacheRegistry.STORE, "slug:orchid-corner");
+        verify(entityCacheRegistry).evict(EntityCacheRegistry.STORE, "slug:test-store");
+    }
+    
+    @Test
+    void testBulkUpdatedStoresAreEvictedByIdAndSlug() {
+        UUID productId = UUID.randomUUID();
+        when(storeRepository.findIdByProductId(productId)).thenReturn(Optional.of(storeId));
+        when(storeRepository.findSlugsByIdIn(List.of(storeId))).thenReturn(List.of("test-store"));
+        
+        storeService.evictCachedForProduct(productId);
+        
+        verify(entityCacheRegistry).evict(EntityCacheRegistry.STORE, storeId);
+        verify(entityCacheRegistry).evict(EntityCacheRegistry.STORE, "slug:test-store");
+    }
 }
@@ -19,6 +19,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import com.orchid.orchid_marketplace.model.Role;
 import com.orchid.orchid_marketplace.model.User;
 import com.orchid.orchid_marketplace.repository.UserRepository;
+import com.orchid.orchid_marketplace.service.cache.EntityCacheRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
@@ -29,6 +30,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
     
+    @Mock
+    private EntityCacheRegistry entityCacheRegistry;
+
     @InjectMocks
     private UserService userService;
     
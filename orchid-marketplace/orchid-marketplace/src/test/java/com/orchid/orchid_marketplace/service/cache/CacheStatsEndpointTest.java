@@ -0,0 +1,71 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchid_marketplace.model.CacheConfiguration;
+import com.orchid.orchid_marketplace.repository.CacheConfigurationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CacheStatsEndpointTest {
+
+    @Mock
+    private CacheConfigurationRepository cacheConfigurationRepository;
+
+    @Mock
+    private ObjectProvider<SecondLevelCacheSupport> secondLevelCacheSupport;
+
+    private EntityCacheRegistry registry;
+    private CacheStatsEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        CacheConfiguration product = new CacheConfiguration("product:{id}", 300, "CACHE_ASIDE", "PRODUCT");
+        product.setMaxEntries(100);
+        when(cacheConfigurationRepository.findByIsEnabledTrue()).thenReturn(List.of(product));
+        registry = new EntityCacheRegistry(cacheConfigurationRepository, new ObjectMapper(), (RemoteCache) null);
+        registry.reload();
+        endpoint = new CacheStatsEndpoint(registry, secondLevelCacheSupport);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testListsLiveStateNextToConfiguration() {
+        UUID id = UUID.randomUUID();
+        registry.get(EntityCacheRegistry.PRODUCT, id, String.class, () -> Optional.of("row"));
+        registry.get(EntityCacheRegistry.PRODUCT, id, String.class, () -> Optional.of("row"));
+
+        Map<String, Object> body = endpoint.caches();
+
+        Map<String, Object> product = (Map<String, Object>) ((Map<String, Object>) body.get("caches")).get("PRODUCT");
+        assertEquals("product:{id}", product.get("keyPattern"));
+        assertEquals(300, product.get("ttlSeconds"));
+        assertEquals(100, product.get("maxEntries"));
+        assertEquals(1, product.get("size"));
+        assertEquals(1L, product.get("hits"));
+        assertEquals(1L, product.get("misses"));
+        assertEquals(0.5, product.get("hitRatio"));
+        assertEquals(1L, product.get("loads"));
+        assertEquals(1L, ((Map<String, Object>) body.get("loads")).get("loaded"));
+        assertFalse(body.containsKey("hibernateRegions"));
+    }
+
+    @Test
+    void testSelectsOneCacheByEntityType() {
+        assertEquals("product:{id}", endpoint.cache("product").get("keyPattern"));
+        assertNull(endpoint.cache("STORE"));
+    }
+}
@@ -0,0 +1,199 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchid_marketplace.model.CacheConfiguration;
+import com.orchid.orchid_marketplace.repository.CacheConfigurationRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class EntityCacheRegistryTest {
+
+    @Mock
+    private CacheConfigurationRepository cacheConfigurationRepository;
+
+    private EntityCacheRegistry registry;
+    private final UUID id = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        registry = new EntityCacheRegistry(cacheConfigurationRepository, new ObjectMapper(), (RemoteCache) null);
+    }
+
+    @Test
+    void testReadsThroughWhenNoConfigurationIsEnabled() {
+        when(cacheConfigurationRepository.findByIsEnabledTrue()).thenReturn(List.of());
+        registry.reload();
+
+        load();
+        load();
+
+        assertEquals(2, loads.get());
+        assertTrue(registry.getCaches().isEmpty());
+    }
+
+    @Test
+    void testEnabledConfigurationCachesUntilEvicted() {
+        when(cacheConfigurationRepository.findByIsEnabledTrue())
+            .thenReturn(List.of(config("product", 300, 50)));
+        registry.reload();
+
+        assertEquals(Optional.of("row-1"), load());
+        assertEquals(Optional.of("row-1"), load());
+        registry.evict(EntityCacheRegistry.PRODUCT, id);
+        assertEquals(Optional.of("row-2"), load());
+
+        LocalCache<String, Object> cache = registry.getCache(EntityCacheRegistry.PRODUCT).orElseThrow();
+        assertEquals(Duration.ofSeconds(300), cache.getTtl());
+        assertEquals(50, cache.getMaxEntries());
+    }
+
+    @Test
+    void testReloadKeepsUnchangedCachesAndDropsDisabledOnes() {
+        CacheConfiguration product = config("PRODUCT", 300, null);
+        when(cacheConfigurationRepository.findByIsEnabledTrue())
+            .thenReturn(List.of(product, config("STORE", 60, 10)))
+            .thenReturn(List.of(product))
+            .thenReturn(List.of(config("PRODUCT", 120, null)));
+        registry.reload();
+        load();
+        LocalCache<String, Object> before = registry.getCache("PRODUCT").orElseThrow();
+
+        registry.reload();
+        assertSame(before, registry.getCache("PRODUCT").orElseThrow());
+        assertEquals(1, before.size());
+        assertEquals(EntityCacheRegistry.DEFAULT_MAX_ENTRIES, before.getMaxEntries());
+        assertTrue(registry.getCache("STORE").isEmpty());
+
+        // A new TTL takes effect straight away with an empty cache
+        registry.reload();
+        LocalCache<String, Object> after = registry.getCache("PRODUCT").orElseThrow();
+        assertNotSame(before, after);
+        assertEquals(Duration.ofSeconds(120), after.getTtl());
+        assertEquals(0, after.size());
+    }
+
+    @Test
+    void testShortestTtlWinsAndInvalidRowsAreIgnored() {
+        when(cacheConfigurationRepository.findByIsEnabledTrue()).thenReturn(List.of(
+            config("CATEGORY", 600, null), config("CATEGORY", 30, null),
+            config("USER", 0, null), config(null, 60, null)));
+        registry.reload();
+
+        assertEquals(Duration.ofSeconds(30), registry.getCache("CATEGORY").orElseThrow().getTtl());
+        assertEquals(1, registry.getCaches().size());
+    }
+
+    @Test
+    void testKeepsCurrentCachesWhenConfigurationsCannotBeRead() {
+        when(cacheConfigurationRepository.findByIsEnabledTrue())
+            .thenReturn(List.of(config("PRODUCT", 300, null)))
+            .thenThrow(new RuntimeException("connection refused"));
+        registry.reload();
+        registry.reload();
+
+        assertTrue(registry.getCache("PRODUCT").isPresent());
+    }
+
+    @Test
+    void testLoadOutcomesArePublishedAsMetrics() {
+        when(cacheConfigurationRepository.findByIsEnabledTrue()).thenReturn(List.of());
+        registry.reload();
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        registry.bindTo(meters);
+
+        load();
+        assertThrows(IllegalStateException.class, () -> registry.get(EntityCacheRegistry.PRODUCT, id, String.class,
+            () -> { throw new IllegalStateException("database unavailable"); }));
+
+        assertEquals(2.0, meters.get("orchid.cache.loads").tag("outcome", "loaded").functionCounter().count());
+        assertEquals(0.0, meters.get("orchid.cache.loads").tag("outcome", "collapsed").functionCounter().count());
+        assertEquals(0.0, meters.get("orchid.cache.loads.in-flight").gauge().value());
+    }
+
+    @Test
+    void testEachCachePublishesItsOwnMeters() {
+        when(cacheConfigurationRepository.findByIsEnabledTrue())
+            .thenReturn(List.of(config("PRODUCT", 300, 1)))
+            .thenReturn(List.of(config("PRODUCT", 300, 1), config("STORE", 60, 10)));
+        registry.reload();
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        registry.bindTo(meters);
+
+        load();
+        load();
+        registry.get(EntityCacheRegistry.PRODUCT, UUID.randomUUID(), String.class, () -> Optional.of("other"));
+
+        assertEquals(1.0, meters.get("orchid.cache.requests").tags("cache", "PRODUCT", "result", "hit").functionCounter().count());
+        assertEquals(2.0, meters.get("orchid.cache.requests").tags("cache", "PRODUCT", "result", "miss").functionCounter().count());
+        assertEquals(1.0, meters.get("orchid.cache.evictions").tag("key_pattern", "PRODUCT:{id}").functionCounter().count());
+        assertEquals(1.0, meters.get("orchid.cache.size").tag("cache", "PRODUCT").gauge().value());
+        assertEquals(1.0 / 3, meters.get("orchid.cache.hit.ratio").tag("cache", "PRODUCT").gauge().value(), 1e-9);
+        assertEquals(2, meters.get("orchid.cache.load.latency").tag("cache", "PRODUCT").timer().count());
+        assertEquals(2, registry.getLoadStats(EntityCacheRegistry.PRODUCT).orElseThrow().getCount());
+
+        // A cache enabled by a later reload is published without rebinding
+        registry.reload();
+        assertTrue(Double.isNaN(meters.get("orchid.cache.hit.ratio").tag("cache", "STORE").gauge().value()));
+    }
+
+    @Test
+    void testExpiredEntriesAreServedStaleWhileRefreshing() throws InterruptedException {
+        AtomicBoolean saturated = new AtomicBoolean();
+        registry = new EntityCacheRegistry(cacheConfigurationRepository, new ObjectMapper(), null,
+            Duration.ofSeconds(2), Duration.ofMinutes(5), Runnable::run, saturated::get);
+        when(cacheConfigurationRepository.findByIsEnabledTrue()).thenReturn(List.of(config("PRODUCT", 1, null)));
+        registry.reload();
+        assertEquals(Optional.of("row-1"), load());
+        Thread.sleep(1100);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            // Refreshes are held back while the pool is saturated, and version reads can be skipped
+            saturated.set(true);
+            assertEquals(Optional.of("row-1"), load());
+            assertEquals(1, registry.getRefreshSkippedCount());
+            assertTrue(registry.canServeWithoutDatabase(EntityCacheRegistry.PRODUCT, id));
+            assertTrue(StaleReads.current().orElseThrow().compareTo(Duration.ZERO) > 0);
+
+            saturated.set(false);
+            assertEquals(Optional.of("row-1"), load());
+            assertEquals(Optional.of("row-2"), load());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        assertEquals(1, registry.getRefreshCount());
+        assertEquals(2, registry.getCache(EntityCacheRegistry.PRODUCT).orElseThrow().getStaleHitCount());
+        assertFalse(registry.canServeWithoutDatabase(EntityCacheRegistry.PRODUCT, id));
+    }
+
+    private Optional<String> load() {
+        return registry.get(EntityCacheRegistry.PRODUCT, id, String.class, () -> Optional.of("row-" + loads.incrementAndGet()));
+    }
+
+    private static CacheConfiguration config(String entityType, Integer ttl, Integer maxEntries) {
+        CacheConfiguration config = new CacheConfiguration(entityType + ":{id}", ttl, "CACHE_ASIDE", entityType);
+        config.setMaxEntries(maxEntries);
+        return config;
+    }
+}
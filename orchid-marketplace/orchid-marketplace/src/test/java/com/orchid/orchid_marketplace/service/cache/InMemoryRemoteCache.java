@@ -0,0 +1,56 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Redis stand-in for tests: one instance plays the shared server, so registries built on it
+ * behave like nodes of one cluster. {@link #setAvailable(boolean)} simulates an outage the
+ * way {@link RedisRemoteCache} degrades: reads miss, writes and messages are dropped.
+ */
+class InMemoryRemoteCache implements RemoteCache {
+
+    final Map<String, String> values = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, String>> subscribers = new CopyOnWriteArrayList<>();
+    private volatile boolean available = true;
+
+    void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        return available ? Optional.ofNullable(values.get(key)) : Optional.empty();
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        if (available) {
+            values.put(key, value);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        if (available) {
+            values.remove(key);
+        }
+    }
+
+    @Override
+    public void publishInvalidation(String entityType, String id) {
+        if (available) {
+            subscribers.forEach(subscriber -> subscriber.accept(entityType, id));
+        }
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, String> listener) {
+        subscribers.add(listener);
+    }
+}
@@ -0,0 +1,134 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LocalCacheTest {
+
+    private long now;
+
+    private LocalCache<String, String> cache(int maxEntries, Duration ttl) {
+        return new LocalCache<>(maxEntries, ttl, () -> now);
+    }
+
+    @Test
+    void testLoadsOnceUntilTtlExpires() {
+        LocalCache<String, String> cache = cache(10, Duration.ofSeconds(30));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get("a", k -> "v" + loads.incrementAndGet()));
+        now += Duration.ofSeconds(29).toNanos();
+        assertEquals("v1", cache.get("a", k -> "v" + loads.incrementAndGet()));
+        now += Duration.ofSeconds(1).toNanos();
+        assertEquals("v2", cache.get("a", k -> "v" + loads.incrementAndGet()));
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedWhenFull() {
+        LocalCache<String, String> cache = cache(2, Duration.ofMinutes(1));
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.getIfPresent("a");
+        cache.put("c", "C");
+
+        assertEquals("A", cache.getIfPresent("a"));
+        assertNull(cache.getIfPresent("b"));
+        assertEquals("C", cache.getIfPresent("c"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void testDoesNotCacheMissesOrLoadsRacingAnInvalidation() {
+        LocalCache<String, String> cache = cache(10, Duration.ofMinutes(1));
+
+        assertNull(cache.get("missing", k -> null));
+        assertEquals(0, cache.size());
+
+        // A write lands while the old row is being read
+        assertEquals("stale", cache.get("a", k -> {
+            cache.invalidate("a");
+            return "stale";
+        }));
+        assertNull(cache.getIfPresent("a"));
+    }
+
+    @Test
+    void testInvalidatingOneKeyKeepsLoadsOfOtherKeys() {
+        LocalCache<String, String> cache = cache(10, Duration.ofMinutes(1));
+
+        assertEquals("A", cache.get("a", k -> {
+            // A write to another key lands while this one loads
+            cache.invalidate("b");
+            assertEquals("B", cache.get("b", k2 -> {
+                cache.invalidate("b");
+                return "B";
+            }));
+            return "A";
+        }));
+
+        assertEquals("A", cache.getIfPresent("a"));
+        assertNull(cache.getIfPresent("b"));
+
+        // The next load after an invalidation is stored again
+        cache.get("b", k -> "B2");
+        assertEquals("B2", cache.getIfPresent("b"));
+        cache.refresh("a", k -> {
+            cache.invalidate("b");
+            return "A2";
+        });
+        assertEquals("A2", cache.getIfPresent("a"));
+    }
+
+    @Test
+    void testKeepsExpiredValueForStaleReadsWithinTheLimit() {
+        LocalCache<String, String> cache = cache(10, Duration.ofSeconds(30));
+        cache.put("a", "A");
+        assertNull(cache.getExpired("a", Duration.ofMinutes(5)));
+        now += Duration.ofSeconds(90).toNanos();
+
+        assertNull(cache.getIfPresent("a"));
+        LocalCache.Expired<String> expired = cache.getExpired("a", Duration.ofMinutes(5));
+        assertEquals("A", expired.value());
+        assertEquals(Duration.ofMinutes(1), expired.staleFor());
+        assertNull(cache.getExpired("a", Duration.ofSeconds(59)));
+        assertEquals(1, cache.getStaleHitCount());
+
+        cache.invalidate("a");
+        assertNull(cache.getExpired("a", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void testRefreshReplacesOrDropsTheEntryUnlessInvalidatedMeanwhile() {
+        LocalCache<String, String> cache = cache(10, Duration.ofSeconds(30));
+        cache.put("a", "A");
+        cache.put("b", "B");
+        now += Duration.ofMinutes(1).toNanos();
+
+        cache.refresh("a", k -> "A2");
+        cache.refresh("b", k -> null);
+        assertEquals("A2", cache.getIfPresent("a"));
+        assertFalse(cache.containsUsable("b", Duration.ofMinutes(5)));
+
+        now += Duration.ofMinutes(1).toNanos();
+        cache.refresh("a", k -> {
+            cache.invalidate("a");
+            return "pre-write";
+        });
+        assertFalse(cache.containsUsable("a", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void testRejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> cache(0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> cache(1, Duration.ZERO));
+    }
+}
@@ -0,0 +1,83 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
+
+class ProductDetailCacheTest {
+
+    private final ProductDetailCache cache = new ProductDetailCache(new ObjectMapper(), 100, Duration.ofMinutes(5));
+    private final UUID productId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final LocalDateTime updatedAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void testSameVersionIsServedFromTheStoredBytes() {
+        ResourceVersion version = new ResourceVersion(updatedAt);
+
+        byte[] first = load(version).orElseThrow();
+        byte[] second = load(version).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals("{\"title\":\"v1\"}", new String(second, StandardCharsets.UTF_8));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testNewerVersionReplacesTheEntry() {
+        load(new ResourceVersion(updatedAt));
+        // A review changes the version without touching updatedAt
+        byte[] reloaded = load(new ResourceVersion(updatedAt, null, null, 1L, 5L)).orElseThrow();
+
+        assertEquals("{\"title\":\"v2\"}", new String(reloaded, StandardCharsets.UTF_8));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testEvictDropsTheEntry() {
+        ResourceVersion version = new ResourceVersion(updatedAt);
+        load(version);
+
+        cache.evict(productId);
+        load(version);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testMissingProductsAndUnversionedRowsAreNotStored() {
+        assertTrue(cache.get(productId, new ResourceVersion(updatedAt), Optional::empty).isEmpty());
+
+        load(new ResourceVersion(null));
+        load(new ResourceVersion(null));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testUnvalidatedVersionTakesWhateverIsStored() {
+        byte[] stored = load(new ResourceVersion(updatedAt)).orElseThrow();
+        assertTrue(cache.contains(productId));
+
+        assertSame(stored, load(ResourceVersion.unvalidated()).orElseThrow());
+        assertEquals(1, loads.get());
+    }
+
+    private Optional<byte[]> load(ResourceVersion version) {
+        return cache.get(productId, version, () -> Optional.of(Map.of("title", "v" + loads.incrementAndGet())));
+    }
+}
@@ -0,0 +1,98 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchid_marketplace.dto.CategoryResponse;
+import com.orchid.orchid_marketplace.model.CacheConfiguration;
+import com.orchid.orchid_marketplace.repository.CacheConfigurationRepository;
+
+/**
+ * Two registries, each with its own Redis connection, against a real Redis container.
+ */
+class RedisRemoteCacheIntegrationTest {
+
+    @SuppressWarnings("resource")
+    static GenericContainer<?> redis;
+
+    @BeforeAll
+    static void startRedis() {
+        Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+        redis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        if (redis != null) {
+            redis.stop();
+            redis = null;
+        }
+    }
+
+    @Test
+    void testInvalidationReachesOtherNode() throws Exception {
+        CacheConfigurationRepository repository = mock(CacheConfigurationRepository.class);
+        when(repository.findByIsEnabledTrue())
+            .thenReturn(List.of(new CacheConfiguration("category:{id}", 300, "CACHE_ASIDE", "CATEGORY")));
+        LettuceConnectionFactory factoryA = connect();
+        LettuceConnectionFactory factoryB = connect();
+        RedisRemoteCache remoteA = new RedisRemoteCache(factoryA, 1_000);
+        RedisRemoteCache remoteB = new RedisRemoteCache(factoryB, 1_000);
+        try {
+            EntityCacheRegistry nodeA = new EntityCacheRegistry(repository, new ObjectMapper(), remoteA);
+            EntityCacheRegistry nodeB = new EntityCacheRegistry(repository, new ObjectMapper(), remoteB);
+            nodeA.reload();
+            nodeB.reload();
+            UUID id = UUID.randomUUID();
+            AtomicInteger reads = new AtomicInteger();
+
+            assertEquals("Orchids 1", read(nodeA, id, reads).getName());
+            assertEquals("Orchids 1", read(nodeB, id, reads).getName());
+            assertEquals(1, reads.get());
+            assertTrue(remoteB.get("category:" + id).isPresent());
+
+            nodeA.evict(EntityCacheRegistry.CATEGORY, id);
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (nodeB.getCache("CATEGORY").orElseThrow().getIfPresent(id.toString()) != null) {
+                assertTrue(System.nanoTime() < deadline, "node B never received the invalidation");
+                Thread.sleep(20);
+            }
+            assertEquals("Orchids 2", read(nodeB, id, reads).getName());
+        } finally {
+            remoteA.destroy();
+            remoteB.destroy();
+            factoryA.destroy();
+            factoryB.destroy();
+        }
+    }
+
+    private static CategoryResponse read(EntityCacheRegistry node, UUID id, AtomicInteger reads) {
+        return node.get(EntityCacheRegistry.CATEGORY, id, CategoryResponse.class,
+            () -> Optional.of(new CategoryResponse(id, "Orchids " + reads.incrementAndGet()))).orElseThrow();
+    }
+
+    private static LettuceConnectionFactory connect() {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+}
@@ -0,0 +1,53 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+class RedisRemoteCacheTest {
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisRemoteCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // Nothing listens on port 1, so every call fails the way a Redis outage does
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", 1),
+            LettuceClientConfiguration.builder().commandTimeout(Duration.ofMillis(500)).build());
+        connectionFactory.afterPropertiesSet();
+        cache = new RedisRemoteCache(connectionFactory, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        cache.destroy();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void testDegradesToMissesWhenRedisIsUnreachable() {
+        assertDoesNotThrow(() -> cache.subscribe((type, id) -> { }));
+        assertTrue(cache.get("product:1").isEmpty());
+        assertDoesNotThrow(() -> cache.put("product:1", "{}", Duration.ofSeconds(10)));
+        assertDoesNotThrow(() -> cache.delete("product:1"));
+        assertDoesNotThrow(() -> cache.publishInvalidation("PRODUCT", "1"));
+    }
+
+    @Test
+    void testSkipsRedisForRetryIntervalAfterFailure() {
+        cache.get("product:1");
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            cache.get("product:" + i);
+        }
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 500);
+    }
+}
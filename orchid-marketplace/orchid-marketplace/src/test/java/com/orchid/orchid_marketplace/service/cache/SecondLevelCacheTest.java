@@ -0,0 +1,101 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.repository.CategoryRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest
+@Import(SecondLevelCacheSupport.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SecondLevelCacheSupport secondLevelCacheSupport;
+
+    @MockitoBean
+    private EntityCacheRegistry entityCacheRegistry;
+
+    private Statistics statistics;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> categoryRepository.deleteAllInBatch());
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testCategoryReadsByIdAreServedFromTheCache() {
+        UUID id = save("Phalaenopsis").getId();
+        statistics.clear();
+
+        tx.executeWithoutResult(status -> categoryRepository.findById(id).orElseThrow());
+        tx.executeWithoutResult(status -> categoryRepository.findById(id).orElseThrow());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void testRootCategoryQueryIsCachedUntilACategoryIsWritten() {
+        save("Cattleya");
+
+        assertEquals(1, roots().size());
+        assertEquals(1, roots().size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        save("Dendrobium");
+
+        assertEquals(2, roots().size());
+        assertEquals(2, statistics.getQueryCacheMissCount());
+    }
+
+    @Test
+    void testAnnouncedEvictionDropsCachedCategory() {
+        UUID id = save("Oncidium").getId();
+        assertTrue(entityManagerFactory.getCache().contains(Category.class, id));
+
+        secondLevelCacheSupport.evictAnnounced(EntityCacheRegistry.CATEGORY, id.toString());
+
+        assertFalse(entityManagerFactory.getCache().contains(Category.class, id));
+    }
+
+    private Category save(String name) {
+        return tx.execute(status -> categoryRepository.save(new Category(name, name, null)));
+    }
+
+    private List<Category> roots() {
+        return tx.execute(status -> categoryRepository.findActiveRootCategories());
+    }
+}
@@ -0,0 +1,126 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(10));
+        // The load finishes only once every other caller is waiting on it
+        Supplier<String> loader = () -> {
+            loads.incrementAndGet();
+            awaitCollapsed(flight, CALLERS - 1);
+            return "product";
+        };
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(pool.submit(() -> flight.load("p1", loader, () -> null)));
+        }
+
+        for (Future<String> result : results) {
+            assertEquals("product", result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, flight.getLoadCount());
+        assertEquals(CALLERS - 1, flight.getCollapsedCount());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void testFailedLoadServesStaleValueOrRethrows() {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(1));
+        Supplier<String> failing = () -> {
+            throw new IllegalStateException("database unavailable");
+        };
+
+        assertEquals("old", flight.load("p1", failing, () -> "old"));
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> flight.load("p1", failing, () -> null));
+        assertEquals("database unavailable", error.getMessage());
+        assertEquals(1, flight.getStaleServedCount());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void testWaiterGivesUpOnSlowLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> slow = pool.submit(() -> flight.load("p1", () -> {
+            started.countDown();
+            await(release);
+            return "slow";
+        }, () -> null));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals("old", flight.load("p1", () -> "fresh", () -> "old"));
+        assertEquals("fresh", flight.load("p1", () -> "fresh", () -> null));
+
+        release.countDown();
+        assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+        assertEquals(2, flight.getTimeoutCount());
+        assertEquals(1, flight.getStaleServedCount());
+        assertEquals(2, flight.getLoadCount());
+    }
+
+    @Test
+    void testForgottenKeyStartsAFreshLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> before = pool.submit(() -> flight.load("p1", () -> {
+            started.countDown();
+            await(release);
+            return "before write";
+        }, () -> null));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        flight.forget("p1");
+
+        assertEquals("after write", flight.load("p1", () -> "after write", () -> null));
+        release.countDown();
+        assertEquals("before write", before.get(5, TimeUnit.SECONDS));
+        assertEquals(0, flight.getCollapsedCount());
+    }
+
+    private static void awaitCollapsed(SingleFlight<?, ?> flight, long expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getCollapsedCount() < expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orchid.orchid_marketplace.dto.ProductResponse;
+import com.orchid.orchid_marketplace.model.CacheConfiguration;
+import com.orchid.orchid_marketplace.repository.CacheConfigurationRepository;
+
+class TwoTierCacheTest {
+
+    private final UUID id = UUID.randomUUID();
+    private final AtomicInteger databaseReads = new AtomicInteger();
+    private final InMemoryRemoteCache redis = new InMemoryRemoteCache();
+    private String title = "Vanda";
+
+    private EntityCacheRegistry nodeA;
+    private EntityCacheRegistry nodeB;
+
+    @BeforeEach
+    void setUp() {
+        CacheConfigurationRepository repository = mock(CacheConfigurationRepository.class);
+        CacheConfiguration config = new CacheConfiguration("product:{id}", 300, "CACHE_ASIDE", "PRODUCT");
+        when(repository.findByIsEnabledTrue()).thenReturn(List.of(config));
+        nodeA = new EntityCacheRegistry(repository, new ObjectMapper(), redis);
+        nodeB = new EntityCacheRegistry(repository, new ObjectMapper(), redis);
+        nodeA.reload();
+        nodeB.reload();
+    }
+
+    @Test
+    void testSecondNodeIsServedFromSharedCache() {
+        assertEquals("Vanda", read(nodeA).getTitle());
+        assertEquals("Vanda", read(nodeB).getTitle());
+
+        assertEquals(1, databaseReads.get());
+        assertTrue(redis.values.containsKey("product:" + id));
+    }
+
+    @Test
+    void testWriteOnOneNodeEvictsEveryNode() {
+        read(nodeA);
+        read(nodeB);
+
+        title = "Vanda coerulea";
+        nodeA.evict(EntityCacheRegistry.PRODUCT, id);
+
+        assertFalse(redis.values.containsKey("product:" + id));
+        assertEquals("Vanda coerulea", read(nodeB).getTitle());
+        assertEquals("Vanda coerulea", read(nodeA).getTitle());
+        assertEquals(2, databaseReads.get());
+    }
+
+    @Test
+    void testFallsBackToLocalCachingWhileRedisIsDown() {
+        redis.setAvailable(false);
+
+        assertEquals("Vanda", read(nodeA).getTitle());
+        assertEquals("Vanda", read(nodeA).getTitle());
+        assertEquals(1, databaseReads.get());
+        assertTrue(redis.values.isEmpty());
+
+        // Back up: nothing shared yet, so node B loads and publishes its copy
+        redis.setAvailable(true);
+        read(nodeB);
+        assertEquals(2, databaseReads.get());
+        assertTrue(redis.values.containsKey("product:" + id));
+    }
+
+    @Test
+    void testUnreadableSharedEntryIsReplaced() {
+        redis.values.put("product:" + id, "{not json");
+
+        assertEquals("Vanda", read(nodeA).getTitle());
+        assertEquals(1, databaseReads.get());
+        assertTrue(redis.values.get("product:" + id).contains("Vanda"));
+    }
+
+    private ProductResponse read(EntityCacheRegistry node) {
+        return node.get(EntityCacheRegistry.PRODUCT, id, ProductResponse.class, () -> {
+            databaseReads.incrementAndGet();
+            ProductResponse response = new ProductResponse();
+            response.setId(id);
+            response.setTitle(title);
+            return Optional.of(response);
+        }).orElseThrow();
+    }
+}
@@ -0,0 +1,151 @@
+package com.orchid.orchid_marketplace.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.orchid.orchid_marketplace.service.cache.WriteBehindCounters.Counter;
+
+class WriteBehindCountersTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private WriteBehindCounters counters;
+    private final UUID productId = UUID.randomUUID();
+    private final UUID storeId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:counters;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE products (id UUID PRIMARY KEY, sold_count INT, "
+            + "favorite_count BIGINT DEFAULT 0 NOT NULL, view_count BIGINT DEFAULT 0 NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE stores (id UUID PRIMARY KEY, total_sales INT)");
+        jdbcTemplate.update("INSERT INTO products (id) VALUES (?)", productId);
+        jdbcTemplate.update("INSERT INTO stores (id, total_sales) VALUES (?, 5)", storeId);
+        counters = new WriteBehindCounters(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testConcurrentIncrementsAreFlushedExactlyOnce() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counters.increment(Counter.PRODUCT_VIEWS, productId, 1);
+                    if (i % 1_000 == 0) {
+                        counters.flush();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        counters.flush();
+
+        assertEquals(80_000L, jdbcTemplate.queryForObject(
+            "SELECT view_count FROM products WHERE id = ?", Long.class, productId));
+        assertEquals(0, counters.pending(Counter.PRODUCT_VIEWS, productId));
+    }
+
+    @Test
+    void testFlushWritesOneStatementPerRowAndCounter() {
+        counters.increment(Counter.PRODUCT_SOLD, productId, 2);
+        counters.increment(Counter.PRODUCT_SOLD, productId, 1);
+        counters.increment(Counter.STORE_SALES, storeId, 3);
+        counters.increment(Counter.PRODUCT_FAVORITES, productId, 1);
+        counters.increment(Counter.PRODUCT_FAVORITES, productId, -1);
+
+        assertEquals(2, counters.flush());
+        assertEquals(0, counters.flush());
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT sold_count FROM products WHERE id = ?", Integer.class, productId));
+        assertEquals(8, jdbcTemplate.queryForObject("SELECT total_sales FROM stores WHERE id = ?", Integer.class, storeId));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT favorite_count FROM products WHERE id = ?", Long.class, productId));
+    }
+
+    @Test
+    void testFailedFlushKeepsDeltasForNextFlush() {
+        JdbcTemplate failing = mock(JdbcTemplate.class);
+        when(failing.batchUpdate(anyString(), anyList()))
+            .thenThrow(new DataAccessResourceFailureException("database down"))
+            .thenReturn(new int[] {1});
+        WriteBehindCounters queued = new WriteBehindCounters(failing);
+        queued.increment(Counter.PRODUCT_VIEWS, productId, 4);
+
+        assertEquals(0, queued.flush());
+        assertEquals(4, queued.pending(Counter.PRODUCT_VIEWS, productId));
+        assertEquals(1, queued.flush());
+        verify(failing, times(2)).batchUpdate(eq("UPDATE products SET view_count = view_count + ? WHERE id = ?"), anyList());
+    }
+
+    @Test
+    void testFlushListenersGetTheCommittedDeltasOfTheirCounter() {
+        List<Map<UUID, Long>> flushed = new ArrayList<>();
+        counters.onFlush(Counter.STORE_SALES, flushed::add);
+        counters.increment(Counter.STORE_SALES, storeId, 2);
+        counters.increment(Counter.PRODUCT_VIEWS, productId, 1);
+
+        counters.flush();
+
+        assertEquals(List.of(Map.of(storeId, 2L)), flushed);
+    }
+
+    @Test
+    void testFailedFlushDoesNotNotifyListeners() {
+        JdbcTemplate failing = mock(JdbcTemplate.class);
+        when(failing.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("database down"));
+        WriteBehindCounters queued = new WriteBehindCounters(failing);
+        List<Map<UUID, Long>> flushed = new ArrayList<>();
+        queued.onFlush(Counter.STORE_SALES, flushed::add);
+        queued.increment(Counter.STORE_SALES, storeId, 2);
+
+        queued.flush();
+
+        assertTrue(flushed.isEmpty());
+    }
+
+    @Test
+    void testIncrementInsideTransactionWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.increment(Counter.PRODUCT_SOLD, productId, 1);
+            assertEquals(0, counters.pending(Counter.PRODUCT_SOLD, productId));
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            assertEquals(1, counters.pending(Counter.PRODUCT_SOLD, productId));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testShutdownFlushesPendingDeltas() {
+        counters.increment(Counter.STORE_SALES, storeId, 2);
+
+        counters.flushOnShutdown();
+
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT total_sales FROM stores WHERE id = ?", Integer.class, storeId));
+    }
+}
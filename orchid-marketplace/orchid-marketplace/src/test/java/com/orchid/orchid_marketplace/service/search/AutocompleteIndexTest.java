@@ -0,0 +1,200 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.Store;
+
+class AutocompleteIndexTest {
+
+    private AutocompleteIndex index;
+    private Category orchids;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        index = new AutocompleteIndex();
+        orchids = new Category("orchids", "Orchid Plants", null);
+        orchids.setId(UUID.randomUUID());
+        store = new Store(null, "Bloom House", "bloom-house");
+        store.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void testCompletesFromAnyWordStartByPopularity() {
+        Product white = product("White Phalaenopsis", 5);
+        Product pink = product("Pink Phalaenopsis Mini", 40);
+        index.index(white);
+        index.index(pink);
+
+        assertEquals(List.of("Pink Phalaenopsis Mini", "White Phalaenopsis"), texts("phal"));
+        assertEquals(List.of("White Phalaenopsis"), texts("WHITE pha"));
+        assertEquals(List.of("Pink Phalaenopsis Mini"), texts("mini"));
+        assertTrue(texts("alaenopsis").isEmpty());
+        assertTrue(texts("").isEmpty());
+    }
+
+    @Test
+    void testTagsCategoriesAndStoresAreWeightedBySales() {
+        Product a = product("Vanda Blue", 10);
+        a.setTags(Set.of("Fragrant"));
+        Product b = product("Cattleya", 30);
+        b.setTags(Set.of("fragrant", "Beginner"));
+        index.index(a);
+        index.index(b);
+
+        List<AutocompleteSuggestion> fragrant = index.suggest("fra", 5);
+        assertEquals(1, fragrant.size());
+        assertEquals(AutocompleteIndex.SuggestionType.TAG, fragrant.get(0).getType());
+        assertEquals(40, fragrant.get(0).getWeight());
+
+        List<AutocompleteSuggestion> category = index.suggest("orchid", 5);
+        assertEquals(List.of("Orchid Plants"), category.stream().map(AutocompleteSuggestion::getText).toList());
+        assertEquals(orchids.getId(), category.get(0).getId());
+        assertEquals(List.of("Orchid Plants"), texts("plants"));
+
+        List<AutocompleteSuggestion> stores = index.suggest("bloom", 5);
+        assertEquals(AutocompleteIndex.SuggestionType.STORE, stores.get(0).getType());
+        assertEquals(store.getId(), stores.get(0).getId());
+        assertEquals(40, stores.get(0).getWeight());
+    }
+
+    @Test
+    void testReindexAndRemoveUpdateWeightsAndDropOrphans() {
+        Product a = product("Vanda", 10);
+        a.setTags(Set.of("Blue"));
+        Product b = product("Bletilla", 5);
+        index.index(a);
+        index.index(b);
+        assertEquals(List.of("Bloom House", "Blue", "Bletilla"), texts("bl"));
+
+        a.setSoldCount(1);
+        index.index(a);
+        assertEquals(List.of("Bloom House", "Bletilla", "Blue"), texts("bl"));
+
+        a.setTags(Set.of());
+        a.setTitle("Vanda Coerulea");
+        index.index(a);
+        assertEquals(List.of("Bloom House", "Bletilla"), texts("bl"));
+        assertEquals(List.of("Vanda Coerulea"), texts("coer"));
+
+        index.remove(a.getId());
+        b.softDelete();
+        index.index(b);
+        assertTrue(texts("v").isEmpty());
+        assertTrue(texts("bloom").isEmpty());
+        assertTrue(texts("orchid").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testSoldCountChangesMoveProductAndSharedWeights() {
+        Product a = product("Vanda", 10);
+        a.setTags(Set.of("Blue"));
+        Product b = product("Bletilla", 5);
+        index.index(a);
+        index.index(b);
+
+        index.adjustSoldCount(b.getId(), 20);
+        assertEquals(List.of("Bloom House", "Bletilla", "Blue"), texts("bl"));
+        assertEquals(35, index.suggest("bloom", 1).get(0).getWeight());
+
+        // Never below zero, and the shares shrink by what the product actually lost
+        index.adjustSoldCount(b.getId(), -100);
+        assertEquals(0, index.suggest("bletilla", 1).get(0).getWeight());
+        assertEquals(10, index.suggest("bloom", 1).get(0).getWeight());
+        assertEquals(10, index.suggest("orchid", 1).get(0).getWeight());
+
+        index.adjustSoldCount(UUID.randomUUID(), 5);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testStoreAndCategoryRenamesAndDeactivation() {
+        index.index(product("Dendrobium", 3));
+
+        store.setStoreName("Petal Works");
+        index.updateStore(store);
+        assertTrue(texts("bloom").isEmpty());
+        assertEquals(List.of("Petal Works"), texts("petal"));
+
+        store.setIsPublic(false);
+        index.updateStore(store);
+        assertTrue(texts("petal").isEmpty());
+
+        orchids.softDelete();
+        index.updateCategory(orchids);
+        assertTrue(texts("orchid").isEmpty());
+        orchids.setIsActive(true);
+        index.updateCategory(orchids);
+        assertEquals(List.of("Orchid Plants"), texts("orchid"));
+    }
+
+    @Test
+    void testTrailingSpaceOnlyCompletesWholeWords() {
+        orchids.setName("houseplants");
+        orchids.setDisplayName("Houseplants");
+        index.index(product("Orchid Pot", 2));
+        index.index(product("Orchids Bundle", 1));
+
+        assertEquals(List.of("Orchid Pot", "Orchids Bundle"), texts("orchid"));
+        assertEquals(List.of("Orchid Pot"), texts("orchid "));
+    }
+
+    @Test
+    void testTopSuggestionsMatchFullScan() {
+        Random random = new Random(3);
+        String[] words = {"alba", "alpine", "amber", "ambrosia", "anthurium", "apricot", "aster", "azalea"};
+        List<Product> catalog = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Product product = product(words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + i,
+                random.nextInt(10_000));
+            product.setCategory(null);
+            product.setStore(null);
+            catalog.add(product);
+            index.index(product);
+        }
+        for (int i = 0; i < 100; i++) {
+            // Reweigh and retitle a few products so the trie has seen updates and removals
+            Product product = catalog.get(random.nextInt(catalog.size()));
+            product.setSoldCount(random.nextInt(10_000));
+            product.setTitle(words[random.nextInt(words.length)] + " " + i);
+            index.index(product);
+        }
+
+        for (String prefix : List.of("a", "al", "am", "amb", "ap", "aster", "z")) {
+            List<String> expected = catalog.stream()
+                .filter(p -> CatalogTokenizer.tokenize(p.getTitle()).stream().anyMatch(w -> w.startsWith(prefix)))
+                .sorted(Comparator.comparing(Product::getSoldCount).reversed())
+                .limit(10)
+                .map(p -> p.getSoldCount() + "")
+                .toList();
+            List<String> actual = index.suggest(prefix, 10).stream().map(s -> s.getWeight() + "").toList();
+            assertEquals(expected, actual, prefix);
+        }
+    }
+
+    private List<String> texts(String prefix) {
+        return index.suggest(prefix, 10).stream().map(AutocompleteSuggestion::getText).toList();
+    }
+
+    private Product product(String title, int soldCount) {
+        Product product = new Product(title, null, new BigDecimal("12.00"), 3, store, Product.ProductCondition.NEW);
+        product.setId(UUID.randomUUID());
+        product.setCategory(orchids);
+        product.setSoldCount(soldCount);
+        return product;
+    }
+}
@@ -0,0 +1,404 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Product;
+
+class CatalogSearchIndexTest {
+
+    private CatalogSearchIndex index;
+    private Category orchids;
+    private Category pots;
+
+    @BeforeEach
+    void setUp() {
+        index = new CatalogSearchIndex();
+        orchids = category("Orchids");
+        pots = category("Flower Pots");
+    }
+
+    @Test
+    void testKeywordMatchesTitleDescriptionAndTags() {
+        Product phal = product("Phalaenopsis White", "Easy moth orchid", orchids, Product.ProductCondition.NEW);
+        Product pot = product("Ceramic Pot", "Glazed, drains well", pots, Product.ProductCondition.NEW);
+        pot.setTags(Set.of("Orchid-Friendly"));
+        index.index(phal);
+        index.index(pot);
+
+        assertEquals(List.of(phal.getId(), pot.getId()), index.match("orchid", null, null));
+        assertEquals(List.of(phal.getId()), index.match("moth", null, null));
+        assertEquals(List.of(pot.getId()), index.match("GLAZED", null, null));
+    }
+
+    @Test
+    void testKeywordTokensArePrefixMatchedAndIntersected() {
+        Product phal = product("Phalaenopsis White", "Moth orchid", orchids, Product.ProductCondition.NEW);
+        Product dendro = product("Dendrobium", "Cane orchid", orchids, Product.ProductCondition.NEW);
+        index.index(phal);
+        index.index(dendro);
+
+        assertEquals(List.of(phal.getId(), dendro.getId()), index.match("orch", null, null));
+        assertEquals(List.of(dendro.getId()), index.match("cane orch", null, null));
+        assertTrue(index.match("cane white", null, null).isEmpty());
+        assertTrue(index.match("vanda", null, null).isEmpty());
+    }
+
+    @Test
+    void testCategoryAndConditionFilters() {
+        Product newOrchid = product("Vanda", "Blue", orchids, Product.ProductCondition.NEW);
+        Product usedOrchid = product("Vanda Mature", "Blue", orchids, Product.ProductCondition.GOOD);
+        Product usedPot = product("Terracotta", "Blue", pots, Product.ProductCondition.GOOD);
+        index.index(newOrchid);
+        index.index(usedOrchid);
+        index.index(usedPot);
+
+        assertEquals(List.of(newOrchid.getId(), usedOrchid.getId()), index.match(null, orchids.getId(), null));
+        assertEquals(List.of(usedOrchid.getId(), usedPot.getId()), index.match("", null, Product.ProductCondition.GOOD));
+        assertEquals(List.of(usedOrchid.getId()), index.match("blue", orchids.getId(), Product.ProductCondition.GOOD));
+        assertTrue(index.match(null, orchids.getId(), Product.ProductCondition.FAIR).isEmpty());
+    }
+
+    @Test
+    void testReindexReplacesOldTermsAndCategory() {
+        Product product = product("Cattleya", "Fragrant", orchids, Product.ProductCondition.NEW);
+        index.index(product);
+
+        product.setTitle("Oncidium");
+        product.setCategory(pots);
+        index.index(product);
+
+        assertEquals(1, index.size());
+        assertTrue(index.match("cattleya", null, null).isEmpty());
+        assertEquals(List.of(product.getId()), index.match("oncidium", pots.getId(), null));
+        assertTrue(index.match(null, orchids.getId(), null).isEmpty());
+    }
+
+    @Test
+    void testRemoveAndInactiveProductsAreNotMatched() {
+        Product kept = product("Miltonia", "Pansy orchid", orchids, Product.ProductCondition.NEW);
+        Product removed = product("Masdevallia", "Cool orchid", orchids, Product.ProductCondition.NEW);
+        Product softDeleted = product("Paphiopedilum", "Slipper orchid", orchids, Product.ProductCondition.NEW);
+        index.index(kept);
+        index.index(removed);
+        index.index(softDeleted);
+
+        index.remove(removed.getId());
+        softDeleted.softDelete();
+        index.index(softDeleted);
+
+        assertEquals(List.of(kept.getId()), index.match("orchid", null, null));
+        assertEquals(List.of(kept.getId()), index.match(null, null, null));
+        assertFalse(index.contains(softDeleted.getId()));
+    }
+
+    @Test
+    void testResolveCategoryByIdOrName() {
+        index.index(product("Vanda", "Blue", orchids, Product.ProductCondition.NEW));
+
+        assertEquals(orchids.getId(), index.resolveCategory("orchids"));
+        assertEquals(orchids.getId(), index.resolveCategory(orchids.getId().toString()));
+        assertNull(index.resolveCategory("Unknown"));
+        assertNull(index.resolveCategory(" "));
+    }
+
+    @Test
+    void testPostingListIntersection() {
+        PostingList evens = new PostingList();
+        PostingList threes = new PostingList();
+        for (int i = 0; i < 1000; i++) {
+            if (i % 2 == 0) evens.add(i);
+            if (i % 3 == 0) threes.add(i);
+        }
+        PostingList single = new PostingList();
+        single.add(600);
+        single.add(601);
+
+        PostingList sixes = PostingList.intersect(List.of(evens, threes));
+        assertEquals(167, sixes.size());
+        assertTrue(sixes.contains(996));
+        assertFalse(sixes.contains(4));
+
+        PostingList narrowed = PostingList.intersect(List.of(evens, threes, single));
+        assertArrayEquals(new int[] {600}, narrowed.toArray());
+    }
+
+    @Test
+    void testSearchFiltersByPriceRatingAndStockFromColumns() {
+        Product cheap = priced("Cheap Orchid", "4.99", 3);
+        Product mid = priced("Mid Orchid", "25.00", 0);
+        Product pricey = priced("Pricey Orchid", "120.00", 2);
+        index.index(cheap);
+        index.index(mid);
+        index.index(pricey);
+        index.updateReviewStats(cheap.getId(), 4.24, 12);
+        index.updateReviewStats(mid.getId(), 4.5, 3);
+
+        CatalogQuery query = new CatalogQuery();
+        query.setKeyword("orchid");
+        query.setMinPriceCents(499L);
+        query.setMaxPriceCents(2500L);
+        query.setSort(CatalogSort.PRICE_ASC);
+        assertEquals(List.of(cheap.getId(), mid.getId()), index.search(query).getProductIds());
+
+        query.setMinRating(4.3);
+        assertEquals(List.of(mid.getId()), index.search(query).getProductIds());
+
+        query.setMinRating(null);
+        query.setInStockOnly(true);
+        assertEquals(List.of(cheap.getId()), index.search(query).getProductIds());
+
+        index.adjustStock(cheap.getId(), -3);
+        assertEquals(0, index.search(query).getTotalMatches());
+    }
+
+    @Test
+    void testSearchSortsAndPagesWithoutLoadingEntities() {
+        Product a = priced("Alpha", "10.00", 1);
+        Product b = priced("Beta", "30.00", 1);
+        Product c = priced("Gamma", "20.00", 1);
+        a.setCreatedAt(java.time.LocalDateTime.of(2024, 1, 1, 0, 0));
+        b.setCreatedAt(java.time.LocalDateTime.of(2024, 3, 1, 0, 0));
+        c.setCreatedAt(java.time.LocalDateTime.of(2024, 2, 1, 0, 0));
+        a.setSoldCount(50);
+        index.index(a);
+        index.index(b);
+        index.index(c);
+        index.updateReviewStats(c.getId(), 5.0, 1);
+        index.updateReviewStats(b.getId(), 3.0, 7);
+
+        assertEquals(List.of(b.getId(), c.getId(), a.getId()), searchIds(CatalogSort.PRICE_DESC, 0, 10));
+        assertEquals(List.of(c.getId(), b.getId(), a.getId()), searchIds(CatalogSort.RATING, 0, 10));
+        assertEquals(List.of(b.getId(), c.getId(), a.getId()), searchIds(CatalogSort.NEWEST, 0, 10));
+        assertEquals(List.of(b.getId(), c.getId(), a.getId()), searchIds(CatalogSort.POPULAR, 0, 10));
+
+        CatalogQuery secondPage = new CatalogQuery();
+        secondPage.setSort(CatalogSort.PRICE_ASC);
+        secondPage.setOffset(1);
+        secondPage.setLimit(1);
+        CatalogSearchResult result = index.search(secondPage);
+        assertEquals(List.of(c.getId()), result.getProductIds());
+        assertEquals(3, result.getTotalMatches());
+
+        secondPage.setOffset(5);
+        assertTrue(index.search(secondPage).getProductIds().isEmpty());
+    }
+
+    @Test
+    void testKeysetPagesWalkTheWholeResultInOrder() {
+        for (int i = 0; i < 25; i++) {
+            // Only five distinct prices, so most page boundaries fall inside a tie
+            index.index(priced("Orchid " + i, (10 + i % 5) + ".00", 1));
+        }
+        for (CatalogSort sort : List.of(CatalogSort.PRICE_ASC, CatalogSort.PRICE_DESC, CatalogSort.RELEVANCE)) {
+            List<UUID> expected = searchIds(sort, 0, 100);
+            List<UUID> walked = new java.util.ArrayList<>();
+            CatalogQuery query = new CatalogQuery();
+            query.setSort(sort);
+            query.setLimit(4);
+            while (true) {
+                CatalogSearchResult page = index.search(query);
+                assertEquals(25, page.getTotalMatches());
+                walked.addAll(page.getProductIds());
+                if (page.getProductIds().size() < 4) {
+                    break;
+                }
+                query.setKeysetPosition(page.getLastSortKey(), page.getProductIds().get(3));
+            }
+            assertEquals(expected, walked, sort.name());
+        }
+    }
+
+    @Test
+    void testTopKSelectionMatchesFullSort() {
+        java.util.Random random = new java.util.Random(42);
+        int[] keys = new int[5000];
+        java.util.BitSet matches = new java.util.BitSet();
+        for (int doc = 0; doc < keys.length; doc++) {
+            keys[doc] = random.nextInt(300);
+            if (random.nextInt(3) > 0) {
+                matches.set(doc);
+            }
+        }
+        TopKSelector.DocOrder order = (x, y) -> keys[x] != keys[y] ? Integer.compare(keys[x], keys[y]) : Integer.compare(x, y);
+
+        int[] expected = matches.stream().boxed()
+            .sorted((x, y) -> order.compare(x, y))
+            .limit(100)
+            .mapToInt(Integer::intValue)
+            .toArray();
+        assertArrayEquals(expected, TopKSelector.select(matches, 100, order));
+    }
+
+    @Test
+    void testFacetsCountTheWholeMatchSet() {
+        orchids.setSearchFacet("facet-orchids");
+        pots.setSearchFacet("facet-pots");
+        Category unfaceted = category("Gift Cards");
+        Product cheap = priced("Cheap Orchid", "4.99", 1);
+        Product mid = priced("Mid Orchid", "25.00", 1);
+        Product pricey = priced("Pricey Orchid", "120.00", 1);
+        Product pot = product("Orchid Pot", "Clay", pots, Product.ProductCondition.GOOD);
+        Product card = product("Orchid Gift Card", "Any plant", unfaceted, Product.ProductCondition.NEW);
+        for (Product p : List.of(cheap, mid, pricey, pot, card)) {
+            index.index(p);
+        }
+        index.updateReviewStats(cheap.getId(), 4.5, 2);
+        index.updateReviewStats(mid.getId(), 3.2, 5);
+
+        CatalogQuery query = new CatalogQuery();
+        query.setKeyword("orchid");
+        query.setLimit(1);
+        query.setIncludeFacets(true);
+        CatalogFacets facets = index.search(query).getFacets();
+
+        assertEquals(List.of(orchids.getId(), pots.getId()), List.copyOf(facets.getCategories().keySet()));
+        assertEquals(3L, facets.getCategories().get(orchids.getId()));
+        assertEquals("Flower Pots", facets.getCategoryName(pots.getId()));
+        assertEquals(4L, facets.getConditions().get(Product.ProductCondition.NEW));
+        assertEquals(1L, facets.getConditions().get(Product.ProductCondition.GOOD));
+        assertEquals(0L, facets.getConditions().get(Product.ProductCondition.FAIR));
+        assertEquals(1L, facets.getPriceBuckets().get(CatalogFacets.PriceBucket.UNDER_10));
+        assertEquals(2L, facets.getPriceBuckets().get(CatalogFacets.PriceBucket.FROM_10_TO_25));
+        assertEquals(1L, facets.getPriceBuckets().get(CatalogFacets.PriceBucket.FROM_25_TO_50));
+        assertEquals(1L, facets.getPriceBuckets().get(CatalogFacets.PriceBucket.FROM_100));
+        assertEquals(1L, facets.getRatingBands().get(CatalogFacets.RatingBand.FOUR_AND_UP));
+        assertEquals(2L, facets.getRatingBands().get(CatalogFacets.RatingBand.THREE_AND_UP));
+
+        // Filters narrow the counts; keyset pages still count every match
+        query.setMaxPriceCents(2500L);
+        query.setKeysetPosition(0L, new UUID(Long.MAX_VALUE, Long.MAX_VALUE));
+        facets = index.search(query).getFacets();
+        assertEquals(2L, facets.getCategories().get(orchids.getId()));
+        assertEquals(1L, facets.getCategories().get(pots.getId()));
+        assertEquals(0L, facets.getPriceBuckets().get(CatalogFacets.PriceBucket.FROM_100));
+    }
+
+    @Test
+    void testFacetsFollowReindexRatingChangesAndRemoval() {
+        orchids.setSearchFacet("facet-orchids");
+        Product product = priced("Vanda", "8.00", 1);
+        index.index(product);
+        index.updateReviewStats(product.getId(), 4.8, 3);
+        assertEquals(1L, facets().getRatingBands().get(CatalogFacets.RatingBand.FOUR_AND_UP));
+
+        product.setPrice(new BigDecimal("60.00"));
+        product.setCategory(pots);
+        index.index(product);
+        index.updateReviewStats(product.getId(), 3.4, 4);
+        CatalogFacets facets = facets();
+        assertEquals(0L, facets.getRatingBands().get(CatalogFacets.RatingBand.FOUR_AND_UP));
+        assertEquals(1L, facets.getPriceBuckets().get(CatalogFacets.PriceBucket.FROM_50_TO_100));
+        assertEquals(0L, facets.getPriceBuckets().get(CatalogFacets.PriceBucket.UNDER_10));
+        assertEquals(1L, facets.getRatingBands().get(CatalogFacets.RatingBand.THREE_AND_UP));
+        assertTrue(facets.getCategories().isEmpty());
+
+        index.remove(product.getId());
+        assertEquals(0L, facets().getConditions().get(Product.ProductCondition.NEW));
+        assertEquals(0L, facets().getRatingBands().get(CatalogFacets.RatingBand.ONE_AND_UP));
+        assertNull(index.search(new CatalogQuery()).getFacets());
+    }
+
+    @Test
+    void testFuzzySearchToleratesTypos() {
+        Product phal = product("Phalaenopsis White", "Moth orchid", orchids, Product.ProductCondition.NEW);
+        Product dendro = product("Dendrobium Nobile", "Cane orchid", orchids, Product.ProductCondition.NEW);
+        index.index(phal);
+        index.index(dendro);
+
+        assertTrue(fuzzyIds("phalenopsis", false).isEmpty());
+        assertEquals(List.of(phal.getId()), fuzzyIds("phalenopsis", true));
+        assertEquals(Set.of(phal.getId(), dendro.getId()), Set.copyOf(fuzzyIds("orchdi", true)));
+        assertEquals(List.of(dendro.getId()), fuzzyIds("dendorb nobile", true));
+        // Exact prefixes still match, and short tokens are never corrected
+        assertEquals(List.of(phal.getId()), fuzzyIds("phal", true));
+        assertTrue(fuzzyIds("cane moht", true).isEmpty());
+        assertTrue(fuzzyIds("mth", true).isEmpty());
+    }
+
+    @Test
+    void testFuzzySearchToleratesMidWordTranspositions() {
+        Product species = product("Species Orchids", "Dendrobium collection", orchids, Product.ProductCondition.NEW);
+        index.index(species);
+
+        // Swapping two inner letters breaks four trigrams, not three
+        assertEquals(List.of(species.getId()), fuzzyIds("orcihds", true));
+        assertEquals(List.of(species.getId()), fuzzyIds("ocrhids", true));
+        assertEquals(List.of(species.getId()), fuzzyIds("dendorbium", true));
+    }
+
+    @Test
+    void testFuzzySearchFollowsReindexAndRemoval() {
+        Product product = product("Cattleya", "Fragrant", orchids, Product.ProductCondition.NEW);
+        index.index(product);
+        assertEquals(List.of(product.getId()), fuzzyIds("catleya", true));
+
+        product.setTitle("Oncidium");
+        index.index(product);
+        assertTrue(fuzzyIds("catleya", true).isEmpty());
+        assertEquals(List.of(product.getId()), fuzzyIds("oncidum", true));
+
+        index.remove(product.getId());
+        assertTrue(fuzzyIds("oncidum", true).isEmpty());
+    }
+
+    @Test
+    void testPrefixDistanceCountsEditsAgainstTheBestTermPrefix() {
+        assertEquals(0, TermTrigramIndex.prefixDistance("orch", "orchids", 1));
+        assertEquals(1, TermTrigramIndex.prefixDistance("orhcid", "orchids", 1));
+        assertEquals(1, TermTrigramIndex.prefixDistance("phalenopsis", "phalaenopsis", 2));
+        assertEquals(2, TermTrigramIndex.prefixDistance("vanda", "dendrobium", 1));
+        assertEquals(0, TermTrigramIndex.maxEdits(3));
+        assertEquals(2, TermTrigramIndex.maxEdits(8));
+    }
+
+    private CatalogFacets facets() {
+        CatalogQuery query = new CatalogQuery();
+        query.setIncludeFacets(true);
+        return index.search(query).getFacets();
+    }
+
+    private List<UUID> fuzzyIds(String keyword, boolean fuzzy) {
+        CatalogQuery query = new CatalogQuery();
+        query.setKeyword(keyword);
+        query.setFuzzy(fuzzy);
+        return index.search(query).getProductIds();
+    }
+
+    private List<UUID> searchIds(CatalogSort sort, int offset, int limit) {
+        CatalogQuery query = new CatalogQuery();
+        query.setSort(sort);
+        query.setOffset(offset);
+        query.setLimit(limit);
+        return index.search(query).getProductIds();
+    }
+
+    private Product priced(String title, String price, int stock) {
+        Product product = product(title, "Orchid", orchids, Product.ProductCondition.NEW);
+        product.setPrice(new BigDecimal(price));
+        product.setStockQuantity(stock);
+        return product;
+    }
+
+    private static Category category(String name) {
+        Category category = new Category(name, name, null);
+        category.setId(UUID.randomUUID());
+        return category;
+    }
+
+    private static Product product(String title, String description, Category category,
+                                   Product.ProductCondition condition) {
+        Product product = new Product(title, description, new BigDecimal("19.99"), 5, null, condition);
+        product.setId(UUID.randomUUID());
+        product.setCategory(category);
+        return product;
+    }
+}
@@ -0,0 +1,141 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Product;
+import com.orchid.orchid_marketplace.model.ProductReview;
+
+/**
+ * Compares the former entity/stream search pipeline with the columnar index on a
+ * generated catalog. Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.include=ColumnarSearch}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnarSearchBenchmark {
+
+    @Param({"10000", "100000"})
+    public int catalogSize;
+
+    @Param({"price_asc", "rating", "popular"})
+    public String sortBy;
+
+    private List<Product> products;
+    private CatalogSearchIndex index;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Category category = new Category("Category " + i, "Category " + i, null);
+            category.setId(UUID.randomUUID());
+            categories.add(category);
+        }
+
+        products = new ArrayList<>(catalogSize);
+        index = new CatalogSearchIndex();
+        for (int i = 0; i < catalogSize; i++) {
+            BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(20000), 2);
+            Product product = new Product("Orchid " + i, "Generated product " + i, price,
+                random.nextInt(20), null, Product.ProductCondition.NEW);
+            product.setId(UUID.randomUUID());
+            product.setCategory(categories.get(random.nextInt(categories.size())));
+            product.setSoldCount(random.nextInt(500));
+            product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(500_000)));
+            int reviewCount = random.nextInt(8);
+            int ratingSum = 0;
+            for (int r = 0; r < reviewCount; r++) {
+                ProductReview review = new ProductReview(product, null, 1 + random.nextInt(5), null);
+                review.setId(UUID.randomUUID());
+                product.getReviews().add(review);
+                ratingSum += review.getRating();
+            }
+            products.add(product);
+            index.index(product);
+            if (reviewCount > 0) {
+                index.updateReviewStats(product.getId(), (double) ratingSum / reviewCount, reviewCount);
+            }
+        }
+        minPrice = new BigDecimal("20.00");
+        maxPrice = new BigDecimal("150.00");
+    }
+
+    @Benchmark
+    public List<UUID> legacyStreamPipeline() {
+        // Mirrors the previous ProductService.searchProductsAdvanced: filter and sort entities, then page
+        List<Product> all = products.stream()
+            .filter(Product::getIsActive)
+            .filter(p -> p.getPrice() != null && p.getPrice().compareTo(minPrice) >= 0)
+            .filter(p -> p.getPrice() != null && p.getPrice().compareTo(maxPrice) <= 0)
+            .filter(p -> legacyAverageRating(p).doubleValue() >= 2.0)
+            .collect(Collectors.toList());
+
+        Comparator<Product> comparator;
+        if ("price_asc".equals(sortBy)) {
+            comparator = Comparator.comparing(p -> p.getPrice() != null ? p.getPrice() : BigDecimal.ZERO);
+        } else if ("rating".equals(sortBy)) {
+            comparator = Comparator.comparing(ColumnarSearchBenchmark::legacyAverageRating).reversed();
+        } else {
+            comparator = Comparator.comparingInt(
+                (Product p) -> p.getReviews() != null ? p.getReviews().size() : 0).reversed();
+        }
+        all = all.stream().sorted(comparator).collect(Collectors.toList());
+
+        List<UUID> page = new ArrayList<>(20);
+        for (int i = 0; i < Math.min(20, all.size()); i++) {
+            page.add(all.get(i).getId());
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<UUID> columnarIndex() {
+        CatalogQuery query = new CatalogQuery();
+        query.setMinPriceCents(2000L);
+        query.setMaxPriceCents(15000L);
+        query.setMinRating(2.0);
+        query.setSort(CatalogSort.fromParam(sortBy));
+        query.setLimit(20);
+        return index.search(query).getProductIds();
+    }
+
+    // The former Product.calculateAverageRating(), which walked the review collection
+    private static BigDecimal legacyAverageRating(Product product) {
+        if (product.getReviews() == null || product.getReviews().isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+        double average = product.getReviews().stream()
+            .mapToInt(ProductReview::getRating)
+            .average()
+            .orElse(0.0);
+        return BigDecimal.valueOf(average).setScale(1, RoundingMode.HALF_UP);
+    }
+}
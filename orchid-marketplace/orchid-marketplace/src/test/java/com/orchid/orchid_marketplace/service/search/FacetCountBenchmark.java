@@ -0,0 +1,124 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.orchid.orchid_marketplace.model.Category;
+import com.orchid.orchid_marketplace.model.Product;
+
+/**
+ * Facet counting cost as the match set grows, against the search alone and against
+ * running one filtered search per facet value. The match fraction is steered with the
+ * price filter. Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.include=FacetCount}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FacetCountBenchmark {
+
+    private static final int MAX_PRICE_CENTS = 20_000;
+
+    @Param({"200000"})
+    public int catalogSize;
+
+    @Param({"1", "10", "50", "100"})
+    public int matchPercent;
+
+    private CatalogSearchIndex index;
+    private List<Category> categories;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(11);
+        categories = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            Category category = new Category("Category " + i, "Category " + i, null);
+            category.setId(UUID.randomUUID());
+            category.setSearchFacet("facet-" + i);
+            categories.add(category);
+        }
+        Product.ProductCondition[] conditions = Product.ProductCondition.values();
+
+        index = new CatalogSearchIndex();
+        for (int i = 0; i < catalogSize; i++) {
+            Product product = new Product("Orchid " + i, "Generated product " + i,
+                BigDecimal.valueOf(random.nextInt(MAX_PRICE_CENTS), 2), 1 + random.nextInt(20), null,
+                conditions[random.nextInt(conditions.length)]);
+            product.setId(UUID.randomUUID());
+            product.setCategory(categories.get(random.nextInt(categories.size())));
+            product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+            index.index(product);
+            index.updateReviewStats(product.getId(), 1 + random.nextInt(400) / 100.0, 1 + random.nextInt(30));
+        }
+    }
+
+    @Benchmark
+    public CatalogSearchResult searchOnly() {
+        return index.search(query(false));
+    }
+
+    @Benchmark
+    public CatalogSearchResult searchWithFacets() {
+        return index.search(query(true));
+    }
+
+    // What the sidebar cost before: a count-only search per facet value
+    @Benchmark
+    public long searchPerFacetValue() {
+        long total = 0;
+        for (Category category : categories) {
+            CatalogQuery query = query(false);
+            query.setCategoryId(category.getId());
+            query.setLimit(0);
+            total += index.search(query).getTotalMatches();
+        }
+        for (Product.ProductCondition condition : Product.ProductCondition.values()) {
+            CatalogQuery query = query(false);
+            query.setCondition(condition);
+            query.setLimit(0);
+            total += index.search(query).getTotalMatches();
+        }
+        for (CatalogFacets.PriceBucket bucket : CatalogFacets.PriceBucket.values()) {
+            CatalogQuery query = query(false);
+            query.setMinPriceCents(Math.max(bucket.getMinCents(), 0L));
+            query.setMaxPriceCents(Math.min(bucket.getMaxCentsExclusive() - 1, query.getMaxPriceCents()));
+            query.setLimit(0);
+            total += index.search(query).getTotalMatches();
+        }
+        for (CatalogFacets.RatingBand band : CatalogFacets.RatingBand.values()) {
+            CatalogQuery query = query(false);
+            query.setMinRating((double) band.getMinRating());
+            query.setLimit(0);
+            total += index.search(query).getTotalMatches();
+        }
+        return total;
+    }
+
+    private CatalogQuery query(boolean includeFacets) {
+        CatalogQuery query = new CatalogQuery();
+        query.setMaxPriceCents(MAX_PRICE_CENTS * (long) matchPercent / 100 - 1);
+        query.setSort(CatalogSort.PRICE_ASC);
+        query.setIncludeFacets(includeFacets);
+        return query;
+    }
+}
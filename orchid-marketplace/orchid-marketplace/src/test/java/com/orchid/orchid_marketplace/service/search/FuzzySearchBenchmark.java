@@ -0,0 +1,157 @@
+package com.orchid.orchid_marketplace.service.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.orchid.orchid_marketplace.model.Product;
+
+/**
+ * Compares the former LIKE '%keyword%' substring scan with exact and fuzzy index lookups
+ * for misspelled queries, and prints the recall of each during setup. Each query is a
+ * title word with one random edit. Run with
+ * {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.include=FuzzySearch}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class FuzzySearchBenchmark {
+
+    private static final int QUERIES = 64;
+
+    @Param({"1000000"})
+    public int catalogSize;
+
+    private String[] titles;
+    private String[] descriptions;
+    private UUID[] ids;
+    private CatalogSearchIndex index;
+    private String[] queries;
+    private String[] intended;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(11);
+        String[] vocabulary = new String[20_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = word(random);
+        }
+
+        titles = new String[catalogSize];
+        descriptions = new String[catalogSize];
+        ids = new UUID[catalogSize];
+        index = new CatalogSearchIndex();
+        for (int i = 0; i < catalogSize; i++) {
+            titles[i] = vocabulary[random.nextInt(vocabulary.length)] + " " + vocabulary[random.nextInt(vocabulary.length)];
+            descriptions[i] = vocabulary[random.nextInt(vocabulary.length)];
+            Product product = new Product(titles[i], descriptions[i], BigDecimal.TEN, 1, null, Product.ProductCondition.NEW);
+            ids[i] = UUID.randomUUID();
+            product.setId(ids[i]);
+            index.index(product);
+        }
+
+        queries = new String[QUERIES];
+        intended = new String[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            String target = titles[random.nextInt(catalogSize)].split(" ")[0];
+            intended[q] = target;
+            queries[q] = misspell(target, random);
+        }
+
+        int substringHits = 0;
+        int fuzzyHits = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            Set<UUID> wanted = new HashSet<>(scan(intended[q]));
+            if (!wanted.isEmpty() && new HashSet<>(scan(queries[q])).containsAll(wanted)) {
+                substringHits++;
+            }
+            if (!wanted.isEmpty() && new HashSet<>(lookup(queries[q], true)).containsAll(wanted)) {
+                fuzzyHits++;
+            }
+        }
+        System.out.printf("%nRecall over %d misspelled queries: substring %.2f, fuzzy %.2f%n",
+            QUERIES, (double) substringHits / QUERIES, (double) fuzzyHits / QUERIES);
+    }
+
+    @Benchmark
+    public List<UUID> substringScan() {
+        return scan(queries[next++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public List<UUID> indexExact() {
+        return lookup(queries[next++ & (QUERIES - 1)], false);
+    }
+
+    @Benchmark
+    public List<UUID> indexFuzzy() {
+        return lookup(queries[next++ & (QUERIES - 1)], true);
+    }
+
+    // Mirrors ProductRepository.searchResponsesByKeyword: lower(title) or lower(description) LIKE %keyword%
+    private List<UUID> scan(String keyword) {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        List<UUID> matches = new ArrayList<>();
+        for (int i = 0; i < titles.length; i++) {
+            if (titles[i].toLowerCase(Locale.ROOT).contains(needle)
+                    || descriptions[i].toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(ids[i]);
+            }
+        }
+        return matches;
+    }
+
+    private List<UUID> lookup(String keyword, boolean fuzzy) {
+        CatalogQuery query = new CatalogQuery();
+        query.setKeyword(keyword);
+        query.setFuzzy(fuzzy);
+        query.setLimit(Integer.MAX_VALUE);
+        return index.search(query).getProductIds();
+    }
+
+    private static String word(Random random) {
+        int length = 5 + random.nextInt(6);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    private static String misspell(String word, Random random) {
+        int at = 1 + random.nextInt(word.length() - 2);
+        char letter = (char) ('a' + random.nextInt(26));
+        switch (random.nextInt(4)) {
+            case 0:
+                return word.substring(0, at) + word.substring(at + 1);
+            case 1:
+                return word.substring(0, at) + letter + word.substring(at);
+            case 2:
+                return word.substring(0, at) + letter + word.substring(at + 1);
+            default:
+                return word.substring(0, at) + word.charAt(at + 1) + word.charAt(at) + word.substring(at + 2);
+        }
+    }
+}
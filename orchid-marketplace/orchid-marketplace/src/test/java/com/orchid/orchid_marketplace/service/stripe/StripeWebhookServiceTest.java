@@ -21,6 +21,7 @@ import com.orchid.orchid_marketplace.model.Order;
 import com.orchid.orchid_marketplace.model.StripeWebhookEvent;
 import com.orchid.orchid_marketplace.repository.OrderRepository;
 import com.orchid.orchid_marketplace.repository.StripeWebhookEventRepository;
+import com.orchid.orchid_marketplace.service.InventoryHoldService;
 import com.stripe.model.Event;
 import com.stripe.model.PaymentIntent;
 
@@ -33,6 +34,9 @@ class StripeWebhookServiceTest {
     @Mock
     private StripeWebhookEventRepository webhookEventRepository;
 
+    @Mock
+    private InventoryHoldService inventoryHoldService;
+
     private StripeWebhookService stripeWebhookService;
 
     @BeforeEach
@@ -40,7 +44,7 @@ class StripeWebhookServiceTest {
     void beforeEach() {
         StripeProperties props = new StripeProperties();
         props.setWebhookSecret("whsec_test");
-        stripeWebhookService = new StripeWebhookService(props, orderRepository, webhookEventRepository);
+        stripeWebhookService = new StripeWebhookService(props, orderRepository, webhookEventRepository, inventoryHoldService);
     }
 
     @Test
@@ -58,16 +62,60 @@ class StripeWebhookServiceTest {
         paymentIntent.setMetadata(metadata);
 
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(inventoryHoldService.convert(order)).thenReturn(true);
 
         stripeWebhookService.handlePaymentIntentSucceeded("evt_123", "payment_intent.succeeded", paymentIntent);
 
         assertEquals(Order.OrderStatus.PROCESSING, order.getStatus());
         assertEquals("pi_123", order.getStripePaymentIntentId());
         assertEquals("ch_123", order.getStripeChargeId());
+        verify(inventoryHoldService).convert(order);
         verify(orderRepository).save(order);
         verify(webhookEventRepository).save(any(StripeWebhookEvent.class));
     }
 
+    @Test
+    void handlePaymentIntentSucceeded_holdsReleasedMeanwhileLeaveTheOrderCancelled() {
+        UUID orderId = UUID.randomUUID();
+        Order order = new Order();
+        order.setId(orderId);
+        order.setStatus(Order.OrderStatus.PENDING);
+
+        PaymentIntent paymentIntent = new PaymentIntent();
+        paymentIntent.setId("pi_456");
+        paymentIntent.setMetadata(Map.of("order_id", orderId.toString()));
+
+        // Loaded as pending, but the reaper claimed its holds before the convert ran
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(inventoryHoldService.convert(order)).thenReturn(false);
+
+        stripeWebhookService.handlePaymentIntentSucceeded("evt_456", "payment_intent.succeeded", paymentIntent);
+
+        assertEquals(Order.OrderStatus.CANCELLED, order.getStatus());
+        verify(orderRepository).save(order);
+        verify(webhookEventRepository).save(any(StripeWebhookEvent.class));
+    }
+
+    @Test
+    void handlePaymentIntentFailed_cancelsOrderAndReleasesItsHolds() {
+        UUID orderId = UUID.randomUUID();
+        Order order = new Order();
+        order.setId(orderId);
+        order.setStatus(Order.OrderStatus.PENDING);
+
+        PaymentIntent paymentIntent = new PaymentIntent();
+        paymentIntent.setId("pi_789");
+        paymentIntent.setMetadata(Map.of("order_id", orderId.toString()));
+
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        stripeWebhookService.handlePaymentIntentFailed("evt_789", "payment_intent.payment_failed", paymentIntent);
+
+        assertEquals(Order.OrderStatus.CANCELLED, order.getStatus());
+        verify(inventoryHoldService).releaseOrder(order);
+        verify(orderRepository).save(order);
+    }
+
     @Test
     void handleEvent_skipsWhenAlreadyProcessed() {
         Event event = new Event();
@@ -0,0 +1,96 @@
+package com.orchid.orchid_marketplace.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.orchid.orchid_marketplace.dto.ResourceVersion;
+
+class ConditionalGetTest {
+
+    private final LocalDateTime updatedAt = LocalDateTime.of(2026, 3, 1, 12, 30, 15);
+    private final AtomicInteger bodyLoads = new AtomicInteger();
+    private final MockHttpServletRequest httpRequest = new MockHttpServletRequest("GET", "/api/categories/1");
+    private final MockHttpServletResponse httpResponse = new MockHttpServletResponse();
+
+    @Test
+    void testFirstReadCarriesValidators() {
+        ResourceVersion version = new ResourceVersion(updatedAt);
+
+        ResponseEntity<String> result = respond(version);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("body", result.getBody());
+        assertEquals(version.getETag(), httpResponse.getHeader("ETag"));
+        assertEquals(version.getLastModified() / 1000 * 1000, httpResponse.getDateHeader("Last-Modified"));
+        assertEquals("no-cache, public", result.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void testMatchingETagGetsNotModifiedWithoutLoadingBody() {
+        ResourceVersion version = new ResourceVersion(updatedAt);
+        httpRequest.addHeader("If-None-Match", version.getETag());
+
+        ResponseEntity<String> result = respond(version);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        assertNull(result.getBody());
+        assertEquals(0, bodyLoads.get());
+    }
+
+    @Test
+    void testIfModifiedSinceIsHonouredWithoutETag() {
+        ResourceVersion version = new ResourceVersion(updatedAt);
+        httpRequest.addHeader("If-Modified-Since", version.getLastModified());
+
+        assertEquals(HttpStatus.NOT_MODIFIED, respond(version).getStatusCode());
+
+        MockHttpServletRequest older = new MockHttpServletRequest("GET", "/api/categories/1");
+        older.addHeader("If-Modified-Since", version.getLastModified() - 60_000);
+        ResponseEntity<String> result = ConditionalGet.respond(
+            new ServletWebRequest(older, new MockHttpServletResponse()), Optional.of(version), this::body);
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+    }
+
+    @Test
+    void testBulkUpdatedStoreFieldsChangeTheETag() {
+        ResourceVersion before = new ResourceVersion(updatedAt, 10, new BigDecimal("4.50"));
+
+        assertEquals(before.getETag(), new ResourceVersion(updatedAt, 10, new BigDecimal("4.5")).getETag());
+        assertNotEquals(before.getETag(), new ResourceVersion(updatedAt, 11, new BigDecimal("4.50")).getETag());
+        assertNotEquals(before.getETag(), new ResourceVersion(updatedAt, 10, new BigDecimal("4.60")).getETag());
+        assertNotEquals(before.getETag(), new ResourceVersion(updatedAt.plusNanos(1_000_000), 10, new BigDecimal("4.50")).getETag());
+    }
+
+    @Test
+    void testMissingRowIsNotFoundAndRowWithoutTimestampIsServedUnvalidated() {
+        httpRequest.addHeader("If-None-Match", "*");
+
+        assertEquals(HttpStatus.NOT_FOUND,
+            ConditionalGet.respond(new ServletWebRequest(httpRequest, httpResponse), Optional.empty(), this::body).getStatusCode());
+        assertEquals(0, bodyLoads.get());
+
+        ResponseEntity<String> result = respond(new ResourceVersion(null));
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertNull(httpResponse.getHeader("ETag"));
+    }
+
+    private ResponseEntity<String> respond(ResourceVersion version) {
+        return ConditionalGet.respond(new ServletWebRequest(httpRequest, httpResponse), Optional.of(version), this::body);
+    }
+
+    private Optional<String> body() {
+        bodyLoads.incrementAndGet();
+        return Optional.of("body");
+    }
+}
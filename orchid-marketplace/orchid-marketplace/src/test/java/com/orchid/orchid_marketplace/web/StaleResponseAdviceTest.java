@@ -0,0 +1,53 @@
+package com.orchid.orchid_marketplace.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.orchid.orchid_marketplace.service.cache.StaleReads;
+
+class StaleResponseAdviceTest {
+
+    private final StaleResponseAdvice advice = new StaleResponseAdvice();
+    private final MockHttpServletRequest httpRequest = new MockHttpServletRequest("GET", "/api/products/1");
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testStaleReadIsReportedWithTheStalestAge() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+        StaleReads.record(Duration.ofSeconds(42));
+        StaleReads.record(Duration.ofSeconds(7));
+
+        assertEquals("orchid; hit; ttl=-42", write().getFirst(StaleResponseAdvice.CACHE_STATUS));
+    }
+
+    @Test
+    void testFreshResponseHasNoCacheStatus() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+
+        assertNull(write().getFirst(StaleResponseAdvice.CACHE_STATUS));
+    }
+
+    private HttpHeaders write() {
+        ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+        advice.beforeBodyWrite("body", null, MediaType.APPLICATION_JSON, MappingJackson2HttpMessageConverter.class,
+            new ServletServerHttpRequest(httpRequest), response);
+        return response.getHeaders();
+    }
+}